@@ -0,0 +1,19 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "websocket.attendance-stream")
+@Data
+public class AttendanceStreamConfig {
+    // Marking events for a section are gathered for this long and sent as one delta frame
+    private Duration window = Duration.ofMillis(150);
+    // Section state is dropped after this long without events or snapshot requests
+    private Duration idleTimeout = Duration.ofHours(2);
+    // Upper bound on sections with live state; the least recently used are dropped first
+    private long maximumSections = 10000;
+}
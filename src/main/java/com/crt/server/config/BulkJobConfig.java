@@ -0,0 +1,33 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "bulk-jobs")
+@Data
+public class BulkJobConfig {
+    // Bulk jobs running at once; further submissions wait in the queue
+    private int workers = 2;
+    private int queueCapacity = 100;
+    // Virtual-thread workers without the global spring.threads.virtual.enabled; the pool size still bounds concurrency
+    private boolean virtualThreads = false;
+    // Progress is persisted and pushed to the uploader at most this often
+    private Duration progressInterval = Duration.ofSeconds(1);
+    // Each node refreshes the heartbeat of its unfinished jobs this often; jobs whose
+    // heartbeat is older than staleAfter lost their node and are marked failed
+    private Duration heartbeatInterval = Duration.ofMinutes(1);
+    private Duration staleAfter = Duration.ofMinutes(5);
+    // Finished jobs stay queryable for this long
+    private Duration retention = Duration.ofHours(24);
+    private long maximumJobs = 1000;
+    // Persisted job records (and their results) are purged after this long
+    private Duration historyRetention = Duration.ofDays(30);
+    // Per-job cap on stored row errors
+    private int maxErrors = 500;
+    // Threads hashing generated passwords; defaults to the number of cores
+    private int hashingThreads = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,41 @@
+package com.crt.server.config;
+
+import com.crt.server.service.impl.RedisClusterCoordinator;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cluster")
+@Data
+public class ClusterConfig {
+    // "redis" coordinates leadership, claims and signals across nodes; "local" assumes a single node
+    private String mode = "local";
+    // Prefix of the leader lease, counters and claims kept in Redis
+    private String keyPrefix = "crt:cluster:";
+    // Channel nodes use to tell each other that shared state changed
+    private String signalChannel = "crt:cluster:signals";
+    // A node that stops renewing loses leadership after this long
+    private Duration leaderLease = Duration.ofSeconds(30);
+
+    /**
+     * Subscribes this node to the cluster signal channel
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cluster.mode", havingValue = "redis")
+    public RedisMessageListenerContainer clusterSignalListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            RedisClusterCoordinator redisClusterCoordinator) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(redisClusterCoordinator, new ChannelTopic(signalChannel));
+        return container;
+    }
+}
@@ -0,0 +1,17 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "coalescing")
+@Data
+public class CoalescingConfig {
+    private boolean enabled = true;
+    // How long a completed result is shared with identical follow-up requests
+    private Duration ttl = Duration.ofSeconds(2);
+    private long maximumSize = 1000;
+}
@@ -0,0 +1,17 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "dashboard.stream")
+@Data
+public class DashboardStreamConfig {
+    // At most one dashboard update is pushed per interval, however many writes happen
+    private Duration minInterval = Duration.ofSeconds(2);
+    // Full recount that also picks up changes no write path reports (rooms, faculty, sections)
+    private Duration fullRefresh = Duration.ofMinutes(5);
+}
@@ -0,0 +1,28 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "email.outbox")
+@Data
+public class EmailOutboxConfig {
+    // Start the delivery workers on this server
+    private boolean workersEnabled = true;
+    private int workers = 2;
+    // Messages claimed at once and sent over a single SMTP connection
+    private int batchSize = 50;
+    // Idle workers look for due messages this often
+    private Duration pollInterval = Duration.ofSeconds(2);
+    private int maxAttempts = 6;
+    // Retry delays double from initial-backoff up to max-backoff
+    private Duration initialBackoff = Duration.ofSeconds(30);
+    private Duration maxBackoff = Duration.ofMinutes(30);
+    // Claims older than this belong to a crashed worker and are released
+    private Duration claimTimeout = Duration.ofMinutes(10);
+    // Delivered messages are purged after this long
+    private Duration sentRetention = Duration.ofDays(14);
+}
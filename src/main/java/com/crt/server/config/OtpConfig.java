@@ -0,0 +1,23 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "otp")
+@Data
+public class OtpConfig {
+    // "redis" shares OTPs across instances, "memory" keeps them in a bounded local cache
+    private String store = "redis";
+    private Duration ttl = Duration.ofMinutes(5);
+    private int maxAttempts = 5;
+    private long maximumSize = 10000;
+    // OTP mails go through their own queue so logins never wait on SMTP or bulk mail
+    private int deliveryWorkers = 2;
+    private int deliveryQueueCapacity = 1000;
+    private int deliveryAttempts = 2;
+    private Duration deliveryRetryDelay = Duration.ofSeconds(2);
+}
@@ -0,0 +1,18 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "websocket.presence")
+@Data
+public class PresenceConfig {
+    // "redis" shares presence across nodes, "memory" only sees this node's sessions
+    private String store = "redis";
+    // A user drops offline this long after the last node holding their session stopped refreshing it
+    private Duration ttl = Duration.ofSeconds(90);
+    private Duration refreshInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,70 @@
+package com.crt.server.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitConfig {
+    private boolean enabled = true;
+    // "memory" limits per node, "redis" shares the counters across instances
+    private String store = "memory";
+    // Local bucket cap; idle buckets also expire once their period has passed
+    private long maximumKeys = 100_000;
+    // Read the client IP from X-Forwarded-For, but only for requests arriving from a
+    // trusted proxy; the client is the rightmost address no trusted proxy appended
+    private boolean trustForwardedFor = false;
+    // Addresses or CIDR ranges of the reverse proxies in front of the application
+    private List<String> trustedProxies = new ArrayList<>();
+
+    // Endpoint groups, matched in order; the first group whose paths match applies
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    public RateLimitConfig() {
+        groups.put("login", new Group(List.of("/api/auth/login"), 5, Duration.ofMinutes(1), KeyType.IP));
+        groups.put("otp", new Group(List.of("/api/auth/verify-otp"), 10, Duration.ofMinutes(1), KeyType.IP));
+        // Polled by the login page while the OTP mail is sent, so kept apart from verification
+        groups.put("otp-status", new Group(List.of("/api/auth/otp-status/**"), 60, Duration.ofMinutes(1), KeyType.IP));
+        groups.put("password-reset", new Group(List.of("/api/auth/forgot-password"), 3, Duration.ofHours(1), KeyType.IP));
+        // Only the submissions; job progress, results and batch status are polled
+        groups.put("bulk", new Group(List.of("/api/bulk/**/upload", "/api/bulk/register-students",
+                "/api/students/send-mail-*"), List.of("POST"), 20, Duration.ofMinutes(1), KeyType.USER));
+        groups.put("export", new Group(List.of("/api/**/export/**", "/api/faculty/reports/**"), 30, Duration.ofMinutes(1), KeyType.USER));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Group {
+        // Ant-style path patterns
+        private List<String> paths = List.of();
+        // HTTP methods the group applies to; empty means any
+        private List<String> methods = List.of();
+        private int requests = 60;
+        private Duration period = Duration.ofMinutes(1);
+        // USER falls back to the client IP for anonymous requests
+        private KeyType key = KeyType.USER;
+
+        public Group(List<String> paths, int requests, Duration period, KeyType key) {
+            this(paths, List.of(), requests, period, key);
+        }
+
+        public boolean appliesTo(String method) {
+            return methods.isEmpty() || methods.stream().anyMatch(method::equalsIgnoreCase);
+        }
+    }
+
+    public enum KeyType {
+        IP, USER
+    }
+}
@@ -0,0 +1,27 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "datasource.replica")
+@Data
+public class ReplicaConfig {
+    // Route read-only transactions to the replica below; writes stay on spring.datasource
+    private boolean enabled = false;
+    private String url;
+    // Default to the primary's credentials when blank
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    // Reads fall back to the primary while the replica is further behind than this
+    private Duration maxLag = Duration.ofSeconds(2);
+    // Heartbeat period; also the resolution of the lag measurement
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    // After a write, the same user's reads stay on the primary for this long (0 = same request only)
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    private long maximumStickyUsers = 10000;
+}
@@ -0,0 +1,70 @@
+package com.crt.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split, enabled with datasource.replica.enabled. Replaces Boot's
+ * single pool with a primary pool (spring.datasource), a replica pool and the
+ * router the rest of the application uses.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, ReplicaConfig replicaConfig) {
+        if (!StringUtils.hasText(replicaConfig.getUrl())) {
+            throw new IllegalStateException("datasource.replica.url is required when the replica is enabled");
+        }
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replicaConfig.getUrl());
+        dataSource.setUsername(StringUtils.hasText(replicaConfig.getUsername())
+                ? replicaConfig.getUsername() : dataSourceProperties.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(replicaConfig.getPassword())
+                ? replicaConfig.getPassword() : dataSourceProperties.determinePassword());
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replicaConfig.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start")
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                               ReplicaConfig replicaConfig, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, replicaConfig, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor, ReplicaConfig replicaConfig,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaLagMonitor, replicaConfig, meterRegistry);
+        // Defers the physical connection until the first statement, after the
+        // transaction's read-only flag has been published
+        return new LazyConnectionDataSourceProxy(router);
+    }
+}
@@ -0,0 +1,90 @@
+package com.crt.server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary's copy is stamped every
+ * interval and the replica's copy shows how far behind it is. Works on any
+ * engine, Aurora included, without replication-status privileges. The table is
+ * the ReplicaHeartbeat entity, created on the primary with the rest of the
+ * schema and reaching the replica through replication; until it exists the
+ * checks fail and reads stay on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String UPDATE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaConfig replicaConfig;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Unknown until the first check, so reads start on the primary
+    private volatile long lagMillis = Long.MAX_VALUE;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, ReplicaConfig replicaConfig,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.replicaConfig = replicaConfig;
+        Gauge.builder("crt.datasource.replica.lag", this, monitor -> monitor.lagMillis == Long.MAX_VALUE
+                        ? Double.NaN : monitor.lagMillis / 1000.0)
+                .description("Replica lag in seconds as of the last heartbeat check")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        long interval = replicaConfig.getLagCheckInterval().toMillis();
+        timer.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isReplicaUsable() {
+        return lagMillis <= replicaConfig.getMaxLag().toMillis();
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update(UPDATE_BEAT, now) == 0) {
+                primary.update(INSERT_BEAT, now);
+            }
+        } catch (RuntimeException e) {
+            // The replica's beat ages, so reads move to the primary if this persists
+            log.warn("Replica heartbeat write failed: {}", e.getMessage());
+        }
+
+        try {
+            Long beat = replica.query(SELECT_BEAT, rs -> rs.next() ? rs.getLong(1) : null);
+            lagMillis = beat != null ? Math.max(0, now - beat) : Long.MAX_VALUE;
+        } catch (RuntimeException e) {
+            log.warn("Replica heartbeat read failed, routing reads to the primary: {}", e.getMessage());
+            lagMillis = Long.MAX_VALUE;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
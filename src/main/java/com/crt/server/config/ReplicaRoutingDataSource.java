@@ -0,0 +1,112 @@
+package com.crt.server.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * Reads stay on the primary for the rest of a request that wrote, for the same
+ * user's requests within the sticky window, and whenever the replica lags.
+ * Must sit behind a LazyConnectionDataSourceProxy so the transaction's read-only
+ * flag is known by the time a connection is fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    static final String WROTE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".WROTE";
+
+    private final ReplicaLagMonitor lagMonitor;
+    // Users who wrote recently, so their next page load sees the write
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Counter writeCounter;
+    private final Counter replicaCounter;
+    private final Counter stickyCounter;
+    private final Counter lagCounter;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    ReplicaConfig replicaConfig, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.recentWriters = replicaConfig.getStickyWindow().isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(replicaConfig.getStickyWindow())
+                .maximumSize(replicaConfig.getMaximumStickyUsers())
+                .build();
+
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.writeCounter = routed(meterRegistry, Target.PRIMARY, "write");
+        this.stickyCounter = routed(meterRegistry, Target.PRIMARY, "sticky");
+        this.lagCounter = routed(meterRegistry, Target.PRIMARY, "lag");
+        this.replicaCounter = routed(meterRegistry, Target.REPLICA, "read");
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder("crt.datasource.routed")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .description("Connections handed out by the read/write router")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite();
+            }
+            writeCounter.increment();
+            return Target.PRIMARY;
+        }
+        if (wroteRecently()) {
+            stickyCounter.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            lagCounter.increment();
+            return Target.PRIMARY;
+        }
+        replicaCounter.increment();
+        return Target.REPLICA;
+    }
+
+    private void recordWrite() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        String user = currentUser();
+        if (recentWriters != null && user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    private boolean wroteRecently() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(WROTE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String user = currentUser();
+        return recentWriters != null && user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
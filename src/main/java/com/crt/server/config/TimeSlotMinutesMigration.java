@@ -0,0 +1,91 @@
+package com.crt.server.config;
+
+import com.crt.server.util.TimeOfDay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills time_slots.start_minute/end_minute from the old start_time/end_time
+ * strings. Hibernate adds the new columns but leaves the old ones NOT NULL, so
+ * those are relaxed first; their values are kept so a rollback still has them.
+ * Only rows without minutes are touched, so it is a no-op once done.
+ * <p>
+ * A slot without minutes cannot be scheduled or checked for conflicts, so any
+ * failure here stops startup instead of leaving such rows behind.
+ * <p>
+ * It runs once every singleton exists, so Hibernate has already added the
+ * minute columns, but before the context refresh completes, which is when
+ * scheduled jobs start and the web server accepts requests.
+ */
+@Slf4j
+@Component
+public class TimeSlotMinutesMigration implements SmartInitializingSingleton {
+
+    private static final String STRICT_LEGACY_COLUMNS = "SELECT column_name FROM information_schema.columns "
+            + "WHERE table_schema = DATABASE() AND table_name = 'time_slots' "
+            + "AND column_name IN ('start_time', 'end_time') AND is_nullable = 'NO'";
+    private static final String LEGACY_COLUMN_COUNT = "SELECT COUNT(*) FROM information_schema.columns "
+            + "WHERE table_schema = DATABASE() AND table_name = 'time_slots' AND column_name = 'start_time'";
+    private static final String RELAX_COLUMN = "ALTER TABLE time_slots MODIFY %s VARCHAR(255) NULL";
+    // 00:00-00:00 is never a real slot; it is what a NOT NULL column add leaves behind
+    static final String SELECT_PENDING = "SELECT id, start_time, end_time FROM time_slots "
+            + "WHERE start_time IS NOT NULL AND (start_minute IS NULL OR end_minute IS NULL "
+            + "OR (start_minute = 0 AND end_minute = 0))";
+    static final String UPDATE_MINUTES = "UPDATE time_slots SET start_minute = ?, end_minute = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TimeSlotMinutesMigration(DataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    TimeSlotMinutesMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Integer legacy = jdbcTemplate.queryForObject(LEGACY_COLUMN_COUNT, Integer.class);
+        if (legacy == null || legacy == 0) {
+            return;
+        }
+        // New rows no longer write the string columns
+        for (String column : jdbcTemplate.queryForList(STRICT_LEGACY_COLUMNS, String.class)) {
+            jdbcTemplate.execute(String.format(RELAX_COLUMN, column));
+            log.info("Made time_slots.{} nullable", column);
+        }
+        backfill();
+    }
+
+    private void backfill() {
+        List<Object[]> updates = new ArrayList<>();
+        List<String> unreadable = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(SELECT_PENDING)) {
+            try {
+                updates.add(new Object[]{
+                        TimeOfDay.parseTimetable((String) row.get("start_time")),
+                        TimeOfDay.parseTimetable((String) row.get("end_time")),
+                        row.get("id")});
+            } catch (IllegalArgumentException e) {
+                unreadable.add(row.get("id") + " (" + e.getMessage() + ")");
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_MINUTES, updates);
+            log.info("Backfilled minutes for {} time slots", updates.size());
+        }
+        if (!unreadable.isEmpty()) {
+            throw new IllegalStateException("Time slots with unreadable times need fixing before startup: "
+                    + String.join(", ", unreadable));
+        }
+    }
+}
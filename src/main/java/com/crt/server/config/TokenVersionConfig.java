@@ -0,0 +1,14 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "jwt.token-version")
+@Data
+public class TokenVersionConfig {
+    // "redis" shares revocations across instances, "memory" keeps them in a bounded local cache
+    private String store = "redis";
+    private long maximumSize = 100000;
+}
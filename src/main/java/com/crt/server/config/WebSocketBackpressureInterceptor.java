@@ -0,0 +1,218 @@
+package com.crt.server.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks how many MESSAGE frames each STOMP session has between the client outbound
+ * channel and its socket. When a slow client's backlog exceeds the configured limit
+ * the oldest droppable frame still waiting in the channel is discarded; frames not
+ * marked droppable are always delivered and left to the transport send limits.
+ */
+@Slf4j
+@Component
+public class WebSocketBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    // Set by the frame sender on payloads whose event may be dropped under backlog
+    public static final String DROPPABLE_HEADER = "crtDroppable";
+
+    private static final String MESSAGE_FRAME_PREFIX = "MESSAGE";
+
+    private final WebSocketTransportConfig transportConfig;
+    private final MeterRegistry meterRegistry;
+    private final Counter droppedFrames;
+
+    private final Map<String, SessionBacklog> backlogs = new ConcurrentHashMap<>();
+
+    public WebSocketBackpressureInterceptor(WebSocketTransportConfig transportConfig, MeterRegistry meterRegistry) {
+        this.transportConfig = transportConfig;
+        this.meterRegistry = meterRegistry;
+        this.droppedFrames = Counter.builder("crt.websocket.outbound.dropped")
+                .description("Droppable frames discarded for backlogged sessions")
+                .register(meterRegistry);
+        Gauge.builder("crt.websocket.outbound.pending", this, WebSocketBackpressureInterceptor::getPendingFrames)
+                .description("MESSAGE frames accepted for delivery but not yet written to a socket")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerExecutorGauges(ApplicationReadyEvent event) {
+        registerQueueGauge(event.getApplicationContext(), "clientInboundChannelExecutor", "inbound");
+        registerQueueGauge(event.getApplicationContext(), "clientOutboundChannelExecutor", "outbound");
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        boolean droppable = Boolean.TRUE.equals(message.getHeaders().get(DROPPABLE_HEADER));
+        SessionBacklog backlog = backlogs.computeIfAbsent(sessionId, id -> new SessionBacklog());
+
+        backlog.lock.lock();
+        try {
+            backlog.pending++;
+            if (droppable) {
+                Ticket ticket = new Ticket();
+                backlog.queuedDroppable.addLast(ticket);
+                backlog.tickets.put(message, ticket);
+            }
+            if (backlog.pending <= transportConfig.getMaxPendingFramesPerSession()
+                    || backlog.queuedDroppable.isEmpty()) {
+                return message;
+            }
+
+            Ticket evicted = backlog.queuedDroppable.pollFirst();
+            evicted.cancelled = true;
+            backlog.pending--;
+            droppedFrames.increment();
+            log.debug("Dropping frame for backlogged WebSocket session {}", sessionId);
+
+            if (evicted == backlog.tickets.get(message)) {
+                backlog.tickets.remove(message);
+                return null;
+            }
+            return message;
+        } finally {
+            backlog.lock.unlock();
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionBacklog backlog = sessionId != null ? backlogs.get(sessionId) : null;
+        if (backlog == null) {
+            return message;
+        }
+
+        backlog.lock.lock();
+        try {
+            Ticket ticket = backlog.tickets.remove(message);
+            if (ticket == null) {
+                return message;
+            }
+            if (ticket.cancelled) {
+                return null;
+            }
+            // Past this point the frame is handed to the session and can no longer be dropped
+            backlog.queuedDroppable.remove(ticket);
+            return message;
+        } finally {
+            backlog.lock.unlock();
+        }
+    }
+
+    /**
+     * Wraps the STOMP handler so frames are counted off when they reach the socket
+     * and a session's backlog is discarded when it disconnects
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(new CountingSession(session));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                backlogs.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    public int getPendingFrames() {
+        int total = 0;
+        for (SessionBacklog backlog : backlogs.values()) {
+            total += backlog.pending;
+        }
+        return total;
+    }
+
+    public double getDroppedFrames() {
+        return droppedFrames.count();
+    }
+
+    private void frameWritten(String sessionId) {
+        SessionBacklog backlog = backlogs.get(sessionId);
+        if (backlog == null) {
+            return;
+        }
+        backlog.lock.lock();
+        try {
+            backlog.pending = Math.max(0, backlog.pending - 1);
+        } finally {
+            backlog.lock.unlock();
+        }
+    }
+
+    private void registerQueueGauge(ApplicationContext context, String beanName, String channel) {
+        if (context.containsBean(beanName) && context.getBean(beanName) instanceof ThreadPoolTaskExecutor executor) {
+            Gauge.builder("crt.websocket.executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                    .description("Tasks waiting in the STOMP channel executor")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static class SessionBacklog {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Broker frames are left mutable without an id, so they are tracked by identity
+        private final Map<Message<?>, Ticket> tickets = new IdentityHashMap<>();
+        private final Deque<Ticket> queuedDroppable = new ArrayDeque<>();
+        private int pending;
+    }
+
+    private static class Ticket {
+        private boolean cancelled;
+    }
+
+    private class CountingSession extends WebSocketSessionDecorator {
+
+        CountingSession(WebSocketSession session) {
+            super(session);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (message instanceof TextMessage text && text.getPayload().startsWith(MESSAGE_FRAME_PREFIX)) {
+                    frameWritten(getId());
+                }
+            }
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.crt.server.config;
 
+import com.crt.server.service.impl.RedisWebSocketFanout;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketTransportConfig transportConfig;
+    private final WebSocketBackpressureInterceptor backpressureInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple memory-based message broker
@@ -25,6 +41,58 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Bound what a stalled client can hold: slow writes or a full buffer close the session
+        registration.setSendTimeLimit((int) transportConfig.getSendTimeLimit().toMillis())
+                .setSendBufferSizeLimit(transportConfig.getSendBufferSizeLimit())
+                .setMessageSizeLimit(transportConfig.getMessageSizeLimit())
+                .addDecoratorFactory(backpressureInterceptor::decorate);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("clientInboundChannel-"))
+                .corePoolSize(transportConfig.getInboundPoolSize())
+                .maxPoolSize(transportConfig.getInboundPoolSize())
+                .queueCapacity(transportConfig.getQueueCapacity());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("clientOutboundChannel-"))
+                .corePoolSize(transportConfig.getOutboundPoolSize())
+                .maxPoolSize(transportConfig.getOutboundPoolSize())
+                .queueCapacity(transportConfig.getQueueCapacity());
+        registration.interceptors(backpressureInterceptor);
+    }
+
+    // Once the bounded queue is full the submitting thread runs the task itself, which
+    // slows the reading socket (inbound) or the producing broker thread (outbound)
+    // instead of growing the queue without limit
+    private ThreadPoolTaskExecutor channelExecutor(String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Subscribes this node to the shared fan-out channel so messages produced on
+     * other instances reach clients connected here
+     */
+    @Bean
+    @ConditionalOnProperty(name = "websocket.fanout.mode", havingValue = "redis")
+    public RedisMessageListenerContainer webSocketFanoutListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            RedisWebSocketFanout redisWebSocketFanout,
+            WebSocketFanoutConfig fanoutConfig) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(redisWebSocketFanout, new ChannelTopic(fanoutConfig.getChannel()));
+        return container;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Register STOMP endpoint with SockJS fallback
@@ -0,0 +1,21 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+@ConfigurationProperties(prefix = "websocket.fanout")
+@Data
+public class WebSocketFanoutConfig {
+    // "local" delivers to this node's broker only, "redis" republishes to every node
+    private String mode = "local";
+    private String channel = "crt:websocket:fanout";
+    private String nodeId = UUID.randomUUID().toString();
+    // How long a node remembers delivered message ids to drop duplicates
+    private Duration dedupeWindow = Duration.ofMinutes(1);
+    private long dedupeMaximumSize = 100000;
+}
@@ -0,0 +1,38 @@
+package com.crt.server.config;
+
+import com.crt.server.service.PresenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+
+/**
+ * Feeds STOMP connect and disconnect events into the presence registry. Presence is
+ * only ever keyed by the authenticated principal's name (the username), the same name
+ * Spring resolves {@code /user} destinations by, so every per-user send can be checked
+ * against it.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketPresenceListener {
+
+    private final PresenceService presenceService;
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user != null && sessionId != null) {
+            presenceService.sessionConnected(sessionId, user.getName());
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        presenceService.sessionDisconnected(event.getSessionId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.crt.server.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "websocket.transport")
+@Data
+public class WebSocketTransportConfig {
+    // A session whose socket write takes longer than this, or whose send buffer
+    // exceeds the limit, is closed instead of holding a broker thread
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+    private int sendBufferSizeLimit = 256 * 1024;
+    private int messageSizeLimit = 64 * 1024;
+
+    // Frames queued for one session before the oldest droppable frame is discarded
+    private int maxPendingFramesPerSession = 50;
+
+    private int inboundPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+    private int outboundPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+    // Per channel executor; a full queue makes the submitting thread run the task
+    private int queueCapacity = 10_000;
+
+    // Non-critical events that may be dropped for a backlogged session; everything else,
+    // e.g. faculty session started/ended, is always delivered. Delta streams belong here
+    // only if clients can resync after a gap: attendance deltas can (snapshot on a
+    // sequence gap), dashboard_updated deltas cannot, so they are always delivered
+    private List<String> droppableEvents = new ArrayList<>(List.of(
+            "attendance_delta",
+            "attendance_stats_updated",
+            "user_joined_session",
+            "admin_connected",
+            "pong"
+    ));
+}
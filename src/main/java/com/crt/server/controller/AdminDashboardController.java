@@ -3,7 +3,8 @@ package com.crt.server.controller;
 import com.crt.server.dto.ActivityLogDTO;
 import com.crt.server.dto.DashboardMetricsDTO;
 import com.crt.server.service.ActivityLogService;
-import com.crt.server.service.DashboardService;
+import com.crt.server.service.AdminDashboardStreamService;
+import com.crt.server.service.PresenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -19,13 +22,15 @@ import java.util.List;
 @PreAuthorize("hasAuthority('ADMIN')")
 public class AdminDashboardController {
 
-    private final DashboardService dashboardService;
+    private final AdminDashboardStreamService adminDashboardStreamService;
     private final ActivityLogService activityLogService;
+    private final PresenceService presenceService;
 
     @GetMapping("/metrics")
     public ResponseEntity<DashboardMetricsDTO> getDashboardMetrics() {
         log.info("Admin dashboard metrics requested");
-        DashboardMetricsDTO metrics = dashboardService.getDashboardMetrics();
+        // Served from the live dashboard model; updates are pushed on /topic/admin_dashboard
+        DashboardMetricsDTO metrics = adminDashboardStreamService.getMetrics();
         return ResponseEntity.ok(metrics);
     }
 
@@ -47,4 +52,12 @@ public class AdminDashboardController {
         List<ActivityLogDTO> recentActions = activityLogService.getRecentActivities();
         return ResponseEntity.ok(recentActions);
     }
+
+    @GetMapping("/online-users")
+    public ResponseEntity<Map<String, Object>> getOnlineUsers() {
+        Set<String> onlineUsers = presenceService.getOnlineUsers();
+        return ResponseEntity.ok(Map.of(
+                "count", onlineUsers.size(),
+                "users", onlineUsers));
+    }
 }
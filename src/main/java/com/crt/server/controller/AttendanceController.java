@@ -2,6 +2,7 @@ package com.crt.server.controller;
 
 import com.crt.server.dto.*;
 import com.crt.server.service.AttendanceService;
+import com.crt.server.service.RequestCoalescingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +31,9 @@ public class AttendanceController {
     @Autowired
     private AttendanceService attendanceService;
 
+    @Autowired
+    private RequestCoalescingService requestCoalescingService;
+
     @PostMapping("/mark")
     public ResponseEntity<List<AttendanceDTO>> markAttendance(@Valid @RequestBody MarkAttendanceDTO markAttendanceDTO) {
         log.info("Marking attendance for: {}", markAttendanceDTO);
@@ -222,7 +226,9 @@ public class AttendanceController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime) {
         log.info("Filtering time slots for date: {}, startTime: {}, endTime: {}", date, startTime, endTime);
-        return ResponseEntity.ok(attendanceService.getTimeSlotsByDayAndTime(date, startTime, endTime));
+        return ResponseEntity.ok(requestCoalescingService.coalesce("time-slots-filter",
+                coalescingKey(date, startTime, endTime),
+                () -> attendanceService.getTimeSlotsByDayAndTime(date, startTime, endTime)));
     }
 
     @GetMapping("/time-slots/pending")
@@ -233,7 +239,19 @@ public class AttendanceController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime) {
         log.info("Filtering time slots for date: {}, startTime: {}, endTime: {}", date, startTime, endTime);
 
-        return ResponseEntity.ok(attendanceService.getPendingAttendanceTimeSlots(date, startTime, endTime));
+        return ResponseEntity.ok(requestCoalescingService.coalesce("time-slots-pending",
+                coalescingKey(date, startTime, endTime),
+                () -> attendanceService.getPendingAttendanceTimeSlots(date, startTime, endTime)));
+    }
+
+    /**
+     * Built from exactly the values the query filters on, so only requests that
+     * would compute the same result share one computation
+     */
+    private String coalescingKey(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        return date + "|"
+                + (startTime != null ? startTime : "*") + "|"
+                + (endTime != null ? endTime : "*");
     }
 
 
@@ -2,9 +2,10 @@ package com.crt.server.controller;
 
 import com.crt.server.dto.AuthRequestDTO;
 import com.crt.server.dto.AuthResponseDTO;
+import com.crt.server.dto.OtpDeliveryStatusDTO;
 import com.crt.server.exception.ErrorResponse;
-import com.crt.server.security.RateLimitService;
 import com.crt.server.service.AuthService;
+import com.crt.server.service.OtpMailQueue;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +14,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 
 @RestController
@@ -26,44 +26,21 @@ public class AuthController {
     @Autowired
     private com.crt.server.security.CookieService cookieService;
     @Autowired
-    private RateLimitService rateLimitService;
+    private OtpMailQueue otpMailQueue;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody AuthRequestDTO loginRequest, HttpServletRequest request) {
-        String clientIp = getClientIp(request);
-        
-        // Rate limit: 5 login attempts per minute per IP
-        if (!rateLimitService.isAllowed("login:" + clientIp, 5, Duration.ofMinutes(1))) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(429)
-                    .error("Too Many Requests")
-                    .message("Too many login attempts. Please try again later.")
-                    .path("/api/auth/login")
-                    .build());
-        }
-        
         return ResponseEntity.ok(authService.login(loginRequest));
     }
 
+    @GetMapping("/otp-status/{dispatchId}")
+    public ResponseEntity<OtpDeliveryStatusDTO> getOtpStatus(@PathVariable String dispatchId) {
+        return ResponseEntity.ok(otpMailQueue.getStatus(dispatchId));
+    }
+
     @PostMapping("/verify-otp")
     public ResponseEntity<?> verifyOTP(@RequestBody AuthRequestDTO otpVerification, 
                                       HttpServletResponse response, HttpServletRequest request) {
-        String clientIp = getClientIp(request);
-        
-        // Rate limit: 10 OTP attempts per minute per IP
-        if (!rateLimitService.isAllowed("otp:" + clientIp, 10, Duration.ofMinutes(1))) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(429)
-                    .error("Too Many Requests")
-                    .message("Too many OTP attempts. Please try again later.")
-                    .path("/api/auth/verify-otp")
-                    .build());
-        }
-        
         return ResponseEntity.ok(authService.verifyOTP(otpVerification, response));
     }
 
@@ -85,20 +62,6 @@ public class AuthController {
 
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@RequestParam String email, HttpServletRequest request) {
-        String clientIp = getClientIp(request);
-        
-        // Rate limit: 3 password reset attempts per hour per IP
-        if (!rateLimitService.isAllowed("reset:" + clientIp, 3, Duration.ofHours(1))) {
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(429)
-                    .error("Too Many Requests")
-                    .message("Too many password reset attempts. Please try again later.")
-                    .path("/api/auth/forgot-password")
-                    .build());
-        }
-        
         return ResponseEntity.ok(authService.forgotPassword(email));
     }
 
@@ -107,12 +70,4 @@ public class AuthController {
         authService.logout(request, response);
         return ResponseEntity.noContent().build();
     }
-    
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
 }
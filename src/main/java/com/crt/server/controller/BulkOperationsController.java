@@ -6,6 +6,7 @@ import com.crt.server.service.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.UserDatabase;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,8 +19,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bulk")
@@ -49,151 +54,113 @@ public class BulkOperationsController {
     @Autowired
     private TimeSlotService timeSlotService;
 
+    @Autowired
+    private BulkJobService bulkJobService;
+
     @PostMapping(value = "/students/upload", consumes = "multipart/form-data")
-    public ResponseEntity<?> bulkUploadStudents(@RequestParam("file") MultipartFile file) {
-        try {
-            List<StudentDTO> uploadedStudents = studentService.bulkCreateStudents(file);
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body("Processed " + uploadedStudents.size() + " students");
-        } catch (Exception e) {
-            log.error("Error in bulk student upload: {}", e.getMessage());
-            ErrorResponse error = ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                    .message(e.getMessage())
-                    .path("/api/bulk/students/upload")
-                    .build();
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(error);
-        }
+    public ResponseEntity<?> bulkUploadStudents(@RequestParam("file") MultipartFile file, Principal principal) {
+        return submitUpload("STUDENT_IMPORT", file, principal, "/api/bulk/students/upload", (upload, progress) -> {
+            StudentImportReportDTO report = studentService.bulkCreateStudents(upload);
+            progress.setTotal(report.getTotalRows());
+            progress.succeeded(report.getCreated());
+            report.getRows().stream()
+                    .filter(row -> row.getStatus() != StudentImportReportDTO.RowStatus.CREATED)
+                    .forEach(row -> progress.failed("Row " + row.getRowNumber() + ": " + row.getReason()));
+            return report;
+        });
     }
 
     @PostMapping(value = "/simple-room/upload", consumes = "multipart/form-data")
-    public ResponseEntity<?> bulkCreateRoomsSimple(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> bulkCreateRoomsSimple(@RequestParam("file") MultipartFile file, Principal principal) {
         log.info("Bulk creating rooms from simple format file: {}", file.getOriginalFilename());
-        try {
-            List<RoomDTO> createdRooms = roomService.bulkCreateRoomsFromSimpleFormat(file);
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body("Processed " + createdRooms.size() + " rooms");
-        } catch (Exception e) {
-            log.error("Error in bulk room creation from simple format: {}", e.getMessage());
-            ErrorResponse error = ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                    .message(e.getMessage())
-                    .path("/api/bulk/simple-room/upload")
-                    .build();
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(error);
-        }
+        return submitUpload("ROOM_IMPORT", file, principal, "/api/bulk/simple-room/upload", (upload, progress) -> {
+            List<RoomDTO> createdRooms = roomService.bulkCreateRoomsFromSimpleFormat(upload);
+            progress.succeeded(createdRooms.size());
+            return createdRooms;
+        });
     }
 
     @PostMapping(value = "/Trainings/upload", consumes = "multipart/form-data")
-    public ResponseEntity<?> bulkUploadTrainings(@RequestParam("file") MultipartFile file) {
-        try {
-            List<TrainingDTO> uploadedTrainings = TrainingService.bulkCreateTrainings(file);
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body("Processed " + uploadedTrainings.size() + " Trainings");
-        } catch (Exception e) {
-            log.error("Error in bulk Training upload: {}", e.getMessage());
-            ErrorResponse error = ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                    .message(e.getMessage())
-                    .path("/api/bulk/Trainings/upload")
-                    .build();
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(error);
-        }
+    public ResponseEntity<?> bulkUploadTrainings(@RequestParam("file") MultipartFile file, Principal principal) {
+        return submitUpload("TRAINING_IMPORT", file, principal, "/api/bulk/Trainings/upload", (upload, progress) -> {
+            List<TrainingDTO> uploadedTrainings = TrainingService.bulkCreateTrainings(upload);
+            progress.succeeded(uploadedTrainings.size());
+            return uploadedTrainings;
+        });
     }
 
     @PostMapping(value = "/section/upload", consumes = "multipart/form-data")
-    public ResponseEntity<?> bulkUploadSections(@RequestParam("file") MultipartFile file) {
-        try {
-            List<SectionDTO> uploadedSections = sectionService.bulkCreateSections(file);
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body("Processed " + uploadedSections.size() + " sections");
-        } catch (Exception e) {
-            log.error("Error in bulk Training upload: {}", e.getMessage());
-            ErrorResponse error = ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                    .message(e.getMessage())
-                    .path("/api/bulk/section/upload")
-                    .build();
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(error);
-        }
+    public ResponseEntity<?> bulkUploadSections(@RequestParam("file") MultipartFile file, Principal principal) {
+        return submitUpload("SECTION_IMPORT", file, principal, "/api/bulk/section/upload", (upload, progress) -> {
+            List<SectionDTO> uploadedSections = sectionService.bulkCreateSections(upload);
+            progress.succeeded(uploadedSections.size());
+            return uploadedSections;
+        });
     }
 
     @PostMapping(value = "/register-students", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> registerStudentsToSections(@RequestParam("file") MultipartFile file) {
-
-        try {
-            List<SectionDTO> sections = sectionService.bulkRegisterStudentsToSections(file);
-            StringBuilder res = new StringBuilder();
+    public ResponseEntity<?> registerStudentsToSections(@RequestParam("file") MultipartFile file, Principal principal) {
+        return submitUpload("SECTION_REGISTRATION", file, principal, "/api/bulk/register-students", (upload, progress) -> {
+            List<SectionDTO> sections = sectionService.bulkRegisterStudentsToSections(upload);
+            // Registered student count per section
+            Map<String, Integer> registrations = new LinkedHashMap<>();
             for (SectionDTO section : sections) {
-                res.append(section.getName()).append(" : ").append(section.getStudents().size());
-                res.append("\n");
+                registrations.put(section.getName(), section.getStudents().size());
             }
-            return ResponseEntity
-                    .status(HttpStatus.OK)
-                    .body("Registration info: " + res);
-        } catch (Exception e) {
-            log.error("Error in bulk student registration: {}", e.getMessage());
-            ErrorResponse error = ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                    .message(e.getMessage())
-                    .path("/api/bulk/register-students")
-                    .build();
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(error);
-        }
+            progress.succeeded(sections.size());
+            return registrations;
+        });
     }
 
     @PostMapping(value = "/faculties", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<?> addBulkFaculties(
             @RequestParam("file") MultipartFile file) throws Exception {
-        List<UserDTO> response = userService.bulkUploadFacs(file);
-        return ResponseEntity.ok("Processed" + response.size() + " Faculties");
+        BulkJobDTO job = userService.startFacultyOnboarding(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
     }
 
     @PostMapping(value = "/timetable/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<?> bulkUploadTimetable(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> bulkUploadTimetable(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun,
+            Principal principal) {
+        String type = dryRun ? "TIMETABLE_DRY_RUN" : "TIMETABLE_IMPORT";
+        return submitUpload(type, file, principal, "/api/bulk/timetable/upload", (upload, progress) -> {
+            TimetableUploadResponseDTO response = timeSlotService.bulkCreateTimetable(upload, dryRun);
+            progress.succeeded(response.getProcessedSections());
+            if (response.getErrors() != null) {
+                response.getErrors().forEach(progress::failed);
+            }
+            return response;
+        });
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BulkJobDTO> getBulkJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bulkJobService.getJob(jobId));
+    }
+
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseEntity<?> cancelBulkJob(@PathVariable String jobId) {
         try {
-            TimetableUploadResponseDTO response = timeSlotService.bulkCreateTimetable(file);
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body(response);
-        } catch (Exception e) {
-            log.error("Error in bulk timetable upload: {}", e.getMessage());
-            ErrorResponse error = ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(HttpStatus.BAD_REQUEST.value())
-                    .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
-                    .message(e.getMessage())
-                    .path("/api/bulk/timetable/upload")
-                    .build();
-            return ResponseEntity
-                    .status(HttpStatus.BAD_REQUEST)
-                    .body(error);
+            return ResponseEntity.ok(bulkJobService.cancel(jobId));
+        } catch (IllegalStateException e) {
+            return conflict(e, "/api/bulk/jobs/" + jobId + "/cancel");
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}/result")
+    public ResponseEntity<?> downloadBulkJobResult(@PathVariable String jobId) {
+        try {
+            Object result = bulkJobService.getResult(jobId);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + jobId + "-result.json\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(result);
+        } catch (IllegalStateException e) {
+            return conflict(e, "/api/bulk/jobs/" + jobId + "/result");
         }
     }
 
@@ -218,4 +185,38 @@ public class BulkOperationsController {
                     .body(error);
         }
     }
+
+    /**
+     * Queue an upload as a background job and answer with its id right away
+     */
+    private ResponseEntity<?> submitUpload(String type, MultipartFile file, Principal principal, String path,
+                                           BulkJobService.UploadJob job) {
+        try {
+            BulkJobDTO submitted = bulkJobService.submitUpload(type, principal.getName(), file, job);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(submitted);
+        } catch (IllegalStateException e) {
+            log.warn("Rejected {} upload: {}", type, e.getMessage());
+            return error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), path);
+        } catch (IOException e) {
+            log.error("Error spooling {} upload: {}", type, e.getMessage());
+            return error(HttpStatus.BAD_REQUEST, e.getMessage(), path);
+        }
+    }
+
+    private ResponseEntity<ErrorResponse> conflict(IllegalStateException e, String path) {
+        return error(HttpStatus.CONFLICT, e.getMessage(), path);
+    }
+
+    private ResponseEntity<ErrorResponse> error(HttpStatus status, String message, String path) {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(path)
+                .build();
+        return ResponseEntity
+                .status(status)
+                .body(error);
+    }
 }
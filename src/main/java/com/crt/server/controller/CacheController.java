@@ -1,5 +1,6 @@
 package com.crt.server.controller;
 
+import com.crt.server.service.RequestCoalescingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
@@ -19,6 +20,7 @@ import java.util.Map;
 public class CacheController {
 
     private final CacheManager cacheManager;
+    private final RequestCoalescingService requestCoalescingService;
 
     @GetMapping("/info")
     public ResponseEntity<Map<String, Object>> getCacheInfo() {
@@ -58,6 +60,14 @@ public class CacheController {
         return ResponseEntity.ok(cacheInfo);
     }
 
+    @GetMapping("/coalescing")
+    public ResponseEntity<Map<String, Object>> getCoalescingInfo() {
+        Map<String, Object> coalescingInfo = new HashMap<>();
+        coalescingInfo.put("collapsedRequests", requestCoalescingService.getCollapsedCounts());
+        coalescingInfo.put("executedRequests", requestCoalescingService.getExecutedCounts());
+        return ResponseEntity.ok(coalescingInfo);
+    }
+
     @PostMapping("/clear/{cacheName}")
     public ResponseEntity<String> clearCache(@PathVariable String cacheName) {
         var cache = cacheManager.getCache(cacheName);
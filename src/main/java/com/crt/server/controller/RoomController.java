@@ -2,17 +2,20 @@ package com.crt.server.controller;
 
 import com.crt.server.dto.RoomDTO;
 import com.crt.server.service.RoomService;
+import com.crt.server.util.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -25,6 +28,9 @@ public class RoomController {
     @Autowired
     private RoomService roomService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(summary = "Create a new room")
     @PostMapping
     public ResponseEntity<RoomDTO> createRoom(@Valid @RequestBody RoomDTO roomDTO) {
@@ -41,9 +47,11 @@ public class RoomController {
 
     @Operation(summary = "Get all rooms")
     @GetMapping
-    public ResponseEntity<List<RoomDTO>> getAllRooms() {
+    public ResponseEntity<StreamingResponseBody> getAllRooms() {
         log.info("Fetching all rooms");
-        return ResponseEntity.ok(roomService.getAllRooms());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, roomService.getAllRooms()));
     }
 
     @Operation(summary = "Update room by ID")
@@ -5,6 +5,8 @@ import com.crt.server.dto.SectionDTO;
 import com.crt.server.exception.ErrorResponse;
 import com.crt.server.service.CsvService;
 import com.crt.server.service.SectionService;
+import com.crt.server.util.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,6 +14,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +31,9 @@ public class SectionController {
     @Autowired
     private CsvService csvService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<SectionDTO> createSection(@RequestBody CreateSectionDTO createSectionDTO) {
         log.info("Creating section: {}", createSectionDTO);
@@ -40,8 +46,10 @@ public class SectionController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SectionDTO>> getAllSections() {
-        return ResponseEntity.ok(sectionService.getAllSections());
+    public ResponseEntity<StreamingResponseBody> getAllSections() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, sectionService.getAllSections()));
     }
 
     @PutMapping("/{sectionId}")
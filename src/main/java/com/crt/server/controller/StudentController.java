@@ -2,14 +2,20 @@ package com.crt.server.controller;
 
 import com.crt.server.dto.*;
 import com.crt.server.exception.ErrorResponse;
-import com.crt.server.service.EmailService;
+import com.crt.server.service.EmailOutboxService;
+import com.crt.server.service.MailMergeService;
 import com.crt.server.service.StudentService;
+import com.crt.server.util.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,7 +30,13 @@ public class StudentController {
     private StudentService studentService;
     
     @Autowired
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private MailMergeService mailMergeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<?> createStudent(@RequestBody StudentDTO studentDTO) {
@@ -63,8 +75,10 @@ public class StudentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<StudentDTO>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<StreamingResponseBody> getAllStudents() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, studentService.getAllStudents()));
     }
     
     @GetMapping("/paginated")
@@ -164,13 +178,34 @@ public class StudentController {
     @PostMapping("/send-mail-in-bulk")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<BulkEmailResponseDTO> sendMailInBulk(@RequestBody BulkEmailRequestDTO request) {
-        int sentCount = emailService.sendBulkEmail(request.getSubject(), request.getBody(), request.getEmailIds());
-        
+        String batchId = emailOutboxService.enqueueBatch(request.getSubject(), request.getBody(), request.getEmailIds());
+
         BulkEmailResponseDTO response = BulkEmailResponseDTO.builder()
-                .message("Mail has been sent to " + sentCount + " students.")
+                .message("Mail has been queued for " + request.getEmailIds().size() + " students.")
                 .content(request.getBody())
+                .batchId(batchId)
                 .build();
-        
-        return ResponseEntity.ok(response);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @PostMapping("/send-mail-merge")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkEmailResponseDTO> sendMailMerge(@Valid @RequestBody MailMergeRequestDTO request) {
+        String batchId = mailMergeService.sendMerge(request);
+
+        BulkEmailResponseDTO response = BulkEmailResponseDTO.builder()
+                .message("Mail merge has been queued.")
+                .content(request.getBody())
+                .batchId(batchId)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/send-mail-in-bulk/{batchId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<EmailBatchStatusDTO> getMailBatchStatus(@PathVariable String batchId) {
+        return ResponseEntity.ok(emailOutboxService.getBatchStatus(batchId));
     }
 }
@@ -55,31 +55,31 @@ public class TestController {
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/websocket/{facultyId}")
-    public ResponseEntity<Map<String, Object>> testWebSocket(@PathVariable String facultyId) {
-        log.info("Testing WebSocket for faculty: {}", facultyId);
+    @GetMapping("/websocket/{username}")
+    public ResponseEntity<Map<String, Object>> testWebSocket(@PathVariable String username) {
+        log.info("Testing WebSocket for faculty: {}", username);
         
         try {
             // Test sending a message via WebSocket
-            webSocketService.sendToUser(facultyId, "test_message", 
+            webSocketService.sendToUser(username, "test_message", 
                 Map.of("message", "Test message from REST endpoint", 
-                       "facultyId", facultyId,
+                       "username", username,
                        "timestamp", System.currentTimeMillis()));
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "success");
             response.put("message", "WebSocket test message sent");
-            response.put("facultyId", facultyId);
+            response.put("username", username);
             response.put("timestamp", LocalDateTime.now());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            log.error("WebSocket test failed for faculty {}: {}", facultyId, e.getMessage());
+            log.error("WebSocket test failed for faculty {}: {}", username, e.getMessage());
             
             Map<String, Object> response = new HashMap<>();
             response.put("status", "error");
             response.put("message", "WebSocket test failed: " + e.getMessage());
-            response.put("facultyId", facultyId);
+            response.put("username", username);
             
             return ResponseEntity.status(500).body(response);
         }
@@ -4,12 +4,16 @@ import com.crt.server.dto.PagedResponseDTO;
 import com.crt.server.dto.UserDTO;
 import com.crt.server.exception.ErrorResponse;
 import com.crt.server.service.UserService;
+import com.crt.server.util.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +29,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<?> createUser(@RequestBody UserDTO createUserDTO) {
         try {
@@ -72,24 +79,10 @@ public class UserController {
 
 
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
-        try {
-            List<UserDTO> response = userService.getAllUsers();
-            return ResponseEntity
-                    .status(HttpStatus.OK)
-                    .body(response);
-        } catch (Exception e) {
-            ErrorResponse error = ErrorResponse.builder()
-                    .timestamp(LocalDateTime.now())
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                    .error(HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase())
-                    .message("Failed to retrieve users: " + e.getMessage())
-                    .path("/api/users")
-                    .build();
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(error);
-        }
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(JsonArrayStream.of(objectMapper, userService.getAllUsers()));
     }
     
     @GetMapping("/paginated")
@@ -1,18 +1,29 @@
 package com.crt.server.controller;
 
+import com.crt.server.dto.websocket.AttendanceDeltaEvent;
+import com.crt.server.dto.websocket.DashboardUpdateEvent;
+import com.crt.server.model.Role;
+import com.crt.server.repository.TimeSlotRepository;
+import com.crt.server.security.JwtPrincipal;
+import com.crt.server.service.AdminDashboardStreamService;
+import com.crt.server.service.AttendanceStreamService;
+import com.crt.server.service.PresenceService;
 import com.crt.server.service.WebSocketService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
 import java.security.Principal;
 import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @Controller
@@ -20,6 +31,10 @@ import java.util.Map;
 public class WebSocketController {
 
     private final WebSocketService webSocketService;
+    private final AttendanceStreamService attendanceStreamService;
+    private final AdminDashboardStreamService adminDashboardStreamService;
+    private final PresenceService presenceService;
+    private final TimeSlotRepository timeSlotRepository;
 
     /**
      * Handle faculty joining their personal room
@@ -29,10 +44,10 @@ public class WebSocketController {
         String facultyId = payload.get("facultyId");
         log.info("Faculty {} joined their personal room (Principal: {})", facultyId, 
                  principal != null ? principal.getName() : "null");
-        
+
         try {
-            // Send welcome message
-            webSocketService.sendToUser(facultyId, "connection_established", 
+            // Send welcome message to the joining session's user
+            webSocketService.sendToUser(principal.getName(), "connection_established", 
                 Map.of("message", "Connected to faculty room", 
                        "facultyId", facultyId,
                        "timestamp", System.currentTimeMillis()));
@@ -53,7 +68,7 @@ public class WebSocketController {
         
         try {
             // Send current session status if any
-            webSocketService.sendToUser(facultyId, "subscription_confirmed", 
+            webSocketService.sendToUser(principal.getName(), "subscription_confirmed", 
                 Map.of("message", "Subscribed to session updates", 
                        "facultyId", facultyId,
                        "timestamp", System.currentTimeMillis()));
@@ -77,6 +92,40 @@ public class WebSocketController {
             Map.of("sessionId", sessionId, "user", principal.getName()));
     }
 
+    /**
+     * Send the full live attendance state of a section to the requesting user,
+     * used by clients that detected a gap in delta sequence numbers
+     */
+    @MessageMapping("/attendance/snapshot")
+    public void requestAttendanceSnapshot(@Payload Map<String, String> payload, Principal principal) {
+        UUID sectionId;
+        try {
+            sectionId = UUID.fromString(payload.get("sectionId"));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Ignoring attendance snapshot request with section id {}", payload.get("sectionId"));
+            return;
+        }
+        if (!canViewSection(principal, sectionId)) {
+            throw new AccessDeniedException("You don't have permission to view this section");
+        }
+        log.debug("Attendance snapshot requested for section {}", sectionId);
+
+        webSocketService.sendToUser(principal.getName(), AttendanceDeltaEvent.ATTENDANCE_SNAPSHOT,
+            attendanceStreamService.snapshot(sectionId.toString()));
+    }
+
+    // Admins see every section, faculty only the sections they teach
+    private boolean canViewSection(Principal principal, UUID sectionId) {
+        if (!(principal instanceof Authentication authentication)
+                || !(authentication.getPrincipal() instanceof JwtPrincipal user)) {
+            return false;
+        }
+        if (Role.ADMIN.name().equals(user.role())) {
+            return true;
+        }
+        return timeSlotRepository.existsBySectionIdAndInchargeFacultyId(sectionId, user.id());
+    }
+
     /**
      * Handle admin dashboard subscription
      */
@@ -86,6 +135,10 @@ public class WebSocketController {
         
         webSocketService.sendToTopic("admin_dashboard", "admin_connected", 
             Map.of("admin", principal.getName(), "timestamp", System.currentTimeMillis()));
+
+        // Current state to build on; later frames on the topic only carry changes
+        webSocketService.sendToUser(principal.getName(), DashboardUpdateEvent.DASHBOARD_SNAPSHOT,
+            adminDashboardStreamService.snapshot());
     }
 
     /**
@@ -100,9 +153,14 @@ public class WebSocketController {
      * Handle heartbeat/ping messages
      */
     @MessageMapping("/ping")
-    public void handlePing(@Payload Map<String, Object> payload, Principal principal) {
+    public void handlePing(@Payload Map<String, Object> payload, Principal principal,
+                           SimpMessageHeaderAccessor headerAccessor) {
         String userId = principal.getName();
         log.debug("Received ping from user: {}", userId);
+
+        if (headerAccessor.getSessionId() != null) {
+            presenceService.touch(headerAccessor.getSessionId());
+        }
         
         webSocketService.sendToUser(userId, "pong", 
             Map.of("timestamp", System.currentTimeMillis(), "status", "alive"));
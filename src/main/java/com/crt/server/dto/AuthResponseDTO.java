@@ -15,5 +15,7 @@ public class AuthResponseDTO {
     private String refreshToken;
     private Object user;
     private Boolean isFirstLogin;
+    // Poll GET /api/auth/otp-status/{id} to learn whether the OTP mail went out
+    private String otpDispatchId;
 
 }
\ No newline at end of file
@@ -12,4 +12,6 @@ import lombok.NoArgsConstructor;
 public class BulkEmailResponseDTO {
     private String message;
     private String content;
+    // Outbox batch to poll for delivery progress
+    private String batchId;
 }
@@ -0,0 +1,39 @@
+package com.crt.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobDTO {
+    private String jobId;
+    private String type;
+    private String owner;
+    private JobStatus status;
+    private int total;
+    private int processed;
+    private int succeeded;
+    private int failed;
+    private List<String> errors;
+    private Object result;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Set once a cancel was requested for a job that is still running
+    private boolean cancelRequested;
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.crt.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailBatchStatusDTO {
+    private String batchId;
+    private long total;
+    private long pending;
+    private long sent;
+    private long failed;
+    private boolean complete;
+    private List<FailedRecipientDTO> failures;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FailedRecipientDTO {
+        private String email;
+        private String error;
+    }
+}
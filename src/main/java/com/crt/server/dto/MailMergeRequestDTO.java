@@ -0,0 +1,32 @@
+package com.crt.server.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Templated mail to the active students matching the filters, e.g. everyone in
+ * a section below 75% attendance. Subject and body may use {{name}},
+ * {{email}}, {{regNum}}, {{attendance}} and {{section}}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailMergeRequestDTO {
+    @NotBlank(message = "Subject is required")
+    private String subject;
+
+    @NotBlank(message = "Body is required")
+    private String body;
+
+    // All sections when absent
+    private UUID sectionId;
+
+    // Only students with attendance strictly below this percentage
+    private Double attendanceBelow;
+}
@@ -0,0 +1,40 @@
+package com.crt.server.dto;
+
+import com.crt.server.util.MailTemplate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * One mail-merge recipient; its fields are the variables a template can use
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailRecipientDTO implements MailTemplate.Variables {
+
+    public static final Set<String> MERGE_FIELDS = Set.of("name", "email", "regNum", "attendance", "section");
+
+    private String name;
+    private String email;
+    private String regNum;
+    private Double attendancePercentage;
+    private String sectionName;
+
+    @Override
+    public Object get(String variable) {
+        return switch (variable) {
+            case "name" -> name;
+            case "email" -> email;
+            case "regNum" -> regNum;
+            case "attendance" -> attendancePercentage == null ? null : String.format(Locale.ROOT, "%.1f", attendancePercentage);
+            case "section" -> sectionName;
+            default -> null;
+        };
+    }
+}
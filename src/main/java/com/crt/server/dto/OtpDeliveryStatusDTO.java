@@ -0,0 +1,28 @@
+package com.crt.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OtpDeliveryStatusDTO {
+    private String dispatchId;
+    private DeliveryStatus status;
+    private String error;
+    private LocalDateTime queuedAt;
+    private LocalDateTime finishedAt;
+
+    public enum DeliveryStatus {
+        QUEUED,
+        SENT,
+        FAILED,
+        // A newer OTP for the same user was requested before this one went out
+        SUPERSEDED
+    }
+}
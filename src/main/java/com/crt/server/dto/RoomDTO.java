@@ -1,5 +1,6 @@
 package com.crt.server.dto;
 
+import com.crt.server.model.Room;
 import com.crt.server.model.RoomType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -37,4 +38,10 @@ public class RoomDTO {
     private Integer capacity;
     
     private String roomString;
+
+    // Listing projection, see RoomRepository.findListingPage
+    public RoomDTO(UUID id, String block, String floor, String roomNumber, String subRoom, RoomType roomType,
+                   Integer capacity) {
+        this(id, block, floor, roomNumber, subRoom, roomType, capacity, Room.label(block, floor, roomNumber, roomType));
+    }
 }
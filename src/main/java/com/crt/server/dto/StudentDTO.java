@@ -1,10 +1,13 @@
 package com.crt.server.dto;
 
+import com.crt.server.model.Branch;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,4 +28,19 @@ public class StudentDTO {
 
     private double attendancePercentage;
 
+    // Listing projection, see StudentRepository.findListingPage
+    public StudentDTO(UUID id, String name, String email, String phone, String regNum, Branch branch, String section,
+                      String batch, Boolean crtEligibility, String feedback, Double attendancePercentage) {
+        this.id = id.toString();
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.regNum = regNum;
+        this.department = String.valueOf(branch);
+        this.section = section;
+        this.batch = batch;
+        this.crtEligibility = crtEligibility;
+        this.feedback = feedback;
+        this.attendancePercentage = attendancePercentage != null ? attendancePercentage : 0.0;
+    }
 }
@@ -0,0 +1,39 @@
+package com.crt.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportReportDTO {
+    private int totalRows;
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private List<RowResultDTO> rows;
+
+    public enum RowStatus {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowResultDTO {
+        // Position among the data records, the first after the header being 1;
+        // blank lines and line breaks inside quoted values are not counted
+        private long rowNumber;
+        private String regNum;
+        private RowStatus status;
+        private String reason;
+    }
+}
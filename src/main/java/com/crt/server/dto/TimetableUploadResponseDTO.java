@@ -14,14 +14,20 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TimetableUploadResponseDTO {
+    // True when the plan was only computed and nothing was written
+    private boolean dryRun;
     private int processedSections;
     private int createdTimeSlots;
+    private int deletedTimeSlots;
+    private int unchangedTimeSlots;
     private int skippedEntries;
     private DayOfWeek dayOfWeek;
     private LocalDate scheduleDate;
     private List<SectionTimetableDTO> sections;
     private List<String> errors;
     private List<String> warnings;
+    // Faculty or room double-bookings the upload would introduce
+    private List<String> conflicts;
 
     @Data
     @Builder
@@ -0,0 +1,35 @@
+package com.crt.server.dto.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Live attendance frame for a section topic. Deltas carry only the students whose
+ * state changed since the previous frame; snapshots carry every known student.
+ * Sequence numbers increase by one per delta, so a client that sees a gap should
+ * request a snapshot and resume from its sequence.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDeltaEvent {
+    private String sectionId;
+    private String sessionId;
+    private long sequence;
+    private boolean snapshot;
+    private Integer totalStudents;
+    private Integer presentCount;
+    private Integer absentCount;
+    private Double attendancePercentage;
+    private String status;
+    private List<AttendanceSessionEvent.StudentAttendanceUpdate> students;
+
+    // Event types
+    public static final String ATTENDANCE_DELTA = "attendance_delta";
+    public static final String ATTENDANCE_SNAPSHOT = "attendance_snapshot";
+}
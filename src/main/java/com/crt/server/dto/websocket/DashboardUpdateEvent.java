@@ -0,0 +1,29 @@
+package com.crt.server.dto.websocket;
+
+import com.crt.server.dto.ActivityLogDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin dashboard frame on /topic/admin_dashboard. Updates carry only the metrics that
+ * changed (keyed by DashboardMetricsDTO field name) and activities logged since the
+ * previous update; snapshots carry every metric and the recent activity list.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardUpdateEvent {
+    private long sequence;
+    private boolean snapshot;
+    private Map<String, Long> metrics;
+    private List<ActivityLogDTO> recentActions;
+
+    // Event types
+    public static final String DASHBOARD_SNAPSHOT = "dashboard_snapshot";
+}
@@ -0,0 +1,27 @@
+package com.crt.server.dto.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A WebSocket message in transit between nodes. Either userIds is set (the private
+ * destination of each user) or the destination is a broker topic. The payload is the
+ * already serialized JSON frame so receiving nodes can deliver it without re-encoding.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketEnvelope {
+    private String messageId;
+    private String originNodeId;
+    private List<String> userIds;
+    private String destination;
+    private String payload;
+    // Whether backlogged sessions may skip this frame
+    private boolean droppable;
+}
@@ -0,0 +1,20 @@
+package com.crt.server.event;
+
+import com.crt.server.dto.websocket.AttendanceSessionEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the attendance marking paths so live section streams pick up the
+ * change once it is committed. Carries plain DTOs, never entities.
+ */
+@Getter
+@AllArgsConstructor
+public class AttendanceMarkedEvent {
+
+    private final String sectionId;
+    // The students whose attendance was written
+    private final AttendanceSessionEvent marked;
+    // Section counters after the change
+    private final AttendanceSessionEvent stats;
+}
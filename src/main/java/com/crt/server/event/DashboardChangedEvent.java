@@ -0,0 +1,20 @@
+package com.crt.server.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by write paths whose changes show up on the admin dashboard.
+ * Timetable changes are covered by {@link TimetableChangedEvent}.
+ */
+@Getter
+@AllArgsConstructor
+public class DashboardChangedEvent {
+
+    public enum Area {
+        STUDENTS,
+        ATTENDANCE
+    }
+
+    private final Area area;
+}
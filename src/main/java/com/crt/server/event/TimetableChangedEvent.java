@@ -0,0 +1,21 @@
+package com.crt.server.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+
+/**
+ * Published whenever time slots are created, updated or removed
+ */
+@Getter
+@AllArgsConstructor
+public class TimetableChangedEvent {
+
+    // Null when the change may affect any day
+    private final DayOfWeek dayOfWeek;
+
+    public boolean affects(DayOfWeek day) {
+        return dayOfWeek == null || dayOfWeek == day;
+    }
+}
@@ -27,11 +27,11 @@ public class Attendance {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", nullable = false)
     private Student student;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "time_slot_id", nullable = false)
     private TimeSlot timeSlot;
 
@@ -48,7 +48,7 @@ public class Attendance {
     @Column(nullable = false)
     private LocalDateTime date;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "attendance_session_id")
     private AttendanceSession attendanceSession; // Link to the session this attendance belongs to
     
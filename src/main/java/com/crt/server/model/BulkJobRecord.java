@@ -0,0 +1,67 @@
+package com.crt.server.model;
+
+import com.crt.server.dto.BulkJobDTO.JobStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of a background bulk job, so status and results survive restarts
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "bulk_jobs", indexes = {
+        @Index(name = "idx_bulk_jobs_status", columnList = "status"),
+        @Index(name = "idx_bulk_jobs_finished_at", columnList = "finishedAt")
+})
+public class BulkJobRecord {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    // Row errors, one per line
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String errors;
+
+    // Job result serialized as JSON
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String result;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Process running the job, which refreshes heartbeatAt while the job is unfinished
+    @Column(length = 36)
+    private String nodeId;
+
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,65 @@
+package com.crt.server.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An email waiting for (or done with) delivery by the outbox workers
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_due", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_email_outbox_batch", columnList = "batchId"),
+        @Index(name = "idx_email_outbox_claim", columnList = "claimToken")
+})
+public class EmailOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, length = 36)
+    private String batchId;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String body;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Set by the worker that claimed the message for delivery
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime claimedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+}
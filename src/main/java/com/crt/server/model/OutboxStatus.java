@@ -0,0 +1,8 @@
+package com.crt.server.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,26 @@
+package com.crt.server.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row table the replica lag monitor stamps on the primary and reads back
+ * from the replica. Mapped here only so the schema is created with the rest of
+ * the tables and replicates like them; the monitor writes it over plain JDBC.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+    @Id
+    private Integer id;
+
+    // Epoch millis of the primary's last beat
+    @Column(nullable = false)
+    private Long beatAt;
+}
@@ -46,6 +46,11 @@ public class Room {
 
     @Override
     public String toString() {
+        return label(block, floor, roomNumber, roomType);
+    }
+
+    // Display name shared with projections that never load the entity
+    public static String label(String block, String floor, String roomNumber, RoomType roomType) {
         return block + floor + roomNumber + " (" + roomType + ")";
     }
 }
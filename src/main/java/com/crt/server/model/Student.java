@@ -60,7 +60,7 @@ public class Student {
     @Builder.Default
     private Double attendancePercentage = 0.0;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "section_id", nullable = true)
     private Section section;
 
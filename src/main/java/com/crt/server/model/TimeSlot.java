@@ -8,7 +8,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import com.crt.server.util.TimeOfDay;
+
 import java.time.DayOfWeek;
+import java.time.LocalTime;
 
 @Getter
 @Setter
@@ -16,6 +19,11 @@ import java.time.DayOfWeek;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@NamedEntityGraph(name = TimeSlot.DETAILS_GRAPH, attributeNodes = {
+    @NamedAttributeNode("inchargeFaculty"),
+    @NamedAttributeNode("section"),
+    @NamedAttributeNode("room")
+})
 @Table(name = "time_slots", indexes = {
     @Index(name = "idx_timeslots_faculty", columnList = "incharge_faculty_id"),
     @Index(name = "idx_timeslots_section", columnList = "section_id"),
@@ -23,18 +31,28 @@ import java.time.DayOfWeek;
     @Index(name = "idx_timeslots_schedule", columnList = "schedule_id"),
     @Index(name = "idx_timeslots_room", columnList = "room_id"),
     @Index(name = "idx_timeslots_slot_type", columnList = "slot_type"),
-    @Index(name = "idx_timeslots_day_of_week", columnList = "day_of_week")
+    @Index(name = "idx_timeslots_day_of_week", columnList = "day_of_week"),
+    // Overlap and "what is on now" lookups: equality columns first, then the range
+    @Index(name = "idx_timeslots_day_start", columnList = "day_of_week, start_minute, end_minute"),
+    @Index(name = "idx_timeslots_room_day_start", columnList = "room_id, day_of_week, start_minute"),
+    @Index(name = "idx_timeslots_faculty_day_start", columnList = "incharge_faculty_id, day_of_week, start_minute")
 })
 public class TimeSlot {
+    // Associations rendered by TimeSlotDTO, fetched in the same select
+    public static final String DETAILS_GRAPH = "TimeSlot.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @Column(nullable = false)
-    private String startTime;
+    // Minutes since midnight on a 24-hour clock; see TimeOfDay. Existing rows are
+    // filled in from the old start_time/end_time strings by TimeSlotMinutesMigration,
+    // so the columns stay nullable: a NOT NULL add would default every row to 0
+    @Column(name = "start_minute", nullable = true)
+    private Integer startMinute;
 
-    @Column(nullable = false)
-    private String endTime;
+    @Column(name = "end_minute", nullable = true)
+    private Integer endMinute;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "slot_type", nullable = false)
@@ -60,24 +78,49 @@ public class TimeSlot {
     private String breakDescription;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "incharge_faculty_id", nullable = false)
     private User inchargeFaculty;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "section_id", nullable = false)
     private Section section;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
     private Room room;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "schedule_id", nullable = false)
     private SectionSchedule schedule;
 
+    // "HH:mm" views for DTOs and messages
+    public String getStartTime() {
+        return TimeOfDay.format(startMinute);
+    }
+
+    public String getEndTime() {
+        return TimeOfDay.format(endMinute);
+    }
+
+    public void setStartTime(String startTime) {
+        this.startMinute = TimeOfDay.parse(startTime);
+    }
+
+    public void setEndTime(String endTime) {
+        this.endMinute = TimeOfDay.parse(endTime);
+    }
+
+    public LocalTime getStartLocalTime() {
+        return TimeOfDay.toLocalTime(startMinute);
+    }
+
+    public LocalTime getEndLocalTime() {
+        return TimeOfDay.toLocalTime(endMinute);
+    }
+
     @PrePersist
     @PreUpdate
     public void validateAndSync() {
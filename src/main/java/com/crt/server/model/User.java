@@ -57,6 +57,11 @@ public class User implements UserDetails {
     @Builder.Default
     private boolean isActive = true;
 
+    // Bumped to revoke every token issued before a password change or deactivation
+    @Column(nullable = false)
+    @Builder.Default
+    private int tokenVersion = 0;
+
     @Column(nullable = false)
     private String department;
 
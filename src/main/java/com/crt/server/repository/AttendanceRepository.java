@@ -2,6 +2,7 @@ package com.crt.server.repository;
 
 import com.crt.server.model.*;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,9 +10,10 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -38,6 +40,24 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
+    /**
+     * Classes and absences per student within the range, one row of
+     * [student id, classes, absences] per student with any attendance
+     */
+    @Query("SELECT a.student.id, COUNT(a), SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END) " +
+            "FROM Attendance a WHERE a.date BETWEEN :startDate AND :endDate GROUP BY a.student.id")
+    List<Object[]> countAttendanceAndAbsencesPerStudent(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT a.student.id, COUNT(a), SUM(CASE WHEN a.status = 'ABSENT' THEN 1 ELSE 0 END) " +
+            "FROM Attendance a WHERE a.student.id IN :studentIds AND a.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY a.student.id")
+    List<Object[]> countAttendanceAndAbsencesPerStudent(
+            @Param("studentIds") Collection<UUID> studentIds,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student = :student")
     long countAttdByStudent(@Param("student") Student student);
 
@@ -61,8 +81,24 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student = :student AND a.status = :status AND a.timeSlot IN :timeSlots")
     Long countByStudentAndStatusAndTimeSlotIn(@Param("student") Student student, @Param("status") AttendanceStatus status, @Param("timeSlots") List<TimeSlot> timeSlots);
 
+    /**
+     * Sessions and presences per student across the given time slots, one row of
+     * [student id, sessions, presences] per student with any attendance in them
+     */
+    @Query("SELECT a.student.id, COUNT(a), SUM(CASE WHEN a.status = 'PRESENT' THEN 1 ELSE 0 END) " +
+            "FROM Attendance a WHERE a.student IN :students AND a.timeSlot IN :timeSlots GROUP BY a.student.id")
+    List<Object[]> countSessionsAndPresencesPerStudent(@Param("students") Collection<Student> students,
+                                                       @Param("timeSlots") Collection<TimeSlot> timeSlots);
+
     Optional<Attendance> findTopByStudentAndStatusOrderByDateDesc(Student student, AttendanceStatus status);
 
+    // Latest date each student was marked present, as [student id, date]
+    @Query("SELECT a.student.id, MAX(a.date) FROM Attendance a " +
+            "WHERE a.student IN :students AND a.status = 'PRESENT' GROUP BY a.student.id")
+    List<Object[]> findLastPresentDatePerStudent(@Param("students") Collection<Student> students);
+
+    // Session history renders the slot, its room and the session topic
+    @EntityGraph(attributePaths = { "timeSlot", "timeSlot.room", "attendanceSession" })
     List<Attendance> findByStudentAndTimeSlotInOrderByDateDesc(Student student, List<TimeSlot> timeSlots);
 
     List<Attendance> findByStudentIdAndDateBetween(UUID studentId, LocalDateTime startDate, LocalDateTime endDate);
@@ -74,7 +110,7 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
     @Query("SELECT a FROM Attendance a WHERE YEAR(a.date) = :year AND MONTH(a.date) = :month")
     List<Attendance> findByYearAndMonth(@Param("year") int year, @Param("month") int month);
 
-    @Query("SELECT s.id, s.name, s.regNum, a.status, ts.startTime, a.date " +
+    @Query("SELECT s.id, s.name, s.regNum, a.status, ts.startMinute, a.date " +
             "FROM Attendance a " +
             "JOIN a.student s " +
             "JOIN a.timeSlot ts " +
@@ -84,9 +120,12 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
                                                 @Param("startDate") LocalDateTime startDate,
                                                 @Param("endDate") LocalDateTime endDate);
 
+    // Absentee lists render student and section, so those come with the row
+    @EntityGraph(attributePaths = { "student", "timeSlot", "timeSlot.section" })
     @Query("SELECT a FROM Attendance a WHERE a.status = 'ABSENT' AND CAST(a.date AS LocalDate) = :date")
     List<Attendance> findAbsenteesByDate(@Param("date") LocalDate date);
 
+    @EntityGraph(attributePaths = { "student", "timeSlot", "timeSlot.section" })
     @Query("SELECT a FROM Attendance a WHERE a.status = 'ABSENT' AND CAST(a.date AS LocalDate) = :date AND a.timeSlot.section.id = :sectionId")
     List<Attendance> findAbsenteesByDateAndSection(@Param("date") LocalDate date, @Param("sectionId") UUID sectionId);
 
@@ -102,26 +141,19 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Attendance a WHERE a.timeSlot = :timeSlot AND CAST(a.date AS LocalDate) = :date")
     boolean existsByTimeSlotAndDate(@Param("timeSlot") TimeSlot timeSlot, @Param("date") LocalDate date);
 
+    /**
+     * Ids of the time slots that have attendance posted within the given range,
+     * so a day's slot statuses can be resolved with one query
+     */
+    @Query("SELECT DISTINCT a.timeSlot.id FROM Attendance a WHERE a.date >= :startOfDay AND a.date < :startOfNextDay")
+    Set<Integer> findTimeSlotIdsWithAttendanceBetween(
+            @Param("startOfDay") LocalDateTime startOfDay,
+            @Param("startOfNextDay") LocalDateTime startOfNextDay);
+
     @Query("SELECT DISTINCT ts.inchargeFaculty.id FROM TimeSlot ts WHERE ts.id NOT IN " +
             "(SELECT a.timeSlot.id FROM Attendance a WHERE CAST(a.date AS LocalDate) = :date)")
     List<UUID> findFacultiesWithPendingAttendance(@Param("date") LocalDate date);
 
-    @Query(value = """
-            SELECT DISTINCT ts.* FROM time_slots ts 
-            WHERE ts.id NOT IN (
-                SELECT a.time_slot_id FROM attendances a 
-                WHERE DATE(a.date) = DATE(:currentDate)
-            )
-            AND (
-                TIME(ts.end_time) <= TIME(:currentTime) 
-                OR (TIME(ts.start_time) <= TIME(:currentTime) AND TIME(ts.end_time) >= TIME(:currentTime))
-            )
-            """, nativeQuery = true)
-    List<TimeSlot> findPendingTimeSlotsForAttendance(
-            @Param("currentDate") LocalDateTime currentDate,
-            @Param("currentTime") LocalTime currentTime
-    );
-
     @Query("""
             SELECT ts FROM TimeSlot ts WHERE NOT EXISTS (
                 SELECT 1 FROM Attendance a 
@@ -136,9 +168,11 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
 
     List<Attendance> findByAttendanceSession(AttendanceSession attendanceSession);
 
+    @EntityGraph(attributePaths = { "student", "timeSlot", "timeSlot.section" })
     @Query("SELECT a FROM Attendance a WHERE a.status = 'ABSENT' AND a.timeSlot = :timeSlot")
     List<Attendance> getAbsenteesByTimeSlot(@Param("timeSlot") TimeSlot timeSlot);
 
+    @EntityGraph(attributePaths = { "student", "timeSlot", "timeSlot.section" })
     @Query("SELECT a FROM Attendance a WHERE a.status = 'ABSENT' AND a.timeSlot = :timeSlot AND DATE(a.date) = DATE(:date)")
     List<Attendance> getAbsenteesByTimeSlotAndDate(@Param("timeSlot") TimeSlot timeSlot, @Param("date") LocalDateTime date);
 
@@ -148,6 +182,7 @@ public interface AttendanceRepository extends JpaRepository<Attendance, UUID> {
             @Param("endDate") LocalDateTime endDate,
             Pageable pageable);
 
+    @EntityGraph(attributePaths = { "student", "timeSlot" })
     @Query("SELECT a FROM Attendance a WHERE a.timeSlot.id = :timeSlotId AND DATE(a.date) = DATE(:date)")
     List<Attendance> findByTimeSlotIdAndDateDebug(@Param("timeSlotId") Integer timeSlotId, @Param("date") LocalDateTime date);
 }
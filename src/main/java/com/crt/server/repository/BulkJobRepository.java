@@ -0,0 +1,43 @@
+package com.crt.server.repository;
+
+import com.crt.server.dto.BulkJobDTO.JobStatus;
+import com.crt.server.model.BulkJobRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface BulkJobRepository extends JpaRepository<BulkJobRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BulkJobRecord j SET j.heartbeatAt = :now WHERE j.nodeId = :nodeId AND j.status IN :active")
+    int touchHeartbeat(@Param("nodeId") String nodeId,
+                       @Param("active") Collection<JobStatus> active,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Fails unfinished jobs whose node has not refreshed them since the cutoff
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BulkJobRecord j SET j.status = :status, j.finishedAt = :now, " +
+            "j.errors = CONCAT(COALESCE(j.errors, ''), :reason) WHERE j.status IN :active " +
+            "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)")
+    int markInterrupted(@Param("active") Collection<JobStatus> active,
+                        @Param("status") JobStatus status,
+                        @Param("reason") String reason,
+                        @Param("now") LocalDateTime now,
+                        @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BulkJobRecord j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,87 @@
+package com.crt.server.repository;
+
+import com.crt.server.model.EmailOutboxMessage;
+import com.crt.server.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, UUID> {
+
+    /**
+     * Atomically claim up to {@code limit} due messages for one worker, so
+     * several workers (and servers) never deliver the same message twice
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET status = 'SENDING', claim_token = :token, claimed_at = :now " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit", nativeQuery = true)
+    int claimDue(@Param("token") String token, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    List<EmailOutboxMessage> findByClaimToken(String claimToken);
+
+    /**
+     * Hand messages claimed by a worker that died or stalled mid-batch back to the
+     * queue. A stalled worker may still finish; the claim token checks below keep
+     * it from overwriting what the next claimant records.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.crt.server.model.OutboxStatus.PENDING, " +
+            "m.claimToken = NULL WHERE m.status = com.crt.server.model.OutboxStatus.SENDING " +
+            "AND m.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Mark delivered messages SENT if they are still held under this claim
+     *
+     * @return the number of messages updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.crt.server.model.OutboxStatus.SENT, " +
+            "m.claimToken = NULL, m.attempts = m.attempts + 1, m.sentAt = :sentAt, m.lastError = NULL " +
+            "WHERE m.id IN :ids AND m.claimToken = :token")
+    int markSent(@Param("token") String token, @Param("ids") Collection<UUID> ids,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Record a failed attempt (retry or give up) if the message is still held under this claim
+     *
+     * @return 1 if updated, 0 if the claim was released in the meantime
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.claimToken = NULL, m.attempts = :attempts, " +
+            "m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError " +
+            "WHERE m.id = :id AND m.claimToken = :token")
+    int markFailed(@Param("token") String token, @Param("id") UUID id, @Param("status") OutboxStatus status,
+                   @Param("attempts") int attempts, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    // [status, count] rows for one batch
+    @Query("SELECT m.status, COUNT(m) FROM EmailOutboxMessage m WHERE m.batchId = :batchId GROUP BY m.status")
+    List<Object[]> countByStatusForBatch(@Param("batchId") String batchId);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT m.recipient, m.lastError FROM EmailOutboxMessage m " +
+            "WHERE m.batchId = :batchId AND m.status = com.crt.server.model.OutboxStatus.FAILED")
+    List<Object[]> findFailuresForBatch(@Param("batchId") String batchId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = com.crt.server.model.OutboxStatus.SENT " +
+            "AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
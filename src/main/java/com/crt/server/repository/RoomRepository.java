@@ -1,11 +1,14 @@
 package com.crt.server.repository;
 
+import com.crt.server.dto.RoomDTO;
 import com.crt.server.model.Room;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -30,4 +33,20 @@ public interface RoomRepository extends JpaRepository<Room, UUID> {
     @Query("SELECT r FROM Room r WHERE CONCAT(r.block, r.floor, r.roomNumber, COALESCE(r.subRoom, '')) = :roomCode")
     Room findByRoomCode(@Param("roomCode") String roomCode);
 
+    /**
+     * One keyset page of the room listing, ordered by block, floor and room number;
+     * pass the last row of the previous page, or a null id for the first page
+     */
+    @Query("SELECT new com.crt.server.dto.RoomDTO(r.id, r.block, r.floor, r.roomNumber, r.subRoom, r.roomType, r.capacity) " +
+            "FROM Room r WHERE :afterId IS NULL OR r.block > :block " +
+            "OR (r.block = :block AND (r.floor > :floor " +
+            "OR (r.floor = :floor AND (r.roomNumber > :roomNumber " +
+            "OR (r.roomNumber = :roomNumber AND r.id > :afterId))))) " +
+            "ORDER BY r.block, r.floor, r.roomNumber, r.id")
+    List<RoomDTO> findListingPage(@Param("block") String block,
+                                  @Param("floor") String floor,
+                                  @Param("roomNumber") String roomNumber,
+                                  @Param("afterId") UUID afterId,
+                                  Pageable page);
+
 }
@@ -1,10 +1,12 @@
 package com.crt.server.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,13 +21,26 @@ public interface SectionRepository extends JpaRepository<Section, UUID> {
     long countByTraining(@Param("Training") Training training);
 
 
+    // Listing rows as [id, name, strength, capacity, trainingId, trainingName, trainingSn, trainingSections], by name
+    @Query("SELECT s.id, s.name, s.strength, s.capacity, t.id, t.name, t.sn, " +
+            "(SELECT COUNT(x) FROM Section x WHERE x.training = t) " +
+            "FROM Section s JOIN s.training t ORDER BY s.name")
+    List<Object[]> findListingRows();
+
     @Query("SELECT t FROM Section  t WHERE t.name = :name")
     Section findByName(@Param("name") String name);
 
     @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END FROM Section t WHERE t.name = :name")
     boolean existsByName(@Param("name") String name);
 
-    @EntityGraph(attributePaths = { "students", "Training", "room" })
+    @Query("SELECT t FROM Section t WHERE t.name IN :names")
+    List<Section> findByNameIn(@Param("names") Collection<String> names);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Section s SET s.strength = (SELECT COUNT(st) FROM Student st WHERE st.section = s) WHERE s.id IN :ids")
+    int refreshStrengths(@Param("ids") Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = { "students", "training" })
     List<Section> findByTraining(@Param("Training") Training training);
 
     List<Section> findByStudentsContaining(Student student);
@@ -3,17 +3,27 @@ package com.crt.server.repository;
 import com.crt.server.model.Room;
 import com.crt.server.model.Section;
 import com.crt.server.model.SectionSchedule;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface SectionScheduleRepository extends JpaRepository<SectionSchedule, UUID> {
+
+    // Schedule with everything SectionScheduleDTO renders, in one select
+    @EntityGraph(attributePaths = { "section", "room", "timeSlots", "timeSlots.inchargeFaculty" })
+    Optional<SectionSchedule> findWithDetailsById(UUID id);
+
+    @EntityGraph(attributePaths = { "section", "room", "timeSlots", "timeSlots.inchargeFaculty" })
+    @Query("SELECT ss FROM SectionSchedule ss")
+    List<SectionSchedule> findAllWithDetails();
     
     // Get all schedules for a section
     List<SectionSchedule> findAllBySectionId(UUID sectionId);
@@ -23,7 +33,10 @@ public interface SectionScheduleRepository extends JpaRepository<SectionSchedule
     Optional<SectionSchedule> findFirstBySectionId(@Param("sectionId") UUID sectionId);
     
     // Original method - kept for backward compatibility but may throw exception if multiple exist
+    @EntityGraph(attributePaths = { "section", "room", "timeSlots", "timeSlots.inchargeFaculty" })
     Optional<SectionSchedule> findBySectionId(UUID sectionId);
 
     List<SectionSchedule> findBySection(Section section);
+
+    List<SectionSchedule> findBySectionIdIn(Collection<UUID> sectionIds);
 }
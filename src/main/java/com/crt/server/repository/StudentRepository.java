@@ -1,7 +1,12 @@
 package com.crt.server.repository;
 
+import com.crt.server.dto.MailRecipientDTO;
+import com.crt.server.dto.StudentDTO;
 import com.crt.server.model.Section;
 import com.crt.server.model.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,12 +14,22 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, UUID> {
 
+    // Student listings show the section name, so load it in the same select
+    @Override
+    @EntityGraph(attributePaths = "section")
+    List<Student> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "section")
+    Page<Student> findAll(Pageable pageable);
+
     @Query("SELECT s FROM Student s WHERE s.email = :email")
     Student findByEmail(@Param("email") String email);
 
@@ -31,6 +46,20 @@ public interface StudentRepository extends JpaRepository<Student, UUID> {
 
     List<Student> findByRegNumIn(List<String> regNums);
 
+    @Query("SELECT s.regNum FROM Student s WHERE s.regNum IN :regNums")
+    List<String> findExistingRegNums(@Param("regNums") Collection<String> regNums);
+
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Current section of each student as [regNum, sectionId]; sectionId is null when unassigned
+    @Query("SELECT s.regNum, sec.id FROM Student s LEFT JOIN s.section sec WHERE s.regNum IN :regNums")
+    List<Object[]> findSectionAssignments(@Param("regNums") Collection<String> regNums);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Student s SET s.section = :section WHERE s.regNum IN :regNums")
+    int assignSection(@Param("section") Section section, @Param("regNums") Collection<String> regNums);
+
     Long countByCrtEligibility(Boolean crtEligibility);
 
     List<Student> findBySection(Section section);
@@ -46,4 +75,30 @@ public interface StudentRepository extends JpaRepository<Student, UUID> {
     @Modifying
     @Query("UPDATE Student s SET s.attendancePercentage = :percentage WHERE s.id = :studentId")
     void updateAttendancePercentage(@Param("studentId") UUID studentId, @Param("percentage") Double percentage);
-}
\ No newline at end of file
+
+    /**
+     * One keyset page of the student listing, optionally for one section, ordered by registration number
+     */
+    @Query("SELECT new com.crt.server.dto.StudentDTO(s.id, s.name, s.email, s.phone, s.regNum, s.branch, sec.name, " +
+            "s.batch, s.crtEligibility, s.feedback, s.attendancePercentage) " +
+            "FROM Student s LEFT JOIN s.section sec " +
+            "WHERE s.regNum > :afterRegNum AND (:sectionId IS NULL OR sec.id = :sectionId) " +
+            "ORDER BY s.regNum")
+    List<StudentDTO> findListingPage(@Param("sectionId") UUID sectionId,
+                                     @Param("afterRegNum") String afterRegNum,
+                                     Pageable page);
+
+    /**
+     * One keyset page of mail-merge recipients, ordered by registration number
+     */
+    @Query("SELECT new com.crt.server.dto.MailRecipientDTO(s.name, s.email, s.regNum, s.attendancePercentage, sec.name) " +
+            "FROM Student s LEFT JOIN s.section sec " +
+            "WHERE s.isActive = true AND s.regNum > :afterRegNum " +
+            "AND (:sectionId IS NULL OR sec.id = :sectionId) " +
+            "AND (:attendanceBelow IS NULL OR s.attendancePercentage < :attendanceBelow) " +
+            "ORDER BY s.regNum")
+    List<MailRecipientDTO> findMailRecipients(@Param("sectionId") UUID sectionId,
+                                              @Param("attendanceBelow") Double attendanceBelow,
+                                              @Param("afterRegNum") String afterRegNum,
+                                              Pageable page);
+}
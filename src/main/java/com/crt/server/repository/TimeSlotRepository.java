@@ -1,79 +1,110 @@
 package com.crt.server.repository;
 
 import com.crt.server.model.*;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
-import java.time.LocalTime;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TimeSlotRepository extends JpaRepository<TimeSlot, Integer> {
+
+    // Finders whose results are rendered as TimeSlotDTO load faculty, section and room with the slot
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
+    Optional<TimeSlot> findWithDetailsById(Integer id);
+
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
+    @Query("SELECT ts FROM TimeSlot ts")
+    List<TimeSlot> findAllWithDetails();
     
     // Find by slot type
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findBySlotType(TimeSlotType slotType);
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findBySectionIdAndSlotType(UUID sectionId, TimeSlotType slotType);
     
     // Find by day of week
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findByDayOfWeek(DayOfWeek dayOfWeek);
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findBySectionIdAndDayOfWeek(UUID sectionId, DayOfWeek dayOfWeek);
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findByInchargeFacultyIdAndDayOfWeek(UUID facultyId, DayOfWeek dayOfWeek);
+
+    // Whether the faculty member teaches any slot of the section
+    boolean existsBySectionIdAndInchargeFacultyId(UUID sectionId, UUID facultyId);
+
+    // Teaching sessions for a day as
+    // [timeSlotId, startMinute, endMinute, facultyId, sectionId, sectionName, room, facultyUsername]
+    @Query("SELECT ts.id, ts.startMinute, ts.endMinute, f.id, s.id, s.name, r, f.username FROM TimeSlot ts " +
+           "JOIN ts.inchargeFaculty f JOIN ts.section s JOIN ts.room r " +
+           "WHERE ts.dayOfWeek = :dayOfWeek AND ts.slotType != 'BREAK'")
+    List<Object[]> findSessionSlotsByDayOfWeek(@Param("dayOfWeek") DayOfWeek dayOfWeek);
     
     // Room conflict detection
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.room.id = :roomId " +
            "AND ts.dayOfWeek = :dayOfWeek " +
-           "AND ((ts.startTime < :endTime AND ts.endTime > :startTime)) " +
+           "AND ts.startMinute < :endMinute AND ts.endMinute > :startMinute " +
            "AND (:excludeId IS NULL OR ts.id != :excludeId)")
     List<TimeSlot> findConflictingTimeSlots(
             @Param("roomId") UUID roomId,
             @Param("dayOfWeek") DayOfWeek dayOfWeek,
-            @Param("startTime") String startTime,
-            @Param("endTime") String endTime,
+            @Param("startMinute") int startMinute,
+            @Param("endMinute") int endMinute,
             @Param("excludeId") Integer excludeId);
     
     // Faculty conflict detection
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.inchargeFaculty.id = :facultyId " +
            "AND ts.dayOfWeek = :dayOfWeek " +
-           "AND ((ts.startTime < :endTime AND ts.endTime > :startTime)) " +
+           "AND ts.startMinute < :endMinute AND ts.endMinute > :startMinute " +
            "AND (:excludeId IS NULL OR ts.id != :excludeId)")
     List<TimeSlot> findFacultyConflictingTimeSlots(
             @Param("facultyId") UUID facultyId,
             @Param("dayOfWeek") DayOfWeek dayOfWeek,
-            @Param("startTime") String startTime,
-            @Param("endTime") String endTime,
+            @Param("startMinute") int startMinute,
+            @Param("endMinute") int endMinute,
             @Param("excludeId") Integer excludeId);
     
     // Find by section
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findBySectionId(UUID sectionId);
     List<TimeSlot> findBySection(Section section);
     
     // Find by faculty
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findByInchargeFacultyId(UUID facultyId);
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findByInchargeFaculty(User inchargeFaculty);
     
     // Find by room
     List<TimeSlot> findByRoomId(UUID roomId);
     
     // Find active time slots (non-break by default, or all if needed)
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.section.id = :sectionId AND ts.slotType != 'BREAK'")
     List<TimeSlot> findActiveBySectionId(@Param("sectionId") UUID sectionId);
     
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.inchargeFaculty.id = :facultyId AND ts.slotType != 'BREAK'")
     List<TimeSlot> findActiveByFacultyId(@Param("facultyId") UUID facultyId);
     
     // Room availability check
     @Query("SELECT COUNT(ts) > 0 FROM TimeSlot ts WHERE ts.room.id = :roomId " +
            "AND ts.dayOfWeek = :dayOfWeek " +
-           "AND ((ts.startTime < :endTime AND ts.endTime > :startTime))")
+           "AND ts.startMinute < :endMinute AND ts.endMinute > :startMinute")
     boolean existsConflictingTimeSlot(
             @Param("roomId") UUID roomId,
             @Param("dayOfWeek") DayOfWeek dayOfWeek,
-            @Param("startTime") String startTime,
-            @Param("endTime") String endTime);
+            @Param("startMinute") int startMinute,
+            @Param("endMinute") int endMinute);
 
     // Legacy methods for backward compatibility
     @Query("SELECT ts FROM TimeSlot ts " +
@@ -90,18 +121,18 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Integer> {
     List<TimeSlot> findActiveTimeSlotsByFaculty(@Param("faculty") User faculty);
 
     @Query("SELECT CASE WHEN COUNT(ts) > 0 THEN true ELSE false END FROM TimeSlot ts " +
-            "WHERE ts.section = :section AND ts.startTime = :startTime AND ts.endTime = :endTime")
+            "WHERE ts.section = :section AND ts.startMinute = :startMinute AND ts.endMinute = :endMinute")
     boolean existsBySectionAndTime(
             @Param("section") Section section,
-            @Param("startTime") String startTime,
-            @Param("endTime") String endTime);
+            @Param("startMinute") int startMinute,
+            @Param("endMinute") int endMinute);
 
     @Query("SELECT CASE WHEN COUNT(ts) > 0 THEN true ELSE false END FROM TimeSlot ts " +
-            "WHERE ts.room = :room AND ts.startTime = :startTime AND ts.endTime = :endTime")
+            "WHERE ts.room = :room AND ts.startMinute = :startMinute AND ts.endMinute = :endMinute")
     boolean existsByRoomAndTime(
             @Param("room") Room room,
-            @Param("startTime") String startTime,
-            @Param("endTime") String endTime);
+            @Param("startMinute") int startMinute,
+            @Param("endMinute") int endMinute);
 
     @Query("SELECT CASE WHEN COUNT(ts) > 0 THEN true ELSE false END FROM TimeSlot ts " +
             "WHERE ts.id = :timeSlotId AND ts.schedule.id = :scheduleId")
@@ -116,16 +147,35 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Integer> {
 
     @Query("SELECT ts1, ts2 FROM TimeSlot ts1, TimeSlot ts2 " +
             "WHERE ts1.inchargeFaculty = :faculty AND ts2.inchargeFaculty = :faculty " +
-            "AND ts1.endTime = ts2.startTime AND ts1.section = ts2.section AND ts1.room = ts2.room")
+            "AND ts1.endMinute = ts2.startMinute AND ts1.section = ts2.section AND ts1.room = ts2.room")
     List<Object[]> findAdjacentTimeSlotsByFaculty(@Param("faculty") User faculty);
 
     @Query("SELECT CASE WHEN COUNT(ts1) > 0 THEN true ELSE false END FROM TimeSlot ts1, TimeSlot ts2 " +
             "WHERE ts1.id = :timeSlot1Id AND ts2.id = :timeSlot2Id " +
-            "AND ts1.endTime = ts2.startTime AND ts1.section = ts2.section AND ts1.room = ts2.room")
+            "AND ts1.endMinute = ts2.startMinute AND ts1.section = ts2.section AND ts1.room = ts2.room")
     boolean areTimeSlotsAdjacent(@Param("timeSlot1Id") Integer timeSlot1Id, @Param("timeSlot2Id") Integer timeSlot2Id);
     
     // Methods for bulk timetable operations
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
     List<TimeSlot> findBySectionAndDayOfWeek(Section section, DayOfWeek dayOfWeek);
     
     List<TimeSlot> findByScheduleAndDayOfWeek(SectionSchedule schedule, DayOfWeek dayOfWeek);
+
+    // Slots whose time has come today without attendance, with what the list renders
+    @EntityGraph(TimeSlot.DETAILS_GRAPH)
+    @Query("""
+            SELECT ts FROM TimeSlot ts
+            WHERE ts.id NOT IN (
+                SELECT a.timeSlot.id FROM Attendance a
+                WHERE CAST(a.date AS LocalDate) = :date
+            )
+            AND (
+                ts.endMinute <= :currentMinute
+                OR (ts.startMinute <= :currentMinute AND ts.endMinute >= :currentMinute)
+            )
+            """)
+    List<TimeSlot> findPendingTimeSlotsForAttendance(
+            @Param("date") LocalDate date,
+            @Param("currentMinute") int currentMinute
+    );
 }
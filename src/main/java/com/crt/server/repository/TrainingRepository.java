@@ -6,11 +6,16 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, UUID> {
 
+    // Listing rows as [id, name, sn, sections], counting sections without loading them
+    @Query("SELECT t.id, t.name, t.sn, (SELECT COUNT(s) FROM Section s WHERE s.training = t) FROM Training t")
+    List<Object[]> findListingRows();
+
     @Query("SELECT t FROM Training t WHERE t.sn = :sn")
     Training findBySn(@Param("sn") String sn);
 
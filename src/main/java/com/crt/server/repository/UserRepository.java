@@ -1,12 +1,15 @@
 package com.crt.server.repository;
 
+import com.crt.server.dto.UserDTO;
 import com.crt.server.model.Role;
 import com.crt.server.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,10 +18,28 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
 
+    /**
+     * One keyset page of the user listing, ordered by username
+     */
+    @Query("SELECT new com.crt.server.dto.UserDTO(u.id, u.name, u.email, u.phone, u.department, u.designation, " +
+            "u.employeeId, u.username, u.role, u.isFirstLogin, u.isActive) " +
+            "FROM User u WHERE u.username > :afterUsername ORDER BY u.username")
+    List<UserDTO> findListingPage(@Param("afterUsername") String afterUsername, Pageable page);
+
     Optional<User> findByEmail(String email);
     
     Optional<User> findByEmployeeId(String employeeId);
 
+    List<User> findByEmployeeIdIn(Collection<String> employeeIds);
+
+    // [username, email] of every user clashing with any of the given usernames or emails
+    @Query("SELECT u.username, u.email FROM User u WHERE u.username IN :usernames OR u.email IN :emails")
+    List<Object[]> findExistingCredentials(@Param("usernames") Collection<String> usernames,
+                                           @Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
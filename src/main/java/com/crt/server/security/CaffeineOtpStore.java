@@ -0,0 +1,67 @@
+package com.crt.server.security;
+
+import com.crt.server.config.OtpConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory")
+public class CaffeineOtpStore implements OtpStore {
+
+    private final OtpConfig otpConfig;
+    private final Cache<String, PendingOtp> otps;
+
+    public CaffeineOtpStore(OtpConfig otpConfig) {
+        this.otpConfig = otpConfig;
+        this.otps = Caffeine.newBuilder()
+                .expireAfterWrite(otpConfig.getTtl())
+                .maximumSize(otpConfig.getMaximumSize())
+                .build();
+    }
+
+    @Override
+    public void save(String key, String otp) {
+        otps.put(key, new PendingOtp(otp));
+    }
+
+    @Override
+    public boolean verify(String key, String otp) {
+        PendingOtp pending = otps.getIfPresent(key);
+        if (pending == null) {
+            return false;
+        }
+
+        if (pending.attempts.incrementAndGet() > otpConfig.getMaxAttempts()) {
+            log.warn("OTP attempt limit reached for {}", key);
+            otps.asMap().remove(key, pending);
+            return false;
+        }
+
+        if (!pending.otp.equals(otp)) {
+            return false;
+        }
+
+        // Conditional remove so two concurrent verifications cannot both succeed
+        return otps.asMap().remove(key, pending);
+    }
+
+    @Override
+    public void remove(String key) {
+        otps.invalidate(key);
+    }
+
+    private static class PendingOtp {
+        private final String otp;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private PendingOtp(String otp) {
+            this.otp = otp;
+        }
+    }
+}
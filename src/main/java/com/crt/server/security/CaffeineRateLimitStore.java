@@ -0,0 +1,72 @@
+package com.crt.server.security;
+
+import com.crt.server.config.RateLimitConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class CaffeineRateLimitStore implements RateLimitStore {
+
+    // A bucket left alone for a full period has refilled, so dropping it changes nothing
+    private final Cache<String, LimitedBucket> buckets;
+
+    public CaffeineRateLimitStore(RateLimitConfig rateLimitConfig) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitConfig.getMaximumKeys())
+                .expireAfter(new Expiry<String, LimitedBucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, LimitedBucket bucket, long currentTime) {
+                        return bucket.period.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, LimitedBucket bucket, long currentTime,
+                                                  long currentDuration) {
+                        return bucket.period.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, LimitedBucket bucket, long currentTime,
+                                                long currentDuration) {
+                        return bucket.period.toNanos();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Decision tryConsume(String key, int requests, Duration period) {
+        LimitedBucket bucket = buckets.get(key, k -> new LimitedBucket(requests, period));
+        ConsumptionProbe probe = bucket.bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
+            return Decision.ALLOWED;
+        }
+        return new Decision(false, Duration.ofNanos(probe.getNanosToWaitForRefill()));
+    }
+
+    public long getTrackedKeys() {
+        return buckets.estimatedSize();
+    }
+
+    private static class LimitedBucket {
+        private final Bucket bucket;
+        private final Duration period;
+
+        private LimitedBucket(int requests, Duration period) {
+            this.bucket = Bucket.builder()
+                    .addLimit(Bandwidth.classic(requests, Refill.intervally(requests, period)))
+                    .build();
+            this.period = period;
+        }
+    }
+}
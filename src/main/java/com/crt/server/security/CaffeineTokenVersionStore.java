@@ -0,0 +1,40 @@
+package com.crt.server.security;
+
+import com.crt.server.config.TokenVersionConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "jwt.token-version.store", havingValue = "memory")
+public class CaffeineTokenVersionStore implements TokenVersionStore {
+
+    private final Cache<UUID, Integer> versions;
+
+    public CaffeineTokenVersionStore(TokenVersionConfig config, JwtService jwtService) {
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtService.getRefreshExpiration()))
+                .maximumSize(config.getMaximumSize())
+                .build();
+    }
+
+    @Override
+    public Integer get(UUID userId) {
+        return versions.getIfPresent(userId);
+    }
+
+    @Override
+    public void put(UUID userId, int version) {
+        // Versions only move forward, even if two revocations race
+        versions.asMap().merge(userId, version, Math::max);
+    }
+
+    @Override
+    public void fill(UUID userId, int version) {
+        versions.asMap().merge(userId, version, Math::max);
+    }
+}
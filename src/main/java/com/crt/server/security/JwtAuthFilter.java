@@ -1,29 +1,32 @@
 package com.crt.server.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 import com.crt.server.security.CookieService;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
     private final CookieService cookieService;
 
     @Override
@@ -65,22 +68,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 5️⃣ Validate token
-        String username = jwtService.extractUsername(jwt);
+        // 5️⃣ Validate token and build the principal from its claims (no DB lookup)
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-        if (username != null &&
-                SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtPrincipal principal = toPrincipal(jwt);
 
-            UserDetails userDetails =
-                    this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (principal != null) {
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                principal,
                                 null,
-                                userDetails.getAuthorities());
+                                principal.getAuthorities());
 
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request));
@@ -91,4 +90,28 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private JwtPrincipal toPrincipal(String jwt) {
+        Claims claims;
+        UUID id;
+        try {
+            claims = jwtService.parseClaims(jwt);
+            String userId = claims.get(JwtService.USER_ID_CLAIM, String.class);
+            id = userId != null ? UUID.fromString(userId) : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+
+        String username = claims.getSubject();
+        String role = claims.get(JwtService.ROLE_CLAIM, String.class);
+        if (username == null || id == null || role == null) {
+            return null;
+        }
+
+        if (!tokenVersionService.isCurrent(id, jwtService.extractTokenVersion(claims))) {
+            return null;
+        }
+        return new JwtPrincipal(id, username, role);
+    }
 }
@@ -0,0 +1,32 @@
+package com.crt.server.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Authenticated user rebuilt from access token claims, so requests do not
+ * load the {@link com.crt.server.model.User} entity. Token expiry and the
+ * token version take the place of the account status checks.
+ */
+public record JwtPrincipal(UUID id, String username, String role) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -17,6 +17,11 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    // Claims the request filter builds its principal from
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "tokenVersion";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -31,7 +36,7 @@ public class JwtService {
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return extractClaim(token, claims -> claims.get(ROLE_CLAIM, String.class));
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -54,11 +59,12 @@ public class JwtService {
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
         // Add user-specific claims
         if (userDetails instanceof com.crt.server.model.User user) {
-            extraClaims.put("userId", user.getId().toString());
+            extraClaims.put(USER_ID_CLAIM, user.getId().toString());
             extraClaims.put("name", user.getName());
             extraClaims.put("email", user.getEmail());
-            extraClaims.put("role", user.getRole().name());
+            extraClaims.put(ROLE_CLAIM, user.getRole().name());
             extraClaims.put("isFirstLogin", user.isFirstLogin());
+            extraClaims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
         }
 
         return Jwts
@@ -73,9 +79,28 @@ public class JwtService {
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
+        if (userDetails instanceof com.crt.server.model.User user
+                && extractTokenVersion(extractAllClaims(token)) < user.getTokenVersion()) {
+            return false;
+        }
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    /**
+     * Verify the signature and expiry and return the claims
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    public int extractTokenVersion(Claims claims) {
+        // Tokens issued before versioning count as version 0
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version != null ? version : 0;
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
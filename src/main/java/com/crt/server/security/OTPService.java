@@ -1,42 +1,39 @@
 package com.crt.server.security;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.SecureRandom;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OTPService {
-    // In-memory storage for OTPs (keyed by username or email)
-    private final Map<String, String> otpStorage = new ConcurrentHashMap<>();
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // TTL-bounded storage for OTPs (keyed by username or email)
+    private final OtpStore otpStore;
 
     public String generateOTP() {
-        return String.format("%06d", (int) (Math.random() * 1_000_000));
+        return String.format("%06d", RANDOM.nextInt(1_000_000));
     }
 
     public void storeOTP(String usernameOrEmail, String otp) {
-        System.out.println("Storing OTP for " + usernameOrEmail);
-        otpStorage.put(usernameOrEmail, otp);
+        log.debug("Storing OTP for {}", usernameOrEmail);
+        otpStore.save(usernameOrEmail, otp);
     }
 
     public boolean verifyOTP(String usernameOrEmail, String otp) {
-        System.out.println("Verifying OTP for " + usernameOrEmail);
-        String storedOTP = otpStorage.get(usernameOrEmail);
-        if (storedOTP == null) {
+        log.debug("Verifying OTP for {}", usernameOrEmail);
+        if (otp == null) {
             return false;
         }
-
-        boolean isValid = storedOTP.equals(otp);
-        if (isValid) {
-            otpStorage.remove(usernameOrEmail);
-        }
-        removeOTP(usernameOrEmail);
-        return isValid;
+        return otpStore.verify(usernameOrEmail, otp);
     }
 
     public void removeOTP(String usernameOrEmail) {
-        otpStorage.remove(usernameOrEmail);
+        otpStore.remove(usernameOrEmail);
     }
 }
@@ -0,0 +1,22 @@
+package com.crt.server.security;
+
+/**
+ * Storage for pending login OTPs. Entries expire after the configured TTL and are
+ * invalidated once the configured number of verification attempts is used up.
+ */
+public interface OtpStore {
+
+    /**
+     * Store an OTP, replacing any previous one and resetting the attempt counter
+     */
+    void save(String key, String otp);
+
+    /**
+     * Verify an OTP. A successful verification consumes the OTP so it can only be used once.
+     *
+     * @return true if the OTP matched and had not expired or run out of attempts
+     */
+    boolean verify(String key, String otp);
+
+    void remove(String key);
+}
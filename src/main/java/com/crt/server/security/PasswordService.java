@@ -16,6 +16,7 @@ import java.util.UUID;
 public class PasswordService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionService tokenVersionService;
 
     public AuthResponseDTO updatePassword(UUID userId, PasswordUpdateDTO passwordUpdate) {
         User user = userRepository.findById(userId)
@@ -23,7 +24,7 @@ public class PasswordService {
 
         // Update password
         user.setPassword(passwordEncoder.encode(passwordUpdate.getNewPassword()));
-        userRepository.save(user);
+        tokenVersionService.saveAndRevokeTokens(user);
 
         return AuthResponseDTO.builder()
                 .message("Password updated successfully")
@@ -36,7 +37,7 @@ public class PasswordService {
 
         // Update password
         user.setPassword(passwordEncoder.encode(passwordUpdate.getNewPassword()));
-        userRepository.save(user);
+        tokenVersionService.saveAndRevokeTokens(user);
 
         return AuthResponseDTO.builder()
                 .message("Password updated successfully")
@@ -0,0 +1,145 @@
+package com.crt.server.security;
+
+import com.crt.server.config.RateLimitConfig;
+import com.crt.server.config.RateLimitConfig.Group;
+import com.crt.server.config.RateLimitConfig.KeyType;
+import com.crt.server.exception.ErrorResponse;
+import com.crt.server.security.RateLimitStore.Decision;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the configured per-group request limits. Runs after JwtAuthFilter so
+ * user-keyed groups can count per account rather than per IP.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitConfig rateLimitConfig;
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitConfig.isEnabled() || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getServletPath();
+        for (Map.Entry<String, Group> entry : rateLimitConfig.getGroups().entrySet()) {
+            Group group = entry.getValue();
+            if (!group.appliesTo(request.getMethod())
+                    || group.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path))) {
+                continue;
+            }
+
+            Decision decision = rateLimitService.check(entry.getKey(), clientKey(group, request),
+                    group.getRequests(), group.getPeriod());
+            if (!decision.allowed()) {
+                reject(response, path, decision);
+                return;
+            }
+            break;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientKey(Group group, HttpServletRequest request) {
+        if (group.getKey() == KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    /**
+     * The peer address, unless the peer is a trusted proxy: then the X-Forwarded-For
+     * hops are read right to left, past the trusted proxies, since everything left
+     * of the last untrusted hop was written by the client and can be forged
+     */
+    private String clientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!rateLimitConfig.isTrustForwardedFor() || !isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders("X-Forwarded-For"))) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        String client = remoteAddr;
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            client = hops.get(i);
+            if (!isTrustedProxy(client)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (String proxy : rateLimitConfig.getTrustedProxies()) {
+            try {
+                if (new IpAddressMatcher(proxy).matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // A hop that is not an IP address is never one of our proxies
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response, String path, Decision decision) throws IOException {
+        long retryAfter = Math.max(1, (decision.retryAfter().toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .message("Too many requests. Please try again in " + retryAfter + " seconds.")
+                .path(path)
+                .build());
+    }
+}
@@ -1,25 +1,56 @@
 package com.crt.server.security;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.crt.server.security.RateLimitStore.Decision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+@Slf4j
 @Service
 public class RateLimitService {
-    
-    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
-    
-    public boolean isAllowed(String key, int requests, Duration duration) {
-        Bucket bucket = buckets.computeIfAbsent(key, k -> createBucket(requests, duration));
-        return bucket.tryConsume(1);
+
+    private final RateLimitStore rateLimitStore;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitService(RateLimitStore rateLimitStore, MeterRegistry meterRegistry) {
+        this.rateLimitStore = rateLimitStore;
+        this.meterRegistry = meterRegistry;
+        if (rateLimitStore instanceof CaffeineRateLimitStore local) {
+            Gauge.builder("crt.ratelimit.keys", local, CaffeineRateLimitStore::getTrackedKeys)
+                    .description("Rate limit buckets held on this node")
+                    .register(meterRegistry);
+        }
     }
-    
-    private Bucket createBucket(int requests, Duration duration) {
-        Bandwidth limit = Bandwidth.classic(requests, Refill.intervally(requests, duration));
-        return Bucket.builder().addLimit(limit).build();
+
+    /**
+     * Count one request of {@code group} against {@code key}. Requests are let
+     * through if the store is unavailable, so an outage never locks users out.
+     */
+    public Decision check(String group, String key, int requests, Duration period) {
+        Decision decision;
+        try {
+            decision = rateLimitStore.tryConsume(group + ":" + key, requests, period);
+        } catch (Exception e) {
+            log.warn("Rate limit store unavailable, allowing {} request: {}", group, e.getMessage());
+            return Decision.ALLOWED;
+        }
+        if (!decision.allowed()) {
+            rejections.computeIfAbsent(group, g -> Counter.builder("crt.ratelimit.rejected")
+                    .tag("group", g)
+                    .description("Requests rejected by the rate limiter")
+                    .register(meterRegistry)).increment();
+        }
+        return decision;
+    }
+
+    public boolean isAllowed(String key, int requests, Duration duration) {
+        return check("default", key, requests, duration).allowed();
     }
 }
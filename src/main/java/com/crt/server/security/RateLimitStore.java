@@ -0,0 +1,21 @@
+package com.crt.server.security;
+
+import java.time.Duration;
+
+/**
+ * Token storage behind {@link RateLimitService}
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one request from the key's allowance of {@code requests} per {@code period}
+     */
+    Decision tryConsume(String key, int requests, Duration period);
+
+    /**
+     * @param retryAfter time until the next request would be allowed, zero when allowed
+     */
+    record Decision(boolean allowed, Duration retryAfter) {
+        static final Decision ALLOWED = new Decision(true, Duration.ZERO);
+    }
+}
@@ -0,0 +1,63 @@
+package com.crt.server.security;
+
+import com.crt.server.config.OtpConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis", matchIfMissing = true)
+public class RedisOtpStore implements OtpStore {
+
+    private static final String OTP_PREFIX = "otp:code:";
+    private static final String ATTEMPTS_PREFIX = "otp:attempts:";
+    // Counts an attempt and starts the counter's TTL in one step, so it can never be left without one
+    private static final DefaultRedisScript<Long> COUNT_ATTEMPT = new DefaultRedisScript<>(
+            "local attempts = redis.call('INCR', KEYS[1]) "
+                    + "if attempts == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end "
+                    + "return attempts", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OtpConfig otpConfig;
+
+    @Override
+    public void save(String key, String otp) {
+        stringRedisTemplate.delete(ATTEMPTS_PREFIX + key);
+        stringRedisTemplate.opsForValue().set(OTP_PREFIX + key, otp, otpConfig.getTtl());
+    }
+
+    @Override
+    public boolean verify(String key, String otp) {
+        String attemptsKey = ATTEMPTS_PREFIX + key;
+        Long attempts = stringRedisTemplate.execute(COUNT_ATTEMPT, List.of(attemptsKey),
+                String.valueOf(otpConfig.getTtl().toMillis()));
+
+        if (attempts == null || attempts > otpConfig.getMaxAttempts()) {
+            log.warn("OTP attempt limit reached for {}", key);
+            remove(key);
+            return false;
+        }
+
+        String storedOtp = stringRedisTemplate.opsForValue().get(OTP_PREFIX + key);
+        if (storedOtp == null || !storedOtp.equals(otp)) {
+            return false;
+        }
+
+        // Only the request that actually deletes the code wins, so a code cannot be used twice
+        boolean consumed = Boolean.TRUE.equals(stringRedisTemplate.delete(OTP_PREFIX + key));
+        stringRedisTemplate.delete(attemptsKey);
+        return consumed;
+    }
+
+    @Override
+    public void remove(String key) {
+        stringRedisTemplate.delete(List.of(OTP_PREFIX + key, ATTEMPTS_PREFIX + key));
+    }
+}
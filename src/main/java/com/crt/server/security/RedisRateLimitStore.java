@@ -0,0 +1,44 @@
+package com.crt.server.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Fixed-window counters in Redis, shared by every instance. A window key lives
+ * for one period, so storage is bounded by the number of active clients.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "redis")
+public class RedisRateLimitStore implements RateLimitStore {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+    // Count and start the window's expiry in one step, so a failure between the two
+    // can never leave a counter without a TTL
+    private static final DefaultRedisScript<Long> COUNT_REQUEST = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) "
+                    + "if count == 1 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end "
+                    + "return count", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public Decision tryConsume(String key, int requests, Duration period) {
+        long periodMillis = period.toMillis();
+        long now = System.currentTimeMillis();
+        long window = now / periodMillis;
+        String windowKey = KEY_PREFIX + key + ":" + window;
+
+        Long count = stringRedisTemplate.execute(COUNT_REQUEST, List.of(windowKey), String.valueOf(periodMillis));
+        if (count == null || count <= requests) {
+            return Decision.ALLOWED;
+        }
+        return new Decision(false, Duration.ofMillis((window + 1) * periodMillis - now));
+    }
+}
@@ -0,0 +1,38 @@
+package com.crt.server.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jwt.token-version.store", havingValue = "redis", matchIfMissing = true)
+public class RedisTokenVersionStore implements TokenVersionStore {
+
+    private static final String VERSION_PREFIX = "jwt:version:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JwtService jwtService;
+
+    @Override
+    public Integer get(UUID userId) {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_PREFIX + userId);
+        return version != null ? Integer.valueOf(version) : null;
+    }
+
+    @Override
+    public void put(UUID userId, int version) {
+        stringRedisTemplate.opsForValue().set(VERSION_PREFIX + userId, Integer.toString(version),
+                Duration.ofMillis(jwtService.getRefreshExpiration()));
+    }
+
+    @Override
+    public void fill(UUID userId, int version) {
+        stringRedisTemplate.opsForValue().setIfAbsent(VERSION_PREFIX + userId, Integer.toString(version),
+                Duration.ofMillis(jwtService.getRefreshExpiration()));
+    }
+}
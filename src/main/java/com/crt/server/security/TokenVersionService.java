@@ -0,0 +1,77 @@
+package com.crt.server.security;
+
+import com.crt.server.model.User;
+import com.crt.server.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Revokes a user's tokens by bumping the version they carry. The version is
+ * persisted on the user, which stays the source of truth, and cached in the
+ * {@link TokenVersionStore} so most requests can check it without the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final TokenVersionStore tokenVersionStore;
+
+    /**
+     * Save the user with a new token version, invalidating every token issued before
+     */
+    public User saveAndRevokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User saved = userRepository.save(user);
+        tokenVersionStore.put(saved.getId(), saved.getTokenVersion());
+        return saved;
+    }
+
+    /**
+     * Invalidate the user's tokens without persisting anything, for users being deleted
+     */
+    public void revokeTokens(User user) {
+        tokenVersionStore.put(user.getId(), user.getTokenVersion() + 1);
+    }
+
+    /**
+     * @return false if the user's tokens were revoked after this one was issued, the
+     * user no longer exists, or the version cannot be read from either the store or
+     * the database
+     */
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        Integer current = null;
+        try {
+            current = tokenVersionStore.get(userId);
+        } catch (RuntimeException e) {
+            log.warn("Token version store unavailable, reading the version of {} from the database: {}",
+                    userId, e.getMessage());
+        }
+        if (current == null) {
+            current = loadVersion(userId);
+        }
+        return current != null && tokenVersion >= current;
+    }
+
+    private Integer loadVersion(UUID userId) {
+        Integer version;
+        try {
+            version = userRepository.findTokenVersionById(userId).orElse(null);
+        } catch (RuntimeException e) {
+            log.warn("Cannot read the token version of {}, rejecting the token: {}", userId, e.getMessage());
+            return null;
+        }
+        if (version != null) {
+            try {
+                tokenVersionStore.fill(userId, version);
+            } catch (RuntimeException e) {
+                log.debug("Could not cache the token version of {}: {}", userId, e.getMessage());
+            }
+        }
+        return version;
+    }
+}
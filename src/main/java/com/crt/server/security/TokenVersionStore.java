@@ -0,0 +1,27 @@
+package com.crt.server.security;
+
+import java.util.UUID;
+
+/**
+ * Cache of the token version persisted on each user. Entries are kept for the
+ * refresh token lifetime; a missing entry means the version has to be read from
+ * the database, never that the user's tokens were not revoked.
+ */
+public interface TokenVersionStore {
+
+    /**
+     * @return the cached version, or null if the user has no entry
+     */
+    Integer get(UUID userId);
+
+    /**
+     * Publish a revocation
+     */
+    void put(UUID userId, int version);
+
+    /**
+     * Cache a version read from the database, without replacing an entry a
+     * revocation may have written since that read
+     */
+    void fill(UUID userId, int version);
+}
@@ -0,0 +1,209 @@
+package com.crt.server.service;
+
+import com.crt.server.config.DashboardStreamConfig;
+import com.crt.server.dto.ActivityLogDTO;
+import com.crt.server.dto.DashboardMetricsDTO;
+import com.crt.server.dto.websocket.DashboardUpdateEvent;
+import com.crt.server.event.DashboardChangedEvent;
+import com.crt.server.event.TimetableChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the admin dashboard model in memory and pushes it on /topic/admin_dashboard.
+ * Write paths publish change events; changes are gathered for at most one interval,
+ * the counters are recomputed once and only the metrics and activities that changed
+ * are sent, so admin clients no longer need to poll.
+ * <p>
+ * With several nodes every write is broadcast so each node keeps its model current,
+ * but only the cluster leader pushes metric changes, stamped from one cluster-wide
+ * sequence. Activities are logged per node, so each node pushes its own.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminDashboardStreamService {
+
+    private static final String CHANGED_SIGNAL = "admin-dashboard-changed";
+    private static final String SEQUENCE = "admin-dashboard";
+
+    private final DashboardService dashboardService;
+    private final ActivityLogService activityLogService;
+    private final WebSocketService webSocketService;
+    private final DashboardStreamConfig dashboardStreamConfig;
+    private final ClusterCoordinator clusterCoordinator;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "admin-dashboard-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock modelLock = new ReentrantLock();
+    private final AtomicBoolean flushPending = new AtomicBoolean(false);
+
+    private Map<String, Long> metrics = Map.of();
+    private ActivityLogDTO lastActivity;
+    // Whether this node pushed metrics last time; a new leader resends all of them
+    private boolean leading;
+    private volatile DashboardMetricsDTO currentMetrics;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        clusterCoordinator.subscribe(CHANGED_SIGNAL, this::requestFlush);
+        long fullRefreshMillis = dashboardStreamConfig.getFullRefresh().toMillis();
+        timer.scheduleWithFixedDelay(this::flush, 0, fullRefreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        clusterCoordinator.broadcast(CHANGED_SIGNAL);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimetableChanged(TimetableChangedEvent event) {
+        clusterCoordinator.broadcast(CHANGED_SIGNAL);
+    }
+
+    /**
+     * Latest dashboard counters, recomputed only after writes or the periodic refresh
+     */
+    public DashboardMetricsDTO getMetrics() {
+        DashboardMetricsDTO metricsSnapshot = currentMetrics;
+        if (metricsSnapshot != null) {
+            return metricsSnapshot;
+        }
+        modelLock.lock();
+        try {
+            // Loaded here rather than by the timer only when a request beats the first refresh
+            if (currentMetrics == null) {
+                DashboardMetricsDTO latest = dashboardService.getDashboardMetrics();
+                newActivities();
+                metrics = toMap(latest);
+                currentMetrics = latest;
+            }
+            return currentMetrics;
+        } finally {
+            modelLock.unlock();
+        }
+    }
+
+    /**
+     * Full dashboard state for a newly subscribed client, stamped with the last sequence sent
+     */
+    public DashboardUpdateEvent snapshot() {
+        getMetrics();
+        modelLock.lock();
+        try {
+            return DashboardUpdateEvent.builder()
+                    .sequence(clusterCoordinator.currentSequence(SEQUENCE))
+                    .snapshot(true)
+                    .metrics(metrics)
+                    .recentActions(activityLogService.getRecentActivities())
+                    .build();
+        } finally {
+            modelLock.unlock();
+        }
+    }
+
+    private void requestFlush() {
+        if (flushPending.compareAndSet(false, true)) {
+            timer.schedule(() -> {
+                flushPending.set(false);
+                flush();
+            }, dashboardStreamConfig.getMinInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Failed to refresh admin dashboard: {}", e.getMessage());
+        }
+    }
+
+    void refresh() {
+        modelLock.lock();
+        try {
+            DashboardMetricsDTO latest = dashboardService.getDashboardMetrics();
+            Map<String, Long> latestMetrics = toMap(latest);
+
+            boolean leader = clusterCoordinator.isLeader();
+            Map<String, Long> changedMetrics = new LinkedHashMap<>();
+            if (leader) {
+                latestMetrics.forEach((name, value) -> {
+                    if (!leading || !Objects.equals(metrics.get(name), value)) {
+                        changedMetrics.put(name, value);
+                    }
+                });
+            }
+            List<ActivityLogDTO> newActivities = newActivities();
+
+            leading = leader;
+            metrics = latestMetrics;
+            currentMetrics = latest;
+            if (changedMetrics.isEmpty() && newActivities.isEmpty()) {
+                return;
+            }
+
+            webSocketService.notifyAdminDashboard(DashboardUpdateEvent.builder()
+                    .sequence(clusterCoordinator.nextSequence(SEQUENCE))
+                    .snapshot(false)
+                    .metrics(changedMetrics)
+                    .recentActions(newActivities)
+                    .build());
+        } finally {
+            modelLock.unlock();
+        }
+    }
+
+    // Activities are newest first; everything above the last one pushed is new
+    private List<ActivityLogDTO> newActivities() {
+        List<ActivityLogDTO> recent = activityLogService.getRecentActivities();
+        List<ActivityLogDTO> fresh = new ArrayList<>();
+        for (ActivityLogDTO activity : recent) {
+            if (activity == lastActivity) {
+                break;
+            }
+            fresh.add(activity);
+        }
+        if (!recent.isEmpty()) {
+            lastActivity = recent.get(0);
+        }
+        return currentMetrics == null ? List.of() : fresh;
+    }
+
+    private Map<String, Long> toMap(DashboardMetricsDTO dto) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        map.put("totalStudents", dto.getTotalStudents());
+        map.put("totalFaculties", dto.getTotalFaculties());
+        map.put("totalSections", dto.getTotalSections());
+        map.put("totalRooms", dto.getTotalRooms());
+        map.put("totalTimeSlots", dto.getTotalTimeSlots());
+        map.put("activeStudents", dto.getActiveStudents());
+        map.put("totalAttendanceRecords", dto.getTotalAttendanceRecords());
+        return map;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,224 @@
+package com.crt.server.service;
+
+import com.crt.server.config.AttendanceStreamConfig;
+import com.crt.server.dto.websocket.AttendanceDeltaEvent;
+import com.crt.server.dto.websocket.AttendanceSessionEvent;
+import com.crt.server.dto.websocket.AttendanceSessionEvent.StudentAttendanceUpdate;
+import com.crt.server.dto.websocket.WebSocketMessage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces live attendance events per section topic. Events arriving within the
+ * configured window are merged and published as one delta frame holding only the
+ * students whose state changed plus the latest counters. Each section keeps the
+ * full student state so clients that detect a sequence gap can ask for a snapshot.
+ */
+@Slf4j
+@Service
+public class AttendanceStreamService {
+
+    private final WebSocketFanout webSocketFanout;
+    private final AttendanceStreamConfig attendanceStreamConfig;
+
+    private final Cache<String, SectionStream> streams;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attendance-stream-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AttendanceStreamService(WebSocketFanout webSocketFanout, AttendanceStreamConfig attendanceStreamConfig) {
+        this.webSocketFanout = webSocketFanout;
+        this.attendanceStreamConfig = attendanceStreamConfig;
+        this.streams = Caffeine.newBuilder()
+                .expireAfterAccess(attendanceStreamConfig.getIdleTimeout())
+                .maximumSize(attendanceStreamConfig.getMaximumSections())
+                .build();
+    }
+
+    /**
+     * Merge a marking or stats event into the section's pending delta and make
+     * sure a flush is queued for the end of the current window
+     */
+    public void record(String sectionId, AttendanceSessionEvent event) {
+        SectionStream stream = streams.get(sectionId, id -> new SectionStream());
+        boolean scheduleFlush = false;
+
+        stream.lock.lock();
+        try {
+            stream.apply(event);
+            if (stream.dirty && !stream.flushScheduled) {
+                stream.flushScheduled = true;
+                scheduleFlush = true;
+            }
+        } finally {
+            stream.lock.unlock();
+        }
+
+        if (scheduleFlush) {
+            timer.schedule(() -> flush(sectionId, stream),
+                    attendanceStreamConfig.getWindow().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Start a new session on the section: pending changes of the previous session are
+     * sent first, then the student state is cleared. Sequence numbers keep increasing.
+     */
+    public void startSession(String sectionId, AttendanceSessionEvent event) {
+        SectionStream stream = streams.get(sectionId, id -> new SectionStream());
+        stream.lock.lock();
+        try {
+            flushLocked(sectionId, stream);
+            stream.students.clear();
+            stream.apply(event);
+            stream.changed.clear();
+            stream.dirty = false;
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    /**
+     * Send any pending delta for the section immediately, e.g. before a
+     * session-completed message so clients see the final counters first
+     */
+    public void flush(String sectionId) {
+        SectionStream stream = streams.getIfPresent(sectionId);
+        if (stream != null) {
+            flush(sectionId, stream);
+        }
+    }
+
+    /**
+     * Full state of the section stamped with the sequence of the last delta sent.
+     * Deltas after that sequence may repeat students already in the snapshot.
+     * A section without live state gets an empty snapshot and no state is created.
+     */
+    public AttendanceDeltaEvent snapshot(String sectionId) {
+        Objects.requireNonNull(sectionId, "sectionId");
+        SectionStream stream = streams.getIfPresent(sectionId);
+        if (stream == null) {
+            return new SectionStream().frame(sectionId, List.of(), true);
+        }
+        stream.lock.lock();
+        try {
+            return stream.frame(sectionId, new ArrayList<>(stream.students.values()), true);
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    private void flush(String sectionId, SectionStream stream) {
+        stream.lock.lock();
+        try {
+            flushLocked(sectionId, stream);
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    // Sends while holding the section lock so frames leave in sequence order
+    private void flushLocked(String sectionId, SectionStream stream) {
+        stream.flushScheduled = false;
+        if (!stream.dirty) {
+            return;
+        }
+
+        stream.sequence++;
+        AttendanceDeltaEvent delta = stream.frame(sectionId, new ArrayList<>(stream.changed.values()), false);
+        stream.changed.clear();
+        stream.dirty = false;
+
+        try {
+            webSocketFanout.send("/topic/section_" + sectionId,
+                    WebSocketMessage.create(AttendanceDeltaEvent.ATTENDANCE_DELTA, delta));
+        } catch (Exception e) {
+            log.error("Failed to send attendance delta {} for section {}: {}",
+                    delta.getSequence(), sectionId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private static class SectionStream {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, StudentAttendanceUpdate> students = new LinkedHashMap<>();
+        private final Map<String, StudentAttendanceUpdate> changed = new LinkedHashMap<>();
+
+        private long sequence;
+        private boolean dirty;
+        private boolean flushScheduled;
+
+        private String sessionId;
+        private Integer totalStudents;
+        private Integer presentCount;
+        private Integer absentCount;
+        private Double attendancePercentage;
+        private String status;
+
+        private void apply(AttendanceSessionEvent event) {
+            sessionId = merge(sessionId, event.getSessionId());
+            totalStudents = merge(totalStudents, event.getTotalStudents());
+            presentCount = merge(presentCount, event.getPresentCount());
+            absentCount = merge(absentCount, event.getAbsentCount());
+            attendancePercentage = merge(attendancePercentage, event.getAttendancePercentage());
+            status = merge(status, event.getStatus());
+
+            if (event.getRecentUpdates() == null) {
+                return;
+            }
+            for (StudentAttendanceUpdate update : event.getRecentUpdates()) {
+                if (update.getStudentId() == null) {
+                    continue;
+                }
+                StudentAttendanceUpdate previous = students.put(update.getStudentId(), update);
+                if (!update.equals(previous)) {
+                    changed.put(update.getStudentId(), update);
+                    dirty = true;
+                }
+            }
+        }
+
+        private <T> T merge(T current, T incoming) {
+            if (incoming == null || incoming.equals(current)) {
+                return current;
+            }
+            dirty = true;
+            return incoming;
+        }
+
+        private AttendanceDeltaEvent frame(String sectionId, List<StudentAttendanceUpdate> students, boolean snapshot) {
+            return AttendanceDeltaEvent.builder()
+                    .sectionId(sectionId)
+                    .sessionId(sessionId)
+                    .sequence(sequence)
+                    .snapshot(snapshot)
+                    .totalStudents(totalStudents)
+                    .presentCount(presentCount)
+                    .absentCount(absentCount)
+                    .attendancePercentage(attendancePercentage)
+                    .status(status)
+                    .students(students)
+                    .build();
+        }
+    }
+}
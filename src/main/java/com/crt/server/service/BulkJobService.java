@@ -0,0 +1,62 @@
+package com.crt.server.service;
+
+import com.crt.server.dto.BulkJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Runs long bulk operations off the request thread and tracks their progress.
+ * Job state is persisted and every change is pushed to the owner as a
+ * "bulk_job_progress" WebSocket event.
+ */
+public interface BulkJobService {
+
+    BulkJobDTO submit(String type, String owner, BulkJob job);
+
+    /**
+     * Spool the upload to disk so the job can read it after the request has completed
+     */
+    BulkJobDTO submitUpload(String type, String owner, MultipartFile file, UploadJob job) throws IOException;
+
+    BulkJobDTO getJob(String jobId);
+
+    /**
+     * Queued jobs are cancelled at once; running jobs stop at their next
+     * {@link BulkJobProgress#checkCancelled()} call
+     */
+    BulkJobDTO cancel(String jobId);
+
+    /**
+     * Result of a completed job
+     */
+    Object getResult(String jobId);
+
+    @FunctionalInterface
+    interface BulkJob {
+        // The returned value becomes the job result
+        Object run(BulkJobProgress progress) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface UploadJob {
+        Object run(MultipartFile upload, BulkJobProgress progress) throws Exception;
+    }
+
+    interface BulkJobProgress {
+        void setTotal(int total);
+
+        void succeeded(int count);
+
+        void failed(String error);
+
+        boolean isCancelled();
+
+        default void checkCancelled() {
+            if (isCancelled()) {
+                throw new CancellationException("Job cancelled");
+            }
+        }
+    }
+}
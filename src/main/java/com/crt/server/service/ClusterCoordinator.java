@@ -0,0 +1,40 @@
+package com.crt.server.service;
+
+import java.time.Duration;
+
+/**
+ * Coordination between application nodes for work that must happen once per cluster
+ * rather than once per node, such as scheduled pushes and shared sequence numbers.
+ */
+public interface ClusterCoordinator {
+
+    /**
+     * Whether this node currently holds the cluster leadership
+     */
+    boolean isLeader();
+
+    /**
+     * Claim a key for the given time; only the first node to ask gets true
+     */
+    boolean claim(String key, Duration ttl);
+
+    /**
+     * Increment a cluster-wide counter and return the new value
+     */
+    long nextSequence(String name);
+
+    /**
+     * Last value handed out by {@link #nextSequence(String)}, 0 if none yet
+     */
+    long currentSequence(String name);
+
+    /**
+     * Notify the listeners of a signal on every node, this one included
+     */
+    void broadcast(String signal);
+
+    /**
+     * Run the listener whenever the signal is broadcast by any node
+     */
+    void subscribe(String signal, Runnable listener);
+}
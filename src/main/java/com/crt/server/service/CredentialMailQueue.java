@@ -0,0 +1,56 @@
+package com.crt.server.service;
+
+import com.crt.server.util.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends account credential emails in the background so onboarding never waits
+ * on SMTP. A failed send is logged; the account itself is already created.
+ */
+@Slf4j
+@Service
+public class CredentialMailQueue {
+
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    private final EmailService emailService;
+    private final ThreadPoolExecutor executor;
+
+    public CredentialMailQueue(EmailService emailService,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.emailService = emailService;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY), WorkerThreads.factory("credential-mail", virtualThreads));
+    }
+
+    public void enqueue(String email, String username, String password) {
+        try {
+            executor.execute(() -> {
+                try {
+                    emailService.sendPasswordEmail(email, username, password);
+                } catch (Exception e) {
+                    log.warn("Failed to send password email to {}: {}", email, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.error("Credential mail queue full, dropping password email to {}", email);
+        }
+    }
+
+    public int getPending() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CsvService {
     /**
@@ -18,7 +19,8 @@ public interface CsvService {
     List<CSVRecord> parseCsv(MultipartFile file, String[] headers) throws IOException;
 
     /**
-     * Parse a CSV file and map the records to a list of objects of type T
+     * Parse a CSV file and map the records to a list of objects of type T.
+     * Records are mapped as they are read, so only the mapped results are kept.
      * 
      * @param file    The CSV file to parse
      * @param headers The headers to use for the CSV file
@@ -26,17 +28,50 @@ public interface CsvService {
      * @return List of objects of type T
      * @throws IOException if there is an error reading the file
      */
-    <T> List<T> parseCsv(MultipartFile file, String[] headers, RecordMapper<T> mapper) throws IOException;
-
-    /**
-     * Parse a CSV file without predefined headers (for custom formats like timetables)
-     * 
-     * @param file The CSV file to parse
-     * @return List of CSVRecord objects
-     * @throws IOException if there is an error reading the file
-     */
+    <T> List<T> parseCsv(MultipartFile file, String[] headers, RecordMapper<T> mapper) throws IOException;
+
+    /**
+     * Parse a CSV file without predefined headers (for custom formats like timetables)
+     * 
+     * @param file The CSV file to parse
+     * @return List of CSVRecord objects
+     * @throws IOException if there is an error reading the file
+     */
     List<CSVRecord> parseCsvWithoutHeaders(MultipartFile file) throws IOException;
 
+    /**
+     * Read a CSV file lazily, one record at a time, straight from the upload stream.
+     * The stream holds the file open and must be closed, e.g. with try-with-resources.
+     * 
+     * @param file    The CSV file to parse
+     * @param headers The headers to use for the CSV file
+     * @return Lazily populated stream of records
+     * @throws IOException if the file cannot be opened
+     */
+    Stream<CSVRecord> streamCsv(MultipartFile file, String[] headers) throws IOException;
+
+    /**
+     * Read a CSV file without predefined headers lazily, one record at a time.
+     * The stream holds the file open and must be closed.
+     * 
+     * @param file The CSV file to parse
+     * @return Lazily populated stream of records
+     * @throws IOException if the file cannot be opened
+     */
+    Stream<CSVRecord> streamCsvWithoutHeaders(MultipartFile file) throws IOException;
+
+    /**
+     * Parse a CSV file record by record and pass the records to the handler in chunks,
+     * so only one chunk is held in memory at a time
+     * 
+     * @param file      The CSV file to parse
+     * @param headers   The headers to use for the CSV file
+     * @param chunkSize The maximum number of records per chunk
+     * @param handler   Called once per chunk, in file order
+     * @throws IOException if there is an error reading the file
+     */
+    void parseCsvInChunks(MultipartFile file, String[] headers, int chunkSize, ChunkHandler handler) throws IOException;
+
     /**
      * Functional interface for mapping CSVRecord to a specific type
      * 
@@ -46,4 +81,12 @@ public interface CsvService {
     interface RecordMapper<T> {
         T map(CSVRecord record);
     }
+
+    /**
+     * Functional interface for processing a chunk of CSVRecords
+     */
+    @FunctionalInterface
+    interface ChunkHandler {
+        void handle(List<CSVRecord> chunk);
+    }
 }
\ No newline at end of file
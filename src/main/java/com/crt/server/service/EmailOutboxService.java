@@ -0,0 +1,28 @@
+package com.crt.server.service;
+
+import com.crt.server.dto.EmailBatchStatusDTO;
+import com.crt.server.dto.MailRecipientDTO;
+import com.crt.server.util.MailTemplate;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Durable email queue: messages are stored first and delivered by background
+ * workers, with retries, so callers never wait on SMTP
+ */
+public interface EmailOutboxService {
+
+    /**
+     * Store one message per recipient and return the batch id
+     */
+    String enqueueBatch(String subject, String body, List<String> recipients);
+
+    /**
+     * Render both templates per recipient and store the messages in chunks while
+     * the recipients are pulled, so large audiences are never held in memory
+     */
+    String enqueueMerge(MailTemplate subject, MailTemplate body, Iterator<MailRecipientDTO> recipients);
+
+    EmailBatchStatusDTO getBatchStatus(String batchId);
+}
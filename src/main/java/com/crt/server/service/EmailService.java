@@ -2,8 +2,6 @@ package com.crt.server.service;
 
 import com.crt.server.dto.AccountConfirmationMailDTO;
 
-import java.util.List;
-
 public interface EmailService {
     void sendPasswordEmail(String to, String username, String password);
 
@@ -12,6 +10,4 @@ public interface EmailService {
     void sendLoginOtp(String otp, String mail);
 
     void sendStudentAccountConfirmationMail(String email, AccountConfirmationMailDTO student);
-
-    int sendBulkEmail(String subject, String body, List<String> emailIds);
 }
@@ -1,188 +1,265 @@
 package com.crt.server.service;
 
 import com.crt.server.dto.websocket.FacultySessionEvent;
-import com.crt.server.model.TimeSlot;
-import com.crt.server.model.User;
+import com.crt.server.event.TimetableChangedEvent;
+import com.crt.server.model.Room;
 import com.crt.server.repository.TimeSlotRepository;
-import lombok.RequiredArgsConstructor;
+import com.crt.server.util.TimeOfDay;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Plans today's faculty session notifications once a day (and again whenever the
+ * timetable changes) and fires each STARTING / UPCOMING / ENDED event exactly once
+ * at its time from a delay queue, instead of sweeping every time slot each minute.
+ * <p>
+ * Every node plans the same events, so each one is claimed in the cluster before it
+ * is sent; only the node that wins the claim notifies the faculty member.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FacultySessionSchedulerService {
 
+    private static final int WARNING_MINUTES = 15;
+    // Events that became due shortly before a (re)plan are still delivered
+    private static final Duration LATE_GRACE = Duration.ofMinutes(1);
+    // Bulk timetable uploads publish many change events; plan once after they settle
+    private static final long REPLAN_DELAY_SECONDS = 5;
+    // Claims only need to outlive the day they were made for
+    private static final Duration CLAIM_TTL = Duration.ofDays(1);
+
     private final TimeSlotRepository timeSlotRepository;
     private final WebSocketService webSocketService;
-    
-    // Track active sessions
-    private final ConcurrentHashMap<String, TimeSlot> activeSessions = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Boolean> warningsSent = new ConcurrentHashMap<>();
+    private final ClusterCoordinator clusterCoordinator;
+    private final Clock clock;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "faculty-session-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock planLock = new ReentrantLock();
+    private final AtomicBoolean replanPending = new AtomicBoolean(false);
+
+    // Pending timers and already delivered events for the planned day, keyed by event id
+    private final Map<String, ScheduledFuture<?>> pendingEvents = new ConcurrentHashMap<>();
+    private final Set<String> firedEvents = ConcurrentHashMap.newKeySet();
+    private final Set<String> activeSessions = ConcurrentHashMap.newKeySet();
+    private volatile LocalDate plannedDate;
+
+    @Autowired
+    public FacultySessionSchedulerService(TimeSlotRepository timeSlotRepository,
+                                          WebSocketService webSocketService,
+                                          ClusterCoordinator clusterCoordinator) {
+        this(timeSlotRepository, webSocketService, clusterCoordinator, Clock.systemDefaultZone());
+    }
+
+    FacultySessionSchedulerService(TimeSlotRepository timeSlotRepository,
+                                   WebSocketService webSocketService,
+                                   ClusterCoordinator clusterCoordinator,
+                                   Clock clock) {
+        this.timeSlotRepository = timeSlotRepository;
+        this.webSocketService = webSocketService;
+        this.clusterCoordinator = clusterCoordinator;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void planOnStartup() {
+        planToday();
+    }
 
     /**
-     * Check for session updates every minute
+     * Build the day's event plan just after midnight
      */
-    @Scheduled(fixedRate = 60000) // Every 1 minute
-    public void checkSessionUpdates() {
-        LocalTime now = LocalTime.now();
-        log.debug("Checking session updates at {}", now);
-        
-        // Get all time slots (you might want to optimize this query)
-        List<TimeSlot> allTimeSlots = timeSlotRepository.findAll();
-        
-        for (TimeSlot timeSlot : allTimeSlots) {
-            if (timeSlot.isBreak() || timeSlot.getInchargeFaculty() == null) {
-                continue;
+    @Scheduled(cron = "0 0 0 * * *")
+    public void planDailySessions() {
+        planToday();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimetableChanged(TimetableChangedEvent event) {
+        if (!event.affects(LocalDate.now(clock).getDayOfWeek())) {
+            return;
+        }
+        if (replanPending.compareAndSet(false, true)) {
+            timer.schedule(() -> {
+                replanPending.set(false);
+                planToday();
+            }, REPLAN_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Load today's teaching slots once and queue one timer per session event.
+     * Events that already fired today are never queued again.
+     */
+    public void planToday() {
+        planLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            LocalDate today = now.toLocalDate();
+
+            if (!today.equals(plannedDate)) {
+                firedEvents.clear();
+                activeSessions.clear();
+                plannedDate = today;
             }
-            
-            String facultyId = timeSlot.getInchargeFaculty().getId().toString();
-            String sessionKey = facultyId + "_" + timeSlot.getId();
-            
-            try {
-                LocalTime startTime = LocalTime.parse(timeSlot.getStartTime());
-                LocalTime endTime = LocalTime.parse(timeSlot.getEndTime());
-                
-                // Check if session is starting (within 1 minute of start time)
-                if (isTimeWithinMinutes(now, startTime, 1) && !activeSessions.containsKey(sessionKey)) {
-                    handleSessionStarting(timeSlot, facultyId, sessionKey);
-                }
-                
-                // Check if session is active
-                else if (now.isAfter(startTime) && now.isBefore(endTime)) {
-                    handleActiveSession(timeSlot, facultyId, sessionKey, now, endTime);
-                }
-                
-                // Check if session is ending
-                else if (isTimeWithinMinutes(now, endTime, 1) && activeSessions.containsKey(sessionKey)) {
-                    handleSessionEnding(timeSlot, facultyId, sessionKey);
-                }
-                
-                // Check for next session warning (15 minutes before)
-                else if (isTimeWithinMinutes(now, startTime.minusMinutes(15), 1)) {
-                    handleNextSessionWarning(timeSlot, facultyId, sessionKey);
+
+            pendingEvents.values().forEach(future -> future.cancel(false));
+            pendingEvents.clear();
+
+            List<Object[]> slots = timeSlotRepository.findSessionSlotsByDayOfWeek(today.getDayOfWeek());
+            for (Object[] row : slots) {
+                try {
+                    planSession(row, today, now);
+                } catch (Exception e) {
+                    log.error("Error planning time slot {}: {}", row[0], e.getMessage());
                 }
-                
-            } catch (Exception e) {
-                log.error("Error processing time slot {}: {}", timeSlot.getId(), e.getMessage());
             }
+
+            log.info("Planned {} faculty session events for {} ({} time slots)",
+                    pendingEvents.size(), today, slots.size());
+        } catch (Exception e) {
+            log.error("Failed to plan faculty session events: {}", e.getMessage(), e);
+        } finally {
+            planLock.unlock();
         }
-        
-        // Clean up ended sessions
-        cleanupEndedSessions();
     }
 
-    private void handleSessionStarting(TimeSlot timeSlot, String facultyId, String sessionKey) {
-        log.info("Session starting for faculty {} - TimeSlot {}", facultyId, timeSlot.getId());
-        
-        activeSessions.put(sessionKey, timeSlot);
-        
-        FacultySessionEvent event = FacultySessionEvent.builder()
-                .facultyId(facultyId)
-                .timeSlotId(timeSlot.getId().toString())
-                .sectionId(timeSlot.getSection().getId().toString())
-                .sectionName(timeSlot.getSection().getName())
-                .room(timeSlot.getRoom().toString())
-                .startTime(LocalTime.parse(timeSlot.getStartTime()))
-                .endTime(LocalTime.parse(timeSlot.getEndTime()))
-                .status("STARTING")
-                .build();
-        
-        webSocketService.notifyFacultySessionStarted(facultyId, event);
+    private void planSession(Object[] row, LocalDate today, LocalDateTime now) {
+        Integer timeSlotId = (Integer) row[0];
+        LocalTime startTime = TimeOfDay.toLocalTime((Integer) row[1]);
+        LocalTime endTime = TimeOfDay.toLocalTime((Integer) row[2]);
+        String facultyId = row[3].toString();
+        String sectionId = ((UUID) row[4]).toString();
+        String sectionName = (String) row[5];
+        String room = ((Room) row[6]).toString();
+        // Notifications go to the faculty member's STOMP user, which is their username
+        String username = (String) row[7];
+
+        String sessionKey = facultyId + "_" + timeSlotId;
+        LocalDateTime start = today.atTime(startTime);
+        LocalDateTime end = today.atTime(endTime);
+
+        // A session already in progress when we (re)plan only needs its end event
+        if (!now.isBefore(start) && now.isBefore(end)) {
+            activeSessions.add(sessionKey);
+        }
+
+        FacultySessionEvent upcoming = sessionEvent(facultyId, timeSlotId, sectionId, sectionName, room,
+                startTime, endTime, "UPCOMING", WARNING_MINUTES);
+        schedule(sessionKey + "_UPCOMING", start.minusMinutes(WARNING_MINUTES), now, () -> { },
+                () -> webSocketService.notifyNextSessionWarning(username, upcoming));
+
+        FacultySessionEvent starting = sessionEvent(facultyId, timeSlotId, sectionId, sectionName, room,
+                startTime, endTime, "STARTING", (int) startTime.until(endTime, ChronoUnit.MINUTES));
+        schedule(sessionKey + "_STARTING", start, now, () -> activeSessions.add(sessionKey),
+                () -> webSocketService.notifyFacultySessionStarted(username, starting));
+
+        FacultySessionEvent ended = sessionEvent(facultyId, timeSlotId, sectionId, sectionName, room,
+                startTime, endTime, "ENDED", null);
+        schedule(sessionKey + "_ENDED", end, now, () -> activeSessions.remove(sessionKey),
+                () -> webSocketService.notifyFacultySessionEnded(username, ended));
     }
 
-    private void handleActiveSession(TimeSlot timeSlot, String facultyId, String sessionKey, 
-                                   LocalTime now, LocalTime endTime) {
-        
-        if (!activeSessions.containsKey(sessionKey)) {
-            activeSessions.put(sessionKey, timeSlot);
+    /**
+     * Queue an event: the state change runs on every node, the notification only on the
+     * node that claims the event
+     */
+    private void schedule(String eventKey, LocalDateTime fireAt, LocalDateTime now,
+                          Runnable stateChange, Runnable notification) {
+        if (firedEvents.contains(eventKey) || fireAt.isBefore(now.minus(LATE_GRACE))) {
+            return;
         }
-        
-        int minutesRemaining = (int) now.until(endTime, ChronoUnit.MINUTES);
-        
-        FacultySessionEvent event = FacultySessionEvent.builder()
-                .facultyId(facultyId)
-                .timeSlotId(timeSlot.getId().toString())
-                .sectionId(timeSlot.getSection().getId().toString())
-                .sectionName(timeSlot.getSection().getName())
-                .room(timeSlot.getRoom().toString())
-                .startTime(LocalTime.parse(timeSlot.getStartTime()))
-                .endTime(LocalTime.parse(timeSlot.getEndTime()))
-                .status("ACTIVE")
-                .minutesRemaining(minutesRemaining)
-                .build();
-        
-        webSocketService.notifyFacultySessionUpdated(facultyId, event);
+
+        long delayMillis = Math.max(0, Duration.between(now, fireAt).toMillis());
+        LocalDate day = now.toLocalDate();
+        ScheduledFuture<?> future = timer.schedule(() -> fire(day, eventKey, stateChange, notification),
+                delayMillis, TimeUnit.MILLISECONDS);
+        pendingEvents.put(eventKey, future);
     }
 
-    private void handleSessionEnding(TimeSlot timeSlot, String facultyId, String sessionKey) {
-        log.info("Session ending for faculty {} - TimeSlot {}", facultyId, timeSlot.getId());
-        
-        FacultySessionEvent event = FacultySessionEvent.builder()
-                .facultyId(facultyId)
-                .timeSlotId(timeSlot.getId().toString())
-                .sectionId(timeSlot.getSection().getId().toString())
-                .sectionName(timeSlot.getSection().getName())
-                .room(timeSlot.getRoom().toString())
-                .startTime(LocalTime.parse(timeSlot.getStartTime()))
-                .endTime(LocalTime.parse(timeSlot.getEndTime()))
-                .status("ENDED")
-                .build();
-        
-        webSocketService.notifyFacultySessionEnded(facultyId, event);
-        activeSessions.remove(sessionKey);
-        warningsSent.remove(sessionKey);
+    private void fire(LocalDate day, String eventKey, Runnable stateChange, Runnable notification) {
+        pendingEvents.remove(eventKey);
+        if (!firedEvents.add(eventKey)) {
+            return;
+        }
+        try {
+            stateChange.run();
+            if (!claim(day, eventKey)) {
+                log.debug("Faculty session event {} was sent by another node", eventKey);
+                return;
+            }
+            log.debug("Firing faculty session event {}", eventKey);
+            notification.run();
+        } catch (Exception e) {
+            log.error("Error firing faculty session event {}: {}", eventKey, e.getMessage());
+        }
     }
 
-    private void handleNextSessionWarning(TimeSlot timeSlot, String facultyId, String sessionKey) {
-        String warningKey = sessionKey + "_warning";
-        
-        if (!warningsSent.containsKey(warningKey)) {
-            log.info("Sending 15-minute warning for faculty {} - TimeSlot {}", facultyId, timeSlot.getId());
-            
-            FacultySessionEvent event = FacultySessionEvent.builder()
-                    .facultyId(facultyId)
-                    .timeSlotId(timeSlot.getId().toString())
-                    .sectionId(timeSlot.getSection().getId().toString())
-                    .sectionName(timeSlot.getSection().getName())
-                    .room(timeSlot.getRoom().toString())
-                    .startTime(LocalTime.parse(timeSlot.getStartTime()))
-                    .endTime(LocalTime.parse(timeSlot.getEndTime()))
-                    .status("UPCOMING")
-                    .minutesRemaining(15)
-                    .build();
-            
-            webSocketService.notifyNextSessionWarning(facultyId, event);
-            warningsSent.put(warningKey, true);
+    private boolean claim(LocalDate day, String eventKey) {
+        try {
+            return clusterCoordinator.claim("faculty-session:" + day + ":" + eventKey, CLAIM_TTL);
+        } catch (Exception e) {
+            // A duplicate notification is better than a missed session start
+            log.warn("Failed to claim faculty session event {}, sending anyway: {}", eventKey, e.getMessage());
+            return true;
         }
     }
 
-    private void cleanupEndedSessions() {
-        LocalTime now = LocalTime.now();
-        activeSessions.entrySet().removeIf(entry -> {
-            try {
-                TimeSlot timeSlot = entry.getValue();
-                LocalTime endTime = LocalTime.parse(timeSlot.getEndTime());
-                return now.isAfter(endTime.plusMinutes(5)); // Clean up 5 minutes after end
-            } catch (Exception e) {
-                log.error("Error cleaning up session {}: {}", entry.getKey(), e.getMessage());
-                return true; // Remove problematic entries
-            }
-        });
+    private FacultySessionEvent sessionEvent(String facultyId, Integer timeSlotId, String sectionId,
+                                             String sectionName, String room, LocalTime startTime,
+                                             LocalTime endTime, String status, Integer minutesRemaining) {
+        return FacultySessionEvent.builder()
+                .facultyId(facultyId)
+                .timeSlotId(timeSlotId.toString())
+                .sectionId(sectionId)
+                .sectionName(sectionName)
+                .room(room)
+                .startTime(startTime)
+                .endTime(endTime)
+                .status(status)
+                .minutesRemaining(minutesRemaining)
+                .build();
     }
 
-    private boolean isTimeWithinMinutes(LocalTime current, LocalTime target, int minutes) {
-        return Math.abs(current.until(target, ChronoUnit.MINUTES)) <= minutes;
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
     }
 
     // Public method to get active sessions (for debugging/monitoring)
     public int getActiveSessionCount() {
         return activeSessions.size();
     }
+
+    public int getPendingEventCount() {
+        return pendingEvents.size();
+    }
 }
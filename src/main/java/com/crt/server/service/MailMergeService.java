@@ -0,0 +1,11 @@
+package com.crt.server.service;
+
+import com.crt.server.dto.MailMergeRequestDTO;
+
+public interface MailMergeService {
+
+    /**
+     * Queue one personalised mail per matching student and return the outbox batch id
+     */
+    String sendMerge(MailMergeRequestDTO request);
+}
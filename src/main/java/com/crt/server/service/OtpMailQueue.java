@@ -0,0 +1,160 @@
+package com.crt.server.service;
+
+import com.crt.server.config.OtpConfig;
+import com.crt.server.dto.OtpDeliveryStatusDTO;
+import com.crt.server.dto.OtpDeliveryStatusDTO.DeliveryStatus;
+import com.crt.server.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import com.crt.server.util.WorkerThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends login OTP mails from a small dedicated worker pool so login returns as
+ * soon as the OTP is stored. Delivery outcome is kept per dispatch id for the
+ * OTP lifetime; when the queue is full the caller sends the mail itself.
+ */
+@Slf4j
+@Service
+public class OtpMailQueue {
+
+    private final EmailService emailService;
+    private final OtpConfig otpConfig;
+    private final ThreadPoolExecutor executor;
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+
+    private final Cache<String, OtpDeliveryStatusDTO> dispatches;
+    // Latest dispatch per recipient, so a resent OTP makes older queued ones moot
+    private final Cache<String, String> latestDispatch;
+
+    public OtpMailQueue(EmailService emailService, OtpConfig otpConfig, MeterRegistry meterRegistry,
+                        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.emailService = emailService;
+        this.otpConfig = otpConfig;
+
+        ThreadFactory workers = WorkerThreads.factory("otp-mail", virtualThreads);
+        this.executor = new ThreadPoolExecutor(otpConfig.getDeliveryWorkers(), otpConfig.getDeliveryWorkers(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(otpConfig.getDeliveryQueueCapacity()),
+                runnable -> {
+                    Thread thread = workers.newThread(runnable);
+                    if (!thread.isVirtual()) {
+                        // Logins are waiting on these mails
+                        thread.setPriority(Thread.MAX_PRIORITY);
+                    }
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.dispatches = Caffeine.newBuilder()
+                .expireAfterWrite(otpConfig.getTtl())
+                .maximumSize(otpConfig.getMaximumSize())
+                .build();
+        this.latestDispatch = Caffeine.newBuilder()
+                .expireAfterWrite(otpConfig.getTtl())
+                .maximumSize(otpConfig.getMaximumSize())
+                .build();
+
+        this.sentTimer = Timer.builder("crt.otp.mail.delivery")
+                .tag("outcome", "sent")
+                .description("Time from login to the OTP mail being accepted by SMTP")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.failedTimer = Timer.builder("crt.otp.mail.delivery")
+                .tag("outcome", "failed")
+                .description("Time from login to giving up on the OTP mail")
+                .register(meterRegistry);
+        Gauge.builder("crt.otp.mail.queued", executor, pool -> pool.getQueue().size())
+                .description("OTP mails waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an OTP mail and return its dispatch id
+     */
+    public String enqueue(String otp, String email) {
+        String dispatchId = UUID.randomUUID().toString();
+        long queuedAt = System.nanoTime();
+        dispatches.put(dispatchId, OtpDeliveryStatusDTO.builder()
+                .dispatchId(dispatchId)
+                .status(DeliveryStatus.QUEUED)
+                .queuedAt(LocalDateTime.now())
+                .build());
+        latestDispatch.put(email, dispatchId);
+
+        executor.execute(() -> deliver(dispatchId, otp, email, queuedAt));
+        return dispatchId;
+    }
+
+    public OtpDeliveryStatusDTO getStatus(String dispatchId) {
+        OtpDeliveryStatusDTO status = dispatches.getIfPresent(dispatchId);
+        if (status == null) {
+            throw new ResourceNotFoundException("OTP dispatch not found or expired: " + dispatchId);
+        }
+        return status;
+    }
+
+    private void deliver(String dispatchId, String otp, String email, long queuedAt) {
+        if (!dispatchId.equals(latestDispatch.getIfPresent(email))) {
+            finish(dispatchId, DeliveryStatus.SUPERSEDED, null);
+            return;
+        }
+
+        String error = null;
+        for (int attempt = 1; attempt <= otpConfig.getDeliveryAttempts(); attempt++) {
+            try {
+                emailService.sendLoginOtp(otp, email);
+                sentTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                finish(dispatchId, DeliveryStatus.SENT, null);
+                return;
+            } catch (Exception e) {
+                error = e.getMessage();
+                log.warn("OTP mail to {} failed (attempt {}): {}", email, attempt, error);
+            }
+            if (attempt < otpConfig.getDeliveryAttempts() && !pause()) {
+                break;
+            }
+        }
+
+        failedTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        finish(dispatchId, DeliveryStatus.FAILED, error);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(otpConfig.getDeliveryRetryDelay().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void finish(String dispatchId, DeliveryStatus status, String error) {
+        dispatches.asMap().computeIfPresent(dispatchId, (id, current) -> OtpDeliveryStatusDTO.builder()
+                .dispatchId(id)
+                .status(status)
+                .error(error)
+                .queuedAt(current.getQueuedAt())
+                .finishedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,74 @@
+package com.crt.server.service;
+
+import com.crt.server.config.BulkJobConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes generated passwords for bulk onboarding on a dedicated pool sized to the
+ * cores, so hundreds of BCrypt rounds neither run one after another nor compete
+ * with request threads. When the pool's queue is full the caller hashes itself.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, BulkJobConfig bulkJobConfig) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = Math.max(1, bulkJobConfig.getHashingThreads());
+        // Platform threads even in virtual-thread mode: hashing is CPU-bound, nothing here blocks
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Encode every password in parallel, keeping the input order
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            futures.add(executor.submit(() -> passwordEncoder.encode(rawPassword)));
+        }
+
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        try {
+            for (Future<String> future : futures) {
+                encoded.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Password hashing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return encoded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
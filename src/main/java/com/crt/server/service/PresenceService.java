@@ -0,0 +1,35 @@
+package com.crt.server.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Tracks which users currently hold a STOMP session so notification producers can
+ * skip users who are not connected
+ */
+public interface PresenceService {
+
+    /**
+     * Record a session on this node as belonging to the user
+     */
+    void sessionConnected(String sessionId, String userId);
+
+    /**
+     * Forget a session; the user goes offline once their last session is gone
+     */
+    void sessionDisconnected(String sessionId);
+
+    /**
+     * Extend the presence of the user owning the session, e.g. on a ping
+     */
+    void touch(String sessionId);
+
+    boolean isOnline(String userId);
+
+    /**
+     * The subset of the given users that are online
+     */
+    Set<String> filterOnline(Collection<String> userIds);
+
+    Set<String> getOnlineUsers();
+}
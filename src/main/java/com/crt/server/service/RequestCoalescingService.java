@@ -0,0 +1,33 @@
+package com.crt.server.service;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+public interface RequestCoalescingService {
+
+    /**
+     * Run the loader once for all concurrent callers sharing the same group and key.
+     * Callers arriving while a computation is in flight, or within the configured
+     * micro-TTL after it completed, receive the same result instead of recomputing it.
+     *
+     * @param group  Logical endpoint name, used for metrics
+     * @param key    Normalized request parameters
+     * @param loader Computation to run when no shared result is available
+     * @return The computed or shared result
+     */
+    <T> T coalesce(String group, String key, Supplier<T> loader);
+
+    /**
+     * Get the number of requests answered from a shared computation, per group
+     *
+     * @return Map of group name to collapsed request count
+     */
+    Map<String, Long> getCollapsedCounts();
+
+    /**
+     * Get the number of requests that ran the loader themselves, per group
+     *
+     * @return Map of group name to executed request count
+     */
+    Map<String, Long> getExecutedCounts();
+}
@@ -3,6 +3,7 @@ package com.crt.server.service;
 import com.crt.server.dto.RoomDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,7 +13,10 @@ public interface RoomService {
 
     RoomDTO getRoomById(UUID id);
 
-    List<RoomDTO> getAllRooms();
+    /**
+     * Every room ordered by block, floor and room number, read page by page as the iterator is consumed
+     */
+    Iterator<RoomDTO> getAllRooms();
 
     RoomDTO updateRoom(UUID id, RoomDTO roomDTO);
 
@@ -8,6 +8,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,7 +17,10 @@ public interface SectionService {
 
     SectionDTO getSectionById(UUID sectionId);
 
-    List<SectionDTO> getAllSections();
+    /**
+     * Every section ordered by section number, read page by page as the iterator is consumed
+     */
+    Iterator<SectionDTO> getAllSections();
 
     SectionDTO updateSection(UUID sectionId, CreateSectionDTO updateSectionDTO);
 
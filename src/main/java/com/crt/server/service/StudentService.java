@@ -3,8 +3,10 @@ package com.crt.server.service;
 import com.crt.server.dto.PagedResponseDTO;
 import com.crt.server.dto.StudentAttendanceDTO;
 import com.crt.server.dto.StudentDTO;
+import com.crt.server.dto.StudentImportReportDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,7 +19,10 @@ public interface StudentService {
 
     StudentDTO getStudentByRegNum(String regNum);
 
-    List<StudentDTO> getAllStudents();
+    /**
+     * Every student ordered by registration number, read page by page as the iterator is consumed
+     */
+    Iterator<StudentDTO> getAllStudents();
 
     PagedResponseDTO<StudentDTO> getStudentsPaginated(int page, int size, String sortBy, String direction);
 
@@ -29,7 +34,7 @@ public interface StudentService {
 
     boolean existsByRegNum(String regNum);
 
-    List<StudentDTO> bulkCreateStudents(MultipartFile file) throws Exception;
+    StudentImportReportDTO bulkCreateStudents(MultipartFile file) throws Exception;
 
     StudentDTO updateCrtEligibility(UUID studentId, Boolean crtEligibility, String reason);
 
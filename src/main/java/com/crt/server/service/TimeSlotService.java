@@ -8,7 +8,6 @@ import com.crt.server.model.Section;
 import com.crt.server.model.TimeSlot;
 import com.crt.server.model.TimeSlotType;
 import com.crt.server.model.User;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -62,10 +61,8 @@ public interface TimeSlotService {
     // Bulk timetable operations
     TimetableUploadResponseDTO bulkCreateTimetable(MultipartFile file) throws Exception;
 
-    @Transactional
-    TimetableUploadResponseDTO.SectionTimetableDTO processSectionTimetableTransactional(
-            String sectionName, String program, String roomCode, CSVRecord record,
-            int startCol, int endCol, DayOfWeek dayOfWeek, List<String> errors, List<String> warnings);
+    // Plans the upload against current data; with dryRun nothing is written
+    TimetableUploadResponseDTO bulkCreateTimetable(MultipartFile file, boolean dryRun) throws Exception;
 
     // Section schedule queries
     SectionDayScheduleDTO getSectionScheduleByDay(String sectionName, DayOfWeek dayOfWeek);
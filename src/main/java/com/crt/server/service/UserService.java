@@ -1,11 +1,13 @@
 package com.crt.server.service;
 
 import com.crt.server.dto.AuthResponseDTO;
+import com.crt.server.dto.BulkJobDTO;
 import com.crt.server.dto.PagedResponseDTO;
 import com.crt.server.dto.UserDTO;
 import com.crt.server.model.User;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,11 +20,14 @@ public interface UserService {
 
     UserDTO getUserByUsername(String username);
 
-    UserDTO getUserByEmail(String email);
-
+    UserDTO getUserByEmail(String email);
+
     User getUserByEmployeeId(String employeeId);
 
-    List<UserDTO> getAllUsers();
+    /**
+     * Every user ordered by username, read page by page as the iterator is consumed
+     */
+    Iterator<UserDTO> getAllUsers();
 
     PagedResponseDTO<UserDTO> getUsersPaginated(int page, int size, String sortBy, String direction);
     
@@ -51,7 +56,8 @@ public interface UserService {
 
     UserDTO getAuthenticatedUser();
 
-    List<UserDTO> bulkUploadFacs(MultipartFile file) throws Exception;
+    // Parses the file now and onboards the faculty as a background bulk job
+    BulkJobDTO startFacultyOnboarding(MultipartFile file) throws Exception;
 
     String createUsers(List<UserDTO> facs);
 }
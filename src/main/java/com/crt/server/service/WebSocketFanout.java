@@ -0,0 +1,26 @@
+package com.crt.server.service;
+
+import java.util.Collection;
+
+/**
+ * Delivers outbound STOMP messages to subscribers on every application node.
+ * Payloads are serialized to a JSON frame once per call and that frame is reused
+ * for every destination and node.
+ */
+public interface WebSocketFanout {
+
+    /**
+     * Send a payload to a user's private destination, e.g. /queue/messages
+     */
+    void sendToUser(String userId, String destination, Object payload);
+
+    /**
+     * Send the same payload to the private destination of every listed user
+     */
+    void sendToUsers(Collection<String> userIds, String destination, Object payload);
+
+    /**
+     * Send a payload to a broker destination, e.g. /topic/section_{id}
+     */
+    void send(String destination, Object payload);
+}
@@ -7,10 +7,11 @@ import com.crt.server.dto.websocket.WebSocketMessage;
 public interface WebSocketService {
     
     // Faculty Session Management
-    void notifyFacultySessionStarted(String facultyId, FacultySessionEvent event);
-    void notifyFacultySessionEnded(String facultyId, FacultySessionEvent event);
-    void notifyFacultySessionUpdated(String facultyId, FacultySessionEvent event);
-    void notifyNextSessionWarning(String facultyId, FacultySessionEvent event);
+    // Faculty are addressed by username, the name their STOMP session is registered under
+    void notifyFacultySessionStarted(String username, FacultySessionEvent event);
+    void notifyFacultySessionEnded(String username, FacultySessionEvent event);
+    void notifyFacultySessionUpdated(String username, FacultySessionEvent event);
+    void notifyNextSessionWarning(String username, FacultySessionEvent event);
     
     // Attendance Session Management
     void notifyAttendanceSessionStarted(String sectionId, AttendanceSessionEvent event);
@@ -23,7 +24,7 @@ public interface WebSocketService {
     void notifySystemAlert(String message, String severity);
     
     // Generic messaging
-    void sendToUser(String userId, String event, Object data);
+    void sendToUser(String username, String event, Object data);
     void sendToTopic(String topic, String event, Object data);
     void broadcastToAllFaculty(String event, Object data);
 }
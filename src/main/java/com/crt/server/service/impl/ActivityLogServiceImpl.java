@@ -25,44 +25,41 @@ public class ActivityLogServiceImpl implements ActivityLogService {
 
     @Override
     public void logAttendancePosted(User faculty, Section section, TimeSlot timeSlot, Integer absentCount) {
-        lock.writeLock().lock();
-        try {
-            String timeSlotInfo = String.format("%s-%s", 
-                timeSlot.getStartTime(),
-                timeSlot.getEndTime()
-            );
-            
-            String action = String.format("%s - %s posted attendance for %s for %s and %d were absent%%",
-                faculty.getUsername(),
-                faculty.getName(),
-                section.getName(),
-                timeSlotInfo,
-                absentCount
-            );
+        // Entry is built and logged outside the lock; only the list update is guarded
+        String timeSlotInfo = String.format("%s-%s",
+            timeSlot.getStartTime(),
+            timeSlot.getEndTime()
+        );
 
-            ActivityLogDTO logEntry = ActivityLogDTO.builder()
-                    .action(action)
-                    .timestamp(LocalDateTime.now())
-                    .facultyId(faculty.getName())
-                    .facultyName(faculty.getName())
-                    .sectionName(section.getName())
-                    .timeSlotInfo(timeSlotInfo)
-                    .absentCount(absentCount)
-                    .build();
+        String action = String.format("%s - %s posted attendance for %s for %s and %d were absent%%",
+            faculty.getUsername(),
+            faculty.getName(),
+            section.getName(),
+            timeSlotInfo,
+            absentCount
+        );
 
+        ActivityLogDTO logEntry = ActivityLogDTO.builder()
+                .action(action)
+                .timestamp(LocalDateTime.now())
+                .facultyId(faculty.getName())
+                .facultyName(faculty.getName())
+                .sectionName(section.getName())
+                .timeSlotInfo(timeSlotInfo)
+                .absentCount(absentCount)
+                .build();
 
+        lock.writeLock().lock();
+        try {
             activityLogs.addFirst(logEntry);
-
-
             while (activityLogs.size() > MAX_LOG_SIZE) {
                 activityLogs.removeLast();
             }
-
-            log.info("Activity logged: {}", action);
-            
         } finally {
             lock.writeLock().unlock();
         }
+
+        log.info("Activity logged: {}", action);
     }
 
     @Override
@@ -2,14 +2,19 @@ package com.crt.server.service.impl;
 
 import com.crt.server.config.AttendanceConfig;
 import com.crt.server.dto.*;
+import com.crt.server.dto.websocket.AttendanceSessionEvent;
+import com.crt.server.event.AttendanceMarkedEvent;
+import com.crt.server.event.DashboardChangedEvent;
 import com.crt.server.model.*;
 import com.crt.server.repository.*;
 import com.crt.server.service.AttendanceService;
 import com.crt.server.service.StudentService;
+import com.crt.server.util.TimeOfDay;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -54,6 +59,8 @@ public class AttendanceServiceImpl implements AttendanceService {
     private AttendanceConfig attendanceConfig;
     @Autowired
     private StudentService studentService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -193,6 +200,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         System.out.println("[DEBUG] About to save " + attendances.size() + " attendance records");
         List<Attendance> savedAttendances = attendanceRepository.saveAll(attendances);
         System.out.println("[DEBUG] Successfully saved " + savedAttendances.size() + " attendance records");
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.ATTENDANCE));
+        publishAttendanceMarked(timeSlot, savedAttendances);
 
         // Update attendance percentage for each student
         for (Student student : students) {
@@ -233,8 +242,11 @@ public class AttendanceServiceImpl implements AttendanceService {
                 }
             }
 
-            // FIX 7: Create defensive copy and use Set for O(1) lookup
-            Set<Student> enrolledStudents = new HashSet<>(section.getStudents());
+            List<Attendance> marked = new ArrayList<>();
+
+            // FIX 7: Create defensive copy and index by id for O(1) lookup
+            Map<UUID, Student> enrolledStudents = section.getStudents().stream()
+                    .collect(Collectors.toMap(Student::getId, student -> student, (first, second) -> first));
 
             // Process absent students
             if (bulkAttendanceDTO.getAbsentStudentIds() != null
@@ -242,24 +254,20 @@ public class AttendanceServiceImpl implements AttendanceService {
                 // FIX 8: Create defensive copy of input list
                 List<UUID> absentStudentIds = new ArrayList<>(bulkAttendanceDTO.getAbsentStudentIds());
 
-                // Use parallelStream for concurrent processing
-                List<Attendance> absentAttendances = absentStudentIds.parallelStream().map(studentId -> {
+                // Sequential on the request thread: the section's students are already loaded, and
+                // repository calls from common-pool threads would block it outside this transaction
+                List<Attendance> absentAttendances = absentStudentIds.stream().map(studentId -> {
                     totalProcessed.incrementAndGet();
                     try {
-                        // Use stream().anyMatch() instead of contains() for better performance
-                        boolean isEnrolled = enrolledStudents.stream()
-                                .anyMatch(s -> s.getId().equals(studentId));
+                        Student student = enrolledStudents.get(studentId);
 
-                        if (!isEnrolled) {
+                        if (student == null) {
                             errors.add("Student " + studentId
                                     + " is not enrolled in this section");
                             failureCount.incrementAndGet();
                             return null;
                         }
 
-                        Student student = studentRepository.findById(studentId).orElseThrow(
-                                () -> new EntityNotFoundException("Student not found"));
-
                         Attendance attendance = new Attendance();
                         attendance.setStudent(student);
                         attendance.setTimeSlot(timeSlot);
@@ -276,6 +284,7 @@ public class AttendanceServiceImpl implements AttendanceService {
 
                 List<Attendance> savedAbsentAttendances = attendanceRepository
                         .saveAll(absentAttendances);
+                marked.addAll(savedAbsentAttendances);
                 successfulRecords.addAll(savedAbsentAttendances.stream().map(this::convertToDTO)
                         .collect(Collectors.toList()));
                 successCount.addAndGet(savedAbsentAttendances.size());
@@ -294,14 +303,12 @@ public class AttendanceServiceImpl implements AttendanceService {
                 List<StudentAttendanceDTO> lateStudents = new ArrayList<>(
                         bulkAttendanceDTO.getLateStudents());
 
-                // Use parallelStream for concurrent processing
-                List<Attendance> lateAttendances = lateStudents.parallelStream().map(lateStudent -> {
+                List<Attendance> lateAttendances = lateStudents.stream().map(lateStudent -> {
                     totalProcessed.incrementAndGet();
                     try {
-                        boolean isEnrolled = enrolledStudents.stream().anyMatch(
-                                s -> s.getId().equals(lateStudent.getId()));
+                        Student student = enrolledStudents.get(UUID.fromString(lateStudent.getId()));
 
-                        if (!isEnrolled) {
+                        if (student == null) {
                             errors.add("Student " + lateStudent.getId()
                                     + " is not enrolled in this section");
                             failureCount.incrementAndGet();
@@ -316,10 +323,6 @@ public class AttendanceServiceImpl implements AttendanceService {
                             return null;
                         }
 
-                        Student student = studentRepository.findById(UUID.fromString(lateStudent.getId()))
-                                .orElseThrow(() -> new EntityNotFoundException(
-                                        "Student not found"));
-
                         Attendance attendance = new Attendance();
                         attendance.setStudent(student);
                         attendance.setTimeSlot(timeSlot);
@@ -337,6 +340,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                 }).filter(Objects::nonNull).collect(Collectors.toList());
 
                 List<Attendance> savedLateAttendances = attendanceRepository.saveAll(lateAttendances);
+                marked.addAll(savedLateAttendances);
                 successfulRecords.addAll(savedLateAttendances.stream().map(this::convertToDTO)
                         .collect(Collectors.toList()));
                 successCount.addAndGet(savedLateAttendances.size());
@@ -348,6 +352,8 @@ public class AttendanceServiceImpl implements AttendanceService {
                     .forEach(this::updateStudentAttendancePercentage);
             }
 
+            eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.ATTENDANCE));
+            publishAttendanceMarked(timeSlot, marked);
             return BulkAttendanceResponseDTO.builder().totalProcessed(totalProcessed.get())
                     .successCount(successCount.get()).failureCount(failureCount.get())
                     .successfulRecords(successfulRecords).errors(errors).build();
@@ -391,6 +397,7 @@ public class AttendanceServiceImpl implements AttendanceService {
 
             // FIX 11: Create defensive copy of enrolled students
             Set<Student> enrolledStudents = new HashSet<>(section.getStudents());
+            List<Attendance> marked = new ArrayList<>();
 
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
                 String line;
@@ -452,6 +459,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                         attendance.setDate(LocalDateTime.parse(dateTime));
 
                         Attendance savedAttendance = attendanceRepository.save(attendance);
+                        marked.add(savedAttendance);
                         successfulRecords.add(convertToDTO(savedAttendance));
                         successCount++;
 
@@ -470,6 +478,8 @@ public class AttendanceServiceImpl implements AttendanceService {
             });
 
             affectedStudents.forEach(this::updateStudentAttendancePercentage);
+            eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.ATTENDANCE));
+            publishAttendanceMarked(timeSlot, marked);
 
             return BulkAttendanceResponseDTO.builder().totalProcessed(totalProcessed)
                     .successCount(successCount).failureCount(failureCount)
@@ -488,7 +498,7 @@ public class AttendanceServiceImpl implements AttendanceService {
 
         // Check if the current time is after the end time of the time slot
         LocalDateTime now = LocalDateTime.now();
-        LocalTime endTime = LocalTime.parse(timeSlot.getEndTime());
+        LocalTime endTime = timeSlot.getEndLocalTime();
         LocalTime currentTime = now.toLocalTime();
 
         // If current time is after end time, attendance submission is not allowed
@@ -589,6 +599,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         }
 
         log.info("Completed archival process for {}/{} - Total archived: {} records", year, month, processedRecords);
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.ATTENDANCE));
     }
 
     @Override
@@ -633,12 +644,21 @@ public class AttendanceServiceImpl implements AttendanceService {
         List<Student> students = new ArrayList<>(section.getStudents());
         List<SectionAttendanceRecordDTO> records = new ArrayList<>();
         String monthTitle = "%s %d".formatted(startDate.getMonth().toString(), startDate.getYear());
+        if (students.isEmpty()) {
+            return records;
+        }
+
+        // Classes and absences for the whole section in one grouped query
+        Map<UUID, Object[]> counts = new HashMap<>();
+        for (Object[] row : attendanceRepository.countAttendanceAndAbsencesPerStudent(
+                students.stream().map(Student::getId).toList(), startDate, endDate)) {
+            counts.put((UUID) row[0], row);
+        }
 
         for (Student student : students) {
-            long totalClasses = attendanceRepository.countAttendanceByStudentAndDateRange(student,
-                    startDate, endDate);
-            long absences = attendanceRepository.countAbsencesByStudentAndDateRange(student, startDate,
-                    endDate);
+            Object[] count = counts.get(student.getId());
+            long totalClasses = count != null ? ((Number) count[1]).longValue() : 0;
+            long absences = count != null ? ((Number) count[2]).longValue() : 0;
             double attendancePercentage = totalClasses > 0
                     ? ((totalClasses - absences) * 100.0) / totalClasses
                     : 100.0;
@@ -733,6 +753,47 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Hand the written records to the live section stream; it sends them once the
+     * transaction commits. Students without a record in the request count as
+     * present, as they do in the bulk marking paths.
+     */
+    private void publishAttendanceMarked(TimeSlot timeSlot, List<Attendance> marked) {
+        if (marked.isEmpty()) {
+            return;
+        }
+        Section section = timeSlot.getSection();
+        String sectionId = section.getId().toString();
+        List<AttendanceSessionEvent.StudentAttendanceUpdate> updates = marked.stream()
+                .map(attendance -> AttendanceSessionEvent.StudentAttendanceUpdate.builder()
+                        .studentId(attendance.getStudent().getId().toString())
+                        .studentName(attendance.getStudent().getName())
+                        .rollNumber(attendance.getStudent().getRegNum())
+                        .present(attendance.getStatus() != AttendanceStatus.ABSENT)
+                        .feedback(attendance.getFeedback())
+                        .build())
+                .toList();
+        int total = section.getStudents().size();
+        int absent = (int) marked.stream()
+                .filter(attendance -> attendance.getStatus() == AttendanceStatus.ABSENT)
+                .count();
+
+        AttendanceSessionEvent studentsMarked = AttendanceSessionEvent.builder()
+                .sectionId(sectionId)
+                .timeSlotId(String.valueOf(timeSlot.getId()))
+                .recentUpdates(updates)
+                .build();
+        AttendanceSessionEvent stats = AttendanceSessionEvent.builder()
+                .sectionId(sectionId)
+                .timeSlotId(String.valueOf(timeSlot.getId()))
+                .totalStudents(total)
+                .presentCount(total - absent)
+                .absentCount(absent)
+                .attendancePercentage(total == 0 ? 0.0 : (total - absent) * 100.0 / total)
+                .build();
+        eventPublisher.publishEvent(new AttendanceMarkedEvent(sectionId, studentsMarked, stats));
+    }
+
     private AbsenteeDTO mapToAbsenteeDTO(Attendance attendance) {
         return AbsenteeDTO.builder()
                 .studentId(attendance.getStudent().getId())
@@ -752,13 +813,13 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Override
     @Transactional(readOnly = true)
     public TimeSlotFilterResponseDTO getTimeSlotsByDayAndTime(LocalDate date, LocalTime startTime, LocalTime endTime) {
-        List<TimeSlot> allTimeSlots = timeSlotRepository.findAll();
+        List<TimeSlot> allTimeSlots = timeSlotRepository.findAllWithDetails();
 
         List<TimeSlot> filteredTimeSlots = allTimeSlots.stream()
                 .filter(ts -> {
                     if (startTime != null && endTime != null) {
-                        LocalTime tsStart = LocalTime.parse(ts.getStartTime());
-                        LocalTime tsEnd = LocalTime.parse(ts.getEndTime());
+                        LocalTime tsStart = ts.getStartLocalTime();
+                        LocalTime tsEnd = ts.getEndLocalTime();
                         return !tsStart.isBefore(startTime) && !tsEnd.isAfter(endTime);
                     }
                     return true;
@@ -766,19 +827,22 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .toList();
 
 
+        Set<Integer> postedTimeSlotIds = attendanceRepository.findTimeSlotIdsWithAttendanceBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+
         List<TimeSlotStatusDTO> timeSlotStatusDTOs = new ArrayList<>();
         int postedAttendanceCount = 0;
 
         for (TimeSlot timeSlot : filteredTimeSlots) {
-            boolean attendancePosted = attendanceRepository.existsByTimeSlotAndDate(timeSlot, date);
+            boolean attendancePosted = postedTimeSlotIds.contains(timeSlot.getId());
 
 
-            boolean pastEndTime = LocalTime.now().isAfter(LocalTime.parse(timeSlot.getEndTime()));
+            boolean pastEndTime = LocalTime.now().isAfter(timeSlot.getEndLocalTime());
 
             TimeSlotStatusDTO dto = TimeSlotStatusDTO.builder()
                     .timeSlotId(timeSlot.getId())
-                    .startTime(LocalTime.parse(timeSlot.getStartTime()))
-                    .endTime(LocalTime.parse(timeSlot.getEndTime()))
+                    .startTime(timeSlot.getStartLocalTime())
+                    .endTime(timeSlot.getEndLocalTime())
                     .day(date.getDayOfWeek().toString())
                     .sectionId(timeSlot.getSection().getId())
                     .sectionName(timeSlot.getSection().getName())
@@ -896,6 +960,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         List<Attendance> savedAttendances = attendanceRepository.saveAll(newAttendances);
         log.info("Saved {} new attendance records for timeSlotId: {} on date: {}",
                 savedAttendances.size(), timeSlot.getId(), attendanceDateTime);
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.ATTENDANCE));
+        publishAttendanceMarked(timeSlot, savedAttendances);
 
         // 5. Update attendance percentage for all affected students
         allStudentsInSection.forEach(this::updateStudentAttendancePercentage);
@@ -960,7 +1026,7 @@ public class AttendanceServiceImpl implements AttendanceService {
 
         log.info("Getting pending attendance time slots for current time: {}", currentTime);
 
-        return attendanceRepository.findPendingTimeSlotsForAttendance(now, currentTime).stream()
+        return timeSlotRepository.findPendingTimeSlotsForAttendance(now.toLocalDate(), TimeOfDay.of(currentTime)).stream()
                 .map(this::mapTotimeSlotDTO)
                 .collect(Collectors.toList());
     }
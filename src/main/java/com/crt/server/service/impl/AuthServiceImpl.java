@@ -21,6 +21,7 @@ import com.crt.server.security.OTPService;
 import com.crt.server.security.PasswordService;
 import com.crt.server.service.AuthService;
 import com.crt.server.service.EmailService;
+import com.crt.server.service.OtpMailQueue;
 import com.crt.server.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -39,6 +40,7 @@ public class AuthServiceImpl implements AuthService {
     private final EmailService emailService;
     private final PasswordService passwordService;
     private final OTPService otpService;
+    private final OtpMailQueue otpMailQueue;
     private final JwtService jwtService;
     private final CookieService cookieService;
     private final StringRedisTemplate stringRedisTemplate;
@@ -60,6 +62,7 @@ public class AuthServiceImpl implements AuthService {
 
         // Generate OTP
         String otp;
+        String dispatchId = null;
         
         // Handle OTP bypass for specific emails
         if (bypassMails.contains(user.getEmail())) {
@@ -70,13 +73,15 @@ public class AuthServiceImpl implements AuthService {
         } else {
             otp = otpService.generateOTP();
             otpService.storeOTP(loginRequest.getUsernameOrEmail(), otp);
-            emailService.sendLoginOtp(otp, user.getEmail());
+            // Delivered in the background; the client can poll the dispatch status
+            dispatchId = otpMailQueue.enqueue(otp, user.getEmail());
         }
 
         String maskedEmail = maskEmail(user.getEmail());
         return AuthResponseDTO.builder()
                 .message("OTP sent to " + maskedEmail)
                 .user(userDTO)
+                .otpDispatchId(dispatchId)
                 .build();
     }
 
@@ -46,19 +46,21 @@ public class BatchAttendanceServiceImpl implements BatchAttendanceService {
         List<BatchableTimeSlotResponseDTO.BatchGroup> batchGroups = new ArrayList<>();
         
         DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+        Set<Integer> postedTimeSlotIds = attendanceRepository.findTimeSlotIdsWithAttendanceBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
         
         for (Map.Entry<Section, List<TimeSlot>> entry : timeSlotsBySection.entrySet()) {
             Section section = entry.getKey();
             List<TimeSlot> timeSlots = entry.getValue();
             
             // Sort time slots by start time
-            timeSlots.sort(Comparator.comparing(TimeSlot::getStartTime));
+            timeSlots.sort(Comparator.comparing(TimeSlot::getStartMinute));
             
             List<BatchableTimeSlotResponseDTO.BatchableTimeSlot> batchableSlots = new ArrayList<>();
             
             for (TimeSlot timeSlot : timeSlots) {
                 // Check if attendance has been posted for this time slot
-                boolean attendancePosted = !attendanceRepository.findByTimeSlotAndDate(timeSlot, date.atStartOfDay()).isEmpty();
+                boolean attendancePosted = postedTimeSlotIds.contains(timeSlot.getId());
                 
                 String status = attendancePosted ? "POSTED" : "PENDING";
                 
@@ -129,14 +131,14 @@ public class BatchAttendanceServiceImpl implements BatchAttendanceService {
         }
         
         // Sort time slots by start time
-        timeSlots.sort(Comparator.comparing(TimeSlot::getStartTime));
+        timeSlots.sort(Comparator.comparing(TimeSlot::getStartMinute));
         
         // Check if time slots are consecutive
         for (int i = 0; i < timeSlots.size() - 1; i++) {
             TimeSlot current = timeSlots.get(i);
             TimeSlot next = timeSlots.get(i + 1);
             
-            if (!current.getEndTime().equals(next.getStartTime())) {
+            if (!current.getEndMinute().equals(next.getStartMinute())) {
                 return TimeSlotValidationResponseDTO.builder()
                         .valid(false)
                         .message("Invalid time slot selection.")
@@ -0,0 +1,473 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.BulkJobConfig;
+import com.crt.server.dto.BulkJobDTO;
+import com.crt.server.dto.BulkJobDTO.JobStatus;
+import com.crt.server.exception.ResourceNotFoundException;
+import com.crt.server.model.BulkJobRecord;
+import com.crt.server.repository.BulkJobRepository;
+import com.crt.server.service.BulkJobService;
+import com.crt.server.service.WebSocketService;
+import com.crt.server.util.WorkerThreads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+public class BulkJobServiceImpl implements BulkJobService {
+
+    static final String PROGRESS_EVENT = "bulk_job_progress";
+    private static final List<JobStatus> UNFINISHED = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+
+    private final BulkJobConfig bulkJobConfig;
+    private final BulkJobRepository bulkJobRepository;
+    private final WebSocketService webSocketService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    // Live state of jobs started on this node; the repository has the rest
+    private final Cache<String, JobState> jobs;
+    // Marks the jobs this process runs in the shared bulk_jobs table
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public BulkJobServiceImpl(BulkJobConfig bulkJobConfig, BulkJobRepository bulkJobRepository,
+                              WebSocketService webSocketService, ObjectMapper objectMapper,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.bulkJobConfig = bulkJobConfig;
+        this.bulkJobRepository = bulkJobRepository;
+        this.webSocketService = webSocketService;
+        this.objectMapper = objectMapper;
+        this.executor = new ThreadPoolExecutor(bulkJobConfig.getWorkers(), bulkJobConfig.getWorkers(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(bulkJobConfig.getQueueCapacity()),
+                WorkerThreads.factory("bulk-job", virtualThreads || bulkJobConfig.isVirtualThreads()));
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(bulkJobConfig.getRetention())
+                .maximumSize(bulkJobConfig.getMaximumJobs())
+                .build();
+    }
+
+    @Override
+    public BulkJobDTO submit(String type, String owner, BulkJob job) {
+        return start(type, owner, job, () -> { });
+    }
+
+    @Override
+    public BulkJobDTO submitUpload(String type, String owner, MultipartFile file, UploadJob job) throws IOException {
+        Path spooled = Files.createTempFile("bulk-upload-", ".csv");
+        try (InputStream input = file.getInputStream()) {
+            Files.copy(input, spooled, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        SpooledUpload upload = new SpooledUpload(file.getName(), file.getOriginalFilename(),
+                file.getContentType(), spooled);
+        return start(type, owner, progress -> job.run(upload, progress), upload::delete);
+    }
+
+    private BulkJobDTO start(String type, String owner, BulkJob job, Runnable cleanup) {
+        JobState state = new JobState(UUID.randomUUID().toString(), type, owner);
+        jobs.put(state.jobId, state);
+        persist(state.toDTO());
+        try {
+            executor.execute(() -> run(state, job, cleanup));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(state.jobId);
+            bulkJobRepository.deleteById(state.jobId);
+            cleanup.run();
+            throw new IllegalStateException("Too many bulk jobs queued, try again later");
+        }
+        log.info("Queued {} job {} for {}", type, state.jobId, owner);
+        return state.toDTO();
+    }
+
+    @Override
+    public BulkJobDTO getJob(String jobId) {
+        JobState state = jobs.getIfPresent(jobId);
+        if (state != null) {
+            return state.toDTO();
+        }
+        return bulkJobRepository.findById(jobId)
+                .map(this::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Bulk job not found: " + jobId));
+    }
+
+    @Override
+    public BulkJobDTO cancel(String jobId) {
+        JobState state = jobs.getIfPresent(jobId);
+        if (state == null) {
+            BulkJobDTO stored = getJob(jobId);
+            throw new IllegalStateException("Bulk job " + jobId + " is " + stored.getStatus()
+                    + " and is not running on this server");
+        }
+
+        state.lock.lock();
+        try {
+            if (state.status.isFinished()) {
+                throw new IllegalStateException("Bulk job " + jobId + " already " + state.status);
+            }
+            state.cancelRequested = true;
+            if (state.status == JobStatus.QUEUED) {
+                // The worker skips it when it is dequeued
+                state.status = JobStatus.CANCELLED;
+                state.finishedAt = LocalDateTime.now();
+            }
+        } finally {
+            state.lock.unlock();
+        }
+        log.info("Cancel requested for {} job {}", state.type, jobId);
+        publish(state, true);
+        return state.toDTO();
+    }
+
+    @Override
+    public Object getResult(String jobId) {
+        BulkJobDTO job = getJob(jobId);
+        if (job.getStatus() != JobStatus.COMPLETED) {
+            throw new IllegalStateException("Bulk job " + jobId + " is " + job.getStatus() + " and has no result");
+        }
+        return job.getResult();
+    }
+
+    private void run(JobState state, BulkJob job, Runnable cleanup) {
+        try {
+            state.lock.lock();
+            try {
+                if (state.status == JobStatus.CANCELLED) {
+                    return;
+                }
+                state.status = JobStatus.RUNNING;
+                state.startedAt = LocalDateTime.now();
+            } finally {
+                state.lock.unlock();
+            }
+            publish(state, true);
+
+            Object result = null;
+            JobStatus outcome;
+            try {
+                result = job.run(state);
+                outcome = JobStatus.COMPLETED;
+            } catch (CancellationException e) {
+                outcome = JobStatus.CANCELLED;
+            } catch (Exception e) {
+                log.error("{} job {} failed: {}", state.type, state.jobId, e.getMessage(), e);
+                state.failed(e.getMessage());
+                outcome = JobStatus.FAILED;
+            }
+            finish(state, outcome, result);
+        } finally {
+            cleanup.run();
+        }
+    }
+
+    /**
+     * Store the terminal state before getJob can report it, so a poller that
+     * sees a finished job also finds its result and finish time in the table
+     */
+    private void finish(JobState state, JobStatus outcome, Object result) {
+        BulkJobDTO snapshot;
+        state.lock.lock();
+        try {
+            state.result = result;
+            state.finishedAt = LocalDateTime.now();
+            snapshot = persist(state.toDTO(outcome));
+            state.status = outcome;
+        } finally {
+            state.lock.unlock();
+        }
+        log.info("{} job {} {}: {} succeeded, {} failed", state.type, state.jobId, outcome,
+                state.succeeded.get(), state.failed.get());
+        push(state, snapshot);
+    }
+
+    /**
+     * Persist the job and push it to its owner. Row-level progress is throttled
+     * to the configured interval; status changes always go out.
+     */
+    private void publish(JobState state, boolean force) {
+        long now = System.nanoTime();
+        long last = state.lastPublished;
+        if (!force && now - last < bulkJobConfig.getProgressInterval().toNanos()) {
+            return;
+        }
+        state.lastPublished = now;
+
+        BulkJobDTO snapshot;
+        state.lock.lock();
+        try {
+            snapshot = persist(state.toDTO());
+        } finally {
+            state.lock.unlock();
+        }
+        push(state, snapshot);
+    }
+
+    private void push(JobState state, BulkJobDTO snapshot) {
+        try {
+            webSocketService.sendToUser(state.owner, PROGRESS_EVENT, snapshot);
+        } catch (Exception e) {
+            log.warn("Could not push progress of bulk job {}: {}", state.jobId, e.getMessage());
+        }
+    }
+
+    private BulkJobDTO persist(BulkJobDTO snapshot) {
+        try {
+            bulkJobRepository.save(BulkJobRecord.builder()
+                    .id(snapshot.getJobId())
+                    .type(snapshot.getType())
+                    .owner(snapshot.getOwner())
+                    .status(snapshot.getStatus())
+                    .total(snapshot.getTotal())
+                    .succeeded(snapshot.getSucceeded())
+                    .failed(snapshot.getFailed())
+                    .errors(snapshot.getErrors().isEmpty() ? null : String.join("\n", snapshot.getErrors()))
+                    .result(writeResult(snapshot))
+                    .createdAt(snapshot.getCreatedAt())
+                    .startedAt(snapshot.getStartedAt())
+                    .finishedAt(snapshot.getFinishedAt())
+                    .nodeId(nodeId)
+                    .heartbeatAt(LocalDateTime.now())
+                    .build());
+        } catch (Exception e) {
+            log.warn("Could not persist bulk job {}: {}", snapshot.getJobId(), e.getMessage());
+        }
+        return snapshot;
+    }
+
+    private String writeResult(BulkJobDTO snapshot) {
+        if (snapshot.getResult() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(snapshot.getResult());
+        } catch (JsonProcessingException e) {
+            log.warn("Result of bulk job {} is not serializable: {}", snapshot.getJobId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private BulkJobDTO toDTO(BulkJobRecord record) {
+        Object result = null;
+        if (record.getResult() != null) {
+            try {
+                result = objectMapper.readTree(record.getResult());
+            } catch (JsonProcessingException e) {
+                log.warn("Stored result of bulk job {} is unreadable: {}", record.getId(), e.getMessage());
+            }
+        }
+        return BulkJobDTO.builder()
+                .jobId(record.getId())
+                .type(record.getType())
+                .owner(record.getOwner())
+                .status(record.getStatus())
+                .total(record.getTotal())
+                .processed(record.getSucceeded() + record.getFailed())
+                .succeeded(record.getSucceeded())
+                .failed(record.getFailed())
+                .errors(record.getErrors() == null ? List.of() : Arrays.asList(record.getErrors().split("\n")))
+                .result(result)
+                .createdAt(record.getCreatedAt())
+                .startedAt(record.getStartedAt())
+                .finishedAt(record.getFinishedAt())
+                .build();
+    }
+
+    /**
+     * Refresh the heartbeat of this node's unfinished jobs, then fail unfinished
+     * jobs nobody has refreshed for a while: their node crashed or restarted and
+     * they will never finish. Jobs running on other live nodes are left alone.
+     */
+    @Scheduled(fixedDelayString = "#{@bulkJobConfig.heartbeatInterval.toMillis()}")
+    public void failInterruptedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        bulkJobRepository.touchHeartbeat(nodeId, UNFINISHED, now);
+        int interrupted = bulkJobRepository.markInterrupted(UNFINISHED, JobStatus.FAILED,
+                "Interrupted by a server restart", now, now.minus(bulkJobConfig.getStaleAfter()));
+        if (interrupted > 0) {
+            log.warn("Marked {} interrupted bulk jobs as failed", interrupted);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeHistory() {
+        int purged = bulkJobRepository.deleteFinishedBefore(
+                LocalDateTime.now().minus(bulkJobConfig.getHistoryRetention()));
+        log.info("Purged {} finished bulk jobs", purged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private class JobState implements BulkJobProgress {
+        private final String jobId;
+        private final String type;
+        private final String owner;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+        // Guards status transitions and keeps persisted snapshots in order
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile int total;
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile Object result;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long lastPublished = System.nanoTime();
+
+        JobState(String jobId, String type, String owner) {
+            this.jobId = jobId;
+            this.type = type;
+            this.owner = owner;
+        }
+
+        @Override
+        public void setTotal(int total) {
+            this.total = total;
+            publish(this, false);
+        }
+
+        @Override
+        public void succeeded(int count) {
+            succeeded.addAndGet(count);
+            publish(this, false);
+        }
+
+        @Override
+        public void failed(String error) {
+            if (failed.incrementAndGet() <= bulkJobConfig.getMaxErrors()) {
+                errors.add(error);
+            }
+            publish(this, false);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        BulkJobDTO toDTO() {
+            return toDTO(status);
+        }
+
+        BulkJobDTO toDTO(JobStatus status) {
+            return BulkJobDTO.builder()
+                    .jobId(jobId)
+                    .type(type)
+                    .owner(owner)
+                    .status(status)
+                    .total(total)
+                    .processed(succeeded.get() + failed.get())
+                    .succeeded(succeeded.get())
+                    .failed(failed.get())
+                    .errors(List.copyOf(errors))
+                    .result(result)
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .cancelRequested(cancelRequested && !status.isFinished())
+                    .build();
+        }
+    }
+
+    /**
+     * Upload copied to a temporary file, readable after the request has completed
+     */
+    private static class SpooledUpload implements MultipartFile {
+        private final String name;
+        private final String originalFilename;
+        private final String contentType;
+        private final Path path;
+
+        SpooledUpload(String name, String originalFilename, String contentType, Path path) {
+            this.name = name;
+            this.originalFilename = originalFilename;
+            this.contentType = contentType;
+            this.path = path;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled upload {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -11,8 +11,11 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -20,27 +23,21 @@ public class CsvServiceImpl implements CsvService {
 
     @Override
     public List<CSVRecord> parseCsv(MultipartFile file, String[] headers) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                    .setHeader(headers)
-                    .setSkipHeaderRecord(true)
-                    .get();
-
-            try (CSVParser csvParser = csvFormat.parse(reader)) {
-                return csvParser.getRecords();
-            }
-        } catch (IOException e) {
+        try (Stream<CSVRecord> records = streamCsv(file, headers)) {
+            return records.toList();
+        } catch (UncheckedIOException e) {
             log.error("Error parsing CSV file: {}", e.getMessage());
-            throw e;
+            throw e.getCause();
         }
     }
 
     @Override
     public <T> List<T> parseCsv(MultipartFile file, String[] headers, RecordMapper<T> mapper) throws IOException {
         List<T> results = new ArrayList<>();
-        try {
-            for (CSVRecord record : parseCsv(file, headers)) {
-                results.add(mapper.map(record));
+        try (Stream<CSVRecord> records = streamCsv(file, headers)) {
+            Iterator<CSVRecord> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                results.add(mapper.map(iterator.next()));
             }
         } catch (Exception e) {
             log.error("Error mapping CSV records: {}", e.getMessage());
@@ -48,19 +45,72 @@ public class CsvServiceImpl implements CsvService {
         }
         return results;
     }
+
     @Override
     public List<CSVRecord> parseCsvWithoutHeaders(MultipartFile file) throws IOException {
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream())) {
-            CSVFormat format = CSVFormat.DEFAULT.builder()
-                    .setIgnoreEmptyLines(true)
-                    .setTrim(true)
-                    .get();
-
-            CSVParser parser = format.parse(reader);
-            return parser.getRecords();
+        try (Stream<CSVRecord> records = streamCsvWithoutHeaders(file)) {
+            return records.toList();
         } catch (Exception e) {
             log.error("Error parsing CSV file without headers: {}", e.getMessage());
             throw new IOException("Error parsing CSV file", e);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public Stream<CSVRecord> streamCsv(MultipartFile file, String[] headers) throws IOException {
+        return open(file, CSVFormat.DEFAULT.builder()
+                .setHeader(headers)
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .get());
+    }
+
+    @Override
+    public Stream<CSVRecord> streamCsvWithoutHeaders(MultipartFile file) throws IOException {
+        return open(file, CSVFormat.DEFAULT.builder()
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .get());
+    }
+
+    @Override
+    public void parseCsvInChunks(MultipartFile file, String[] headers, int chunkSize, ChunkHandler handler)
+            throws IOException {
+        try (Stream<CSVRecord> records = streamCsv(file, headers)) {
+            List<CSVRecord> chunk = new ArrayList<>(chunkSize);
+            Iterator<CSVRecord> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    handler.handle(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                handler.handle(chunk);
+            }
+        } catch (UncheckedIOException e) {
+            log.error("Error parsing CSV file in chunks: {}", e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    // The parser reads from the upload stream as records are pulled; closing the stream closes the file
+    private Stream<CSVRecord> open(MultipartFile file, CSVFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
+        CSVParser parser;
+        try {
+            parser = format.parse(reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        return parser.stream().onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,389 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.EmailOutboxConfig;
+import com.crt.server.dto.EmailBatchStatusDTO;
+import com.crt.server.dto.MailRecipientDTO;
+import com.crt.server.exception.ResourceNotFoundException;
+import com.crt.server.model.EmailOutboxMessage;
+import com.crt.server.model.OutboxStatus;
+import com.crt.server.repository.EmailOutboxRepository;
+import com.crt.server.service.EmailOutboxService;
+import com.crt.server.util.MailTemplate;
+import com.crt.server.util.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Stores outgoing mail in the email_outbox table and delivers it from a small
+ * worker pool. Each worker claims a batch of due messages and sends the whole
+ * batch over one SMTP connection; failed messages are retried with
+ * exponential backoff until max-attempts. Results are only written while the
+ * worker still holds the claim, so a batch that outlived its claim timeout
+ * cannot overwrite the state recorded by whoever claimed it next.
+ */
+@Slf4j
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    // Messages inserted per saveAll while a batch is being stored
+    private static final int STORE_CHUNK_SIZE = 500;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EntityManager entityManager;
+    private final JavaMailSender mailSender;
+    private final EmailOutboxConfig outboxConfig;
+    private final ScheduledExecutorService workers;
+
+    private final Counter queuedCounter;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    // Refreshed by the maintenance task, bumped on enqueue
+    private final AtomicLong pendingMessages = new AtomicLong();
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository emailOutboxRepository, EntityManager entityManager,
+                                  JavaMailSender mailSender, EmailOutboxConfig outboxConfig, MeterRegistry meterRegistry,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.entityManager = entityManager;
+        this.mailSender = mailSender;
+        this.outboxConfig = outboxConfig;
+
+        this.workers = Executors.newScheduledThreadPool(outboxConfig.getWorkers(),
+                WorkerThreads.factory("email-outbox", virtualThreads));
+
+        this.queuedCounter = Counter.builder("crt.email.outbox.queued")
+                .description("Emails stored in the outbox")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("crt.email.outbox.sent")
+                .description("Emails delivered to the SMTP server")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("crt.email.outbox.failures")
+                .tag("outcome", "retry")
+                .description("Failed deliveries scheduled for another attempt")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("crt.email.outbox.failures")
+                .tag("outcome", "dropped")
+                .description("Emails given up on after max-attempts")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("crt.email.outbox.batch")
+                .description("Time to send one claimed batch over SMTP")
+                .register(meterRegistry);
+        Gauge.builder("crt.email.outbox.pending", pendingMessages, AtomicLong::get)
+                .description("Emails waiting for delivery")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public String enqueueBatch(String subject, String body, List<String> recipients) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String recipient : recipients) {
+            if (recipient != null && !recipient.isBlank()) {
+                unique.add(recipient.trim());
+            }
+        }
+        Iterator<MailRecipientDTO> plain = unique.stream()
+                .map(email -> MailRecipientDTO.builder().email(email).build())
+                .iterator();
+        return store(plain, recipient -> subject, recipient -> body);
+    }
+
+    /**
+     * One transaction like enqueueBatch: workers only see the batch once every
+     * recipient is stored, and a failing page query leaves nothing to send
+     */
+    @Override
+    @Transactional
+    public String enqueueMerge(MailTemplate subject, MailTemplate body, Iterator<MailRecipientDTO> recipients) {
+        return store(recipients, subject::render, body::render);
+    }
+
+    private String store(Iterator<MailRecipientDTO> recipients, Function<MailRecipientDTO, String> subject,
+                         Function<MailRecipientDTO, String> body) {
+        String batchId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutboxMessage> chunk = new ArrayList<>(STORE_CHUNK_SIZE);
+        int stored = 0;
+
+        while (recipients.hasNext()) {
+            MailRecipientDTO recipient = recipients.next();
+            if (recipient.getEmail() == null || recipient.getEmail().isBlank()) {
+                continue;
+            }
+            chunk.add(EmailOutboxMessage.builder()
+                    .batchId(batchId)
+                    .recipient(recipient.getEmail())
+                    .subject(subject.apply(recipient))
+                    .body(body.apply(recipient))
+                    .status(OutboxStatus.PENDING)
+                    .nextAttemptAt(now)
+                    .createdAt(now)
+                    .build());
+            if (chunk.size() == STORE_CHUNK_SIZE) {
+                stored += flush(chunk);
+                chunk = new ArrayList<>(STORE_CHUNK_SIZE);
+            }
+        }
+        stored += flush(chunk);
+
+        if (stored == 0) {
+            throw new IllegalArgumentException("No recipients given");
+        }
+        log.info("Queued email batch {} for {} recipients", batchId, stored);
+        return batchId;
+    }
+
+    private int flush(List<EmailOutboxMessage> chunk) {
+        int size = chunk.size();
+        if (size > 0) {
+            emailOutboxRepository.saveAll(chunk);
+            emailOutboxRepository.flush();
+            // The batch is one transaction, so keep the persistence context at one chunk
+            entityManager.clear();
+            queuedCounter.increment(size);
+            pendingMessages.addAndGet(size);
+        }
+        return size;
+    }
+
+    @Override
+    public EmailBatchStatusDTO getBatchStatus(String batchId) {
+        long pending = 0;
+        long sent = 0;
+        long failed = 0;
+        for (Object[] row : emailOutboxRepository.countByStatusForBatch(batchId)) {
+            long count = (Long) row[1];
+            switch ((OutboxStatus) row[0]) {
+                case SENT -> sent += count;
+                case FAILED -> failed += count;
+                default -> pending += count;
+            }
+        }
+        long total = pending + sent + failed;
+        if (total == 0) {
+            throw new ResourceNotFoundException("Email batch not found: " + batchId);
+        }
+
+        List<EmailBatchStatusDTO.FailedRecipientDTO> failures = failed == 0 ? List.of()
+                : emailOutboxRepository.findFailuresForBatch(batchId).stream()
+                .map(row -> EmailBatchStatusDTO.FailedRecipientDTO.builder()
+                        .email((String) row[0])
+                        .error((String) row[1])
+                        .build())
+                .toList();
+
+        return EmailBatchStatusDTO.builder()
+                .batchId(batchId)
+                .total(total)
+                .pending(pending)
+                .sent(sent)
+                .failed(failed)
+                .complete(pending == 0)
+                .failures(failures)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        if (!outboxConfig.isWorkersEnabled()) {
+            log.info("Email outbox workers disabled on this server");
+            return;
+        }
+        long interval = outboxConfig.getPollInterval().toMillis();
+        for (int i = 0; i < outboxConfig.getWorkers(); i++) {
+            workers.scheduleWithFixedDelay(this::drain, interval * i / outboxConfig.getWorkers(), interval,
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("Started {} email outbox workers", outboxConfig.getWorkers());
+    }
+
+    private void drain() {
+        try {
+            // Keep going while batches come back full
+            while (deliverNextBatch() == outboxConfig.getBatchSize()) {
+                log.debug("Email outbox backlog, claiming next batch");
+            }
+        } catch (Exception e) {
+            log.error("Email outbox worker failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claim one batch of due messages and send it over a single SMTP connection
+     *
+     * @return the number of messages claimed
+     */
+    int deliverNextBatch() {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        if (emailOutboxRepository.claimDue(token, now, outboxConfig.getBatchSize()) == 0) {
+            return 0;
+        }
+        List<EmailOutboxMessage> batch = emailOutboxRepository.findByClaimToken(token);
+
+        Map<MimeMessage, EmailOutboxMessage> mimeMessages = new IdentityHashMap<>();
+        Map<EmailOutboxMessage, String> failures = new IdentityHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            try {
+                mimeMessages.put(toMimeMessage(message), message);
+            } catch (Exception e) {
+                failures.put(message, e.getMessage());
+            }
+        }
+
+        if (!mimeMessages.isEmpty()) {
+            Timer.Sample sample = Timer.start();
+            try {
+                // JavaMailSender opens one transport for the whole array
+                mailSender.send(mimeMessages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failed = e.getFailedMessages();
+                if (failed.isEmpty()) {
+                    mimeMessages.values().forEach(message -> failures.put(message, e.getMessage()));
+                } else {
+                    failed.forEach((mime, error) -> {
+                        EmailOutboxMessage message = mimeMessages.get(mime);
+                        if (message != null) {
+                            failures.put(message, error.getMessage());
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                mimeMessages.values().forEach(message -> failures.put(message, e.getMessage()));
+            } finally {
+                sample.stop(batchTimer);
+            }
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        List<UUID> sentIds = new ArrayList<>();
+        int lostClaims = 0;
+        for (EmailOutboxMessage message : batch) {
+            message.setClaimToken(null);
+            message.setAttempts(message.getAttempts() + 1);
+            if (failures.containsKey(message)) {
+                if (!recordFailure(token, message, failures.get(message), finishedAt)) {
+                    lostClaims++;
+                }
+            } else {
+                message.setStatus(OutboxStatus.SENT);
+                message.setSentAt(finishedAt);
+                message.setLastError(null);
+                sentIds.add(message.getId());
+            }
+        }
+        int sent = sentIds.isEmpty() ? 0 : emailOutboxRepository.markSent(token, sentIds, finishedAt);
+        lostClaims += sentIds.size() - sent;
+        if (lostClaims > 0) {
+            log.warn("Email outbox batch outlived its claim; {} results were left to the next claimant",
+                    lostClaims);
+        }
+
+        sentCounter.increment(sent);
+        pendingMessages.updateAndGet(pending -> Math.max(0, pending - batch.size()));
+        log.info("Email outbox batch: {} sent, {} failed", sentIds.size(), batch.size() - sentIds.size());
+        return batch.size();
+    }
+
+    /**
+     * @return false if the claim was lost and nothing was recorded
+     */
+    private boolean recordFailure(String token, EmailOutboxMessage message, String error, LocalDateTime now) {
+        message.setLastError(error == null ? null
+                : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH)));
+        boolean giveUp = message.getAttempts() >= outboxConfig.getMaxAttempts();
+        if (giveUp) {
+            message.setStatus(OutboxStatus.FAILED);
+        } else {
+            message.setStatus(OutboxStatus.PENDING);
+            message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+        }
+        if (emailOutboxRepository.markFailed(token, message.getId(), message.getStatus(), message.getAttempts(),
+                message.getNextAttemptAt(), message.getLastError()) == 0) {
+            return false;
+        }
+        if (giveUp) {
+            failedCounter.increment();
+            log.warn("Giving up on email to {} after {} attempts: {}", message.getRecipient(),
+                    message.getAttempts(), error);
+        } else {
+            retriedCounter.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Delay before the next attempt after {@code attempts} failures
+     */
+    Duration backoff(int attempts) {
+        Duration delay = outboxConfig.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(outboxConfig.getMaxBackoff()) > 0 ? outboxConfig.getMaxBackoff() : delay;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws Exception {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), true);
+        return mimeMessage;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void maintain() {
+        int released = emailOutboxRepository.releaseStaleClaims(
+                LocalDateTime.now().minus(outboxConfig.getClaimTimeout()));
+        if (released > 0) {
+            log.warn("Released {} stale email outbox claims", released);
+        }
+        pendingMessages.set(emailOutboxRepository.countByStatus(OutboxStatus.PENDING)
+                + emailOutboxRepository.countByStatus(OutboxStatus.SENDING));
+    }
+
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeSent() {
+        int purged = emailOutboxRepository.deleteSentBefore(
+                LocalDateTime.now().minus(outboxConfig.getSentRetention()));
+        log.info("Purged {} delivered outbox emails", purged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
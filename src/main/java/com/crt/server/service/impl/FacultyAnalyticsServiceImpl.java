@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,8 +60,9 @@ public class FacultyAnalyticsServiceImpl implements FacultyAnalyticsService {
         List<AttendanceAnalyticsDTO.DailyAttendanceDTO> dailyTrends = calculateDailyTrends(sessions);
         
         // Get top and low performers
-        List<AttendanceAnalyticsDTO.StudentPerformanceDTO> topPerformers = getTopPerformers(sessions, 5);
-        List<AttendanceAnalyticsDTO.StudentPerformanceDTO> lowPerformers = getLowPerformers(sessions, 5);
+        List<AttendanceAnalyticsDTO.StudentPerformanceDTO> performance = getStudentPerformance(sessions);
+        List<AttendanceAnalyticsDTO.StudentPerformanceDTO> topPerformers = getTopPerformers(performance, 5);
+        List<AttendanceAnalyticsDTO.StudentPerformanceDTO> lowPerformers = getLowPerformers(performance, 5);
         
         return AttendanceAnalyticsDTO.builder()
                 .overallStats(overallStats)
@@ -78,19 +80,22 @@ public class FacultyAnalyticsServiceImpl implements FacultyAnalyticsService {
         // Get all time slots for faculty
         List<TimeSlot> timeSlots = timeSlotRepository.findByInchargeFaculty(faculty);
         
+        // Today's submitted sessions keyed by slot, read once for the whole timetable
+        Map<Integer, AttendanceSession> todaySessions = attendanceSessionRepository
+                .findByFacultyAndDate(faculty, LocalDate.now()).stream()
+                .collect(Collectors.toMap(session -> session.getTimeSlot().getId(), session -> session,
+                        (first, second) -> first));
+        
         // Convert to weekly schedule with attendance status
         List<WeeklyTimetableDTO.WeeklyScheduleDTO> weeklySchedule = timeSlots.stream()
                 .filter(slot -> !slot.isBreak())
                 .map(slot -> {
                     // Check if attendance was submitted for today
-                    boolean attendanceSubmitted = attendanceSessionRepository
-                            .existsByFacultyAndTimeSlotAndDate(faculty, slot, LocalDate.now());
+                    AttendanceSession todaySession = todaySessions.get(slot.getId());
+                    boolean attendanceSubmitted = todaySession != null;
                     
                     // Get topic taught if attendance was submitted
-                    String topicTaught = attendanceSessionRepository
-                            .findByFacultyAndTimeSlotAndDate(faculty, slot, LocalDate.now())
-                            .map(AttendanceSession::getTopicTaught)
-                            .orElse(null);
+                    String topicTaught = todaySession != null ? todaySession.getTopicTaught() : null;
                     
                     return WeeklyTimetableDTO.WeeklyScheduleDTO.builder()
                             .id(slot.getId().toString())
@@ -217,8 +222,8 @@ public class FacultyAnalyticsServiceImpl implements FacultyAnalyticsService {
         Map<String, List<AttendanceSession>> sessionsBySection = sessions.stream()
                 .collect(Collectors.groupingBy(session -> session.getSection().getId().toString()));
         
-        // Process each section in parallel
-        return sessionsBySection.entrySet().parallelStream()
+        // Sequential: section.getTraining() loads lazily on the request's session
+        return sessionsBySection.entrySet().stream()
                 .map(entry -> {
                     List<AttendanceSession> sectionSessions = entry.getValue();
                     AttendanceSession firstSession = sectionSessions.get(0);
@@ -245,7 +250,7 @@ public class FacultyAnalyticsServiceImpl implements FacultyAnalyticsService {
         Map<LocalDate, List<AttendanceSession>> sessionsByDate = sessions.stream()
                 .collect(Collectors.groupingBy(AttendanceSession::getDate));
         
-        return sessionsByDate.entrySet().parallelStream()
+        return sessionsByDate.entrySet().stream()
                 .sorted(Map.Entry.<LocalDate, List<AttendanceSession>>comparingByKey().reversed())
                 .limit(30) // Last 30 days
                 .map(entry -> {
@@ -274,17 +279,17 @@ public class FacultyAnalyticsServiceImpl implements FacultyAnalyticsService {
                 .collect(Collectors.toList());
     }
 
-    private List<AttendanceAnalyticsDTO.StudentPerformanceDTO> getTopPerformers(List<AttendanceSession> sessions, int limit) {
-        return getStudentPerformance(sessions)
-                .stream()
+    private List<AttendanceAnalyticsDTO.StudentPerformanceDTO> getTopPerformers(
+            List<AttendanceAnalyticsDTO.StudentPerformanceDTO> performance, int limit) {
+        return performance.stream()
                 .sorted((a, b) -> Double.compare(b.getAttendancePercentage(), a.getAttendancePercentage()))
                 .limit(limit)
                 .collect(Collectors.toList());
     }
 
-    private List<AttendanceAnalyticsDTO.StudentPerformanceDTO> getLowPerformers(List<AttendanceSession> sessions, int limit) {
-        return getStudentPerformance(sessions)
-                .stream()
+    private List<AttendanceAnalyticsDTO.StudentPerformanceDTO> getLowPerformers(
+            List<AttendanceAnalyticsDTO.StudentPerformanceDTO> performance, int limit) {
+        return performance.stream()
                 .sorted((a, b) -> Double.compare(a.getAttendancePercentage(), b.getAttendancePercentage()))
                 .limit(limit)
                 .collect(Collectors.toList());
@@ -295,16 +300,24 @@ public class FacultyAnalyticsServiceImpl implements FacultyAnalyticsService {
                 .flatMap(session -> session.getSection().getStudents().stream())
                 .collect(Collectors.toSet());
         
-        // Process student performance in parallel
-        return allStudents.parallelStream()
+        if (allStudents.isEmpty()) {
+            return List.of();
+        }
+        List<TimeSlot> relevantTimeSlots = sessions.stream()
+                .map(AttendanceSession::getTimeSlot)
+                .collect(Collectors.toList());
+        
+        // Every student's counts in one grouped query
+        Map<UUID, Object[]> counts = new HashMap<>();
+        for (Object[] row : attendanceRepository.countSessionsAndPresencesPerStudent(allStudents, relevantTimeSlots)) {
+            counts.put((UUID) row[0], row);
+        }
+        
+        return allStudents.stream()
                 .map(student -> {
-                    List<TimeSlot> relevantTimeSlots = sessions.stream()
-                            .map(AttendanceSession::getTimeSlot)
-                            .collect(Collectors.toList());
-                    
-                    long totalSessions = attendanceRepository.countByStudentAndTimeSlotIn(student, relevantTimeSlots);
-                    long attendedSessions = attendanceRepository.countByStudentAndStatusAndTimeSlotIn(
-                            student, AttendanceStatus.PRESENT, relevantTimeSlots);
+                    Object[] count = counts.get(student.getId());
+                    long totalSessions = count != null ? ((Number) count[1]).longValue() : 0;
+                    long attendedSessions = count != null ? ((Number) count[2]).longValue() : 0;
                     
                     double percentage = totalSessions > 0 ? (attendedSessions * 100.0 / totalSessions) : 0.0;
                     
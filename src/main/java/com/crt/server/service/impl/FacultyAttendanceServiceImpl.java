@@ -1,6 +1,7 @@
 package com.crt.server.service.impl;
 
 import com.crt.server.dto.*;
+import com.crt.server.event.DashboardChangedEvent;
 import com.crt.server.exception.ResourceNotFoundException;
 import com.crt.server.model.*;
 import com.crt.server.repository.*;
@@ -9,6 +10,7 @@ import com.crt.server.service.FacultyAttendanceService;
 import com.crt.server.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +34,7 @@ public class FacultyAttendanceServiceImpl implements FacultyAttendanceService {
     private final StudentRepository studentRepository;
     private final StudentService studentService;
     private final ActivityLogService activityLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -126,6 +129,7 @@ public class FacultyAttendanceServiceImpl implements FacultyAttendanceService {
                 timeSlot,
                 attendanceSession.getAbsentCount()
         );
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.ATTENDANCE));
 
         return AttendanceSessionResponseDTO.builder()
                 .id(attendanceSession.getId().toString())
@@ -235,16 +239,7 @@ public class FacultyAttendanceServiceImpl implements FacultyAttendanceService {
 
         // Filter time slots that have passed for today
         List<TimeSlot> passedTimeSlots = facultyTimeSlots.stream()
-                .filter(slot -> {
-                    try {
-                        // Parse time in a more robust way
-                        LocalTime endTime = parseTimeString(slot.getEndTime());
-                        return endTime.isBefore(currentTime);
-                    } catch (Exception e) {
-                        log.error("Error parsing time slot end time '{}': {}", slot.getEndTime(), e.getMessage());
-                        return false;
-                    }
-                })
+                .filter(slot -> slot.getEndLocalTime().isBefore(currentTime))
                 .toList();
 
         log.debug("Found {} passed time slots for faculty {}", passedTimeSlots.size(), faculty.getUsername());
@@ -290,15 +285,7 @@ public class FacultyAttendanceServiceImpl implements FacultyAttendanceService {
         if (date.equals(LocalDate.now())) {
             LocalTime currentTime = LocalTime.now();
             facultyTimeSlots = facultyTimeSlots.stream()
-                    .filter(slot -> {
-                        try {
-                            LocalTime endTime = parseTimeString(slot.getEndTime());
-                            return endTime.isBefore(currentTime);
-                        } catch (Exception e) {
-                            log.error("Error parsing time slot end time '{}': {}", slot.getEndTime(), e.getMessage());
-                            return false;
-                        }
-                    })
+                    .filter(slot -> slot.getEndLocalTime().isBefore(currentTime))
                     .toList();
         }
 
@@ -333,20 +320,12 @@ public class FacultyAttendanceServiceImpl implements FacultyAttendanceService {
     }
 
     private SubmissionStatus determineSubmissionStatus(TimeSlot timeSlot) {
-        try {
-            LocalTime endTime = parseTimeString(timeSlot.getEndTime());
-            LocalTime currentTime = LocalTime.now();
-
-            // If submission is after the end time, mark as LATE
-            if (currentTime.isAfter(endTime)) {
-                return SubmissionStatus.LATE;
-            }
-
-            return SubmissionStatus.ON_TIME;
-        } catch (Exception e) {
-            log.error("Error determining submission status: {}", e.getMessage());
-            return SubmissionStatus.ON_TIME;
+        // If submission is after the end time, mark as LATE
+        if (LocalTime.now().isAfter(timeSlot.getEndLocalTime())) {
+            return SubmissionStatus.LATE;
         }
+
+        return SubmissionStatus.ON_TIME;
     }
 
     private AttendanceSessionDTO mapToDTO(AttendanceSession session) {
@@ -370,32 +349,4 @@ public class FacultyAttendanceServiceImpl implements FacultyAttendanceService {
                 .lateSubmissionReason(session.getLateSubmissionReason())
                 .build();
     }
-
-    /**
-     * Parse a time string in format "HH:mm" or "H:mm" to LocalTime
-     *
-     * @param timeString The time string to parse
-     * @return LocalTime object
-     */
-    private LocalTime parseTimeString(String timeString) {
-        if (timeString == null || timeString.trim().isEmpty()) {
-            throw new IllegalArgumentException("Time string cannot be null or empty");
-        }
-
-        timeString = timeString.trim();
-
-        // Handle different formats
-        if (timeString.matches("\\d{1,2}:\\d{2}")) {
-            String[] parts = timeString.split(":");
-            int hour = Integer.parseInt(parts[0]);
-            int minute = Integer.parseInt(parts[1]);
-            return LocalTime.of(hour, minute);
-        } else if (timeString.matches("\\d{1,2}")) {
-            // Just hours
-            int hour = Integer.parseInt(timeString);
-            return LocalTime.of(hour, 0);
-        } else {
-            throw new IllegalArgumentException("Invalid time format: " + timeString);
-        }
-    }
 }
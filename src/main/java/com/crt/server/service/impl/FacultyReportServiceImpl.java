@@ -14,7 +14,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -55,25 +57,33 @@ public class FacultyReportServiceImpl implements FacultyReportService {
                 .map(AttendanceSession::getTimeSlot)
                 .collect(Collectors.toList());
         
-        // Get all students from these sessions and calculate their attendance in parallel
-        List<FacultyAttendanceReportDTO.StudentAttendanceReportDTO> studentReports = finalSessions.stream()
+        // Get all students from these sessions; their counts and last attended dates come
+        // from one grouped query each rather than a round trip per student
+        final List<Student> students = finalSessions.stream()
                 .flatMap(session -> session.getSection().getStudents().stream())
                 .distinct()
-                .parallel() // Use parallel stream for concurrent processing
+                .collect(Collectors.toList());
+        final Map<UUID, Object[]> counts = new HashMap<>();
+        final Map<UUID, LocalDateTime> lastAttendedDates = new HashMap<>();
+        if (!students.isEmpty()) {
+            for (Object[] row : attendanceRepository.countSessionsAndPresencesPerStudent(students, timeSlots)) {
+                counts.put((UUID) row[0], row);
+            }
+            for (Object[] row : attendanceRepository.findLastPresentDatePerStudent(students)) {
+                lastAttendedDates.put((UUID) row[0], (LocalDateTime) row[1]);
+            }
+        }
+        
+        List<FacultyAttendanceReportDTO.StudentAttendanceReportDTO> studentReports = students.stream()
                 .map(student -> {
                     // Calculate attendance for this student
-                    long totalSessions = attendanceRepository.countByStudentAndTimeSlotIn(student, timeSlots);
-                    
-                    long attendedSessions = attendanceRepository.countByStudentAndStatusAndTimeSlotIn(
-                            student, AttendanceStatus.PRESENT, timeSlots);
+                    Object[] count = counts.get(student.getId());
+                    long totalSessions = count != null ? ((Number) count[1]).longValue() : 0;
+                    long attendedSessions = count != null ? ((Number) count[2]).longValue() : 0;
                     
                     double percentage = totalSessions > 0 ? (attendedSessions * 100.0 / totalSessions) : 0.0;
                     
-                    // Get last attended date
-                    LocalDateTime lastAttended = attendanceRepository
-                            .findTopByStudentAndStatusOrderByDateDesc(student, AttendanceStatus.PRESENT)
-                            .map(Attendance::getDate)
-                            .orElse(null);
+                    LocalDateTime lastAttended = lastAttendedDates.get(student.getId());
                     
                     return FacultyAttendanceReportDTO.StudentAttendanceReportDTO.builder()
                             .studentId(student.getId().toString())
@@ -156,8 +166,8 @@ public class FacultyReportServiceImpl implements FacultyReportService {
                 .findFirst()
                 .orElse(null);
         
-        // Build session history in parallel
-        List<StudentAttendanceDetailDTO.SessionHistoryDTO> sessionHistory = attendanceRecords.parallelStream()
+        // Sequential: the mapping touches lazy associations, which must load on the request's session
+        List<StudentAttendanceDetailDTO.SessionHistoryDTO> sessionHistory = attendanceRecords.stream()
                 .map(record -> {
                     AttendanceSession session = record.getAttendanceSession();
                     return StudentAttendanceDetailDTO.SessionHistoryDTO.builder()
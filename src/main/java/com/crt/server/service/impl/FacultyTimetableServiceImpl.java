@@ -82,18 +82,8 @@ public class FacultyTimetableServiceImpl implements FacultyTimetableService {
             return false;
         }
         
-        try {
-            LocalTime now = LocalTime.now();
-            // Assuming time format is "HH:mm" (e.g., "09:00", "14:30")
-            LocalTime startTime = LocalTime.parse(timeSlot.getStartTime());
-            LocalTime endTime = LocalTime.parse(timeSlot.getEndTime());
-            
-            // Check if current time is within the slot time range
-            return (now.equals(startTime) || now.isAfter(startTime)) && 
-                   (now.equals(endTime) || now.isBefore(endTime));
-        } catch (Exception e) {
-            log.error("Error parsing time for slot {}: {}", timeSlot.getId(), e.getMessage());
-            return false;
-        }
+        // Check if current time is within the slot time range
+        LocalTime now = LocalTime.now();
+        return !now.isBefore(timeSlot.getStartLocalTime()) && !now.isAfter(timeSlot.getEndLocalTime());
     }
 }
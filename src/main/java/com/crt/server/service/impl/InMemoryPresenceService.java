@@ -0,0 +1,67 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.service.PresenceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Single-node presence: only sessions connected to this instance are known
+ */
+@Service
+@ConditionalOnProperty(name = "websocket.presence.store", havingValue = "memory")
+public class InMemoryPresenceService implements PresenceService {
+
+    private final Map<String, String> sessionUsers = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> userSessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void sessionConnected(String sessionId, String userId) {
+        String previous = sessionUsers.put(sessionId, userId);
+        if (previous != null && !previous.equals(userId)) {
+            removeSession(previous, sessionId);
+        }
+        userSessions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    @Override
+    public void sessionDisconnected(String sessionId) {
+        String userId = sessionUsers.remove(sessionId);
+        if (userId != null) {
+            removeSession(userId, sessionId);
+        }
+    }
+
+    @Override
+    public void touch(String sessionId) {
+        // Sessions stay known until they disconnect
+    }
+
+    @Override
+    public boolean isOnline(String userId) {
+        return userSessions.containsKey(userId);
+    }
+
+    @Override
+    public Set<String> filterOnline(Collection<String> userIds) {
+        return userIds.stream().filter(userSessions::containsKey).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<String> getOnlineUsers() {
+        return new TreeSet<>(userSessions.keySet());
+    }
+
+    private void removeSession(String userId, String sessionId) {
+        userSessions.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.service.ClusterCoordinator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-node coordination: this node is always the leader and every claim succeeds
+ */
+@Service
+@ConditionalOnProperty(name = "cluster.mode", havingValue = "local", matchIfMissing = true)
+public class LocalClusterCoordinator implements ClusterCoordinator {
+
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isLeader() {
+        return true;
+    }
+
+    @Override
+    public boolean claim(String key, Duration ttl) {
+        return true;
+    }
+
+    @Override
+    public long nextSequence(String name) {
+        return sequences.computeIfAbsent(name, ignored -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public long currentSequence(String name) {
+        AtomicLong sequence = sequences.get(name);
+        return sequence == null ? 0 : sequence.get();
+    }
+
+    @Override
+    public void broadcast(String signal) {
+        listeners.getOrDefault(signal, List.of()).forEach(Runnable::run);
+    }
+
+    @Override
+    public void subscribe(String signal, Runnable listener) {
+        listeners.computeIfAbsent(signal, ignored -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+}
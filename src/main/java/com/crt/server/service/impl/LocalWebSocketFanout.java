@@ -0,0 +1,38 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.service.WebSocketFanout;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+/**
+ * Single-node fan-out: messages only reach clients connected to this instance
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "websocket.fanout.mode", havingValue = "local", matchIfMissing = true)
+public class LocalWebSocketFanout implements WebSocketFanout {
+
+    private final WebSocketFrameSender frameSender;
+
+    @Override
+    public void sendToUser(String userId, String destination, Object payload) {
+        frameSender.sendToUser(userId, destination, frameSender.encode(payload), frameSender.isDroppable(payload));
+    }
+
+    @Override
+    public void sendToUsers(Collection<String> userIds, String destination, Object payload) {
+        byte[] frame = frameSender.encode(payload);
+        boolean droppable = frameSender.isDroppable(payload);
+        for (String userId : userIds) {
+            frameSender.sendToUser(userId, destination, frame, droppable);
+        }
+    }
+
+    @Override
+    public void send(String destination, Object payload) {
+        frameSender.send(destination, frameSender.encode(payload), frameSender.isDroppable(payload));
+    }
+}
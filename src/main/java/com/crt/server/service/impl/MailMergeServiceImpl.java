@@ -0,0 +1,46 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.dto.MailMergeRequestDTO;
+import com.crt.server.dto.MailRecipientDTO;
+import com.crt.server.repository.StudentRepository;
+import com.crt.server.service.EmailOutboxService;
+import com.crt.server.service.MailMergeService;
+import com.crt.server.util.KeysetCursor;
+import com.crt.server.util.MailTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MailMergeServiceImpl implements MailMergeService {
+
+    // Recipients fetched per keyset page
+    static final int RECIPIENT_PAGE_SIZE = 500;
+
+    private final StudentRepository studentRepository;
+    private final EmailOutboxService emailOutboxService;
+
+    @Override
+    public String sendMerge(MailMergeRequestDTO request) {
+        // Compile (and validate) once, before any recipient is read
+        MailTemplate subject = MailTemplate.compileText(request.getSubject()).requireVariables(MailRecipientDTO.MERGE_FIELDS);
+        MailTemplate body = MailTemplate.compile(request.getBody()).requireVariables(MailRecipientDTO.MERGE_FIELDS);
+
+        log.info("Mail merge to section {} below {}% attendance", request.getSectionId(), request.getAttendanceBelow());
+        return emailOutboxService.enqueueMerge(subject, body,
+                recipients(request.getSectionId(), request.getAttendanceBelow()));
+    }
+
+    /**
+     * Matching students, read one page at a time as the iterator is consumed
+     */
+    Iterator<MailRecipientDTO> recipients(UUID sectionId, Double attendanceBelow) {
+        return new KeysetCursor<>(RECIPIENT_PAGE_SIZE, (last, page) -> studentRepository.findMailRecipients(
+                sectionId, attendanceBelow, last == null ? "" : last.getRegNum(), page));
+    }
+}
@@ -0,0 +1,166 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.ClusterConfig;
+import com.crt.server.config.WebSocketFanoutConfig;
+import com.crt.server.service.ClusterCoordinator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Coordination through Redis. The leader holds a lease key holding its node id and
+ * renews it well before it expires; if it dies another node takes over once the
+ * lease runs out. Claims are SET NX keys, counters are INCR keys and signals are
+ * published on a channel that every node listens to.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "cluster.mode", havingValue = "redis")
+public class RedisClusterCoordinator implements ClusterCoordinator, MessageListener {
+
+    // Takes or extends the lease for this node; another node's lease is left alone
+    private static final DefaultRedisScript<Long> ACQUIRE_LEASE = new DefaultRedisScript<>(
+            "local owner = redis.call('GET', KEYS[1]) "
+                    + "if owner == ARGV[1] then redis.call('PEXPIRE', KEYS[1], ARGV[2]) return 1 end "
+                    + "if not owner then redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end "
+                    + "return 0", Long.class);
+    private static final DefaultRedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ClusterConfig clusterConfig;
+    private final String nodeId;
+
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+    // Local end of the lease; measured from before the renewal so it never outlives the key
+    private volatile long leaderUntil;
+
+    public RedisClusterCoordinator(StringRedisTemplate stringRedisTemplate,
+                                   ClusterConfig clusterConfig,
+                                   WebSocketFanoutConfig fanoutConfig) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clusterConfig = clusterConfig;
+        this.nodeId = fanoutConfig.getNodeId();
+    }
+
+    @Override
+    public boolean isLeader() {
+        if (System.currentTimeMillis() >= leaderUntil) {
+            renewLeadership();
+        }
+        return System.currentTimeMillis() < leaderUntil;
+    }
+
+    /**
+     * Extend this node's lease, or take it over when no node holds it
+     */
+    @Scheduled(fixedDelayString = "#{@clusterConfig.leaderLease.toMillis() / 3}")
+    public void renewLeadership() {
+        long startedAt = System.currentTimeMillis();
+        long leaseMillis = clusterConfig.getLeaderLease().toMillis();
+        try {
+            Long acquired = stringRedisTemplate.execute(ACQUIRE_LEASE, List.of(leaderKey()),
+                    nodeId, String.valueOf(leaseMillis));
+            boolean wasLeader = startedAt < leaderUntil;
+            leaderUntil = acquired != null && acquired == 1 ? startedAt + leaseMillis : 0;
+            if (wasLeader != leaderUntil > 0) {
+                log.info("Node {} {} cluster leadership", nodeId, wasLeader ? "lost" : "took");
+            }
+        } catch (Exception e) {
+            // Keep whatever is left of the current lease; it runs out on its own
+            log.warn("Failed to renew cluster leadership: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean claim(String key, Duration ttl) {
+        Boolean claimed = stringRedisTemplate.opsForValue()
+                .setIfAbsent(clusterConfig.getKeyPrefix() + "claim:" + key, nodeId, ttl);
+        return Boolean.TRUE.equals(claimed);
+    }
+
+    @Override
+    public long nextSequence(String name) {
+        Long value = stringRedisTemplate.opsForValue().increment(sequenceKey(name));
+        if (value == null) {
+            throw new IllegalStateException("Redis returned no value for sequence " + name);
+        }
+        return value;
+    }
+
+    @Override
+    public long currentSequence(String name) {
+        String value = stringRedisTemplate.opsForValue().get(sequenceKey(name));
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    @Override
+    public void broadcast(String signal) {
+        notifyListeners(signal);
+        try {
+            stringRedisTemplate.convertAndSend(clusterConfig.getSignalChannel(), nodeId + " " + signal);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast cluster signal {}: {}", signal, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(String signal, Runnable listener) {
+        listeners.computeIfAbsent(signal, ignored -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(' ');
+        // This node's listeners already ran when it broadcast
+        if (separator > 0 && !body.substring(0, separator).equals(nodeId)) {
+            notifyListeners(body.substring(separator + 1));
+        }
+    }
+
+    @PreDestroy
+    public void releaseLeadership() {
+        if (leaderUntil == 0) {
+            return;
+        }
+        leaderUntil = 0;
+        try {
+            stringRedisTemplate.execute(RELEASE_LEASE, List.of(leaderKey()), nodeId);
+        } catch (Exception e) {
+            log.debug("Failed to release cluster leadership: {}", e.getMessage());
+        }
+    }
+
+    private void notifyListeners(String signal) {
+        for (Runnable listener : listeners.getOrDefault(signal, List.of())) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.warn("Cluster signal {} listener failed: {}", signal, e.getMessage());
+            }
+        }
+    }
+
+    private String leaderKey() {
+        return clusterConfig.getKeyPrefix() + "leader";
+    }
+
+    private String sequenceKey(String name) {
+        return clusterConfig.getKeyPrefix() + "sequence:" + name;
+    }
+}
@@ -0,0 +1,164 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.PresenceConfig;
+import com.crt.server.service.PresenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Presence shared across nodes. Online users live in a Redis sorted set scored by the
+ * time their presence expires; every node periodically pushes that time forward for
+ * the users connected to it, so users of a node that dies fall offline after the TTL.
+ * A hash counts sessions per user across nodes so the last disconnect removes them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "websocket.presence.store", havingValue = "redis", matchIfMissing = true)
+public class RedisPresenceService implements PresenceService {
+
+    private static final String USERS_KEY = "presence:users";
+    private static final String SESSIONS_KEY = "presence:sessions";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PresenceConfig presenceConfig;
+
+    // Sessions connected to this node and the user each belongs to
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void sessionConnected(String sessionId, String userId) {
+        String previous = localSessions.put(sessionId, userId);
+        if (userId.equals(previous)) {
+            touchUser(userId);
+            return;
+        }
+        try {
+            if (previous != null) {
+                releaseSession(previous);
+            }
+            stringRedisTemplate.opsForHash().increment(SESSIONS_KEY, userId, 1);
+            touchUser(userId);
+        } catch (Exception e) {
+            log.warn("Failed to record presence for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void sessionDisconnected(String sessionId) {
+        String userId = localSessions.remove(sessionId);
+        if (userId == null) {
+            return;
+        }
+        try {
+            releaseSession(userId);
+        } catch (Exception e) {
+            log.warn("Failed to clear presence for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void touch(String sessionId) {
+        String userId = localSessions.get(sessionId);
+        if (userId != null) {
+            try {
+                touchUser(userId);
+            } catch (Exception e) {
+                log.debug("Failed to refresh presence for user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isOnline(String userId) {
+        try {
+            Double expiresAt = stringRedisTemplate.opsForZSet().score(USERS_KEY, userId);
+            return expiresAt != null && expiresAt > System.currentTimeMillis();
+        } catch (Exception e) {
+            // Without the registry, deliver rather than silently skip
+            log.warn("Presence lookup failed, treating user {} as online: {}", userId, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public Set<String> filterOnline(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        List<String> ids = new ArrayList<>(userIds);
+        try {
+            List<Double> scores = stringRedisTemplate.opsForZSet().score(USERS_KEY, ids.toArray());
+            long now = System.currentTimeMillis();
+            Set<String> online = new HashSet<>();
+            for (int i = 0; i < ids.size(); i++) {
+                Double expiresAt = scores != null ? scores.get(i) : null;
+                if (expiresAt != null && expiresAt > now) {
+                    online.add(ids.get(i));
+                }
+            }
+            return online;
+        } catch (Exception e) {
+            log.warn("Presence lookup failed, treating {} users as online: {}", ids.size(), e.getMessage());
+            return new HashSet<>(ids);
+        }
+    }
+
+    @Override
+    public Set<String> getOnlineUsers() {
+        Set<String> users = stringRedisTemplate.opsForZSet()
+                .rangeByScore(USERS_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return users != null ? new TreeSet<>(users) : new TreeSet<>();
+    }
+
+    /**
+     * Keep this node's users online and drop users whose presence expired
+     */
+    @Scheduled(fixedDelayString = "#{@presenceConfig.refreshInterval.toMillis()}")
+    public void refreshLocalSessions() {
+        try {
+            if (!localSessions.isEmpty()) {
+                double expiresAt = expiresAt();
+                Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(localSessions.values()).stream()
+                        .map(userId -> new DefaultTypedTuple<>(userId, expiresAt))
+                        .collect(Collectors.toSet());
+                stringRedisTemplate.opsForZSet().add(USERS_KEY, tuples);
+            }
+            stringRedisTemplate.opsForZSet().removeRangeByScore(USERS_KEY, 0, System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("Failed to refresh WebSocket presence: {}", e.getMessage());
+        }
+    }
+
+    private void touchUser(String userId) {
+        stringRedisTemplate.opsForZSet().add(USERS_KEY, userId, expiresAt());
+    }
+
+    private void releaseSession(String userId) {
+        Long remaining = stringRedisTemplate.opsForHash().increment(SESSIONS_KEY, userId, -1);
+        if (remaining == null || remaining <= 0) {
+            stringRedisTemplate.opsForHash().delete(SESSIONS_KEY, userId);
+            stringRedisTemplate.opsForZSet().remove(USERS_KEY, userId);
+        }
+    }
+
+    private double expiresAt() {
+        return System.currentTimeMillis() + presenceConfig.getTtl().toMillis();
+    }
+}
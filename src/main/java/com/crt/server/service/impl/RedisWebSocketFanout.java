@@ -0,0 +1,135 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.WebSocketFanoutConfig;
+import com.crt.server.dto.websocket.WebSocketEnvelope;
+import com.crt.server.service.WebSocketFanout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-node fan-out over Redis pub/sub. Every message is serialized once, delivered to
+ * the local broker right away and published on a shared channel as the same JSON frame;
+ * other nodes republish that frame to their own local broker. Each node drops messages it produced itself or has already delivered.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "websocket.fanout.mode", havingValue = "redis")
+public class RedisWebSocketFanout implements WebSocketFanout, MessageListener {
+
+    private final WebSocketFrameSender frameSender;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final WebSocketFanoutConfig fanoutConfig;
+
+    private final Cache<String, Boolean> deliveredMessageIds;
+    private final AtomicLong duplicatesDropped = new AtomicLong();
+
+    public RedisWebSocketFanout(WebSocketFrameSender frameSender,
+                                StringRedisTemplate stringRedisTemplate,
+                                ObjectMapper objectMapper,
+                                WebSocketFanoutConfig fanoutConfig) {
+        this.frameSender = frameSender;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.fanoutConfig = fanoutConfig;
+        this.deliveredMessageIds = Caffeine.newBuilder()
+                .expireAfterWrite(fanoutConfig.getDedupeWindow())
+                .maximumSize(fanoutConfig.getDedupeMaximumSize())
+                .build();
+    }
+
+    @Override
+    public void sendToUser(String userId, String destination, Object payload) {
+        sendToUsers(List.of(userId), destination, payload);
+    }
+
+    @Override
+    public void sendToUsers(Collection<String> userIds, String destination, Object payload) {
+        byte[] frame = frameSender.encode(payload);
+        boolean droppable = frameSender.isDroppable(payload);
+        deliverToUsers(userIds, destination, frame, droppable);
+        publish(List.copyOf(userIds), destination, frame, droppable);
+    }
+
+    @Override
+    public void send(String destination, Object payload) {
+        byte[] frame = frameSender.encode(payload);
+        boolean droppable = frameSender.isDroppable(payload);
+        frameSender.send(destination, frame, droppable);
+        publish(null, destination, frame, droppable);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        handleEnvelope(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    void handleEnvelope(String json) {
+        WebSocketEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(json, WebSocketEnvelope.class);
+        } catch (Exception e) {
+            log.warn("Dropping malformed WebSocket fan-out message: {}", e.getMessage());
+            return;
+        }
+
+        if (fanoutConfig.getNodeId().equals(envelope.getOriginNodeId())) {
+            return;
+        }
+        if (deliveredMessageIds.asMap().putIfAbsent(envelope.getMessageId(), Boolean.TRUE) != null) {
+            duplicatesDropped.incrementAndGet();
+            log.debug("Dropping duplicate WebSocket fan-out message {}", envelope.getMessageId());
+            return;
+        }
+
+        byte[] frame = envelope.getPayload().getBytes(StandardCharsets.UTF_8);
+        if (envelope.getUserIds() != null) {
+            deliverToUsers(envelope.getUserIds(), envelope.getDestination(), frame, envelope.isDroppable());
+        } else {
+            frameSender.send(envelope.getDestination(), frame, envelope.isDroppable());
+        }
+    }
+
+    public long getDuplicatesDropped() {
+        return duplicatesDropped.get();
+    }
+
+    private void deliverToUsers(Collection<String> userIds, String destination, byte[] frame, boolean droppable) {
+        for (String userId : userIds) {
+            frameSender.sendToUser(userId, destination, frame, droppable);
+        }
+    }
+
+    private void publish(List<String> userIds, String destination, byte[] frame, boolean droppable) {
+        String messageId = UUID.randomUUID().toString();
+        deliveredMessageIds.put(messageId, Boolean.TRUE);
+
+        try {
+            WebSocketEnvelope envelope = WebSocketEnvelope.builder()
+                    .messageId(messageId)
+                    .originNodeId(fanoutConfig.getNodeId())
+                    .userIds(userIds)
+                    .destination(destination)
+                    .payload(new String(frame, StandardCharsets.UTF_8))
+                    .droppable(droppable)
+                    .build();
+            stringRedisTemplate.convertAndSend(fanoutConfig.getChannel(), objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            // Local subscribers already have the message; only remote nodes miss it
+            log.warn("Failed to publish WebSocket message to {} for other nodes: {}", destination, e.getMessage());
+        }
+    }
+}
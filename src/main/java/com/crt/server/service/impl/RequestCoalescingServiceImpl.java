@@ -0,0 +1,110 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.CoalescingConfig;
+import com.crt.server.service.RequestCoalescingService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class RequestCoalescingServiceImpl implements RequestCoalescingService {
+
+    private final CoalescingConfig coalescingConfig;
+    private final MeterRegistry meterRegistry;
+
+    // Caffeine keeps in-flight futures until they complete and drops failed ones,
+    // so the TTL only starts counting once a result is available
+    private final AsyncCache<String, Object> results;
+
+    private final Map<String, LongAdder> collapsedCounts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> executedCounts = new ConcurrentHashMap<>();
+
+    public RequestCoalescingServiceImpl(CoalescingConfig coalescingConfig, MeterRegistry meterRegistry) {
+        this.coalescingConfig = coalescingConfig;
+        this.meterRegistry = meterRegistry;
+        this.results = Caffeine.newBuilder()
+                .expireAfterWrite(coalescingConfig.getTtl())
+                .maximumSize(coalescingConfig.getMaximumSize())
+                .buildAsync();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String group, String key, Supplier<T> loader) {
+        if (!coalescingConfig.isEnabled()) {
+            return loader.get();
+        }
+
+        String cacheKey = group + "|" + key;
+        CompletableFuture<Object> ours = new CompletableFuture<>();
+        CompletableFuture<Object> shared = results.asMap().putIfAbsent(cacheKey, ours);
+
+        if (shared != null) {
+            record(group, "collapsed", collapsedCounts);
+            log.debug("Coalesced request {} onto shared computation", cacheKey);
+            return (T) await(shared);
+        }
+
+        record(group, "executed", executedCounts);
+        try {
+            T value = loader.get();
+            ours.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            ours.completeExceptionally(e);
+            results.asMap().remove(cacheKey, ours);
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCollapsedCounts() {
+        return snapshot(collapsedCounts);
+    }
+
+    @Override
+    public Map<String, Long> getExecutedCounts() {
+        return snapshot(executedCounts);
+    }
+
+    private Object await(CompletableFuture<Object> shared) {
+        try {
+            return shared.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private void record(String group, String outcome, Map<String, LongAdder> counts) {
+        counts.computeIfAbsent(group, g -> new LongAdder()).increment();
+        Counter.builder("crt.coalescing.requests")
+                .tag("group", group)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Map<String, Long> snapshot(Map<String, LongAdder> counts) {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((group, count) -> result.put(group, count.sum()));
+        return result;
+    }
+}
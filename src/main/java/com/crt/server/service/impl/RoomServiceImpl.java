@@ -1,10 +1,11 @@
 package com.crt.server.service.impl;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +18,7 @@ import com.crt.server.model.RoomType;
 import com.crt.server.repository.RoomRepository;
 import com.crt.server.service.CsvService;
 import com.crt.server.service.RoomService;
+import com.crt.server.util.KeysetCursor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +31,10 @@ public class RoomServiceImpl implements RoomService {
 
     private final RoomRepository roomRepository;
     private final CsvService csvService;
+
+    private static final int CSV_CHUNK_SIZE = 500;
+    // Rooms read per keyset page by the full listing
+    private static final int LISTING_PAGE_SIZE = 500;
     private static final Pattern ROOM_PATTERN = Pattern.compile("^([A-Z])(\\d)(\\d{2})\\s*-\\s*([A-Za-z]+)$");
 
     @Override
@@ -58,10 +64,10 @@ public class RoomServiceImpl implements RoomService {
     }
 
     @Override
-    public List<RoomDTO> getAllRooms() {
-        return roomRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Iterator<RoomDTO> getAllRooms() {
+        return new KeysetCursor<>(LISTING_PAGE_SIZE, (last, page) -> last == null
+                ? roomRepository.findListingPage(null, null, null, null, page)
+                : roomRepository.findListingPage(last.getBlock(), last.getFloor(), last.getRoomNumber(), last.getId(), page));
     }
 
     @Override
@@ -118,47 +124,48 @@ public class RoomServiceImpl implements RoomService {
         }
     }
 
-    @Override
-    public RoomDTO getRoomByCode(String roomCode) {
-        Room room = roomRepository.findByRoomCode(roomCode);
-        if (room == null) {
-            throw new ResourceNotFoundException("Room not found with code: " + roomCode);
-        }
-        return convertToDTO(room);
+    @Override
+    public RoomDTO getRoomByCode(String roomCode) {
+        Room room = roomRepository.findByRoomCode(roomCode);
+        if (room == null) {
+            throw new ResourceNotFoundException("Room not found with code: " + roomCode);
+        }
+        return convertToDTO(room);
     }    @Override
     public List<RoomDTO> bulkCreateRoomsFromSimpleFormat(MultipartFile file) throws Exception {
         String[] headers = { "roomString", "capacity", "roomType" };
 
         try {
-            List<Room> rooms = csvService.parseCsv(file, headers, record -> {
-                // Validate required fields
-                validateSimpleFormatFields(record);
-
-                String roomString = record.get("roomString").trim();
-                String capacity = record.get("capacity").trim();
-                String roomType = record.get("roomType").trim();
-
-                // Parse room string
-                RoomDTO roomDTO = parseSimpleRoomString(roomString);
-                roomDTO.setCapacity(Integer.parseInt(capacity));
-                roomDTO.setRoomType(RoomType.valueOf(roomType.toUpperCase()));
-
-                // Create and return Room entity
-                return Room.builder()
-                        .block(roomDTO.getBlock())
-                        .floor(roomDTO.getFloor())
-                        .roomNumber(roomDTO.getRoomNumber())
-                        .subRoom(roomDTO.getSubRoom())
-                        .roomType(roomDTO.getRoomType())
-                        .capacity(roomDTO.getCapacity())
-                        .build();
+            List<RoomDTO> savedRooms = new ArrayList<>();
+            // Rooms are read and saved a chunk at a time
+            csvService.parseCsvInChunks(file, headers, CSV_CHUNK_SIZE, chunk -> {
+                List<Room> rooms = chunk.stream().map(record -> {
+                    // Validate required fields
+                    validateSimpleFormatFields(record);
+
+                    String roomString = record.get("roomString").trim();
+                    String capacity = record.get("capacity").trim();
+                    String roomType = record.get("roomType").trim();
+
+                    // Parse room string
+                    RoomDTO roomDTO = parseSimpleRoomString(roomString);
+                    roomDTO.setCapacity(Integer.parseInt(capacity));
+                    roomDTO.setRoomType(RoomType.valueOf(roomType.toUpperCase()));
+
+                    // Create and return Room entity
+                    return Room.builder()
+                            .block(roomDTO.getBlock())
+                            .floor(roomDTO.getFloor())
+                            .roomNumber(roomDTO.getRoomNumber())
+                            .subRoom(roomDTO.getSubRoom())
+                            .roomType(roomDTO.getRoomType())
+                            .capacity(roomDTO.getCapacity())
+                            .build();
+                }).toList();
+
+                roomRepository.saveAll(rooms).forEach(room -> savedRooms.add(convertToDTO(room)));
             });
-
-            // Save all rooms in a single transaction
-            List<Room> savedRooms = roomRepository.saveAll(rooms);
-            return savedRooms.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return savedRooms;
 
         } catch (Exception e) {
             log.error("Error in bulk room creation from simple format: {}", e.getMessage());
@@ -230,4 +237,4 @@ public class RoomServiceImpl implements RoomService {
                 .roomString(room.toString())
                 .build();
     }
-}
+}
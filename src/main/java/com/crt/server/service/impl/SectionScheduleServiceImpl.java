@@ -4,6 +4,7 @@ import com.crt.server.dto.RoomDTO;
 import com.crt.server.dto.SectionDTO;
 import com.crt.server.dto.SectionScheduleDTO;
 import com.crt.server.dto.TimeSlotDTO;
+import com.crt.server.event.TimetableChangedEvent;
 import com.crt.server.model.*;
 import com.crt.server.repository.*;
 import com.crt.server.service.RoomService;
@@ -12,6 +13,7 @@ import com.crt.server.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -42,6 +44,8 @@ public class SectionScheduleServiceImpl implements SectionScheduleService {
     private UserService userService;
     @Autowired
     private RoomService roomService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -63,7 +67,7 @@ public class SectionScheduleServiceImpl implements SectionScheduleService {
     @Override
     @Transactional(readOnly = true)
     public SectionScheduleDTO getSchedule(UUID id) {
-        SectionSchedule schedule = sectionScheduleRepository.findById(id)
+        SectionSchedule schedule = sectionScheduleRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Schedule not found"));
         return mapToDTO(schedule);
     }
@@ -71,7 +75,7 @@ public class SectionScheduleServiceImpl implements SectionScheduleService {
     @Override
     @Transactional(readOnly = true)
     public List<SectionScheduleDTO> getAllSchedules() {
-        return sectionScheduleRepository.findAll().stream()
+        return sectionScheduleRepository.findAllWithDetails().stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -102,6 +106,7 @@ public class SectionScheduleServiceImpl implements SectionScheduleService {
             throw new EntityNotFoundException("Schedule not found");
         }
         sectionScheduleRepository.deleteById(id);
+        eventPublisher.publishEvent(new TimetableChangedEvent(null));
     }
 
     @Override
@@ -146,6 +151,7 @@ public class SectionScheduleServiceImpl implements SectionScheduleService {
 
         schedule.addTimeSlot(timeSlot);
         SectionSchedule savedSchedule = sectionScheduleRepository.save(schedule);
+        eventPublisher.publishEvent(new TimetableChangedEvent(null));
         return mapToDTO(savedSchedule);
     }
 
@@ -165,7 +171,7 @@ public class SectionScheduleServiceImpl implements SectionScheduleService {
         timeSlot.setInchargeFaculty(userService.getFacById(timeSlotDTO.getInchargeFacultyId()));
 
         timeSlotRepository.save(timeSlot);
-
+        eventPublisher.publishEvent(new TimetableChangedEvent(timeSlot.getDayOfWeek()));
 
         return mapToDTO(schedule);
     }
@@ -197,6 +203,7 @@ public class SectionScheduleServiceImpl implements SectionScheduleService {
 
         schedule.removeTimeSlot(timeSlot);
         timeSlotRepository.delete(timeSlot);
+        eventPublisher.publishEvent(new TimetableChangedEvent(timeSlot.getDayOfWeek()));
 
         SectionSchedule savedSchedule = sectionScheduleRepository.save(schedule);
         return mapToDTO(savedSchedule);
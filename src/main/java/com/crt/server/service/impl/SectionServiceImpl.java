@@ -13,9 +13,12 @@ import com.crt.server.repository.TrainingRepository;
 import com.crt.server.service.CsvService;
 import com.crt.server.service.SectionService;
 import com.crt.server.service.TrainingService;
+import com.crt.server.util.KeysetCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -23,12 +26,35 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class SectionServiceImpl implements SectionService {
 
+    // Registration numbers per UPDATE ... WHERE reg_num IN (...) statement
+    private static final int REGISTRATION_CHUNK_SIZE = 1000;
+    private static final String ROSTER_CACHE = "studentsBySection";
+    // Records read from an uploaded CSV before they are processed
+    private static final int CSV_CHUNK_SIZE = 500;
+    // Students read per keyset page when listing a section's roster
+    private static final int ROSTER_PAGE_SIZE = 500;
+    // Sections by their "-<n>" number, falling back to the name
+    private static final Comparator<String> SECTION_ORDER = (name1, name2) -> {
+        // Extract numbers from the names
+        Integer num1 = extractNumber(name1);
+        Integer num2 = extractNumber(name2);
+
+        // If both have numbers, compare numerically
+        if (num1 != null && num2 != null) {
+            return Integer.compare(num1, num2);
+        }
+
+        // Fallback to alphabetical comparison
+        return name1.compareToIgnoreCase(name2);
+    };
+
     @Autowired
     private SectionRepository sectionRepository;
 
@@ -44,6 +70,9 @@ public class SectionServiceImpl implements SectionService {
     @Autowired
     private CsvService csvService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
     @Transactional
     @CacheEvict(value = {"sectionDetails", "studentsBySection"}, allEntries = true)
@@ -78,33 +107,43 @@ public class SectionServiceImpl implements SectionService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<SectionDTO> getAllSections() {
+    public Iterator<SectionDTO> getAllSections() {
         log.debug("Getting all sections");
-        List<SectionDTO> sections = new ArrayList<>( sectionRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList()));
-
-        sections.sort((t1, t2) -> {
-            String name1 = t1.getName();
-            String name2 = t2.getName();
-
-            // Extract numbers from the names
-            Integer num1 = extractNumber(name1);
-            Integer num2 = extractNumber(name2);
-
-            // If both have numbers, compare numerically
-            if (num1 != null && num2 != null) {
-                return Integer.compare(num1, num2);
-            }
+        // Section rows are few and come back sorted by name; only the rosters are large
+        List<Object[]> rows = new ArrayList<>(sectionRepository.findListingRows());
+        rows.sort(Comparator.comparing(row -> (String) row[1], SECTION_ORDER));
+        return rows.stream()
+                .map(this::mapListingRowToDTO)
+                .iterator();
+    }
 
-            // Fallback to alphabetical comparison
-            return name1.compareToIgnoreCase(name2);
-        });
+    // A listed section with its roster, read in keyset pages when the section is reached
+    private SectionDTO mapListingRowToDTO(Object[] row) {
+        UUID sectionId = (UUID) row[0];
+        Set<StudentDTO> students = new LinkedHashSet<>();
+        new KeysetCursor<StudentDTO>(ROSTER_PAGE_SIZE, (last, page) -> studentRepository.findListingPage(
+                sectionId, last == null ? "" : last.getRegNum(), page))
+                .forEachRemaining(student -> {
+                    student.setRollNumber(student.getRegNum());
+                    students.add(student);
+                });
 
-        return sections;
+        return SectionDTO.builder()
+                .id(sectionId)
+                .name((String) row[1])
+                .strength((Integer) row[2])
+                .capacity((Integer) row[3])
+                .training(TrainingDTO.builder()
+                        .id((UUID) row[4])
+                        .name((String) row[5])
+                        .sn((String) row[6])
+                        .sections(((Long) row[7]).intValue())
+                        .build())
+                .students(students)
+                .build();
     }
-    private Integer extractNumber(String str) {
+
+    private static Integer extractNumber(String str) {
         if (str == null) return null;
 
         java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("-(\\d+)");
@@ -154,38 +193,70 @@ public class SectionServiceImpl implements SectionService {
 
     @Override
     @Transactional
-    @CacheEvict(value = {"sectionDetails", "studentsBySection"}, allEntries = true)
     public SectionDTO registerStudents(UUID sectionId, List<String> regNums) {
-        log.debug("Registering students with reg numbers {} to section {}", regNums, sectionId);
+        log.debug("Registering {} students to section {}", regNums.size(), sectionId);
 
         Section section = sectionRepository.findById(sectionId)
                 .orElseThrow(() -> new RuntimeException("Section not found"));
 
-        List<Student> students = studentRepository.findByRegNumIn(regNums);
+        Set<UUID> affectedSections = new HashSet<>();
+        assignStudents(section, regNums, affectedSections);
+        refreshSections(affectedSections);
 
-        if (students.size() != regNums.size()) {
-            List<String> foundRegNums = students.stream()
-                    .map(Student::getRegNum)
-                    .collect(Collectors.toList());
+        return mapToDTO(sectionRepository.findById(sectionId)
+                .orElseThrow(() -> new RuntimeException("Section not found")));
+    }
+
+    /**
+     * Move students into a section with one UPDATE per chunk of registration numbers.
+     * Nothing is written when any of them is unknown. The target section and every
+     * section the students leave are added to affectedSections.
+     */
+    private void assignStudents(Section section, List<String> regNums, Set<UUID> affectedSections) {
+        List<String> distinctRegNums = regNums.stream().distinct().toList();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinctRegNums.size(); i += REGISTRATION_CHUNK_SIZE) {
+            chunks.add(distinctRegNums.subList(i, Math.min(i + REGISTRATION_CHUNK_SIZE, distinctRegNums.size())));
+        }
+
+        Set<String> foundRegNums = new HashSet<>();
+        Set<UUID> previousSections = new HashSet<>();
+        for (List<String> chunk : chunks) {
+            for (Object[] row : studentRepository.findSectionAssignments(chunk)) {
+                foundRegNums.add((String) row[0]);
+                if (row[1] != null) {
+                    previousSections.add((UUID) row[1]);
+                }
+            }
+        }
 
-            List<String> notFoundRegNums = regNums.stream()
+        if (foundRegNums.size() != distinctRegNums.size()) {
+            List<String> notFoundRegNums = distinctRegNums.stream()
                     .filter(regNum -> !foundRegNums.contains(regNum))
                     .collect(Collectors.toList());
-
             throw new RuntimeException("Some students not found: " + String.join(", ", notFoundRegNums));
         }
 
-        // Update each student's section
-        for (Student student : students) {
-            student.setSection(section);
-            studentRepository.save(student);
+        for (List<String> chunk : chunks) {
+            studentRepository.assignSection(section, chunk);
         }
+        affectedSections.add(section.getId());
+        affectedSections.addAll(previousSections);
+    }
 
-        // Update section strength
-        section.setStrength(section.getStudents().size());
-        sectionRepository.save(section);
+    /**
+     * Recompute strengths in one statement and drop only the affected rosters
+     */
+    private void refreshSections(Set<UUID> sectionIds) {
+        if (sectionIds.isEmpty()) {
+            return;
+        }
+        sectionRepository.refreshStrengths(sectionIds);
 
-        return mapToDTO(section);
+        Cache roster = cacheManager.getCache(ROSTER_CACHE);
+        if (roster != null) {
+            sectionIds.forEach(roster::evict);
+        }
     }
 
     @Override
@@ -233,46 +304,44 @@ public class SectionServiceImpl implements SectionService {
         String[] headers = {"TRAINING", "SECTIONS"};
 
         try {
-            List<CSVRecord> records = csvService.parseCsv(file, headers);
-            List<Section> allSections = new ArrayList<>();
-            int skippedCount = 0;
+            List<Section> savedSections = new ArrayList<>();
+            AtomicInteger skippedCount = new AtomicInteger();
 
-            for (CSVRecord record : records) {
-                validateRequiredFields(record);
-                String trainingName = record.get("TRAINING");
-                String sectionsString = record.get("SECTIONS");
+            csvService.parseCsvInChunks(file, headers, CSV_CHUNK_SIZE, chunk -> {
+                List<Section> chunkSections = new ArrayList<>();
+                for (CSVRecord record : chunk) {
+                    validateRequiredFields(record);
+                    String trainingName = record.get("TRAINING");
+                    String sectionsString = record.get("SECTIONS");
 
-                System.out.println("Training STRING [DEBUG]" + trainingName);
+                    Training training = getTraining(trainingName);
 
-                Training training = getTraining(trainingName);
-
-                if (training == null) {
-                    log.warn("Training not found, skipping: {}", trainingName);
-                    continue;
-                }
-                System.out.println("Section STRING [DEBUG]" + sectionsString);
-                List<String> sections = parseSectionsList(sectionsString);
-                System.out.println("SECTIONS: " + sections);
-                System.out.println("Creating " + sections.size() + " sections for training: " + trainingName);
-                for (String sectionName : sections) {
-                    // Check if section already exists
-                    if (sectionRepository.existsByName(sectionName)) {
-                        log.info("Section already exists, skipping: {}", sectionName);
-                        skippedCount++;
+                    if (training == null) {
+                        log.warn("Training not found, skipping: {}", trainingName);
                         continue;
                     }
-                    Section section = Section.builder()
-                            .name(sectionName)
-                            .training(training)
-                            .strength(0)
-                            .capacity(30)
-                            .build();
-                    allSections.add(section);
+                    List<String> sections = parseSectionsList(sectionsString);
+                    log.debug("Creating {} sections for training {}: {}", sections.size(), trainingName, sections);
+                    for (String sectionName : sections) {
+                        // Check if section already exists
+                        if (sectionRepository.existsByName(sectionName)) {
+                            log.info("Section already exists, skipping: {}", sectionName);
+                            skippedCount.incrementAndGet();
+                            continue;
+                        }
+                        Section section = Section.builder()
+                                .name(sectionName)
+                                .training(training)
+                                .strength(0)
+                                .capacity(30)
+                                .build();
+                        chunkSections.add(section);
+                    }
                 }
-            }
+                savedSections.addAll(sectionRepository.saveAll(chunkSections));
+            });
 
-            List<Section> savedSections = sectionRepository.saveAll(allSections);
-            log.info("Saved {} sections, skipped {} duplicates", savedSections.size(), skippedCount);
+            log.info("Saved {} sections, skipped {} duplicates", savedSections.size(), skippedCount.get());
 
             return savedSections.stream()
                     .map(this::mapToDTO)
@@ -298,7 +367,6 @@ public class SectionServiceImpl implements SectionService {
     }
 
     private List<String> parseSectionsList(String sectionString) {
-        System.out.println("Section STRING at parse List[DEBUG]" + sectionString);
         String cleanString = sectionString.replaceAll("[\\[\\]]", "").trim();
         if (cleanString.isEmpty()) {
             return List.of();
@@ -321,40 +389,50 @@ public class SectionServiceImpl implements SectionService {
 
     @Override
     @Transactional
-    @CacheEvict(value = {"sectionDetails", "studentsBySection"}, allEntries = true)
     public List<SectionDTO> bulkRegisterStudentsToSections(MultipartFile file) throws Exception {
         String[] headers = {"SECTION", "STUDENTS"};
         try {
-            List<CSVRecord> records = csvService.parseCsv(file, headers);
-            List<SectionDTO> updatedSections = new ArrayList<>();
-
-            // Process records sequentially to avoid LazyInitializationException
-            for (CSVRecord record : records) {
-                try {
-                    validateStudentRegistrationFields(record);
-
-                    String sectionName = record.get("SECTION");
-                    String studentsString = record.get("STUDENTS");
-
-                    // Use findByName inside the transaction context
-                    Section section = sectionRepository.findByName(sectionName);
-                    if (section == null) {
-                        throw new RuntimeException("Section not found: " + sectionName);
+            Set<UUID> updatedSectionIds = new LinkedHashSet<>();
+            Set<UUID> affectedSections = new HashSet<>();
+
+            csvService.parseCsvInChunks(file, headers, CSV_CHUNK_SIZE, records -> {
+                Set<String> sectionNames = records.stream()
+                        .filter(record -> record.isSet("SECTION"))
+                        .map(record -> record.get("SECTION"))
+                        .collect(Collectors.toSet());
+                Map<String, Section> sectionsByName = sectionNames.isEmpty() ? Map.of()
+                        : sectionRepository.findByNameIn(sectionNames).stream()
+                                .collect(Collectors.toMap(Section::getName, section -> section, (a, b) -> a));
+
+                for (CSVRecord record : records) {
+                    try {
+                        validateStudentRegistrationFields(record);
+
+                        String sectionName = record.get("SECTION");
+                        Section section = sectionsByName.get(sectionName);
+                        if (section == null) {
+                            throw new RuntimeException("Section not found: " + sectionName);
+                        }
+
+                        List<String> regNums = parseStudentsList(record.get("STUDENTS"));
+                        if (!regNums.isEmpty()) {
+                            assignStudents(section, regNums, affectedSections);
+                            updatedSectionIds.add(section.getId());
+                        }
+                    } catch (Exception e) {
+                        log.error("Error processing record for section {}: {}", 
+                                record.get("SECTION"), e.getMessage());
+                        // We don't rethrow here to allow other records to be processed
                     }
-
-                    List<String> regNums = parseStudentsList(studentsString);
-                    if (!regNums.isEmpty()) {
-                        // This method already has @Transactional
-                        SectionDTO sectionDTO = registerStudents(section.getId(), regNums);
-                        updatedSections.add(sectionDTO);
-                    }
-                } catch (Exception e) {
-                    log.error("Error processing record for section {}: {}", 
-                            record.get("SECTION"), e.getMessage());
-                    // We don't rethrow here to allow other records to be processed
                 }
-            }
+            });
+
+            // Strengths and rosters are refreshed once for the whole file
+            refreshSections(affectedSections);
 
+            List<SectionDTO> updatedSections = sectionRepository.findAllById(updatedSectionIds).stream()
+                    .map(this::mapToDTO)
+                    .collect(Collectors.toList());
             log.info("Updated {} sections", updatedSections.size());
             return updatedSections;
 
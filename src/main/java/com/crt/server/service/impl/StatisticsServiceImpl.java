@@ -58,11 +58,6 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     @Transactional(readOnly = true)
     public double getAverageStudentAttendance() {
-        List<Student> students = studentRepository.findAll();
-        if (students.isEmpty()) {
-            return 0.0;
-        }
-        
         // Calculate attendance for the last 30 days
         LocalDateTime endDate = LocalDateTime.now();
         LocalDateTime startDate = endDate.minusDays(30);
@@ -70,10 +65,11 @@ public class StatisticsServiceImpl implements StatisticsService {
         double totalAttendancePercentage = 0.0;
         int studentCount = 0;
         
-        for (Student student : students) {
-            long totalAttendance = attendanceRepository.countAttendanceByStudentAndDateRange(student, startDate, endDate);
+        // Only students with attendance in the range have a row
+        for (Object[] row : attendanceRepository.countAttendanceAndAbsencesPerStudent(startDate, endDate)) {
+            long totalAttendance = ((Number) row[1]).longValue();
             if (totalAttendance > 0) {
-                long absences = attendanceRepository.countAbsencesByStudentAndDateRange(student, startDate, endDate);
+                long absences = ((Number) row[2]).longValue();
                 double attendancePercentage = ((double)(totalAttendance - absences) / totalAttendance) * 100.0;
                 totalAttendancePercentage += attendancePercentage;
                 studentCount++;
@@ -3,6 +3,8 @@ package com.crt.server.service.impl;
 import com.crt.server.dto.PagedResponseDTO;
 import com.crt.server.dto.StudentAttendanceDTO;
 import com.crt.server.dto.StudentDTO;
+import com.crt.server.dto.StudentImportReportDTO;
+import com.crt.server.event.DashboardChangedEvent;
 import com.crt.server.exception.ResourceNotFoundException;
 import com.crt.server.model.Branch;
 import com.crt.server.model.Section;
@@ -12,8 +14,12 @@ import com.crt.server.repository.SectionRepository;
 import com.crt.server.repository.StudentRepository;
 import com.crt.server.service.CsvService;
 import com.crt.server.service.StudentService;
+import com.crt.server.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,9 +30,15 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -35,10 +47,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class StudentServiceImpl implements StudentService {
 
+    private static final String[] STUDENT_CSV_HEADERS = {"ID", "NAME", "EMAIL", "BRANCH"};
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+    // Students read per keyset page by the full listing
+    private static final int LISTING_PAGE_SIZE = 500;
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
     private final StudentRepository studentRepository;
     private final SectionRepository sectionRepository;
     private final AttendanceRepository attendanceRepository;
     private final CsvService csvService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     public StudentDTO createStudent(StudentDTO studentDTO) {
@@ -67,6 +87,7 @@ public class StudentServiceImpl implements StudentService {
                 .build();
 
         Student savedStudent = studentRepository.save(student);
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.STUDENTS));
         return convertToDTO(savedStudent);
     }
 
@@ -98,11 +119,9 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    public List<StudentDTO> getAllStudents() {
-        return studentRepository.findAll().stream()
-                .sorted((s1, s2) -> s1.getRegNum().compareToIgnoreCase(s2.getRegNum()))
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Iterator<StudentDTO> getAllStudents() {
+        return new KeysetCursor<>(LISTING_PAGE_SIZE, (last, page) -> studentRepository.findListingPage(
+                null, last == null ? "" : last.getRegNum(), page));
     }
 
     @Override
@@ -150,6 +169,7 @@ public class StudentServiceImpl implements StudentService {
         }
 
         Student updatedStudent = studentRepository.save(student);
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.STUDENTS));
         return convertToDTO(updatedStudent);
     }
 
@@ -159,6 +179,7 @@ public class StudentServiceImpl implements StudentService {
             throw new ResourceNotFoundException("Student not found");
         }
         studentRepository.deleteById(id);
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.STUDENTS));
     }
 
     @Override
@@ -172,43 +193,123 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    public List<StudentDTO> bulkCreateStudents(MultipartFile file) throws Exception {
-        String[] headers = {"ID", "NAME", "EMAIL", "BRANCH"};
+    public StudentImportReportDTO bulkCreateStudents(MultipartFile file) throws Exception {
+        Section defaultSection = getOrCreateDefaultSection();
+        List<StudentImportReportDTO.RowResultDTO> rows = new ArrayList<>();
+        // Lower-cased reg numbers and emails claimed by earlier rows of this file
+        Set<String> seenRegNums = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
 
         try {
-            List<Student> students = csvService.parseCsv(file, headers, record -> {
-                try {
-                    validateRequiredFields(record);
-                } catch (Exception e) {
-                    System.err.println(e.getLocalizedMessage());
-                }
-                if (studentRepository.existsByRegNum(record.get("ID"))) return null;
-
-                // Get default section
-                Section defaultSection = getOrCreateDefaultSection();
-
-                return Student.builder()
-                        .name(record.get("NAME"))
-                        .email(record.get("EMAIL"))
-                        .phone("000")
-                        .regNum(record.get("ID"))
-                        .branch(setStudentBranch(record.get("BRANCH")))
-                        .batch(getStudentBatch(record.get("ID")))
-                        .crtEligibility(true)
-                        .section(defaultSection)
-                        .isActive(true)
-                        .build();
-            }).stream().filter(Objects::nonNull).collect(Collectors.toList());
-
-            List<Student> savedStudents = studentRepository.saveAll(students);
-            return savedStudents.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-
+            csvService.parseCsvInChunks(file, STUDENT_CSV_HEADERS, IMPORT_CHUNK_SIZE,
+                    chunk -> importChunk(chunk, defaultSection, seenRegNums, seenEmails, rows));
         } catch (Exception e) {
             log.error("Error in bulk student creation: {}", e.getMessage());
             throw new Exception("Error processing student data: " + e.getMessage());
         }
+
+        Map<StudentImportReportDTO.RowStatus, Long> counts = rows.stream()
+                .collect(Collectors.groupingBy(StudentImportReportDTO.RowResultDTO::getStatus, Collectors.counting()));
+        int created = counts.getOrDefault(StudentImportReportDTO.RowStatus.CREATED, 0L).intValue();
+        if (created > 0) {
+            eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.STUDENTS));
+        }
+        log.info("Bulk student import finished: {} rows, {} created", rows.size(), created);
+
+        return StudentImportReportDTO.builder()
+                .totalRows(rows.size())
+                .created(created)
+                .duplicates(counts.getOrDefault(StudentImportReportDTO.RowStatus.DUPLICATE, 0L).intValue())
+                .invalid(counts.getOrDefault(StudentImportReportDTO.RowStatus.INVALID, 0L).intValue())
+                .rows(rows)
+                .build();
+    }
+
+    /**
+     * Validate one chunk in parallel, check its reg numbers and emails against the
+     * database with one query each, then insert the new students as one batch
+     */
+    private void importChunk(List<CSVRecord> chunk, Section defaultSection, Set<String> seenRegNums,
+                             Set<String> seenEmails, List<StudentImportReportDTO.RowResultDTO> rows) {
+        List<ImportRow> parsed = chunk.parallelStream()
+                .map(record -> parseImportRow(record, defaultSection))
+                .toList();
+
+        List<Student> candidates = parsed.stream().map(ImportRow::student).filter(Objects::nonNull).toList();
+        Set<String> existingRegNums = candidates.isEmpty() ? Set.of() : lowerCase(studentRepository.findExistingRegNums(
+                candidates.stream().map(Student::getRegNum).collect(Collectors.toSet())));
+        Set<String> existingEmails = candidates.isEmpty() ? Set.of() : lowerCase(studentRepository.findExistingEmails(
+                candidates.stream().map(Student::getEmail).collect(Collectors.toSet())));
+
+        List<Student> newStudents = new ArrayList<>();
+        for (ImportRow row : parsed) {
+            Student student = row.student();
+            if (student == null) {
+                rows.add(rowResult(row, StudentImportReportDTO.RowStatus.INVALID, row.error()));
+                continue;
+            }
+
+            String regNum = student.getRegNum().toLowerCase();
+            String email = student.getEmail().toLowerCase();
+            if (existingRegNums.contains(regNum) || seenRegNums.contains(regNum)) {
+                rows.add(rowResult(row, StudentImportReportDTO.RowStatus.DUPLICATE, "Registration number already exists"));
+            } else if (existingEmails.contains(email) || seenEmails.contains(email)) {
+                rows.add(rowResult(row, StudentImportReportDTO.RowStatus.DUPLICATE, "Email already exists"));
+            } else {
+                seenRegNums.add(regNum);
+                seenEmails.add(email);
+                newStudents.add(student);
+                rows.add(rowResult(row, StudentImportReportDTO.RowStatus.CREATED, null));
+            }
+        }
+
+        if (!newStudents.isEmpty()) {
+            studentRepository.saveAll(newStudents);
+            studentRepository.flush();
+            // Keep the persistence context at one chunk so later flushes stay cheap
+            entityManager.clear();
+        }
+    }
+
+    private ImportRow parseImportRow(CSVRecord record, Section defaultSection) {
+        String regNum = record.isSet("ID") ? record.get("ID").trim() : null;
+        try {
+            validateRequiredFields(record);
+            Student student = Student.builder()
+                    .name(record.get("NAME").trim())
+                    .email(record.get("EMAIL").trim())
+                    .phone("000")
+                    .regNum(regNum)
+                    .branch(setStudentBranch(record.get("BRANCH").trim()))
+                    .batch(getStudentBatch(regNum))
+                    .crtEligibility(true)
+                    .section(defaultSection)
+                    .isActive(true)
+                    .build();
+            return new ImportRow(record.getRecordNumber(), regNum, student, null);
+        } catch (IllegalArgumentException e) {
+            return new ImportRow(record.getRecordNumber(), regNum, null, "Unknown branch: " + record.get("BRANCH"));
+        } catch (Exception e) {
+            return new ImportRow(record.getRecordNumber(), regNum, null, e.getMessage());
+        }
+    }
+
+    private StudentImportReportDTO.RowResultDTO rowResult(ImportRow row, StudentImportReportDTO.RowStatus status,
+                                                          String reason) {
+        return StudentImportReportDTO.RowResultDTO.builder()
+                .rowNumber(row.rowNumber())
+                .regNum(row.regNum())
+                .status(status)
+                .reason(reason)
+                .build();
+    }
+
+    private Set<String> lowerCase(Collection<String> values) {
+        return values.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+
+    // A parsed CSV row: either a student ready to insert or the reason it is invalid
+    private record ImportRow(long rowNumber, String regNum, Student student, String error) {
     }
 
     private Branch setStudentBranch(String branch) {
@@ -237,6 +338,7 @@ public class StudentServiceImpl implements StudentService {
         Student updatedStudent = studentRepository.save(student);
         log.info("Updated CRT eligibility for student {} (ID: {}) to {} with reason: {}",
                 student.getRegNum(), studentId, crtEligibility, reason);
+        eventPublisher.publishEvent(new DashboardChangedEvent(DashboardChangedEvent.Area.STUDENTS));
 
         return convertToDTO(updatedStudent);
     }
@@ -283,17 +385,16 @@ public class StudentServiceImpl implements StudentService {
         return convertToDTO(updatedStudent);
     }
 
-    private void validateRequiredFields(org.apache.commons.csv.CSVRecord record) throws Exception {
-        String[] requiredFields = {"ID", "NAME", "EMAIL", "BRANCH"};
-        for (String field : requiredFields) {
+    private void validateRequiredFields(CSVRecord record) throws Exception {
+        for (String field : STUDENT_CSV_HEADERS) {
             if (!record.isSet(field) || record.get(field).trim().isEmpty()) {
                 throw new Exception("Required field '" + field + "' is missing or empty");
             }
         }
 
         // Validate email format
-        String email = record.get("EMAIL");
-        if (!email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        String email = record.get("EMAIL").trim();
+        if (!EMAIL_PATTERN.matcher(email).matches()) {
             throw new Exception("Invalid email format for: " + email);
         }
     }
@@ -314,6 +415,24 @@ public class StudentServiceImpl implements StudentService {
                 .build();
     }
 
+    // Classes and absences keyed by student id, read with one grouped query
+    private Map<UUID, Object[]> attendanceCountsByStudent(LocalDateTime startDate, LocalDateTime endDate) {
+        return toCountsByStudent(attendanceRepository.countAttendanceAndAbsencesPerStudent(startDate, endDate));
+    }
+
+    private Map<UUID, Object[]> attendanceCountsByStudent(List<UUID> studentIds, LocalDateTime startDate,
+                                                          LocalDateTime endDate) {
+        if (studentIds.isEmpty()) {
+            return Map.of();
+        }
+        return toCountsByStudent(
+                attendanceRepository.countAttendanceAndAbsencesPerStudent(studentIds, startDate, endDate));
+    }
+
+    private Map<UUID, Object[]> toCountsByStudent(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.toMap(row -> (UUID) row[0], row -> row));
+    }
+
     private Section getOrCreateDefaultSection() {
         List<Section> sections = sectionRepository.findAll();
         if (sections.isEmpty()) {
@@ -332,9 +451,11 @@ public class StudentServiceImpl implements StudentService {
         List<Student> students = studentRepository.findAll();
         List<StudentAttendanceDTO> result = new ArrayList<>();
 
+        Map<UUID, Object[]> counts = attendanceCountsByStudent(startDate, endDate);
         for (Student student : students) {
-            long totalAttendance = attendanceRepository.countAttendanceByStudentAndDateRange(student, startDate, endDate);
-            long presentCount = totalAttendance - attendanceRepository.countAbsencesByStudentAndDateRange(student, startDate, endDate);
+            Object[] count = counts.get(student.getId());
+            long totalAttendance = count != null ? ((Number) count[1]).longValue() : 0;
+            long presentCount = totalAttendance - (count != null ? ((Number) count[2]).longValue() : 0);
             double attendancePercentage = totalAttendance > 0 ? ((double) presentCount / totalAttendance) * 100.0 : 0.0;
 
             StudentAttendanceDTO dto = StudentAttendanceDTO.builder()
@@ -368,9 +489,12 @@ public class StudentServiceImpl implements StudentService {
         LocalDateTime endDate = LocalDateTime.now();
         LocalDateTime startDate = endDate.minusDays(days);
 
+        Map<UUID, Object[]> counts = attendanceCountsByStudent(
+                studentPage.getContent().stream().map(Student::getId).toList(), startDate, endDate);
         for (Student student : studentPage.getContent()) {
-            long totalAttendance = attendanceRepository.countAttendanceByStudentAndDateRange(student, startDate, endDate);
-            long presentCount = totalAttendance - attendanceRepository.countAbsencesByStudentAndDateRange(student, startDate, endDate);
+            Object[] count = counts.get(student.getId());
+            long totalAttendance = count != null ? ((Number) count[1]).longValue() : 0;
+            long presentCount = totalAttendance - (count != null ? ((Number) count[2]).longValue() : 0);
             double attendancePercentage = totalAttendance > 0 ? ((double) presentCount / totalAttendance) * 100.0 : 0.0;
 
             StudentAttendanceDTO dto = StudentAttendanceDTO.builder()
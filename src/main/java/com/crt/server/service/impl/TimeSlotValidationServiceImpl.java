@@ -9,14 +9,12 @@ import com.crt.server.repository.RoomRepository;
 import com.crt.server.repository.SectionRepository;
 import com.crt.server.repository.TimeSlotRepository;
 import com.crt.server.service.TimeSlotValidationService;
+import com.crt.server.util.TimeOfDay;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 
@@ -92,13 +90,14 @@ public class TimeSlotValidationServiceImpl implements TimeSlotValidationService
 
     @Override
     public List<TimeSlot> getConflictingTimeSlots(UUID roomId, DayOfWeek dayOfWeek, String startTime, String endTime, Integer excludeTimeSlotId) {
-        return timeSlotRepository.findConflictingTimeSlots(roomId, dayOfWeek, startTime, endTime, excludeTimeSlotId);
+        return timeSlotRepository.findConflictingTimeSlots(roomId, dayOfWeek,
+                TimeOfDay.parse(startTime), TimeOfDay.parse(endTime), excludeTimeSlotId);
     }
 
     @Override
     public boolean isFacultyAvailable(UUID facultyId, DayOfWeek dayOfWeek, String startTime, String endTime, Integer excludeTimeSlotId) {
         List<TimeSlot> conflicts = timeSlotRepository.findFacultyConflictingTimeSlots(
-                facultyId, dayOfWeek, startTime, endTime, excludeTimeSlotId);
+                facultyId, dayOfWeek, TimeOfDay.parse(startTime), TimeOfDay.parse(endTime), excludeTimeSlotId);
         return conflicts.isEmpty();
     }
 
@@ -109,13 +108,9 @@ public class TimeSlotValidationServiceImpl implements TimeSlotValidationService
         }
 
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-            LocalTime start = LocalTime.parse(startTime, formatter);
-            LocalTime end = LocalTime.parse(endTime, formatter);
-            
             // End time must be after start time
-            return end.isAfter(start);
-        } catch (DateTimeParseException e) {
+            return TimeOfDay.parse(endTime) > TimeOfDay.parse(startTime);
+        } catch (IllegalArgumentException e) {
             log.warn("Invalid time format: startTime={}, endTime={}", startTime, endTime);
             return false;
         }
@@ -0,0 +1,535 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.dto.TimetableUploadResponseDTO;
+import com.crt.server.dto.TimetableUploadResponseDTO.SectionTimetableDTO;
+import com.crt.server.dto.TimetableUploadResponseDTO.TimeSlotSummaryDTO;
+import com.crt.server.event.TimetableChangedEvent;
+import com.crt.server.model.*;
+import com.crt.server.repository.*;
+import com.crt.server.util.TimeOfDay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns an uploaded timetable into a plan of section, schedule and time slot
+ * changes, then commits that plan in one transaction.
+ * <p>
+ * Planning loads every section, room, training, faculty member and existing slot
+ * it needs up front, so the cost of an upload no longer grows with one lookup per
+ * row. Each section's slots for a day are diffed against what is stored: identical
+ * slots are kept, the rest are deleted and recreated, and faculty or room
+ * double-bookings in the resulting day are reported as conflicts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimetableUploadPlanner {
+
+    private static final String[] MORNING_TIMES = {"09:20-10:10", "10:10-11:00", "11:10-12:00", "12:00-12:50"};
+    private static final String[] AFTERNOON_TIMES = {"01:50-02:40", "02:40-03:30", "03:40-04:30", "04:30-05:20"};
+    private static final int DEFAULT_SECTION_CAPACITY = 30;
+
+    private final SectionRepository sectionRepository;
+    private final RoomRepository roomRepository;
+    private final TrainingRepository trainingRepository;
+    private final UserRepository userRepository;
+    private final SectionScheduleRepository sectionScheduleRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Work out every change the upload implies without writing anything
+     */
+    @Transactional(readOnly = true)
+    public TimetablePlan plan(Iterable<CSVRecord> records) {
+        TimetablePlan plan = new TimetablePlan();
+        List<SectionEntry> entries = parseEntries(records, plan);
+
+        Dictionaries dictionaries = loadDictionaries(entries);
+        Map<String, List<SectionEntry>> entriesBySectionDay = entries.stream()
+                .collect(Collectors.groupingBy(entry -> entry.sectionName() + "|" + entry.dayOfWeek(),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        for (List<SectionEntry> sectionDay : entriesBySectionDay.values()) {
+            planSectionDay(sectionDay, dictionaries, plan);
+        }
+
+        for (DayOfWeek day : plan.days) {
+            plan.conflicts.addAll(findConflicts(day, dictionaries.existingSlots(day), plan));
+        }
+
+        log.info("Planned timetable upload: {} sections, {} slots to create, {} to delete, {} unchanged, {} conflicts",
+                plan.sections.size(), plan.slotsToCreate.size(), plan.slotsToDelete.size(),
+                plan.unchangedSlots, plan.conflicts.size());
+        return plan;
+    }
+
+    /**
+     * Commit a plan: new sections and schedules, one batched delete of replaced
+     * slots, then the new ones. Time slot ids are IDENTITY columns, so Hibernate
+     * inserts slots one statement at a time rather than in JDBC batches.
+     * Runs inside the caller's transaction when it has one, so the plan is
+     * written against the state it was checked against.
+     */
+    @Transactional
+    @CacheEvict(value = {"timeSlotsBySection", "timeSlotsByFaculty"}, allEntries = true)
+    public void apply(TimetablePlan plan) {
+        if (!plan.newSections.isEmpty()) {
+            sectionRepository.saveAll(plan.newSections);
+        }
+        if (!plan.newSchedules.isEmpty()) {
+            sectionScheduleRepository.saveAll(plan.newSchedules);
+        }
+        if (!plan.slotsToDelete.isEmpty()) {
+            timeSlotRepository.deleteAllByIdInBatch(plan.slotsToDelete.stream().map(TimeSlot::getId).toList());
+        }
+        if (!plan.slotsToCreate.isEmpty()) {
+            timeSlotRepository.saveAll(plan.slotsToCreate);
+        }
+
+        plan.days.forEach(day -> eventPublisher.publishEvent(new TimetableChangedEvent(day)));
+        log.info("Applied timetable upload: {} sections created, {} slots deleted, {} slots created",
+                plan.newSections.size(), plan.slotsToDelete.size(), plan.slotsToCreate.size());
+    }
+
+    // Records are consumed one at a time; only the compact entries are kept
+    private List<SectionEntry> parseEntries(Iterable<CSVRecord> records, TimetablePlan plan) {
+        List<SectionEntry> entries = new ArrayList<>();
+        DayOfWeek dayOfWeek = null;
+        int i = -1;
+
+        // Row 0 is the title and row 1 the column header (DAY,SECTIONS,Class,ROOMNO,...)
+        for (CSVRecord record : records) {
+            if (++i < 2) {
+                continue;
+            }
+            try {
+                if (record.size() < 8) {
+                    continue;
+                }
+                String day = record.get(0).trim();
+                if (!day.isEmpty()) {
+                    dayOfWeek = DayOfWeek.valueOf(day.toUpperCase());
+                }
+                if (dayOfWeek == null) {
+                    plan.warnings.add("Row " + i + " skipped: no day given");
+                    plan.skippedEntries++;
+                    continue;
+                }
+
+                addEntry(entries, record, i, dayOfWeek, 1, 4, MORNING_TIMES);
+                if (record.size() >= 16) {
+                    addEntry(entries, record, i, dayOfWeek, 9, 12, AFTERNOON_TIMES);
+                }
+            } catch (Exception e) {
+                log.error("Error parsing timetable row {}: {}", i, e.getMessage());
+                plan.warnings.add("Row " + i + " skipped: " + e.getMessage());
+                plan.skippedEntries++;
+            }
+        }
+        if (i < 1) {
+            throw new IllegalArgumentException("Invalid timetable format - insufficient data");
+        }
+        return entries;
+    }
+
+    private void addEntry(List<SectionEntry> entries, CSVRecord record, int row, DayOfWeek dayOfWeek,
+                          int sectionCol, int firstSlotCol, String[] times) {
+        String sectionName = record.get(sectionCol).trim();
+        String program = record.get(sectionCol + 1).trim();
+        String roomCode = record.get(sectionCol + 2).trim();
+        if (sectionName.isEmpty() || program.isEmpty() || roomCode.isEmpty()) {
+            return;
+        }
+
+        List<SlotEntry> slots = new ArrayList<>();
+        for (int i = 0; i < times.length && firstSlotCol + i < record.size(); i++) {
+            String facultyData = record.get(firstSlotCol + i).trim();
+            if (facultyData.isEmpty()) {
+                continue;
+            }
+            String[] range = times[i].split("-");
+            boolean isExam = facultyData.startsWith("EXAM-");
+            // An unreadable time header skips the row here rather than failing the whole plan
+            slots.add(new SlotEntry(range[0], range[1],
+                    TimeOfDay.parseTimetable(range[0]), TimeOfDay.parseTimetable(range[1]),
+                    isExam ? facultyData.substring(5) : facultyData, isExam));
+        }
+        entries.add(new SectionEntry(row, dayOfWeek, sectionName, program, roomCode, slots));
+    }
+
+    private Dictionaries loadDictionaries(List<SectionEntry> entries) {
+        Set<String> sectionNames = new HashSet<>();
+        Set<String> employeeIds = new HashSet<>();
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (SectionEntry entry : entries) {
+            sectionNames.add(entry.sectionName());
+            days.add(entry.dayOfWeek());
+            entry.slots().forEach(slot -> employeeIds.add(slot.facultyEmpId()));
+        }
+
+        Map<String, Section> sections = sectionNames.isEmpty() ? new HashMap<>()
+                : sectionRepository.findByNameIn(sectionNames).stream()
+                        .collect(Collectors.toMap(Section::getName, Function.identity(), (a, b) -> a, HashMap::new));
+
+        List<Room> roomList = roomRepository.findAll();
+        roomList.sort(Comparator.comparing(TimetableUploadPlanner::roomCode));
+        Map<String, Room> rooms = roomList.stream()
+                .collect(Collectors.toMap(TimetableUploadPlanner::roomCode, Function.identity(), (a, b) -> a));
+
+        Map<String, User> faculty = employeeIds.isEmpty() ? Map.of()
+                : userRepository.findByEmployeeIdIn(employeeIds).stream()
+                        .collect(Collectors.toMap(User::getEmployeeId, Function.identity(), (a, b) -> a));
+
+        List<UUID> sectionIds = sections.values().stream().map(Section::getId).toList();
+        Map<UUID, SectionSchedule> schedules = sectionIds.isEmpty() ? new HashMap<>()
+                : sectionScheduleRepository.findBySectionIdIn(sectionIds).stream()
+                        .collect(Collectors.toMap(schedule -> schedule.getSection().getId(), Function.identity(),
+                                (a, b) -> a, HashMap::new));
+
+        Map<DayOfWeek, List<TimeSlot>> existingSlots = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : days) {
+            existingSlots.put(day, timeSlotRepository.findByDayOfWeek(day));
+        }
+
+        return new Dictionaries(sections, roomList, rooms, faculty, schedules, existingSlots);
+    }
+
+    private void planSectionDay(List<SectionEntry> entries, Dictionaries dictionaries, TimetablePlan plan) {
+        SectionEntry first = entries.get(0);
+        DayOfWeek dayOfWeek = first.dayOfWeek();
+
+        Section known = dictionaries.sections.get(first.sectionName());
+        Section section = known != null ? known : planNewSection(first, dictionaries, plan);
+        if (section == null) {
+            plan.skippedEntries += entries.size();
+            return;
+        }
+
+        // Desired slots for this section and day, keyed by start-end
+        Map<String, TimeSlot> desired = new LinkedHashMap<>();
+        for (SectionEntry entry : entries) {
+            List<TimeSlot> entrySlots = planEntrySlots(entry, section, dictionaries, plan);
+            if (entrySlots == null) {
+                plan.skippedEntries++;
+                continue;
+            }
+            entrySlots.forEach(slot -> desired.put(slotKey(slot), slot));
+        }
+        if (desired.isEmpty()) {
+            return;
+        }
+
+        List<TimeSlot> existing = section.getId() == null ? List.of()
+                : dictionaries.existingSlots(dayOfWeek).stream()
+                        .filter(slot -> section.getId().equals(slot.getSection().getId()))
+                        .toList();
+
+        for (TimeSlot current : existing) {
+            TimeSlot wanted = desired.get(slotKey(current));
+            if (wanted != null && sameAssignment(current, wanted)) {
+                desired.remove(slotKey(current));
+                plan.unchangedSlots++;
+            } else {
+                plan.slotsToDelete.add(current);
+            }
+        }
+        if (!existing.isEmpty()) {
+            plan.replacedSections.add(section.getName());
+        }
+
+        if (!desired.isEmpty()) {
+            SectionSchedule schedule = scheduleFor(section, desired.values().iterator().next().getRoom(),
+                    dictionaries, plan);
+            desired.values().forEach(slot -> slot.setSchedule(schedule));
+            plan.slotsToCreate.addAll(desired.values());
+        }
+        plan.days.add(dayOfWeek);
+    }
+
+    private List<TimeSlot> planEntrySlots(SectionEntry entry, Section section, Dictionaries dictionaries,
+                                          TimetablePlan plan) {
+        Room room = resolveRoom(entry, dictionaries, plan);
+        if (room == null) {
+            return null;
+        }
+        if (section.getStrength() != null && section.getStrength() > room.getCapacity()) {
+            plan.errors.add("Row " + entry.row() + ": section " + entry.sectionName() + " (strength " + section.getStrength()
+                    + ") does not fit room " + room + " (capacity " + room.getCapacity() + ")");
+            return null;
+        }
+
+        List<TimeSlot> slots = new ArrayList<>();
+        List<TimeSlotSummaryDTO> summaries = new ArrayList<>();
+        for (SlotEntry slotEntry : entry.slots()) {
+            User faculty = resolveFaculty(slotEntry.facultyEmpId(), entry.sectionName(), dictionaries, plan);
+            if (faculty == null) {
+                return null;
+            }
+
+            TimeSlot timeSlot = TimeSlot.builder()
+                    .startMinute(slotEntry.startMinute())
+                    .endMinute(slotEntry.endMinute())
+                    .slotType(slotEntry.isExam() ? TimeSlotType.EXAM : TimeSlotType.REGULAR)
+                    .title(entry.program())
+                    .dayOfWeek(entry.dayOfWeek())
+                    .inchargeFaculty(faculty)
+                    .section(section)
+                    .room(room)
+                    .build();
+            slots.add(timeSlot);
+
+            summaries.add(TimeSlotSummaryDTO.builder()
+                    .startTime(slotEntry.startTime())
+                    .endTime(slotEntry.endTime())
+                    .facultyEmpId(slotEntry.facultyEmpId())
+                    .title(entry.program())
+                    .isExam(slotEntry.isExam())
+                    .slotType(timeSlot.getSlotType().name())
+                    .build());
+        }
+
+        plan.sections.add(SectionTimetableDTO.builder()
+                .sectionName(entry.sectionName())
+                .roomCode(entry.roomCode())
+                .program(entry.program())
+                .timeSlots(summaries)
+                .build());
+        return slots;
+    }
+
+    private Section planNewSection(SectionEntry entry, Dictionaries dictionaries, TimetablePlan plan) {
+        Training training = dictionaries.training(trainingRepository, entry.program());
+        if (training == null) {
+            plan.warnings.add("Section '" + entry.sectionName() + "' not found and no trainings exist to create it");
+            return null;
+        }
+        if (!entry.program().equals(training.getName()) && !entry.program().equals(training.getSn())) {
+            plan.warnings.add("Training '" + entry.program() + "' not found for section " + entry.sectionName()
+                    + ". Using default training: " + training.getName());
+        }
+
+        Section section = Section.builder()
+                .name(entry.sectionName())
+                .training(training)
+                .strength(0)
+                .capacity(DEFAULT_SECTION_CAPACITY)
+                .build();
+        dictionaries.sections.put(entry.sectionName(), section);
+        plan.newSections.add(section);
+        plan.warnings.add("Created new section: " + entry.sectionName() + " for training: " + training.getName());
+        return section;
+    }
+
+    private Room resolveRoom(SectionEntry entry, Dictionaries dictionaries, TimetablePlan plan) {
+        Room room = dictionaries.rooms.get(entry.roomCode());
+        if (room != null) {
+            return room;
+        }
+        if (dictionaries.roomList.isEmpty()) {
+            plan.warnings.add("No rooms available in the system for fallback");
+            return null;
+        }
+        room = fallback(dictionaries.roomList, entry.roomCode());
+        plan.warnings.add("Room '" + entry.roomCode() + "' not found for section " + entry.sectionName()
+                + ". Using fallback room: " + room);
+        return room;
+    }
+
+    private User resolveFaculty(String employeeId, String sectionName, Dictionaries dictionaries, TimetablePlan plan) {
+        User faculty = dictionaries.faculty.get(employeeId);
+        if (faculty != null) {
+            return faculty;
+        }
+        List<User> allFaculty = dictionaries.allFaculty(userRepository);
+        if (allFaculty.isEmpty()) {
+            plan.warnings.add("No faculties available in the system for fallback (empId: " + employeeId + ")");
+            return null;
+        }
+        faculty = fallback(allFaculty, employeeId);
+        plan.warnings.add("Faculty with empId '" + employeeId + "' not found for section " + sectionName
+                + ". Using fallback faculty: " + faculty.getName() + " (" + faculty.getEmployeeId() + ")");
+        return faculty;
+    }
+
+    private SectionSchedule scheduleFor(Section section, Room room, Dictionaries dictionaries, TimetablePlan plan) {
+        // A section has at most one schedule (uk_section_schedules_section_id)
+        SectionSchedule schedule = section.getId() != null ? dictionaries.schedules.get(section.getId())
+                : dictionaries.newSchedules.get(section.getName());
+        if (schedule == null) {
+            schedule = SectionSchedule.builder().section(section).room(room).build();
+            if (section.getId() != null) {
+                dictionaries.schedules.put(section.getId(), schedule);
+            } else {
+                dictionaries.newSchedules.put(section.getName(), schedule);
+            }
+            plan.newSchedules.add(schedule);
+        }
+        return schedule;
+    }
+
+    private List<String> findConflicts(DayOfWeek day, List<TimeSlot> existing, TimetablePlan plan) {
+        Set<Integer> deletedIds = plan.slotsToDelete.stream().map(TimeSlot::getId).collect(Collectors.toSet());
+        List<TimeSlot> daySlots = new ArrayList<>();
+        existing.stream().filter(slot -> !deletedIds.contains(slot.getId())).forEach(daySlots::add);
+        plan.slotsToCreate.stream().filter(slot -> slot.getDayOfWeek() == day).forEach(daySlots::add);
+
+        List<String> conflicts = new ArrayList<>();
+        daySlots.stream()
+                .filter(slot -> slot.getSlotType() != TimeSlotType.BREAK)
+                .collect(Collectors.groupingBy(slot -> slot.getInchargeFaculty().getId()))
+                .values()
+                .forEach(slots -> collectOverlaps(slots, plan, conflicts, "Faculty "
+                        + slots.get(0).getInchargeFaculty().getEmployeeId()));
+        daySlots.stream()
+                .collect(Collectors.groupingBy(slot -> slot.getRoom().getId()))
+                .values()
+                .forEach(slots -> collectOverlaps(slots, plan, conflicts, "Room " + slots.get(0).getRoom()));
+        return conflicts;
+    }
+
+    private void collectOverlaps(List<TimeSlot> slots, TimetablePlan plan, List<String> conflicts, String subject) {
+        for (int i = 0; i < slots.size(); i++) {
+            for (int j = i + 1; j < slots.size(); j++) {
+                TimeSlot a = slots.get(i);
+                TimeSlot b = slots.get(j);
+                // Only report double-bookings this upload introduces
+                if (a.getId() != null && b.getId() != null) {
+                    continue;
+                }
+                if (overlaps(a, b)) {
+                    conflicts.add(subject + " is double-booked on " + a.getDayOfWeek() + " " + a.getStartTime()
+                            + "-" + a.getEndTime() + " (" + a.getSection().getName() + ") and " + b.getStartTime()
+                            + "-" + b.getEndTime() + " (" + b.getSection().getName() + ")");
+                }
+            }
+        }
+    }
+
+    private static boolean overlaps(TimeSlot a, TimeSlot b) {
+        return a.getStartMinute() < b.getEndMinute() && b.getStartMinute() < a.getEndMinute();
+    }
+
+    private static boolean sameAssignment(TimeSlot current, TimeSlot wanted) {
+        return current.getSlotType() == wanted.getSlotType()
+                && Objects.equals(current.getTitle(), wanted.getTitle())
+                && Objects.equals(current.getInchargeFaculty().getId(), wanted.getInchargeFaculty().getId())
+                && Objects.equals(current.getRoom().getId(), wanted.getRoom().getId());
+    }
+
+    private static String slotKey(TimeSlot slot) {
+        return slot.getStartMinute() + "-" + slot.getEndMinute();
+    }
+
+    private static String roomCode(Room room) {
+        return room.getBlock() + room.getFloor() + room.getRoomNumber()
+                + (room.getSubRoom() != null ? room.getSubRoom() : "");
+    }
+
+    // Same unknown code always maps to the same fallback, so a dry run matches its apply
+    private static <T> T fallback(List<T> candidates, String code) {
+        return candidates.get(Math.floorMod(code.hashCode(), candidates.size()));
+    }
+
+    /**
+     * Everything an upload would change, plus the report returned to the caller
+     */
+    public static class TimetablePlan {
+        private final List<Section> newSections = new ArrayList<>();
+        private final List<SectionSchedule> newSchedules = new ArrayList<>();
+        private final List<TimeSlot> slotsToDelete = new ArrayList<>();
+        private final List<TimeSlot> slotsToCreate = new ArrayList<>();
+        private final Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        private final Set<String> replacedSections = new LinkedHashSet<>();
+        private final List<SectionTimetableDTO> sections = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private final List<String> conflicts = new ArrayList<>();
+        private int unchangedSlots;
+        private int skippedEntries;
+
+        public TimetableUploadResponseDTO toResponse(boolean dryRun) {
+            List<String> allWarnings = new ArrayList<>(warnings);
+            replacedSections.forEach(name -> allWarnings.add("Replaced existing time slots for section " + name));
+            return TimetableUploadResponseDTO.builder()
+                    .dryRun(dryRun)
+                    .processedSections(sections.size())
+                    .createdTimeSlots(slotsToCreate.size())
+                    .deletedTimeSlots(slotsToDelete.size())
+                    .unchangedTimeSlots(unchangedSlots)
+                    .skippedEntries(skippedEntries)
+                    .dayOfWeek(days.size() == 1 ? days.iterator().next() : null)
+                    .sections(sections)
+                    .errors(errors)
+                    .warnings(allWarnings)
+                    .conflicts(conflicts)
+                    .build();
+        }
+    }
+
+    private record SlotEntry(String startTime, String endTime, int startMinute, int endMinute,
+                             String facultyEmpId, boolean isExam) {
+    }
+
+    private record SectionEntry(int row, DayOfWeek dayOfWeek, String sectionName, String program,
+                                String roomCode, List<SlotEntry> slots) {
+    }
+
+    /**
+     * Lookups loaded once per upload. Trainings and the faculty fallback list are
+     * only fetched when a row actually needs them.
+     */
+    private static class Dictionaries {
+        private final Map<String, Section> sections;
+        private final List<Room> roomList;
+        private final Map<String, Room> rooms;
+        private final Map<String, User> faculty;
+        private final Map<UUID, SectionSchedule> schedules;
+        private final Map<String, SectionSchedule> newSchedules = new HashMap<>();
+        private final Map<DayOfWeek, List<TimeSlot>> existingSlots;
+        private List<Training> trainings;
+        private List<User> allFaculty;
+
+        Dictionaries(Map<String, Section> sections, List<Room> roomList, Map<String, Room> rooms,
+                     Map<String, User> faculty, Map<UUID, SectionSchedule> schedules,
+                     Map<DayOfWeek, List<TimeSlot>> existingSlots) {
+            this.sections = sections;
+            this.roomList = roomList;
+            this.rooms = rooms;
+            this.faculty = faculty;
+            this.schedules = schedules;
+            this.existingSlots = existingSlots;
+        }
+
+        List<TimeSlot> existingSlots(DayOfWeek day) {
+            return existingSlots.getOrDefault(day, List.of());
+        }
+
+        // Matches the program by training name, then short name, else the first training
+        Training training(TrainingRepository trainingRepository, String program) {
+            if (trainings == null) {
+                trainings = trainingRepository.findAll();
+            }
+            return trainings.stream().filter(t -> program.equals(t.getName())).findFirst()
+                    .or(() -> trainings.stream().filter(t -> program.equals(t.getSn())).findFirst())
+                    .orElse(trainings.isEmpty() ? null : trainings.get(0));
+        }
+
+        List<User> allFaculty(UserRepository userRepository) {
+            if (allFaculty == null) {
+                allFaculty = userRepository.findActiveUsersByRole(Role.FACULTY);
+            }
+            return allFaculty;
+        }
+    }
+}
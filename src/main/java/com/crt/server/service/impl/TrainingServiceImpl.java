@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
@@ -26,6 +27,8 @@ public class TrainingServiceImpl implements TrainingService {
     private final TrainingRepository trainingRepo;
     private final CsvService csvService;
 
+    private static final int CSV_CHUNK_SIZE = 500;
+
     @Override
     public TrainingDTO createTraining(TrainingDTO trainingDTO) {
         if (existsBySn(trainingDTO.getSn())) {
@@ -66,8 +69,13 @@ public class TrainingServiceImpl implements TrainingService {
 
     @Override
     public List<TrainingDTO> getAllTrainings() {
-        return trainingRepo.findAll().stream()
-                .map(this::convertToDTO)
+        return trainingRepo.findListingRows().stream()
+                .map(row -> TrainingDTO.builder()
+                        .id((UUID) row[0])
+                        .name((String) row[1])
+                        .sn((String) row[2])
+                        .sections(((Long) row[3]).intValue())
+                        .build())
                 .collect(Collectors.toList());
     }
 
@@ -107,20 +115,22 @@ public class TrainingServiceImpl implements TrainingService {
         String[] headers = {"NAME", "SN"};
 
         try {
-            List<Training> trainings = csvService.parseCsv(file, headers, record -> {
-                validateRequiredFields(record);
-
-                return Training.builder()
-                        .name(record.get("NAME"))
-                        .sn((record.get("SN") == null) ? record.get("NAME").trim().substring(0, 2) : record.get("SN"))
-                        .sections(new HashSet<>())
-                        .build();
+            List<TrainingDTO> savedTrainings = new ArrayList<>();
+            // Trainings are read and saved a chunk at a time
+            csvService.parseCsvInChunks(file, headers, CSV_CHUNK_SIZE, chunk -> {
+                List<Training> trainings = chunk.stream().map(record -> {
+                    validateRequiredFields(record);
+
+                    return Training.builder()
+                            .name(record.get("NAME"))
+                            .sn((record.get("SN") == null) ? record.get("NAME").trim().substring(0, 2) : record.get("SN"))
+                            .sections(new HashSet<>())
+                            .build();
+                }).toList();
+
+                trainingRepo.saveAll(trainings).forEach(training -> savedTrainings.add(convertToDTO(training)));
             });
-
-            List<Training> savedTrainings = trainingRepo.saveAll(trainings);
-            return savedTrainings.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return savedTrainings;
 
         } catch (Exception e) {
             log.error("Error in bulk Training creation: {}", e.getMessage());
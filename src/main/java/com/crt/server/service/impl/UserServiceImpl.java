@@ -1,6 +1,7 @@
 package com.crt.server.service.impl;
 
 import com.crt.server.dto.AuthResponseDTO;
+import com.crt.server.dto.BulkJobDTO;
 import com.crt.server.dto.PagedResponseDTO;
 import com.crt.server.dto.UserDTO;
 import com.crt.server.exception.AuthenticationException;
@@ -8,9 +9,15 @@ import com.crt.server.exception.ResourceNotFoundException;
 import com.crt.server.model.Role;
 import com.crt.server.model.User;
 import com.crt.server.repository.UserRepository;
+import com.crt.server.security.TokenVersionService;
+import com.crt.server.service.BulkJobService;
+import com.crt.server.service.BulkJobService.BulkJobProgress;
+import com.crt.server.service.CredentialMailQueue;
 import com.crt.server.service.CsvService;
 import com.crt.server.service.EmailService;
+import com.crt.server.service.PasswordHashingService;
 import com.crt.server.service.UserService;
+import com.crt.server.util.KeysetCursor;
 import com.crt.server.util.PasswordGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,8 +34,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.io.FileWriter;
@@ -40,17 +50,35 @@ import java.io.IOException;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final String[] FACULTY_CSV_HEADERS = {"Empl Id", "Employee Name", "Designation", "DEPT", "KLU Mails", "Contact No"};
+    // Users hashed and inserted together; progress is reported per chunk
+    private static final int ONBOARDING_CHUNK_SIZE = 100;
+    // Users read per keyset page by the full listing
+    private static final int LISTING_PAGE_SIZE = 500;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
     @Autowired
     private EmailService emailService;
     @Autowired
     private CsvService csvService;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private CredentialMailQueue credentialMailQueue;
+
+    @Autowired
+    private BulkJobService bulkJobService;
+
     @Override
     public UserDTO createUser(UserDTO createUserDTO) {
         log.info("Creating user with username: {} and email: {}", createUserDTO.getUsername(), createUserDTO.getEmail());
@@ -159,10 +187,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Iterator<UserDTO> getAllUsers() {
+        return new KeysetCursor<>(LISTING_PAGE_SIZE, (last, page) -> userRepository.findListingPage(
+                last == null ? "" : last.getUsername(), page));
     }
 
     @Override
@@ -200,6 +227,10 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        // Tokens carry the role and stand in for the active flag, so changes to either revoke them
+        boolean revokeTokens = user.getRole() != updateUserDTO.getRole()
+                || (user.isActive() && Boolean.FALSE.equals(updateUserDTO.getIsActive()));
+
         // Update user fields
         user.setName(updateUserDTO.getName());
         user.setEmail(updateUserDTO.getEmail());
@@ -209,16 +240,16 @@ public class UserServiceImpl implements UserService {
             user.setActive(updateUserDTO.getIsActive());
         }
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = revokeTokens ? tokenVersionService.saveAndRevokeTokens(user) : userRepository.save(user);
         return convertToDTO(updatedUser);
     }
 
     @Override
     public void deleteUser(UUID id) {
-        if (!userRepository.existsById(id)) {
-            throw new RuntimeException("User not found");
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        userRepository.delete(user);
+        tokenVersionService.revokeTokens(user);
     }
 
     @Override
@@ -229,7 +260,7 @@ public class UserServiceImpl implements UserService {
         // Generate new password
         String newPassword = PasswordGenerator.generatePassword();
         user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        tokenVersionService.saveAndRevokeTokens(user);
 
         // Send email with new password
         emailService.sendPasswordEmail(user.getEmail(), user.getUsername(), newPassword);
@@ -257,7 +288,7 @@ public class UserServiceImpl implements UserService {
 
         // Update the password
         user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        tokenVersionService.saveAndRevokeTokens(user);
 
         return AuthResponseDTO.builder()
                 .message("Password updated successfully")
@@ -271,7 +302,7 @@ public class UserServiceImpl implements UserService {
 
         // Update the password
         user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        tokenVersionService.saveAndRevokeTokens(user);
 
         return AuthResponseDTO.builder()
                 .message("Password updated successfully")
@@ -302,41 +333,146 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDTO> bulkUploadFacs(MultipartFile file) throws Exception {
-        String[] headers = {"Empl Id", "Employee Name", "Designation", "DEPT", "KLU Mails", "Contact No"};
+    public BulkJobDTO startFacultyOnboarding(MultipartFile file) throws Exception {
+        // The upload is only readable during the request, so parse it before queueing
+        List<FacultyRow> rows = parseFacultyRows(file);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String owner = authentication != null ? authentication.getName() : "system";
+        return bulkJobService.submit("FACULTY_ONBOARDING", owner, progress -> onboardFaculties(rows, progress));
+    }
 
+    private List<FacultyRow> parseFacultyRows(MultipartFile file) throws Exception {
         try {
-
-            List<UserDTO> facs = csvService.parseCsv(file, headers, record -> {
+            return csvService.parseCsv(file, FACULTY_CSV_HEADERS, record -> {
                 try {
                     validateReqFields(record);
                 } catch (Exception e) {
-                    log.error(e.getLocalizedMessage());
+                    return new FacultyRow(record.getRecordNumber(), null, e.getMessage());
                 }
-                if (userRepository.existsByEmail(record.get("KLU Mails"))) return null;
-                return UserDTO.builder()
+                String email = record.get("KLU Mails").trim().toLowerCase();
+                String username = email.split("@")[0];
+                return new FacultyRow(record.getRecordNumber(), UserDTO.builder()
                         .name(record.get("Employee Name"))
-                        .email(record.get("KLU Mails"))
-                        .username(record.get("KLU Mails").split("@")[0])
+                        .email(email)
+                        .username(username.isBlank() ? record.get("Contact No").trim() : username)
                         .employeeId(record.get("Empl Id"))
                         .designation(record.get("Designation"))
                         .phone(record.get("Contact No"))
                         .department(record.get("DEPT"))
                         .role(Role.FACULTY)
                         .isActive(true)
-                        .build();
-            }).stream().filter(Objects::nonNull).collect(Collectors.toList());
-
-            log.info("Found {} faculties in CSV file", facs.size());
-            log.info(createUsers(facs));
-            return facs;
-
+                        .build(), null);
+            });
         } catch (Exception e) {
             log.error("Error in bulk Faculty creation: {}", e.getMessage());
             throw new Exception("Error processing Faculty data: " + e.getMessage());
         }
     }
 
+    /**
+     * Create faculty accounts in chunks: one query finds clashing usernames and emails
+     * for the whole file, passwords are hashed in parallel, each chunk is inserted with
+     * one saveAll and credential emails are queued rather than sent inline.
+     */
+    private List<UserDTO> onboardFaculties(List<FacultyRow> rows, BulkJobProgress progress) {
+        progress.setTotal(rows.size());
+
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        rows.stream().filter(row -> row.faculty() != null).forEach(row -> {
+            usernames.add(row.faculty().getUsername());
+            emails.add(row.faculty().getEmail());
+        });
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        if (!usernames.isEmpty()) {
+            for (Object[] existing : userRepository.findExistingCredentials(usernames, emails)) {
+                takenUsernames.add((String) existing[0]);
+                takenEmails.add(((String) existing[1]).toLowerCase());
+            }
+        }
+
+        List<UserDTO> pending = new ArrayList<>();
+        for (FacultyRow row : rows) {
+            if (row.error() != null) {
+                progress.failed("Row " + row.rowNumber() + ": " + row.error());
+            } else if (!takenUsernames.add(row.faculty().getUsername())) {
+                progress.failed("Row " + row.rowNumber() + ": username already exists: " + row.faculty().getUsername());
+            } else if (!takenEmails.add(row.faculty().getEmail())) {
+                progress.failed("Row " + row.rowNumber() + ": email already exists: " + row.faculty().getEmail());
+            } else {
+                pending.add(row.faculty());
+            }
+        }
+
+        List<UserDTO> created = new ArrayList<>();
+        StringBuilder credentialsContent = new StringBuilder();
+        credentialsContent.append("# Faculty Credentials\n\n");
+        credentialsContent.append("| Name | Mail | Username | Password |\n");
+        credentialsContent.append("|------|------|----------|----------|\n");
+
+        for (int start = 0; start < pending.size(); start += ONBOARDING_CHUNK_SIZE) {
+            if (progress.isCancelled()) {
+                // Stop between chunks; accounts created so far still get their credentials
+                log.info("Faculty onboarding cancelled after {} faculties", created.size());
+                break;
+            }
+            List<UserDTO> chunk = pending.subList(start, Math.min(start + ONBOARDING_CHUNK_SIZE, pending.size()));
+            List<String> passwords = chunk.stream().map(fac -> PasswordGenerator.generatePassword()).toList();
+            List<String> hashes = passwordHashingService.encodeAll(passwords);
+
+            List<User> users = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                users.add(toNewUser(chunk.get(i), hashes.get(i)));
+            }
+
+            try {
+                List<User> saved = userRepository.saveAll(users);
+                for (int i = 0; i < saved.size(); i++) {
+                    User user = saved.get(i);
+                    credentialMailQueue.enqueue(user.getEmail(), user.getUsername(), passwords.get(i));
+                    credentialsContent.append(String.format("| %s | %s | %s | %s |\n",
+                            user.getName(), user.getEmail(), user.getUsername(), passwords.get(i)));
+                    created.add(convertToDTO(user));
+                }
+                progress.succeeded(saved.size());
+            } catch (Exception e) {
+                log.error("Error creating faculty chunk starting at {}: {}", start, e.getMessage());
+                chunk.forEach(fac -> progress.failed("Faculty " + fac.getEmployeeId() + ": " + e.getMessage()));
+            }
+        }
+
+        try (FileWriter writer = new FileWriter("./y23-fac-creds.md")) {
+            writer.write(credentialsContent.toString());
+            log.info("Faculty credentials written to y23-fac-creds.md");
+        } catch (IOException e) {
+            log.error("Failed to write credentials file: {}", e.getMessage());
+        }
+
+        progress.checkCancelled();
+        log.info("Processed {} faculties out of {} faculties", created.size(), rows.size());
+        return created;
+    }
+
+    private User toNewUser(UserDTO fac, String passwordHash) {
+        return User.builder()
+                .name(fac.getName())
+                .email(fac.getEmail())
+                .phone(fac.getPhone())
+                .username(fac.getUsername())
+                .password(passwordHash)
+                .employeeId(fac.getEmployeeId())
+                .role(fac.getRole())
+                .designation((fac.getDesignation() == null) ? "Professor" : fac.getDesignation())
+                .department(fac.getDepartment())
+                .isFirstLogin(true)
+                .isActive(fac.getIsActive() != null ? fac.getIsActive() : true)
+                .build();
+    }
+
+    private record FacultyRow(long rowNumber, UserDTO faculty, String error) {
+    }
+
     @Override
     public String createUsers(List<UserDTO> facs) {
         int count = 0;
@@ -382,7 +518,7 @@ public class UserServiceImpl implements UserService {
         }
 
         // Validate email format
-        String email = record.get("EMAIL");
+        String email = record.get("KLU Mails").trim();
         if (!email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
             throw new Exception("Invalid email format for: " + email);
         }
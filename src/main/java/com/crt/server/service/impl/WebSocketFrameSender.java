@@ -0,0 +1,62 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.WebSocketBackpressureInterceptor;
+import com.crt.server.config.WebSocketTransportConfig;
+import com.crt.server.dto.websocket.WebSocketMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Serializes payloads to JSON once and hands the resulting byte frame to this node's
+ * broker, so sending one payload to many destinations skips the message converter.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketFrameSender {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final WebSocketTransportConfig transportConfig;
+
+    public byte[] encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unable to serialize WebSocket payload: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether slow sessions may skip this payload, based on its event type
+     */
+    public boolean isDroppable(Object payload) {
+        return payload instanceof WebSocketMessage message
+                && transportConfig.getDroppableEvents().contains(message.getEvent());
+    }
+
+    public void send(String destination, byte[] frame, boolean droppable) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (droppable) {
+            // Copied onto every subscriber's frame by the broker, read by the outbound interceptor
+            accessor.setHeader(WebSocketBackpressureInterceptor.DROPPABLE_HEADER, Boolean.TRUE);
+        }
+        // The template sets the destination on the mutable headers before sending
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(frame, accessor.getMessageHeaders()));
+    }
+
+    public void sendToUser(String userId, String destination, byte[] frame, boolean droppable) {
+        // Same user destination encoding as SimpMessagingTemplate.convertAndSendToUser
+        String user = userId.replace("/", "%2F");
+        String userDestination = destination.startsWith("/") ? destination : "/" + destination;
+        send(messagingTemplate.getUserDestinationPrefix() + user + userDestination, frame, droppable);
+    }
+}
@@ -3,67 +3,89 @@ package com.crt.server.service.impl;
 import com.crt.server.dto.websocket.AttendanceSessionEvent;
 import com.crt.server.dto.websocket.FacultySessionEvent;
 import com.crt.server.dto.websocket.WebSocketMessage;
+import com.crt.server.event.AttendanceMarkedEvent;
+import com.crt.server.service.AttendanceStreamService;
+import com.crt.server.service.PresenceService;
+import com.crt.server.service.WebSocketFanout;
 import com.crt.server.service.WebSocketService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WebSocketServiceImpl implements WebSocketService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketFanout webSocketFanout;
+    private final AttendanceStreamService attendanceStreamService;
+    private final MeterRegistry meterRegistry;
+    private final PresenceService presenceService;
 
     @Override
-    public void notifyFacultySessionStarted(String facultyId, FacultySessionEvent event) {
-        log.info("Notifying faculty {} of session started", facultyId);
-        WebSocketMessage message = WebSocketMessage.createForUser(
-            FacultySessionEvent.SESSION_STARTED, event, facultyId);
-        sendToUser(facultyId, FacultySessionEvent.SESSION_STARTED, event);
+    public void notifyFacultySessionStarted(String username, FacultySessionEvent event) {
+        log.debug("Notifying faculty {} of session started", username);
+        sendToUser(username, FacultySessionEvent.SESSION_STARTED, event);
     }
 
     @Override
-    public void notifyFacultySessionEnded(String facultyId, FacultySessionEvent event) {
-        log.info("Notifying faculty {} of session ended", facultyId);
-        sendToUser(facultyId, FacultySessionEvent.SESSION_ENDED, event);
+    public void notifyFacultySessionEnded(String username, FacultySessionEvent event) {
+        log.debug("Notifying faculty {} of session ended", username);
+        sendToUser(username, FacultySessionEvent.SESSION_ENDED, event);
     }
 
     @Override
-    public void notifyFacultySessionUpdated(String facultyId, FacultySessionEvent event) {
-        log.debug("Updating faculty {} session status", facultyId);
-        sendToUser(facultyId, FacultySessionEvent.SESSION_UPDATED, event);
+    public void notifyFacultySessionUpdated(String username, FacultySessionEvent event) {
+        log.debug("Updating faculty {} session status", username);
+        sendToUser(username, FacultySessionEvent.SESSION_UPDATED, event);
     }
 
     @Override
-    public void notifyNextSessionWarning(String facultyId, FacultySessionEvent event) {
-        log.info("Warning faculty {} of next session in 15 minutes", facultyId);
-        sendToUser(facultyId, FacultySessionEvent.NEXT_SESSION_WARNING, event);
+    public void notifyNextSessionWarning(String username, FacultySessionEvent event) {
+        log.debug("Warning faculty {} of next session in 15 minutes", username);
+        sendToUser(username, FacultySessionEvent.NEXT_SESSION_WARNING, event);
     }
 
     @Override
     public void notifyAttendanceSessionStarted(String sectionId, AttendanceSessionEvent event) {
         log.info("Notifying section {} of attendance session started", sectionId);
+        attendanceStreamService.startSession(sectionId, event);
         sendToTopic("section_" + sectionId, AttendanceSessionEvent.SESSION_STARTED, event);
     }
 
     @Override
     public void notifyStudentMarked(String sectionId, AttendanceSessionEvent event) {
-        log.debug("Notifying section {} of student marked", sectionId);
-        sendToTopic("section_" + sectionId, AttendanceSessionEvent.STUDENT_MARKED, event);
+        log.debug("Queueing student marked delta for section {}", sectionId);
+        attendanceStreamService.record(sectionId, event);
     }
 
     @Override
     public void notifyAttendanceSessionCompleted(String sectionId, AttendanceSessionEvent event) {
         log.info("Notifying section {} of attendance session completed", sectionId);
+        attendanceStreamService.flush(sectionId);
         sendToTopic("section_" + sectionId, AttendanceSessionEvent.SESSION_COMPLETED, event);
     }
 
     @Override
     public void notifyAttendanceStatsUpdated(String sectionId, AttendanceSessionEvent event) {
-        log.debug("Updating attendance stats for section {}", sectionId);
-        sendToTopic("section_" + sectionId, AttendanceSessionEvent.STATS_UPDATED, event);
+        log.debug("Queueing attendance stats delta for section {}", sectionId);
+        attendanceStreamService.record(sectionId, event);
+    }
+
+    /**
+     * Marks reach the section stream only after they are committed, so clients
+     * never see attendance that was rolled back
+     */
+    @TransactionalEventListener
+    public void onAttendanceMarked(AttendanceMarkedEvent event) {
+        notifyStudentMarked(event.getSectionId(), event.getMarked());
+        notifyAttendanceStatsUpdated(event.getSectionId(), event.getStats());
     }
 
     @Override
@@ -84,44 +106,64 @@ public class WebSocketServiceImpl implements WebSocketService {
     }
 
     @Override
-    public void sendToUser(String userId, String event, Object data) {
+    public void sendToUser(String username, String event, Object data) {
+        // User destinations and presence are both keyed by the STOMP principal name
+        if (!presenceService.isOnline(username)) {
+            recordSkipped(event, 1);
+            log.debug("Skipped {} for offline user {}", event, username);
+            return;
+        }
+        long start = System.nanoTime();
         try {
-            log.info("Attempting to send message to user {}: {}", userId, event);
-            WebSocketMessage message = WebSocketMessage.createForUser(event, data, userId);
-            log.info("Created WebSocket message: {}", message);
-            
-            messagingTemplate.convertAndSendToUser(userId, "/queue/messages", message);
-            log.info("Successfully sent message to user {}: {}", userId, event);
+            WebSocketMessage message = WebSocketMessage.createForUser(event, data, username);
+            webSocketFanout.sendToUser(username, "/queue/messages", message);
+            record(event, "success", start);
+            log.debug("Sent {} to user {}", event, username);
         } catch (Exception e) {
-            log.error("Failed to send message to user {}: {}", userId, e.getMessage(), e);
+            record(event, "failure", start);
+            log.error("Failed to send message to user {}: {}", username, e.getMessage(), e);
         }
     }
 
     @Override
     public void sendToTopic(String topic, String event, Object data) {
+        long start = System.nanoTime();
         try {
-            log.info("Attempting to send message to topic {}: {}", topic, event);
             WebSocketMessage message = WebSocketMessage.create(event, data);
-            log.info("Created WebSocket message for topic: {}", message);
-            
-            messagingTemplate.convertAndSend("/topic/" + topic, message);
-            log.info("Successfully sent message to topic {}: {}", topic, event);
+            webSocketFanout.send("/topic/" + topic, message);
+            record(event, "success", start);
+            log.debug("Sent {} to topic {}", event, topic);
         } catch (Exception e) {
+            record(event, "failure", start);
             log.error("Failed to send message to topic {}: {}", topic, e.getMessage(), e);
         }
     }
 
     @Override
     public void broadcastToAllFaculty(String event, Object data) {
-        try {
-            WebSocketMessage message = WebSocketMessage.create(event, data);
-            messagingTemplate.convertAndSend("/topic/all_faculty", message);
-            log.debug("Broadcasted message to all faculty: {}", event);
-        } catch (Exception e) {
-            log.error("Failed to broadcast to all faculty: {}", e.getMessage());
+        sendToTopic("all_faculty", event, data);
+    }
+
+    private void recordSkipped(String event, int count) {
+        if (count > 0) {
+            Counter.builder("crt.websocket.skipped.offline")
+                    .description("User messages not sent because the user has no connected session")
+                    .tag("event", event)
+                    .register(meterRegistry)
+                    .increment(count);
         }
     }
 
+    private void record(String event, String outcome, long startNanos) {
+        Timer.builder("crt.websocket.send")
+                .description("Time to serialize and hand a WebSocket message to the broker")
+                .tag("event", event)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
     // Inner class for system alerts
     private static class SystemAlert {
         public final String message;
@@ -0,0 +1,46 @@
+package com.crt.server.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+
+/**
+ * Writes an iterator as a JSON array with Jackson's streaming generator, so
+ * each element is serialized and flushed out as it is read instead of the
+ * whole list being built first.
+ *
+ * <p>Only the first element is read on the request thread. The rest are read
+ * while the body is written, on the async dispatch thread, without the
+ * request's transaction or security context, so the iterator must not depend
+ * on either.
+ */
+public final class JsonArrayStream {
+
+    private JsonArrayStream() {
+    }
+
+    /**
+     * The first element is read before the body is returned, so a failing
+     * query still surfaces as an error response. A failure after that leaves
+     * the array unterminated, so clients see a truncated body rather than a
+     * well-formed but short list.
+     */
+    public static StreamingResponseBody of(ObjectMapper objectMapper, Iterator<?> items) {
+        items.hasNext();
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // The servlet container owns the response stream
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Closing after a failed read must not write the missing ']'
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartArray();
+                while (items.hasNext()) {
+                    generator.writeObject(items.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+}
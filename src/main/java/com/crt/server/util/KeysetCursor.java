@@ -0,0 +1,63 @@
+package com.crt.server.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only iterator over an ordered query, read one keyset page at a time
+ * as it is consumed. Each page is fetched after the last row of the previous
+ * one (null for the first page), so only a single page is held in memory and
+ * no connection stays open between pages. Each page runs as its own statement,
+ * possibly outside any transaction, so page queries project the DTOs they
+ * return instead of loading entities with lazy associations.
+ */
+public final class KeysetCursor<T> implements Iterator<T> {
+
+    @FunctionalInterface
+    public interface PageQuery<T> {
+        // Rows ordered by the keyset, starting after {@code last}
+        List<T> fetchAfter(T last, Pageable page);
+    }
+
+    private final PageQuery<T> query;
+    private final Pageable page;
+
+    private List<T> rows = List.of();
+    private int index;
+    private T last;
+    private boolean exhausted;
+
+    public KeysetCursor(int pageSize, PageQuery<T> query) {
+        this.query = query;
+        this.page = PageRequest.of(0, pageSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < rows.size()) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+        rows = query.fetchAfter(last, page);
+        index = 0;
+        exhausted = rows.size() < page.getPageSize();
+        if (!rows.isEmpty()) {
+            last = rows.get(rows.size() - 1);
+        }
+        return !rows.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return rows.get(index++);
+    }
+}
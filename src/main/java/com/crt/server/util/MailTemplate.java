@@ -0,0 +1,171 @@
+package com.crt.server.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Email template compiled once into literal and {{variable}} segments.
+ * Rendering appends the segments into one presized buffer, so a message costs
+ * a single string allocation instead of re-scanning the template text.
+ * Variable values are HTML-escaped, except in templates from {@link #compileText}.
+ */
+public final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    // Room reserved per variable when sizing the render buffer
+    private static final int VARIABLE_ESTIMATE = 24;
+
+    @FunctionalInterface
+    public interface Variables {
+        // Value for a template variable; null renders as empty
+        Object get(String name);
+    }
+
+    private record Segment(String text, boolean variable) {
+    }
+
+    private final List<Segment> segments;
+    private final boolean html;
+    private final Set<String> variables;
+    private final int estimatedLength;
+
+    private MailTemplate(List<Segment> segments, boolean html) {
+        this.segments = segments;
+        this.html = html;
+        Set<String> names = new LinkedHashSet<>();
+        int length = 0;
+        for (Segment segment : segments) {
+            if (segment.variable()) {
+                names.add(segment.text());
+                length += VARIABLE_ESTIMATE;
+            } else {
+                length += segment.text().length();
+            }
+        }
+        this.variables = Collections.unmodifiableSet(names);
+        this.estimatedLength = length;
+    }
+
+    public static MailTemplate compile(String source) {
+        return parse(source, true);
+    }
+
+    /**
+     * For plain-text fields such as the Subject header, where values are
+     * inserted as-is
+     */
+    public static MailTemplate compileText(String source) {
+        return parse(source, false);
+    }
+
+    private static MailTemplate parse(String source, boolean html) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed template variable at offset " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty template variable at offset " + open);
+            }
+            addLiteral(segments, source.substring(position, open));
+            segments.add(new Segment(name, true));
+            position = close + CLOSE.length();
+        }
+        addLiteral(segments, source.substring(position));
+        return new MailTemplate(List.copyOf(segments), html);
+    }
+
+    /**
+     * Fold fixed values (e.g. the portal URL) into the literals, leaving the
+     * remaining variables for per-message rendering
+     */
+    public MailTemplate bind(Map<String, ?> values) {
+        List<Segment> bound = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        for (Segment segment : segments) {
+            if (!segment.variable()) {
+                literal.append(segment.text());
+            } else if (values.containsKey(segment.text())) {
+                appendValue(literal, values.get(segment.text()));
+            } else {
+                addLiteral(bound, literal.toString());
+                literal.setLength(0);
+                bound.add(segment);
+            }
+        }
+        addLiteral(bound, literal.toString());
+        return new MailTemplate(List.copyOf(bound), html);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the template uses a variable outside {@code allowed}
+     */
+    public MailTemplate requireVariables(Set<String> allowed) {
+        for (String name : variables) {
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown template variable {{" + name + "}}, expected one of " + allowed);
+            }
+        }
+        return this;
+    }
+
+    public String render(Variables values) {
+        StringBuilder out = new StringBuilder(estimatedLength);
+        for (Segment segment : segments) {
+            if (segment.variable()) {
+                appendValue(out, values.get(segment.text()));
+            } else {
+                out.append(segment.text());
+            }
+        }
+        return out.toString();
+    }
+
+    public String render(Map<String, ?> values) {
+        return render(values::get);
+    }
+
+    public Set<String> getVariables() {
+        return variables;
+    }
+
+    private static void addLiteral(List<Segment> segments, String text) {
+        if (!text.isEmpty()) {
+            segments.add(new Segment(text, false));
+        }
+    }
+
+    private void appendValue(StringBuilder out, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (!html) {
+            out.append(text);
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
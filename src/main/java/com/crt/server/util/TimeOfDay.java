@@ -0,0 +1,80 @@
+package com.crt.server.util;
+
+import java.time.LocalTime;
+
+/**
+ * Time-slot times as minutes since midnight. Slots are stored this way so range
+ * and overlap checks are plain integer comparisons; the "HH:mm" form only
+ * exists at the API and upload boundaries.
+ */
+public final class TimeOfDay {
+
+    // No class starts before 08:00, so on timetable sheets earlier hours are afternoon times ("01:50")
+    public static final int FIRST_CLASS_HOUR = 8;
+
+    private TimeOfDay() {
+    }
+
+    /**
+     * Parses a 24-hour time, as the API sends it.
+     *
+     * @throws IllegalArgumentException if {@code time} is not "H:mm" or "HH:mm"
+     */
+    public static int parse(String time) {
+        if (time == null) {
+            throw new IllegalArgumentException("Time is required");
+        }
+        String value = time.trim();
+        int colon = value.indexOf(':');
+        if (colon < 1 || colon > 2 || value.length() != colon + 3) {
+            throw new IllegalArgumentException("Invalid time '" + time + "', expected HH:mm");
+        }
+        int hour = digits(value, 0, colon, time);
+        int minute = digits(value, colon + 1, value.length(), time);
+        if (hour > 23 || minute > 59) {
+            throw new IllegalArgumentException("Invalid time '" + time + "', expected HH:mm");
+        }
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Parses a time from an uploaded timetable or a slot stored before minutes
+     * existed. Both write afternoon hours on a 12-hour clock, so hours before
+     * {@link #FIRST_CLASS_HOUR} are read as afternoon.
+     *
+     * @throws IllegalArgumentException if {@code time} is not "H:mm" or "HH:mm"
+     */
+    public static int parseTimetable(String time) {
+        int minuteOfDay = parse(time);
+        return minuteOfDay < FIRST_CLASS_HOUR * 60 ? minuteOfDay + 12 * 60 : minuteOfDay;
+    }
+
+    public static String format(Integer minuteOfDay) {
+        if (minuteOfDay == null) {
+            return null;
+        }
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        return (hour < 10 ? "0" : "") + hour + (minute < 10 ? ":0" : ":") + minute;
+    }
+
+    public static LocalTime toLocalTime(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    public static int of(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int digits(String value, int from, int to, String original) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid time '" + original + "', expected HH:mm");
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
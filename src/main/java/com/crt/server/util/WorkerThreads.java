@@ -0,0 +1,31 @@
+package com.crt.server.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the background worker pools. With
+ * {@code spring.threads.virtual.enabled} the workers are virtual threads, so a
+ * worker blocked on SMTP, JDBC or Redis does not hold a carrier thread; the
+ * pool size still bounds how many run at once.
+ */
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * @param name thread name prefix, numbered from 1
+     */
+    public static ThreadFactory factory(String name, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name + "-", 1).factory();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,242 @@
+package com.crt.server.benchmark;
+
+import com.crt.server.dto.BulkAttendanceDTO;
+import com.crt.server.dto.BulkAttendanceResponseDTO;
+import com.crt.server.model.Attendance;
+import com.crt.server.model.Section;
+import com.crt.server.model.Student;
+import com.crt.server.model.TimeSlot;
+import com.crt.server.model.User;
+import com.crt.server.repository.AttendanceRepository;
+import com.crt.server.repository.SectionRepository;
+import com.crt.server.repository.StudentRepository;
+import com.crt.server.repository.TimeSlotRepository;
+import com.crt.server.service.impl.ActivityLogServiceImpl;
+import com.crt.server.service.impl.AttendanceServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the 09:00 burst through the real attendance and activity log services:
+ * faculty post bulk attendance for their slot and dashboards read the absentee
+ * list and the recent activity feed, on Tomcat's default 200-thread pool and on
+ * virtual threads. Only the database is stubbed, as a 10-connection pool whose
+ * statements take a millisecond each, so the numbers cover the service code and
+ * its blocking pattern rather than absolute server capacity.
+ *
+ * <pre>mvn test -Dtest=MorningBurstBenchmarkTest -Dbenchmark=true</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class MorningBurstBenchmarkTest {
+
+    private static final int REQUESTS = 2000;
+    // Arrivals spread evenly over this window
+    private static final long BURST_MILLIS = 2000;
+    private static final int TOMCAT_THREADS = 200;
+    private static final int JDBC_POOL_SIZE = 10;
+    private static final long STATEMENT_MILLIS = 1;
+    // Every third request posts attendance; the rest are dashboard reads
+    private static final int POST_EVERY = 3;
+    private static final int ABSENT_PER_POST = 2;
+
+    // The burst has to drain at close to its arrival rate without long tails
+    private static final double MIN_THROUGHPUT_SHARE = 0.8;
+    private static final double MAX_P99_MILLIS = 250;
+
+    private final Semaphore connections = new Semaphore(JDBC_POOL_SIZE, true);
+    private final AtomicInteger savedRecords = new AtomicInteger();
+    private final AtomicInteger slotIds = new AtomicInteger();
+    private final String dateTime = LocalDate.now().atTime(9, 0)
+            .format(DateTimeFormatter.ofPattern("d/M/yyyy, h:mm:ss a", Locale.ENGLISH));
+
+    private AttendanceServiceImpl attendanceService;
+    private ActivityLogServiceImpl activityLogService;
+    private Section section;
+    private List<Student> students;
+    private User faculty;
+
+    @BeforeEach
+    void setUp() {
+        students = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Student student = new Student();
+            student.setId(UUID.randomUUID());
+            student.setName("Student " + i);
+            student.setRegNum("22000300" + i);
+            students.add(student);
+        }
+        section = new Section();
+        section.setId(UUID.randomUUID());
+        section.setName("S1");
+        section.setStudents(new HashSet<>(students));
+        faculty = User.builder().id(UUID.randomUUID()).username("faculty1").name("Faculty One").build();
+
+        TimeSlotRepository timeSlotRepository = mock(TimeSlotRepository.class, withSettings().stubOnly());
+        when(timeSlotRepository.findById(anyInt())).thenAnswer(statement(invocation -> {
+            TimeSlot timeSlot = new TimeSlot();
+            timeSlot.setId(invocation.getArgument(0));
+            timeSlot.setSection(section);
+            timeSlot.setStartTime("09:00");
+            timeSlot.setEndTime("09:50");
+            return Optional.of(timeSlot);
+        }));
+        SectionRepository sectionRepository = mock(SectionRepository.class, withSettings().stubOnly());
+        when(sectionRepository.findById(any(UUID.class))).thenAnswer(statement(invocation -> Optional.of(section)));
+        StudentRepository studentRepository = mock(StudentRepository.class, withSettings().stubOnly());
+        when(studentRepository.save(any())).thenAnswer(statement(invocation -> invocation.getArgument(0)));
+        AttendanceRepository attendanceRepository = mock(AttendanceRepository.class, withSettings().stubOnly());
+        when(attendanceRepository.findByTimeSlotAndDate(any(), any())).thenAnswer(statement(invocation -> List.of()));
+        when(attendanceRepository.saveAll(anyList())).thenAnswer(statement(invocation -> {
+            List<Attendance> records = invocation.getArgument(0);
+            // What the insert and its @PrePersist callback fill in
+            records.forEach(attendance -> {
+                attendance.setId(UUID.randomUUID());
+                attendance.setPostedAt(LocalDateTime.now());
+            });
+            savedRecords.addAndGet(records.size());
+            return records;
+        }));
+        when(attendanceRepository.countAttendanceByStudentAndDateRange(any(), any(), any()))
+                .thenAnswer(statement(invocation -> 40L));
+        when(attendanceRepository.countAbsencesByStudentAndDateRange(any(), any(), any()))
+                .thenAnswer(statement(invocation -> 4L));
+        when(attendanceRepository.findAbsenteesByDate(any())).thenAnswer(statement(invocation -> List.of()));
+
+        attendanceService = new AttendanceServiceImpl();
+        ReflectionTestUtils.setField(attendanceService, "attendanceRepository", attendanceRepository);
+        ReflectionTestUtils.setField(attendanceService, "timeSlotRepository", timeSlotRepository);
+        ReflectionTestUtils.setField(attendanceService, "sectionRepository", sectionRepository);
+        ReflectionTestUtils.setField(attendanceService, "studentRepository", studentRepository);
+        ReflectionTestUtils.setField(attendanceService, "eventPublisher",
+                mock(ApplicationEventPublisher.class, withSettings().stubOnly()));
+        activityLogService = new ActivityLogServiceImpl();
+    }
+
+    @Test
+    void burstDrainsOnBothThreadModels() throws Exception {
+        // Warm up the service code before measuring
+        run(Executors.newFixedThreadPool(TOMCAT_THREADS), REQUESTS / 4);
+
+        Result platform = run(Executors.newFixedThreadPool(TOMCAT_THREADS), REQUESTS);
+        Result virtual = run(Executors.newVirtualThreadPerTaskExecutor(), REQUESTS);
+
+        double arrivalRate = REQUESTS * 1000.0 / BURST_MILLIS;
+        for (Result result : List.of(platform, virtual)) {
+            String summary = "platform(" + TOMCAT_THREADS + "): " + platform + ", virtual: " + virtual;
+            assertEquals(0, result.failures(), () -> summary + ", first failure: " + result.firstFailure());
+            assertTrue(result.throughput() >= arrivalRate * MIN_THROUGHPUT_SHARE, summary);
+            assertTrue(result.p99Millis() <= MAX_P99_MILLIS, summary);
+        }
+        // Every post was stored and the feed still holds only the latest entries
+        int posts = (REQUESTS + POST_EVERY - 1) / POST_EVERY;
+        assertEquals(posts * ABSENT_PER_POST, virtual.savedRecords());
+        assertEquals(20, activityLogService.getRecentActivities().size());
+    }
+
+    private Result run(ExecutorService executor, int requests) throws InterruptedException {
+        savedRecords.set(0);
+        AtomicInteger failures = new AtomicInteger();
+        AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+        long[] latencies = new long[requests];
+        CountDownLatch done = new CountDownLatch(requests);
+        long start = System.nanoTime();
+
+        try (executor) {
+            for (int i = 0; i < requests; i++) {
+                long arrival = start + TimeUnit.MILLISECONDS.toNanos(BURST_MILLIS) * i / requests;
+                long delay = arrival - System.nanoTime();
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        if (index % POST_EVERY == 0) {
+                            postAttendance();
+                        } else {
+                            readDashboard();
+                        }
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                        firstFailure.compareAndSet(null, e);
+                    }
+                    latencies[index] = System.nanoTime() - arrival;
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(2, TimeUnit.MINUTES), "burst did not drain");
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(requests * 1_000_000_000.0 / elapsed,
+                latencies[requests / 2] / 1_000_000.0,
+                latencies[(int) Math.ceil(requests * 0.99) - 1] / 1_000_000.0,
+                failures.get(), firstFailure.get(), savedRecords.get());
+    }
+
+    private void postAttendance() {
+        BulkAttendanceDTO post = new BulkAttendanceDTO();
+        post.setTimeSlotId(slotIds.incrementAndGet());
+        post.setDateTime(dateTime);
+        post.setAbsentStudentIds(students.subList(0, ABSENT_PER_POST).stream().map(Student::getId).toList());
+
+        BulkAttendanceResponseDTO response = attendanceService.markBulkAttendance(post);
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setStartTime("09:00");
+        timeSlot.setEndTime("09:50");
+        activityLogService.logAttendancePosted(faculty, section, timeSlot, response.getSuccessCount());
+    }
+
+    private void readDashboard() {
+        attendanceService.getAbsenteesByDate(LocalDate.now());
+        activityLogService.getRecentActivities();
+    }
+
+    // Each stubbed repository call holds one pooled connection for one statement
+    private <T> Answer<T> statement(Answer<T> result) {
+        return invocation -> {
+            connections.acquire();
+            try {
+                Thread.sleep(STATEMENT_MILLIS);
+            } finally {
+                connections.release();
+            }
+            return result.answer(invocation);
+        };
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, int failures,
+                          RuntimeException firstFailure, int savedRecords) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms", throughput, p50Millis, p99Millis);
+        }
+    }
+}
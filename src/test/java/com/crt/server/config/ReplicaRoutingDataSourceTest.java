@@ -0,0 +1,113 @@
+package com.crt.server.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private final ReplicaConfig config = new ReplicaConfig();
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        meterRegistry = new SimpleMeterRegistry();
+        config.setStickyWindow(Duration.ofMinutes(1));
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primary, replica, lagMonitor, config, meterRegistry);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(router);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        dataSource = proxy;
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseTheReplica() throws SQLException {
+        assertSame(replicaConnection, connectionIn(true));
+        assertSame(primaryConnection, connectionIn(false));
+        assertEquals(1, meterRegistry.get("crt.datasource.routed").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void testReadsAfterAWriteStayOnThePrimaryForTheRequest() throws SQLException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        connectionIn(false);
+        assertSame(primaryConnection, connectionIn(true));
+
+        // A new request without a signed-in user reads from the replica again
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertSame(replicaConnection, connectionIn(true));
+    }
+
+    @Test
+    void testReadsStayOnThePrimaryForTheWriterWithinTheStickyWindow() throws SQLException {
+        signIn("faculty1");
+        connectionIn(false);
+
+        assertSame(primaryConnection, connectionIn(true));
+        signIn("faculty2");
+        assertSame(replicaConnection, connectionIn(true));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToThePrimary() throws SQLException {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertSame(primaryConnection, connectionIn(true));
+        assertEquals(1, meterRegistry.get("crt.datasource.routed").tag("reason", "lag").counter().count());
+    }
+
+    // Opens a connection the way a transaction does: flags first, statement later
+    private Connection connectionIn(boolean readOnly) throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try (Connection connection = dataSource.getConnection()) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+            connection.createStatement();
+            return ((ConnectionProxy) connection).getTargetConnection();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
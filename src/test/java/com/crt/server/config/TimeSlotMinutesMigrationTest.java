@@ -0,0 +1,108 @@
+package com.crt.server.config;
+
+import jakarta.persistence.Entity;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.mapping.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TimeSlotMinutesMigrationTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TimeSlotMinutesMigration migration = new TimeSlotMinutesMigration(jdbcTemplate);
+
+    @Test
+    void testRunsBeforeTheContextFinishesRefreshing() {
+        // Runners fire after scheduled jobs and the web server have started
+        assertInstanceOf(SmartInitializingSingleton.class, migration);
+        assertFalse(migration instanceof ApplicationRunner);
+    }
+
+    @Test
+    void testNothingToDoWithoutLegacyColumns() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(0);
+
+        migration.afterSingletonsInstantiated();
+
+        verify(jdbcTemplate, never()).queryForList(anyString());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testRelaxesLegacyColumnsAndBackfillsMinutes() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("start_time", "end_time"));
+        when(jdbcTemplate.queryForList(TimeSlotMinutesMigration.SELECT_PENDING)).thenReturn(List.of(
+                Map.of("id", 1, "start_time", "09:00", "end_time", "09:50"),
+                Map.of("id", 2, "start_time", "01:50", "end_time", "02:40")));
+
+        migration.afterSingletonsInstantiated();
+
+        verify(jdbcTemplate).execute("ALTER TABLE time_slots MODIFY start_time VARCHAR(255) NULL");
+        verify(jdbcTemplate).execute("ALTER TABLE time_slots MODIFY end_time VARCHAR(255) NULL");
+        verify(jdbcTemplate).batchUpdate(eq(TimeSlotMinutesMigration.UPDATE_MINUTES), argThat((List<Object[]> rows) ->
+                rows.size() == 2
+                        && List.of(540, 590, 1).equals(List.of(rows.get(0)))
+                        // Afternoon slots on the 12-hour clock
+                        && List.of(830, 880, 2).equals(List.of(rows.get(1)))));
+    }
+
+    @Test
+    void testUnreadableTimesStopStartup() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(TimeSlotMinutesMigration.SELECT_PENDING)).thenReturn(List.of(
+                Map.of("id", 1, "start_time", "09:00", "end_time", "09:50"),
+                Map.of("id", 7, "start_time", "nine", "end_time", "09:50")));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> migration.afterSingletonsInstantiated());
+
+        assertTrue(error.getMessage().contains("7"));
+        // Readable rows are still written
+        verify(jdbcTemplate).batchUpdate(eq(TimeSlotMinutesMigration.UPDATE_MINUTES),
+                argThat((List<Object[]> rows) -> rows.size() == 1));
+    }
+
+    @Test
+    void testMinuteColumnsAreAddedNullable() throws Exception {
+        // With bean validation applied to DDL, a NOT NULL add would give every existing row 0
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", "org.hibernate.dialect.MySQLDialect")
+                .applySetting("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+            for (BeanDefinition entity : scanner.findCandidateComponents("com.crt.server.model")) {
+                sources.addAnnotatedClass(Class.forName(entity.getBeanClassName()));
+            }
+            Metadata metadata = sources.buildMetadata();
+            metadata.buildSessionFactory().close();
+
+            Table timeSlots = metadata.collectTableMappings().stream()
+                    .filter(table -> table.getName().equals("time_slots"))
+                    .findFirst()
+                    .orElseThrow();
+            assertTrue(timeSlots.getColumn(new org.hibernate.mapping.Column("start_minute")).isNullable());
+            assertTrue(timeSlots.getColumn(new org.hibernate.mapping.Column("end_minute")).isNullable());
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.crt.server.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class WebSocketBackpressureInterceptorTest {
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final MessageHandler handler = mock(MessageHandler.class);
+
+    private WebSocketBackpressureInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        WebSocketTransportConfig config = new WebSocketTransportConfig();
+        config.setMaxPendingFramesPerSession(2);
+        interceptor = new WebSocketBackpressureInterceptor(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testOldestDroppableFrameIsDiscardedForBackloggedSession() {
+        Message<?> stats1 = frame("s1", true);
+        Message<?> stats2 = frame("s1", true);
+        Message<?> stats3 = frame("s1", true);
+
+        assertNotNull(interceptor.preSend(stats1, channel));
+        assertNotNull(interceptor.preSend(stats2, channel));
+        assertNotNull(interceptor.preSend(stats3, channel));
+
+        // The first frame was still queued, so it is the one skipped
+        assertNull(interceptor.beforeHandle(stats1, channel, handler));
+        assertNotNull(interceptor.beforeHandle(stats2, channel, handler));
+        assertNotNull(interceptor.beforeHandle(stats3, channel, handler));
+        assertEquals(1.0, interceptor.getDroppedFrames());
+        assertEquals(2, interceptor.getPendingFrames());
+    }
+
+    @Test
+    void testCriticalFramesAreNeverDropped() {
+        for (int i = 0; i < 5; i++) {
+            Message<?> started = frame("s1", false);
+            assertNotNull(interceptor.preSend(started, channel));
+            assertNotNull(interceptor.beforeHandle(started, channel, handler));
+        }
+
+        // With only critical frames queued, a new droppable frame is the one discarded
+        assertNull(interceptor.preSend(frame("s1", true), channel));
+        assertEquals(1.0, interceptor.getDroppedFrames());
+        assertEquals(5, interceptor.getPendingFrames());
+    }
+
+    @Test
+    void testBacklogIsPerSession() {
+        interceptor.preSend(frame("s1", true), channel);
+        interceptor.preSend(frame("s1", true), channel);
+
+        assertNotNull(interceptor.preSend(frame("s2", true), channel));
+        assertEquals(0.0, interceptor.getDroppedFrames());
+    }
+
+    private Message<?> frame(String sessionId, boolean droppable) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/section_1");
+        if (droppable) {
+            accessor.setHeader(WebSocketBackpressureInterceptor.DROPPABLE_HEADER, Boolean.TRUE);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,530 @@
+package com.crt.server.controller;
+
+import com.crt.server.config.AttendanceConfig;
+import com.crt.server.config.BulkJobConfig;
+import com.crt.server.config.EmailOutboxConfig;
+import com.crt.server.dto.BulkJobDTO.JobStatus;
+import com.crt.server.model.Attendance;
+import com.crt.server.model.AttendanceArchive;
+import com.crt.server.model.AttendanceSession;
+import com.crt.server.model.AttendanceStatus;
+import com.crt.server.model.Branch;
+import com.crt.server.model.BulkJobRecord;
+import com.crt.server.model.EmailOutboxMessage;
+import com.crt.server.model.OutboxStatus;
+import com.crt.server.model.Role;
+import com.crt.server.model.Room;
+import com.crt.server.model.RoomType;
+import com.crt.server.model.Section;
+import com.crt.server.model.SectionSchedule;
+import com.crt.server.model.Student;
+import com.crt.server.model.TimeSlot;
+import com.crt.server.model.TimeSlotTemplate;
+import com.crt.server.model.TimeSlotType;
+import com.crt.server.model.Training;
+import com.crt.server.model.User;
+import com.crt.server.repository.BulkJobRepository;
+import com.crt.server.repository.EmailOutboxRepository;
+import com.crt.server.security.JwtPrincipal;
+import com.crt.server.security.TokenVersionService;
+import com.crt.server.service.BulkJobService;
+import com.crt.server.service.CredentialMailQueue;
+import com.crt.server.service.CsvService;
+import com.crt.server.service.DashboardService;
+import com.crt.server.service.EmailOutboxService;
+import com.crt.server.service.EmailService;
+import com.crt.server.service.MailMergeService;
+import com.crt.server.service.PasswordHashingService;
+import com.crt.server.service.RequestCoalescingService;
+import com.crt.server.service.WebSocketService;
+import com.crt.server.service.impl.ActivityLogServiceImpl;
+import com.crt.server.service.impl.AttendanceServiceImpl;
+import com.crt.server.service.impl.BatchAttendanceServiceImpl;
+import com.crt.server.service.impl.BulkJobServiceImpl;
+import com.crt.server.service.impl.CurrentUserServiceImpl;
+import com.crt.server.service.impl.DashboardServiceImpl;
+import com.crt.server.service.impl.EmailOutboxServiceImpl;
+import com.crt.server.service.impl.FacultyAnalyticsServiceImpl;
+import com.crt.server.service.impl.FacultyAttendanceServiceImpl;
+import com.crt.server.service.impl.FacultyDashboardServiceImpl;
+import com.crt.server.service.impl.FacultyReportServiceImpl;
+import com.crt.server.service.impl.FacultyTimetableServiceImpl;
+import com.crt.server.service.impl.RoomServiceImpl;
+import com.crt.server.service.impl.SectionScheduleServiceImpl;
+import com.crt.server.service.impl.SectionServiceImpl;
+import com.crt.server.service.impl.StatisticsServiceImpl;
+import com.crt.server.service.impl.StudentServiceImpl;
+import com.crt.server.service.impl.TimeSlotServiceImpl;
+import com.crt.server.service.impl.TimeSlotTemplateServiceImpl;
+import com.crt.server.service.impl.TimeSlotValidationServiceImpl;
+import com.crt.server.service.impl.TimetableUploadPlanner;
+import com.crt.server.service.impl.TrainingServiceImpl;
+import com.crt.server.service.impl.UserServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Every list and read endpoint has to answer with the same number of SQL
+ * statements whether its rows number one or several, so an association loaded
+ * per row shows up as soon as it is introduced. The controllers run on the real
+ * services and repositories against the schema generated from the entity
+ * mappings in an in-memory database, and Hibernate's statistics count the
+ * statements each call prepares. Streamed listings are read to the end; they
+ * stay within one keyset page here. The section listing reads each roster in
+ * its own keyset pages so the response streams, which is one statement per
+ * section on top of the listing query.
+ *
+ * <p>Endpoints that read no table (activity feed, presence, cache and
+ * coalescing info, attendance config, OTP status, test pings) are not listed.
+ * The dashboard metrics endpoint serves a snapshot, so the query behind its
+ * refresh is measured instead.
+ */
+@DataJpaTest
+@AutoConfigureJson
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-endpoints;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({
+        TimeSlotController.class, AttendanceController.class, StudentController.class, SectionController.class,
+        UserController.class, UserSearchController.class, RoomController.class, TrainingController.class,
+        SectionScheduleController.class, TimeSlotTemplateController.class, FacultyController.class,
+        FacultyReportController.class, FacultyAnalyticsController.class, AdjacentTimeSlotController.class,
+        BatchAttendanceController.class, StatisticsController.class, DebugAttendanceController.class,
+        BulkOperationsController.class,
+        TimeSlotServiceImpl.class, AttendanceServiceImpl.class, StudentServiceImpl.class, SectionServiceImpl.class,
+        UserServiceImpl.class, RoomServiceImpl.class, TrainingServiceImpl.class, SectionScheduleServiceImpl.class,
+        TimeSlotTemplateServiceImpl.class, FacultyDashboardServiceImpl.class, FacultyTimetableServiceImpl.class,
+        FacultyAttendanceServiceImpl.class, FacultyReportServiceImpl.class, FacultyAnalyticsServiceImpl.class,
+        BatchAttendanceServiceImpl.class, StatisticsServiceImpl.class, DashboardServiceImpl.class,
+        TimeSlotValidationServiceImpl.class, TimetableUploadPlanner.class, ActivityLogServiceImpl.class,
+        CurrentUserServiceImpl.class, AttendanceConfig.class
+})
+class ReadEndpointQueryCountTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final String BATCH_ID = UUID.randomUUID().toString();
+    private static final String JOB_ID = UUID.randomUUID().toString();
+    // Statements each added row may add: one roster page per listed section
+    private static final Map<String, Long> PER_ROW = Map.of("GET /api/sections", 1L);
+
+    @MockitoBean
+    private CsvService csvService;
+    @MockitoBean
+    private CacheManager cacheManager;
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+    @MockitoBean
+    private TokenVersionService tokenVersionService;
+    @MockitoBean
+    private EmailService emailService;
+    @MockitoBean
+    private PasswordHashingService passwordHashingService;
+    @MockitoBean
+    private CredentialMailQueue credentialMailQueue;
+    @MockitoBean
+    private MailMergeService mailMergeService;
+    @MockitoBean
+    private RequestCoalescingService requestCoalescingService;
+    // Both run timers when they are beans; the endpoints use the instances built below
+    @MockitoBean
+    private BulkJobService bulkJobService;
+    @MockitoBean
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BulkJobRepository bulkJobRepository;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TimeSlotController timeSlotController;
+    @Autowired
+    private AttendanceController attendanceController;
+    @Autowired
+    private StudentController studentController;
+    @Autowired
+    private SectionController sectionController;
+    @Autowired
+    private UserController userController;
+    @Autowired
+    private UserSearchController userSearchController;
+    @Autowired
+    private RoomController roomController;
+    @Autowired
+    private TrainingController trainingController;
+    @Autowired
+    private SectionScheduleController sectionScheduleController;
+    @Autowired
+    private TimeSlotTemplateController timeSlotTemplateController;
+    @Autowired
+    private FacultyController facultyController;
+    @Autowired
+    private FacultyReportController facultyReportController;
+    @Autowired
+    private FacultyAnalyticsController facultyAnalyticsController;
+    @Autowired
+    private AdjacentTimeSlotController adjacentTimeSlotController;
+    @Autowired
+    private BatchAttendanceController batchAttendanceController;
+    @Autowired
+    private StatisticsController statisticsController;
+    @Autowired
+    private DebugAttendanceController debugAttendanceController;
+    @Autowired
+    private BulkOperationsController bulkOperationsController;
+
+    private BulkJobServiceImpl bulkJobs;
+    private EmailOutboxServiceImpl emailOutbox;
+    private Statistics statistics;
+
+    private Training training;
+    private User faculty;
+    private Room room;
+    private Section section;
+    private SectionSchedule schedule;
+    private Student student;
+    private TimeSlot slot;
+    private int rows;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(requestCoalescingService.coalesce(anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        when(bulkJobService.getJob(anyString())).thenAnswer(invocation -> bulkJobs.getJob(invocation.getArgument(0)));
+        when(bulkJobService.getResult(anyString()))
+                .thenAnswer(invocation -> bulkJobs.getResult(invocation.getArgument(0)));
+        when(emailOutboxService.getBatchStatus(anyString()))
+                .thenAnswer(invocation -> emailOutbox.getBatchStatus(invocation.getArgument(0)));
+        bulkJobs = new BulkJobServiceImpl(new BulkJobConfig(), bulkJobRepository, mock(WebSocketService.class),
+                objectMapper, false);
+        emailOutbox = new EmailOutboxServiceImpl(emailOutboxRepository, entityManager.getEntityManager(),
+                mock(JavaMailSender.class), new EmailOutboxConfig(), new SimpleMeterRegistry(), false);
+
+        training = entityManager.persist(Training.builder().name("CRT 2025").sn("1").build());
+        faculty = entityManager.persist(user("faculty", Role.FACULTY));
+        room = entityManager.persist(room("01"));
+        section = entityManager.persist(section("S", training));
+        schedule = entityManager.persist(SectionSchedule.builder().section(section).room(room).build());
+        student = entityManager.persist(student("anchor", section));
+        slot = entityManager.persist(slot(section, room, schedule, faculty, 9));
+        entityManager.persist(TimeSlotTemplate.builder().name("Morning").startTime("09:00").endTime("09:50").build());
+        entityManager.persist(BulkJobRecord.builder().id(JOB_ID).type("students").owner(faculty.getUsername())
+                .status(JobStatus.COMPLETED).result("[]").createdAt(LocalDateTime.now()).build());
+        outboxMessage(OutboxStatus.SENT);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(faculty.getId(), faculty.getUsername(), Role.FACULTY.name()), null, faculty.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        bulkJobs.shutdown();
+        emailOutbox.shutdown();
+    }
+
+    @Test
+    void readEndpointsIssueTheSameStatementsForOneRowAsForMany() {
+        addRows(1);
+        Map<String, Long> few = statementsPerEndpoint();
+        addRows(4);
+        Map<String, Long> many = statementsPerEndpoint();
+
+        Map<String, String> growing = new LinkedHashMap<>();
+        few.forEach((endpoint, count) -> {
+            if (count + 4 * PER_ROW.getOrDefault(endpoint, 0L) != many.get(endpoint)) {
+                growing.put(endpoint, count + " -> " + many.get(endpoint));
+            }
+        });
+        assertEquals(Map.of(), growing);
+    }
+
+    private Map<String, Long> statementsPerEndpoint() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        endpoints().forEach((endpoint, call) -> {
+            entityManager.flush();
+            entityManager.clear();
+            statistics.clear();
+            Object body = call.get();
+            if (body instanceof ResponseEntity<?> response && response.getBody() instanceof StreamingResponseBody stream) {
+                drain(stream);
+            }
+            counts.put(endpoint, statistics.getPrepareStatementCount());
+        });
+        return counts;
+    }
+
+    private Map<String, Supplier<?>> endpoints() {
+        UUID sectionId = section.getId();
+        UUID facultyId = faculty.getId();
+        UUID studentId = student.getId();
+        Integer slotId = slot.getId();
+        DayOfWeek day = TODAY.getDayOfWeek();
+        String from = TODAY.minusDays(30).toString();
+        String to = TODAY.plusDays(1).toString();
+
+        Map<String, Supplier<?>> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /api/time-slots/{id}", () -> timeSlotController.getTimeSlot(slotId));
+        endpoints.put("GET /api/time-slots/type/{slotType}",
+                () -> timeSlotController.getTimeSlotsByType(TimeSlotType.REGULAR));
+        endpoints.put("GET /api/time-slots/section/{sectionId}/type/{slotType}",
+                () -> timeSlotController.getSectionTimeSlotsByType(sectionId, TimeSlotType.REGULAR));
+        endpoints.put("GET /api/time-slots/day/{dayOfWeek}", () -> timeSlotController.getTimeSlotsByDay(day));
+        endpoints.put("GET /api/time-slots/faculty/{facultyId}/day/{dayOfWeek}",
+                () -> timeSlotController.getFacultyTimeSlotsByDay(facultyId, day));
+        endpoints.put("GET /api/time-slots/section/{sectionId}/day/{dayOfWeek}",
+                () -> timeSlotController.getSectionTimeSlotsByDay(sectionId, day));
+        endpoints.put("GET /api/time-slots/section/{sectionId}", () -> timeSlotController.getTimeSlotsBySection(sectionId));
+        endpoints.put("GET /api/time-slots/faculty/{facultyId}", () -> timeSlotController.getTimeSlotsByFaculty(facultyId));
+        endpoints.put("GET /api/time-slots/section/{sectionId}/active",
+                () -> timeSlotController.getActiveTimeSlotsBySection(sectionId));
+        endpoints.put("GET /api/time-slots/faculty/{facultyId}/active",
+                () -> timeSlotController.getActiveTimeSlotsByFaculty(facultyId));
+        endpoints.put("GET /api/time-slots/conflicts",
+                () -> timeSlotController.getConflictingTimeSlots(room.getId(), day, "08:00", "18:00"));
+        endpoints.put("GET /api/time-slots/check-availability",
+                () -> timeSlotController.isTimeSlotAvailable(room.getId(), day, "08:00", "18:00"));
+        endpoints.put("GET /api/time-slots/faculty/{facultyId}/today",
+                () -> timeSlotController.getFacultyTodaySchedule(facultyId));
+        endpoints.put("GET /api/time-slots/today", () -> timeSlotController.getTodaySchedule());
+
+        endpoints.put("GET /api/attendance/student/{studentId}",
+                () -> attendanceController.getStudentAttendance(studentId, from, to));
+        endpoints.put("GET /api/attendance/time-slot/{timeSlotId}",
+                () -> attendanceController.getTimeSlotAttendance(slotId));
+        endpoints.put("GET /api/attendance/report/{studentId}",
+                () -> attendanceController.getStudentAttendanceReport(studentId, from, to));
+        endpoints.put("GET /api/attendance/archived/student/{studentId}",
+                () -> attendanceController.getArchivedStudentAttendance(studentId, from, to));
+        endpoints.put("GET /api/attendance/archived/report/{studentId}",
+                () -> attendanceController.getArchivedStudentAttendanceReport(studentId, from, to));
+        endpoints.put("GET /api/attendance/section/{sectionId}",
+                () -> attendanceController.getSectionAttendanceRecords(sectionId, from, to));
+        endpoints.put("GET /api/attendance/absentees/section/{sectionId}",
+                () -> attendanceController.getAbsenteesByDateAndSection(TODAY, sectionId));
+        endpoints.put("GET /api/attendance/absentees/{timeSlotId}",
+                () -> attendanceController.getAbsenteesByTimeSlot(slotId, TODAY.atTime(9, 0)));
+        endpoints.put("GET /api/attendance/time-slots/filter",
+                () -> attendanceController.getTimeSlotsByDayAndTime(TODAY, null, null));
+        endpoints.put("GET /api/attendance/time-slots/pending",
+                () -> attendanceController.getPendingTimeSlotsByDayAndTime(TODAY, null, null));
+        endpoints.put("GET /api/attendance/absentees", () -> attendanceController.getAbsenteesByDate(TODAY));
+        endpoints.put("GET /api/debug/attendance/timeslot/{timeSlotId}",
+                () -> debugAttendanceController.debugGetAllAttendanceForTimeSlotAndDate(slotId, TODAY));
+
+        endpoints.put("GET /api/students/{id}", () -> studentController.getStudentById(studentId));
+        endpoints.put("GET /api/students/email/{email}", () -> studentController.getStudentByEmail(student.getEmail()));
+        endpoints.put("GET /api/students/regnum/{regNum}",
+                () -> studentController.getStudentByRegNum(student.getRegNum()));
+        endpoints.put("GET /api/students", () -> studentController.getAllStudents());
+        endpoints.put("GET /api/students/paginated",
+                () -> studentController.getStudentsPaginated(0, 20, "regNum", "ASC"));
+        endpoints.put("GET /api/students/with-attendance", () -> studentController.getStudentsWithAttendance(30));
+        endpoints.put("GET /api/students/with-attendance/paginated",
+                () -> studentController.getStudentsWithAttendancePaginated(0, 20, "name", "ASC", 30));
+        endpoints.put("GET /api/students/send-mail-in-bulk/{batchId}",
+                () -> studentController.getMailBatchStatus(BATCH_ID));
+
+        endpoints.put("GET /api/sections/{sectionId}", () -> sectionController.getSection(sectionId));
+        endpoints.put("GET /api/sections", () -> sectionController.getAllSections());
+        endpoints.put("GET /api/sections/Training/{trainingId}",
+                () -> sectionController.getSectionsByTraining(training.getId()));
+        endpoints.put("GET /api/section-schedules/{id}", () -> sectionScheduleController.getSchedule(schedule.getId()));
+        endpoints.put("GET /api/section-schedules/section/{sectionId}",
+                () -> sectionScheduleController.getScheduleBySection(sectionId));
+        endpoints.put("GET /api/section-schedules", () -> sectionScheduleController.getAllSchedules());
+        endpoints.put("GET /api/bulk/section/{sectionName}/schedule",
+                () -> bulkOperationsController.getSectionSchedule(section.getName(), day));
+        endpoints.put("GET /api/bulk/jobs/{jobId}", () -> bulkOperationsController.getBulkJob(JOB_ID));
+        endpoints.put("GET /api/bulk/jobs/{jobId}/result", () -> bulkOperationsController.downloadBulkJobResult(JOB_ID));
+
+        endpoints.put("GET /api/users/{id}", () -> userController.getUserById(facultyId));
+        endpoints.put("GET /api/users", () -> userController.getAllUsers());
+        endpoints.put("GET /api/users/paginated", () -> userController.getUsersPaginated(0, 10, "name", "ASC"));
+        endpoints.put("GET /api/users/getFacs", () -> userController.getAllFaculty());
+        endpoints.put("GET /api/users/me", () -> userController.getAuthenticatedUser());
+        endpoints.put("GET /api/users/username/{username}",
+                () -> userSearchController.getUserByUsername(faculty.getUsername()));
+        endpoints.put("GET /api/users/email/{email}", () -> userSearchController.getUserByEmail(faculty.getEmail()));
+
+        endpoints.put("GET /api/rooms/{id}", () -> roomController.getRoomById(room.getId()));
+        endpoints.put("GET /api/rooms", () -> roomController.getAllRooms());
+        endpoints.put("GET /api/trainings/{id}", () -> trainingController.getTrainingById(training.getId()));
+        endpoints.put("GET /api/trainings/sn/{sn}", () -> trainingController.getTrainingBySn(training.getSn()));
+        endpoints.put("GET /api/trainings", () -> trainingController.getAllTrainings());
+        endpoints.put("GET /api/time-slot-templates", () -> timeSlotTemplateController.getAllTimeSlotTemplates());
+        endpoints.put("GET /api/time-slot-templates/{templateName}",
+                () -> timeSlotTemplateController.getTimeSlotTemplate("Morning"));
+
+        endpoints.put("GET /api/faculty/dashboard", () -> facultyController.getFacultyDashboard(facultyId));
+        endpoints.put("GET /api/faculty/timetable", () -> facultyController.getFacultyTimetable(facultyId));
+        endpoints.put("GET /api/faculty/current-session", () -> facultyController.getCurrentSession(facultyId));
+        endpoints.put("GET /api/faculty/students/{sectionId}", () -> facultyController.getStudentsForSection(sectionId));
+        endpoints.put("GET /api/faculty/session/{timeSlotId}/students",
+                () -> facultyController.getStudentsForTimeSlot(slotId));
+        endpoints.put("GET /api/faculty/sections", () -> facultyController.getAssignedSections(facultyId));
+        endpoints.put("GET /api/faculty/missed-sessions", () -> facultyController.getMissedAttendanceSessions());
+        endpoints.put("GET /api/faculty/missed-sessions/date",
+                () -> facultyController.getMissedAttendanceSessionsByDate(TODAY));
+        endpoints.put("GET /api/faculty/reports",
+                () -> facultyReportController.getAttendanceReports(null, 0, 20, from, to));
+        endpoints.put("GET /api/faculty/reports/student/{studentId}",
+                () -> facultyReportController.getStudentDetailReport(studentId));
+        endpoints.put("GET /api/faculty/analytics/attendance",
+                () -> facultyAnalyticsController.getAttendanceAnalytics(null, from, to));
+        endpoints.put("GET /api/faculty/analytics/timetable/weekly",
+                () -> facultyAnalyticsController.getWeeklyTimetable(null));
+        endpoints.put("GET /api/faculty/analytics/export/csv",
+                () -> facultyAnalyticsController.exportAttendanceReportCSV(null, from, to));
+        endpoints.put("GET /api/adjacent-time-slots/my", () -> adjacentTimeSlotController.getMyAdjacentTimeSlots());
+        endpoints.put("GET /api/adjacent-time-slots/faculty/{facultyId}",
+                () -> adjacentTimeSlotController.getAdjacentTimeSlotsForFaculty(facultyId));
+        endpoints.put("GET /api/adjacent-time-slots/check",
+                () -> adjacentTimeSlotController.checkAdjacentTimeSlots(slotId, slotId + 1));
+        endpoints.put("GET /api/time-slots/faculty/{facultyId}/batchable",
+                () -> batchAttendanceController.getBatchableTimeSlots(facultyId, TODAY));
+        endpoints.put("GET /api/time-slots/validate-batch",
+                () -> batchAttendanceController.validateBatchTimeSlots(slotId + "," + (slotId + 1)));
+
+        endpoints.put("GET /api/statistics/crt-eligible-count", () -> statisticsController.getCrtEligibleStudentCount());
+        endpoints.put("GET /api/statistics/department-count", () -> statisticsController.getDepartmentCount());
+        endpoints.put("GET /api/statistics/avg-attendance", () -> statisticsController.getAverageStudentAttendance());
+        endpoints.put("GET /api/statistics", () -> statisticsController.getAllStatistics());
+        endpoints.put("GET /api/admin/dashboard/metrics (refresh)", () -> dashboardService.getDashboardMetrics());
+        return endpoints;
+    }
+
+    // More of everything, most of it hanging off the section, faculty and student the endpoints ask for
+    private void addRows(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = ++rows;
+            User otherFaculty = entityManager.persist(user("faculty" + n, Role.FACULTY));
+            Room otherRoom = entityManager.persist(room("1" + n));
+            Section otherSection = entityManager.persist(section("S" + n, training));
+            SectionSchedule otherSchedule = entityManager.persist(
+                    SectionSchedule.builder().section(otherSection).room(otherRoom).build());
+            entityManager.persist(Training.builder().name("CRT " + n).sn(String.valueOf(n + 1)).build());
+            entityManager.persist(TimeSlotTemplate.builder().name("Slot " + n)
+                    .startTime("10:00").endTime("10:50").build());
+
+            Student classmate = entityManager.persist(student("classmate" + n, section));
+            entityManager.persist(student("other" + n, otherSection));
+            TimeSlot nextSlot = entityManager.persist(slot(section, room, schedule, faculty, 9 + n));
+            TimeSlot otherSlot = entityManager.persist(slot(otherSection, otherRoom, otherSchedule, otherFaculty, 9));
+
+            entityManager.persist(attendance(student, nextSlot, AttendanceStatus.ABSENT));
+            entityManager.persist(attendance(classmate, slot, AttendanceStatus.ABSENT));
+            entityManager.persist(attendance(classmate, nextSlot, AttendanceStatus.LATE));
+            entityManager.persist(archive(student, nextSlot));
+            entityManager.persist(session(nextSlot, faculty));
+            entityManager.persist(session(otherSlot, otherFaculty));
+            outboxMessage(n % 2 == 0 ? OutboxStatus.PENDING : OutboxStatus.FAILED);
+        }
+        entityManager.flush();
+    }
+
+    private void drain(StreamingResponseBody stream) {
+        try {
+            stream.writeTo(new ByteArrayOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static User user(String username, Role role) {
+        return User.builder().name(username).username(username).email(username + "@crt.test").phone("0")
+                .password("x").role(role).department("CSE").designation("Trainer").build();
+    }
+
+    private static Room room(String number) {
+        return Room.builder().block("C").floor("4").roomNumber(number).roomType(RoomType.LECTURE_ROOM)
+                .capacity(60).build();
+    }
+
+    private static Section section(String name, Training training) {
+        return Section.builder().name(name).training(training).strength(0).capacity(60).build();
+    }
+
+    private static Student student(String name, Section section) {
+        return Student.builder().name(name).email(name + "@crt.test").regNum("22" + name).branch(Branch.CSE)
+                .batch("2026").section(section).build();
+    }
+
+    private static TimeSlot slot(Section section, Room room, SectionSchedule schedule, User faculty, int hour) {
+        TimeSlot slot = TimeSlot.builder().section(section).room(room).schedule(schedule).inchargeFaculty(faculty)
+                .dayOfWeek(TODAY.getDayOfWeek()).build();
+        slot.setStartMinute(hour * 60);
+        slot.setEndMinute(hour * 60 + 50);
+        return slot;
+    }
+
+    private static Attendance attendance(Student student, TimeSlot slot, AttendanceStatus status) {
+        return Attendance.builder().student(student).timeSlot(slot).status(status)
+                .date(TODAY.atTime(slot.getStartLocalTime())).build();
+    }
+
+    private static AttendanceArchive archive(Student student, TimeSlot slot) {
+        return AttendanceArchive.builder().student(student).timeSlot(slot).status(AttendanceStatus.ABSENT)
+                .postedAt(LocalDateTime.now()).date(TODAY.atTime(slot.getStartLocalTime())).build();
+    }
+
+    private static AttendanceSession session(TimeSlot slot, User faculty) {
+        return AttendanceSession.builder().faculty(faculty).section(slot.getSection()).timeSlot(slot).date(TODAY)
+                .topicTaught("Arrays").totalStudents(2).presentCount(1).absentCount(1).build();
+    }
+
+    private void outboxMessage(OutboxStatus status) {
+        entityManager.persist(EmailOutboxMessage.builder().batchId(BATCH_ID).recipient("student@crt.test")
+                .subject("Results").body("Hello").status(status).nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now()).build());
+    }
+}
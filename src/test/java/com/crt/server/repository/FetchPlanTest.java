@@ -0,0 +1,59 @@
+package com.crt.server.repository;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Associations load lazily unless a query asks for them. What each read
+ * endpoint fetches is pinned by ReadEndpointQueryCountTest.
+ */
+class FetchPlanTest {
+
+    @Test
+    void associationsAreLazyByDefault() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+
+        List<String> eager = new ArrayList<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents("com.crt.server.model")) {
+            for (Field field : Class.forName(definition.getBeanClassName()).getDeclaredFields()) {
+                FetchType fetch = fetchType(field);
+                if (fetch == FetchType.EAGER) {
+                    eager.add(field.getDeclaringClass().getSimpleName() + "." + field.getName());
+                }
+            }
+        }
+        assertEquals(List.of(), eager);
+    }
+
+    private static FetchType fetchType(Field field) {
+        ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+        if (manyToOne != null) {
+            return manyToOne.fetch();
+        }
+        OneToOne oneToOne = field.getAnnotation(OneToOne.class);
+        if (oneToOne != null) {
+            return oneToOne.fetch();
+        }
+        OneToMany oneToMany = field.getAnnotation(OneToMany.class);
+        if (oneToMany != null) {
+            return oneToMany.fetch();
+        }
+        ManyToMany manyToMany = field.getAnnotation(ManyToMany.class);
+        return manyToMany != null ? manyToMany.fetch() : null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.crt.server.security;
+
+import com.crt.server.config.TokenVersionConfig;
+import com.crt.server.model.Role;
+import com.crt.server.model.User;
+import com.crt.server.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class JwtAuthFilterTest {
+
+    private JwtService jwtService;
+    private UserRepository userRepository;
+    private TokenVersionService tokenVersionService;
+    private JwtAuthFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 120_000L);
+
+        userRepository = mock(UserRepository.class);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findTokenVersionById(any())).thenAnswer(invocation ->
+                Optional.of(user.getTokenVersion()));
+        tokenVersionService = new TokenVersionService(userRepository,
+                new CaffeineTokenVersionStore(new TokenVersionConfig(), jwtService));
+        filter = new JwtAuthFilter(jwtService, tokenVersionService, mock(CookieService.class));
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Faculty One")
+                .email("faculty@example.com")
+                .username("faculty1")
+                .password("hash")
+                .role(Role.FACULTY)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testPrincipalIsBuiltFromClaimsAlone() throws Exception {
+        String token = jwtService.generateToken(user);
+
+        call(token);
+        call(token);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(user.getId(), principal.id());
+        assertEquals("faculty1", authentication.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("FACULTY")), List.copyOf(authentication.getAuthorities()));
+        // Only the token version is read, once, then served from the store
+        verify(userRepository).findTokenVersionById(user.getId());
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void testRevocationSurvivesARestart() throws Exception {
+        String oldToken = jwtService.generateToken(user);
+        tokenVersionService.saveAndRevokeTokens(user);
+
+        // A fresh in-memory store knows nothing about the revocation
+        restart(new CaffeineTokenVersionStore(new TokenVersionConfig(), jwtService));
+
+        call(oldToken);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        call(jwtService.generateToken(user));
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testDeletedUserIsRejected() throws Exception {
+        String token = jwtService.generateToken(user);
+        when(userRepository.findTokenVersionById(user.getId())).thenReturn(Optional.empty());
+
+        call(token);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testStoreOutageFallsBackToTheDatabaseAndFailsClosed() throws Exception {
+        TokenVersionStore broken = mock(TokenVersionStore.class);
+        when(broken.get(any())).thenThrow(new IllegalStateException("redis down"));
+        restart(broken);
+        String token = jwtService.generateToken(user);
+
+        call(token);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        when(userRepository.findTokenVersionById(any())).thenThrow(new IllegalStateException("database down"));
+        call(token);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testPasswordChangeRevokesEarlierTokens() throws Exception {
+        String oldToken = jwtService.generateToken(user);
+        tokenVersionService.saveAndRevokeTokens(user);
+        String newToken = jwtService.generateToken(user);
+
+        call(oldToken);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertFalse(jwtService.isTokenValid(oldToken, user));
+
+        call(newToken);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testInvalidTokenLeavesRequestUnauthenticated() throws Exception {
+        MockFilterChain chain = call(jwtService.generateToken(user) + "x");
+
+        // Passed on unauthenticated so the entry point answers 401
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    private void restart(TokenVersionStore store) {
+        tokenVersionService = new TokenVersionService(userRepository, store);
+        filter = new JwtAuthFilter(jwtService, tokenVersionService, mock(CookieService.class));
+    }
+
+    private MockFilterChain call(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students");
+        request.setServletPath("/api/students");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+}
@@ -0,0 +1,162 @@
+package com.crt.server.security;
+
+import com.crt.server.config.RateLimitConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RateLimitFilterTest {
+
+    private final RateLimitConfig config = new RateLimitConfig();
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitService service = new RateLimitService(new CaffeineRateLimitStore(config), meterRegistry);
+        filter = new RateLimitFilter(config, service, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testLoginIsLimitedPerIp() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call("/api/auth/login", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = call("/api/auth/login", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests"));
+
+        // Another client still gets in
+        assertEquals(200, call("/api/auth/login", "10.0.0.2").getStatus());
+        assertEquals(1, meterRegistry.get("crt.ratelimit.rejected").tag("group", "login").counter().count());
+    }
+
+    @Test
+    void testForwardedForIsIgnoredByDefault() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, callForwarded("203.0.113.7", "198.51.100." + i).getStatus());
+        }
+
+        // A fresh spoofed header does not buy a fresh bucket
+        assertEquals(429, callForwarded("203.0.113.7", "198.51.100.99").getStatus());
+    }
+
+    @Test
+    void testTrustedProxyHopsAreSkippedRightToLeft() throws Exception {
+        config.setTrustForwardedFor(true);
+        config.setTrustedProxies(List.of("10.0.0.0/8"));
+
+        // The client prepends whatever it likes; the proxies append the real address
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, callForwarded("10.0.0.5", "198.51.100." + i + ", 203.0.113.7, 10.0.0.9").getStatus());
+        }
+        assertEquals(429, callForwarded("10.0.0.5", "198.51.100.99, 203.0.113.7, 10.0.0.9").getStatus());
+        assertEquals(200, callForwarded("10.0.0.5", "203.0.113.8").getStatus());
+        // The header is only read for requests arriving through a trusted proxy
+        assertEquals(200, callForwarded("192.0.2.1", "203.0.113.7").getStatus());
+    }
+
+    @Test
+    void testOtpStatusPollingLeavesVerificationQuota() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            assertEquals(200, call("/api/auth/otp-status/dispatch-1", "10.0.0.1").getStatus());
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, call("/api/auth/verify-otp", "10.0.0.1").getStatus());
+        }
+        assertEquals(429, call("/api/auth/verify-otp", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void testBulkIsLimitedPerUserNotPerIp() throws Exception {
+        config.getGroups().get("bulk").setRequests(1);
+
+        authenticate("admin-1");
+        assertEquals(200, call("/api/bulk/section/upload", "10.0.0.1").getStatus());
+        assertEquals(429, call("/api/bulk/section/upload", "10.0.0.1").getStatus());
+
+        // Same proxy address, different account
+        authenticate("admin-2");
+        assertEquals(200, call("/api/bulk/section/upload", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void testBulkJobPollingDoesNotUseUploadQuota() throws Exception {
+        config.getGroups().get("bulk").setRequests(1);
+        authenticate("admin-1");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call("GET", "/api/bulk/jobs/job-1", "10.0.0.1").getStatus());
+            assertEquals(200, call("GET", "/api/bulk/section/S1/schedule", "10.0.0.1").getStatus());
+        }
+        assertEquals(200, call("/api/bulk/timetable/upload", "10.0.0.1").getStatus());
+        assertEquals(429, call("/api/bulk/register-students", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void testUngroupedPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, call("/api/sections", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    void testStoreOutageLetsRequestsThrough() throws Exception {
+        RateLimitStore broken = mock(RateLimitStore.class);
+        when(broken.tryConsume(anyString(), anyInt(), any())).thenThrow(new IllegalStateException("redis down"));
+        filter = new RateLimitFilter(config, new RateLimitService(broken, meterRegistry), new ObjectMapper());
+
+        assertEquals(200, call("/api/auth/login", "10.0.0.1").getStatus());
+    }
+
+    private MockHttpServletResponse call(String path, String ip) throws Exception {
+        return call("POST", path, ip);
+    }
+
+    private MockHttpServletResponse callForwarded(String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse call(String method, String path, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                username, null, List.of(new SimpleGrantedAuthority("ADMIN"))));
+    }
+}
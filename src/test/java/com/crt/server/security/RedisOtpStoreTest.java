@@ -0,0 +1,128 @@
+package com.crt.server.security;
+
+import com.crt.server.config.OtpConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RedisOtpStoreTest {
+
+    // Stands in for Redis: values with their expiry on a clock the test moves
+    private final Map<String, String> values = new HashMap<>();
+    private final Map<String, Long> expiresAt = new HashMap<>();
+    private long now;
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private RedisOtpStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ValueOperations<String, String> operations = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(operations);
+        doAnswer(invocation -> {
+            put(invocation.getArgument(0), invocation.getArgument(1), invocation.<Duration>getArgument(2).toMillis());
+            return null;
+        }).when(operations).set(anyString(), anyString(), any(Duration.class));
+        when(operations.get(anyString())).thenAnswer(invocation -> live(invocation.getArgument(0)));
+        when(redis.delete(anyString())).thenAnswer(invocation -> delete(invocation.getArgument(0)));
+        when(redis.delete(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream().filter(this::delete).count());
+        // The attempt counter script: INCR, and a TTL on the first attempt
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            String key = invocation.<List<String>>getArgument(1).get(0);
+            String current = live(key);
+            long attempts = current == null ? 1 : Long.parseLong(current) + 1;
+            if (current == null) {
+                put(key, String.valueOf(attempts), Long.parseLong(invocation.getArgument(2)));
+            } else {
+                values.put(key, String.valueOf(attempts));
+            }
+            return attempts;
+        });
+
+        OtpConfig config = new OtpConfig();
+        config.setTtl(Duration.ofMinutes(5));
+        config.setMaxAttempts(3);
+        store = new RedisOtpStore(redis, config);
+    }
+
+    @Test
+    void testCodeCanBeUsedOnlyOnce() {
+        store.save("user@kluniversity.in", "123456");
+
+        assertTrue(store.verify("user@kluniversity.in", "123456"));
+        assertFalse(store.verify("user@kluniversity.in", "123456"));
+    }
+
+    @Test
+    void testAttemptLimitInvalidatesTheCode() {
+        store.save("user@kluniversity.in", "123456");
+
+        assertFalse(store.verify("user@kluniversity.in", "000000"));
+        assertFalse(store.verify("user@kluniversity.in", "000001"));
+        assertFalse(store.verify("user@kluniversity.in", "000002"));
+        // The right code no longer works once the attempts are used up
+        assertFalse(store.verify("user@kluniversity.in", "123456"));
+        assertFalse(values.containsKey("otp:code:user@kluniversity.in"));
+    }
+
+    @Test
+    void testSavingANewCodeResetsTheAttempts() {
+        store.save("user@kluniversity.in", "123456");
+        store.verify("user@kluniversity.in", "000000");
+        store.verify("user@kluniversity.in", "000001");
+
+        store.save("user@kluniversity.in", "654321");
+
+        assertFalse(store.verify("user@kluniversity.in", "000002"));
+        assertTrue(store.verify("user@kluniversity.in", "654321"));
+    }
+
+    @Test
+    void testCodeAndAttemptCounterExpire() {
+        store.save("user@kluniversity.in", "123456");
+        store.verify("user@kluniversity.in", "000000");
+        assertEquals(now + Duration.ofMinutes(5).toMillis(), expiresAt.get("otp:attempts:user@kluniversity.in"));
+
+        now += Duration.ofMinutes(5).toMillis();
+
+        assertFalse(store.verify("user@kluniversity.in", "123456"));
+        // The counter started again with its own TTL rather than living on without one
+        assertEquals("1", live("otp:attempts:user@kluniversity.in"));
+        assertNotNull(expiresAt.get("otp:attempts:user@kluniversity.in"));
+    }
+
+    private void put(String key, String value, long ttlMillis) {
+        values.put(key, value);
+        expiresAt.put(key, now + ttlMillis);
+    }
+
+    private String live(String key) {
+        Long expiry = expiresAt.get(key);
+        if (expiry != null && expiry <= now) {
+            values.remove(key);
+            expiresAt.remove(key);
+        }
+        return values.get(key);
+    }
+
+    private boolean delete(String key) {
+        boolean present = live(key) != null;
+        values.remove(key);
+        expiresAt.remove(key);
+        return present;
+    }
+}
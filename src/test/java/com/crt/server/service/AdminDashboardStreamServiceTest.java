@@ -0,0 +1,177 @@
+package com.crt.server.service;
+
+import com.crt.server.config.DashboardStreamConfig;
+import com.crt.server.dto.ActivityLogDTO;
+import com.crt.server.dto.DashboardMetricsDTO;
+import com.crt.server.dto.websocket.DashboardUpdateEvent;
+import com.crt.server.event.DashboardChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AdminDashboardStreamServiceTest {
+
+    // Stands in for Redis: one sequence and one signal channel shared by both nodes
+    private final AtomicLong clusterSequence = new AtomicLong();
+    private final List<Runnable> signalListeners = new ArrayList<>();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node(true);
+        nodeB = new Node(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.stream.shutdown();
+        nodeB.stream.shutdown();
+    }
+
+    @Test
+    void testMetricsAreLoadedBeforeTheFirstRefresh() {
+        when(nodeA.dashboardService.getDashboardMetrics()).thenReturn(metrics(10));
+
+        DashboardMetricsDTO loaded = nodeA.stream.getMetrics();
+
+        assertNotNull(loaded);
+        assertEquals(10L, loaded.getTotalStudents());
+        verify(nodeA.webSocketService, never()).notifyAdminDashboard(any());
+    }
+
+    @Test
+    void testMetricsFailureReachesTheCaller() {
+        when(nodeA.dashboardService.getDashboardMetrics()).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> nodeA.stream.getMetrics());
+    }
+
+    @Test
+    void testOnlyTheLeaderPushesMetricsFromOneClusterSequence() {
+        when(nodeA.dashboardService.getDashboardMetrics()).thenReturn(metrics(10), metrics(11));
+        when(nodeB.dashboardService.getDashboardMetrics()).thenReturn(metrics(10), metrics(11));
+        nodeA.stream.refresh();
+        nodeB.stream.getMetrics();
+        ActivityLogDTO activity = ActivityLogDTO.builder().action("ATTENDANCE_POSTED").build();
+        when(nodeB.activityLogService.getRecentActivities()).thenReturn(List.of(activity));
+
+        nodeB.stream.refresh();
+        nodeA.stream.refresh();
+
+        List<DashboardUpdateEvent> fromA = pushed(nodeA);
+        DashboardUpdateEvent fromB = pushed(nodeB).get(0);
+        // The follower only reports what was logged on it
+        assertTrue(fromB.getMetrics().isEmpty());
+        assertEquals(List.of(activity), fromB.getRecentActions());
+        assertEquals(Map.of("totalStudents", 11L), fromA.get(1).getMetrics());
+        assertEquals(1, fromA.get(0).getSequence());
+        assertEquals(2, fromB.getSequence());
+        assertEquals(3, fromA.get(1).getSequence());
+        // Either node stamps a snapshot with the last sequence sent by any node
+        assertEquals(3, nodeB.stream.snapshot().getSequence());
+    }
+
+    @Test
+    void testNewLeaderResendsEveryMetric() {
+        when(nodeB.dashboardService.getDashboardMetrics()).thenReturn(metrics(10));
+        nodeB.stream.getMetrics();
+        nodeB.stream.refresh();
+        verify(nodeB.webSocketService, never()).notifyAdminDashboard(any());
+
+        nodeB.leader = true;
+        nodeB.stream.refresh();
+
+        // Values the previous leader never pushed reach clients even though nothing changed here
+        assertEquals(7, pushed(nodeB).get(0).getMetrics().size());
+    }
+
+    @Test
+    void testWriteOnOneNodeRefreshesEveryNode() {
+        when(nodeA.dashboardService.getDashboardMetrics()).thenReturn(metrics(10));
+        when(nodeB.dashboardService.getDashboardMetrics()).thenReturn(metrics(10), metrics(11));
+        nodeA.stream.start();
+        nodeB.stream.start();
+        verify(nodeB.dashboardService, timeout(1000)).getDashboardMetrics();
+
+        nodeA.stream.onDashboardChanged(new DashboardChangedEvent(DashboardChangedEvent.Area.STUDENTS));
+
+        verify(nodeB.dashboardService, timeout(1000).times(2)).getDashboardMetrics();
+        assertEquals(11L, nodeB.stream.getMetrics().getTotalStudents());
+    }
+
+    private List<DashboardUpdateEvent> pushed(Node node) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(node.webSocketService, atLeastOnce()).notifyAdminDashboard(captor.capture());
+        return captor.getAllValues().stream().map(DashboardUpdateEvent.class::cast).toList();
+    }
+
+    private DashboardMetricsDTO metrics(long students) {
+        return DashboardMetricsDTO.builder()
+                .totalStudents(students)
+                .totalFaculties(3L)
+                .totalSections(4L)
+                .totalRooms(5L)
+                .totalTimeSlots(6L)
+                .activeStudents(8L)
+                .totalAttendanceRecords(100L)
+                .build();
+    }
+
+    private class Node implements ClusterCoordinator {
+        final DashboardService dashboardService = mock(DashboardService.class);
+        final ActivityLogService activityLogService = mock(ActivityLogService.class);
+        final WebSocketService webSocketService = mock(WebSocketService.class);
+        final AdminDashboardStreamService stream;
+        boolean leader;
+
+        Node(boolean leader) {
+            this.leader = leader;
+            DashboardStreamConfig config = new DashboardStreamConfig();
+            config.setMinInterval(Duration.ofMillis(10));
+            stream = new AdminDashboardStreamService(dashboardService, activityLogService, webSocketService,
+                    config, this);
+        }
+
+        @Override
+        public boolean isLeader() {
+            return leader;
+        }
+
+        @Override
+        public boolean claim(String key, Duration ttl) {
+            return true;
+        }
+
+        @Override
+        public long nextSequence(String name) {
+            return clusterSequence.incrementAndGet();
+        }
+
+        @Override
+        public long currentSequence(String name) {
+            return clusterSequence.get();
+        }
+
+        @Override
+        public void broadcast(String signal) {
+            signalListeners.forEach(Runnable::run);
+        }
+
+        @Override
+        public void subscribe(String signal, Runnable listener) {
+            signalListeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.crt.server.service;
+
+import com.crt.server.config.AttendanceStreamConfig;
+import com.crt.server.dto.websocket.AttendanceDeltaEvent;
+import com.crt.server.dto.websocket.AttendanceSessionEvent;
+import com.crt.server.dto.websocket.AttendanceSessionEvent.StudentAttendanceUpdate;
+import com.crt.server.dto.websocket.WebSocketMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AttendanceStreamServiceTest {
+
+    private WebSocketFanout webSocketFanout;
+    private AttendanceStreamService attendanceStreamService;
+
+    @BeforeEach
+    void setUp() {
+        AttendanceStreamConfig config = new AttendanceStreamConfig();
+        config.setWindow(Duration.ofMillis(50));
+        webSocketFanout = mock(WebSocketFanout.class);
+        attendanceStreamService = new AttendanceStreamService(webSocketFanout, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        attendanceStreamService.shutdown();
+    }
+
+    @Test
+    void testEventsWithinWindowAreSentAsOneDelta() {
+        attendanceStreamService.record("s1", marked(1, 1, update("a", true)));
+        attendanceStreamService.record("s1", marked(2, 0, update("b", true)));
+        attendanceStreamService.record("s1", marked(1, 1, update("b", false)));
+
+        List<AttendanceDeltaEvent> frames = sentFrames(1);
+        AttendanceDeltaEvent delta = frames.get(0);
+        assertEquals(1, delta.getSequence());
+        assertFalse(delta.isSnapshot());
+        assertEquals(2, delta.getStudents().size());
+        assertFalse(delta.getStudents().get(1).isPresent());
+        assertEquals(1, delta.getPresentCount());
+    }
+
+    @Test
+    void testSequenceIncreasesAndUnchangedStateIsNotResent() {
+        attendanceStreamService.record("s1", marked(1, 0, update("a", true)));
+        attendanceStreamService.flush("s1");
+        attendanceStreamService.record("s1", marked(1, 0, update("a", true)));
+        attendanceStreamService.flush("s1");
+        attendanceStreamService.record("s1", marked(2, 0, update("b", true)));
+        attendanceStreamService.flush("s1");
+
+        List<AttendanceDeltaEvent> frames = sentFrames(2);
+        assertEquals(1, frames.get(0).getSequence());
+        assertEquals(2, frames.get(1).getSequence());
+        assertEquals("b", frames.get(1).getStudents().get(0).getStudentId());
+    }
+
+    @Test
+    void testSnapshotCarriesFullStateAndLastSequence() {
+        attendanceStreamService.record("s1", marked(1, 0, update("a", true)));
+        attendanceStreamService.flush("s1");
+        attendanceStreamService.record("s1", marked(2, 0, update("b", true)));
+        attendanceStreamService.flush("s1");
+
+        AttendanceDeltaEvent snapshot = attendanceStreamService.snapshot("s1");
+
+        assertTrue(snapshot.isSnapshot());
+        assertEquals(2, snapshot.getSequence());
+        assertEquals(2, snapshot.getStudents().size());
+        assertEquals(2, snapshot.getPresentCount());
+    }
+
+    @Test
+    void testSnapshotOfUnknownSectionIsEmpty() {
+        AttendanceDeltaEvent snapshot = attendanceStreamService.snapshot("s2");
+
+        assertTrue(snapshot.isSnapshot());
+        assertEquals(0, snapshot.getSequence());
+        assertTrue(snapshot.getStudents().isEmpty());
+        assertThrows(NullPointerException.class, () -> attendanceStreamService.snapshot(null));
+    }
+
+    private List<AttendanceDeltaEvent> sentFrames(int expected) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(webSocketFanout, timeout(1000).times(expected)).send(eq("/topic/section_s1"), captor.capture());
+        return captor.getAllValues().stream()
+                .map(message -> (AttendanceDeltaEvent) ((WebSocketMessage) message).getData())
+                .toList();
+    }
+
+    private AttendanceSessionEvent marked(int present, int absent, StudentAttendanceUpdate update) {
+        return AttendanceSessionEvent.builder()
+                .sectionId("s1")
+                .presentCount(present)
+                .absentCount(absent)
+                .recentUpdates(List.of(update))
+                .build();
+    }
+
+    private StudentAttendanceUpdate update(String studentId, boolean present) {
+        return StudentAttendanceUpdate.builder()
+                .studentId(studentId)
+                .present(present)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.crt.server.service;
+
+import com.crt.server.dto.websocket.FacultySessionEvent;
+import com.crt.server.event.TimetableChangedEvent;
+import com.crt.server.model.Room;
+import com.crt.server.model.RoomType;
+import com.crt.server.repository.TimeSlotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FacultySessionSchedulerServiceTest {
+
+    // Monday 09:00
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 19, 9, 0);
+    private static final Clock CLOCK = Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(),
+            ZoneId.systemDefault());
+
+    private final UUID facultyId = UUID.randomUUID();
+    private final String facultyUsername = "faculty1";
+    private final List<Object[]> slots = new ArrayList<>();
+    // Stands in for Redis: claims shared by every node
+    private final Set<String> claims = ConcurrentHashMap.newKeySet();
+    private final List<FacultySessionSchedulerService> nodes = new ArrayList<>();
+
+    private TimeSlotRepository timeSlotRepository;
+
+    @BeforeEach
+    void setUp() {
+        timeSlotRepository = mock(TimeSlotRepository.class);
+        when(timeSlotRepository.findSessionSlotsByDayOfWeek(any())).thenAnswer(invocation -> List.copyOf(slots));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(FacultySessionSchedulerService::shutdown);
+    }
+
+    @Test
+    void testPlanQueuesOnlyEventsStillAhead() {
+        WebSocketService webSocketService = mock(WebSocketService.class);
+        FacultySessionSchedulerService scheduler = node(webSocketService);
+        // In progress since 08:10: only its end is left
+        slots.add(slot(1, 8 * 60 + 10, 9 * 60 + 40));
+        // Starts in 20 minutes: warning, start and end are all ahead
+        slots.add(slot(2, 9 * 60 + 20, 10 * 60 + 10));
+
+        scheduler.planToday();
+
+        verify(timeSlotRepository).findSessionSlotsByDayOfWeek(DayOfWeek.MONDAY);
+        assertEquals(4, scheduler.getPendingEventCount());
+        assertEquals(1, scheduler.getActiveSessionCount());
+        verifyNoInteractions(webSocketService);
+    }
+
+    @Test
+    void testFiredEventsAreNotSentAgainOnReplan() {
+        WebSocketService webSocketService = mock(WebSocketService.class);
+        FacultySessionSchedulerService scheduler = node(webSocketService);
+        // Starting now, so the start event fires right away
+        slots.add(slot(1, 9 * 60, 9 * 60 + 50));
+
+        scheduler.planToday();
+        verify(webSocketService, timeout(1000)).notifyFacultySessionStarted(eq(facultyUsername), any());
+        scheduler.planToday();
+
+        verify(webSocketService, after(200).times(1)).notifyFacultySessionStarted(any(), any());
+        assertEquals(1, scheduler.getPendingEventCount());
+        assertEquals(1, scheduler.getActiveSessionCount());
+    }
+
+    @Test
+    void testEachEventIsSentByOneNodeOnly() {
+        WebSocketService webSocketA = mock(WebSocketService.class);
+        WebSocketService webSocketB = mock(WebSocketService.class);
+        FacultySessionSchedulerService nodeA = node(webSocketA);
+        FacultySessionSchedulerService nodeB = node(webSocketB);
+        slots.add(slot(1, 9 * 60, 9 * 60 + 50));
+
+        nodeA.planToday();
+        nodeB.planToday();
+
+        ArgumentCaptor<FacultySessionEvent> started = ArgumentCaptor.forClass(FacultySessionEvent.class);
+        verify(webSocketA, after(300).atMost(1)).notifyFacultySessionStarted(any(), started.capture());
+        verify(webSocketB, atMost(1)).notifyFacultySessionStarted(any(), started.capture());
+        assertEquals(1, started.getAllValues().size());
+        assertEquals("STARTING", started.getValue().getStatus());
+        // Both nodes still know the session is running
+        assertEquals(1, nodeA.getActiveSessionCount());
+        assertEquals(1, nodeB.getActiveSessionCount());
+    }
+
+    @Test
+    void testOtherDaysChangesDoNotReplan() {
+        FacultySessionSchedulerService scheduler = node(mock(WebSocketService.class));
+
+        scheduler.onTimetableChanged(new TimetableChangedEvent(DayOfWeek.TUESDAY));
+
+        verify(timeSlotRepository, after(200).never()).findSessionSlotsByDayOfWeek(any());
+    }
+
+    @Test
+    void testChangesForTodayAreReplannedOnce() throws InterruptedException {
+        FacultySessionSchedulerService scheduler = node(mock(WebSocketService.class));
+        scheduler.planToday();
+        slots.add(slot(2, 10 * 60, 10 * 60 + 50));
+
+        // A bulk upload publishes one event per slot
+        scheduler.onTimetableChanged(new TimetableChangedEvent(DayOfWeek.MONDAY));
+        scheduler.onTimetableChanged(new TimetableChangedEvent(null));
+
+        verify(timeSlotRepository, timeout(7000).times(2)).findSessionSlotsByDayOfWeek(any());
+        awaitPendingEvents(scheduler, 3);
+        verify(timeSlotRepository, after(200).times(2)).findSessionSlotsByDayOfWeek(any());
+    }
+
+    private void awaitPendingEvents(FacultySessionSchedulerService scheduler, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (scheduler.getPendingEventCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, scheduler.getPendingEventCount());
+    }
+
+    private FacultySessionSchedulerService node(WebSocketService webSocketService) {
+        ClusterCoordinator coordinator = mock(ClusterCoordinator.class);
+        when(coordinator.claim(anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> claims.add(invocation.getArgument(0)));
+        FacultySessionSchedulerService scheduler =
+                new FacultySessionSchedulerService(timeSlotRepository, webSocketService, coordinator, CLOCK);
+        nodes.add(scheduler);
+        return scheduler;
+    }
+
+    private Object[] slot(int timeSlotId, int startMinute, int endMinute) {
+        Room room = Room.builder().block("A").floor("1").roomNumber("01").roomType(RoomType.LECTURE_ROOM).build();
+        return new Object[]{timeSlotId, startMinute, endMinute, facultyId, UUID.randomUUID(), "CSE-A", room,
+                facultyUsername};
+    }
+}
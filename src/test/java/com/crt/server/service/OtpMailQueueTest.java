@@ -0,0 +1,90 @@
+package com.crt.server.service;
+
+import com.crt.server.config.OtpConfig;
+import com.crt.server.dto.OtpDeliveryStatusDTO;
+import com.crt.server.dto.OtpDeliveryStatusDTO.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OtpMailQueueTest {
+
+    private EmailService emailService;
+    private SimpleMeterRegistry meterRegistry;
+    private OtpMailQueue otpMailQueue;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        OtpConfig config = new OtpConfig();
+        config.setDeliveryWorkers(1);
+        config.setDeliveryRetryDelay(Duration.ofMillis(10));
+        otpMailQueue = new OtpMailQueue(emailService, config, meterRegistry, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        otpMailQueue.shutdown();
+    }
+
+    @Test
+    void testEnqueueDoesNotWaitForSmtp() throws Exception {
+        CountDownLatch smtp = new CountDownLatch(1);
+        doAnswer(invocation -> smtp.await(5, TimeUnit.SECONDS)).when(emailService).sendLoginOtp(anyString(), anyString());
+
+        String dispatchId = otpMailQueue.enqueue("123456", "faculty@klu.in");
+        assertEquals(DeliveryStatus.QUEUED, otpMailQueue.getStatus(dispatchId).getStatus());
+
+        smtp.countDown();
+        OtpDeliveryStatusDTO sent = awaitFinished(dispatchId);
+        assertEquals(DeliveryStatus.SENT, sent.getStatus());
+        assertEquals(1, meterRegistry.get("crt.otp.mail.delivery").tag("outcome", "sent").timer().count());
+    }
+
+    @Test
+    void testFailureIsReportedAfterRetrying() throws Exception {
+        doThrow(new RuntimeException("Failed to send OTP")).when(emailService).sendLoginOtp(anyString(), anyString());
+
+        OtpDeliveryStatusDTO failed = awaitFinished(otpMailQueue.enqueue("123456", "faculty@klu.in"));
+
+        assertEquals(DeliveryStatus.FAILED, failed.getStatus());
+        assertEquals("Failed to send OTP", failed.getError());
+        verify(emailService, times(2)).sendLoginOtp("123456", "faculty@klu.in");
+    }
+
+    @Test
+    void testResentOtpSupersedesQueuedOne() throws Exception {
+        CountDownLatch smtp = new CountDownLatch(1);
+        doAnswer(invocation -> smtp.await(5, TimeUnit.SECONDS)).when(emailService).sendLoginOtp(eq("000000"), anyString());
+
+        // Occupies the only worker so the next two wait in the queue
+        otpMailQueue.enqueue("000000", "other@klu.in");
+        String first = otpMailQueue.enqueue("111111", "faculty@klu.in");
+        String second = otpMailQueue.enqueue("222222", "faculty@klu.in");
+        smtp.countDown();
+
+        assertEquals(DeliveryStatus.SUPERSEDED, awaitFinished(first).getStatus());
+        assertEquals(DeliveryStatus.SENT, awaitFinished(second).getStatus());
+        verify(emailService, never()).sendLoginOtp(eq("111111"), anyString());
+    }
+
+    private OtpDeliveryStatusDTO awaitFinished(String dispatchId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        OtpDeliveryStatusDTO status = otpMailQueue.getStatus(dispatchId);
+        while (status.getStatus() == DeliveryStatus.QUEUED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = otpMailQueue.getStatus(dispatchId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,219 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.BulkJobConfig;
+import com.crt.server.dto.BulkJobDTO;
+import com.crt.server.dto.BulkJobDTO.JobStatus;
+import com.crt.server.exception.ResourceNotFoundException;
+import com.crt.server.model.BulkJobRecord;
+import com.crt.server.repository.BulkJobRepository;
+import com.crt.server.service.BulkJobService;
+import com.crt.server.service.WebSocketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BulkJobServiceImplTest {
+
+    private BulkJobServiceImpl bulkJobService;
+    private WebSocketService webSocketService;
+    private BulkJobRepository bulkJobRepository;
+
+    // Stands in for the bulk_jobs table
+    private final Map<String, BulkJobRecord> table = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        BulkJobConfig config = new BulkJobConfig();
+        config.setWorkers(1);
+        config.setQueueCapacity(1);
+        config.setMaxErrors(2);
+
+        bulkJobRepository = mock(BulkJobRepository.class);
+        when(bulkJobRepository.save(any())).thenAnswer(invocation -> {
+            BulkJobRecord record = invocation.getArgument(0);
+            table.put(record.getId(), record);
+            return record;
+        });
+        when(bulkJobRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        webSocketService = mock(WebSocketService.class);
+
+        bulkJobService = new BulkJobServiceImpl(config, bulkJobRepository, webSocketService,
+                new ObjectMapper().findAndRegisterModules(), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkJobService.shutdown();
+    }
+
+    @Test
+    void testJobReportsProgressAndResult() throws Exception {
+        CountDownLatch reported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BulkJobDTO queued = bulkJobService.submit("TEST", "admin", progress -> {
+            progress.setTotal(5);
+            progress.succeeded(2);
+            reported.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            progress.failed("row 3");
+            progress.failed("row 4");
+            progress.failed("row 5");
+            return List.of("done");
+        });
+
+        assertTrue(reported.await(5, TimeUnit.SECONDS));
+        BulkJobDTO running = awaitStatus(queued.getJobId(), JobStatus.RUNNING);
+        assertEquals(5, running.getTotal());
+        assertEquals(2, running.getProcessed());
+
+        release.countDown();
+        BulkJobDTO done = awaitStatus(queued.getJobId(), JobStatus.COMPLETED);
+        assertEquals(5, done.getProcessed());
+        assertEquals(3, done.getFailed());
+        // Stored errors are capped
+        assertEquals(List.of("row 3", "row 4"), done.getErrors());
+        assertEquals(List.of("done"), done.getResult());
+        assertNotNull(done.getFinishedAt());
+
+        // The finished state is persisted and pushed to the owner
+        BulkJobRecord stored = table.get(queued.getJobId());
+        assertEquals(JobStatus.COMPLETED, stored.getStatus());
+        assertEquals("[\"done\"]", stored.getResult());
+        verify(webSocketService, timeout(1000)).sendToUser(eq("admin"), eq(BulkJobServiceImpl.PROGRESS_EVENT),
+                argThat(dto -> dto instanceof BulkJobDTO job && job.getStatus() == JobStatus.COMPLETED));
+    }
+
+    @Test
+    void testCancelStopsQueuedAndRunningJobs() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BulkJobDTO running = bulkJobService.submit("TEST", "admin", progress -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            progress.checkCancelled();
+            return "unreachable";
+        });
+        BulkJobDTO queued = bulkJobService.submit("TEST", "admin", progress -> "never run");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(JobStatus.CANCELLED, bulkJobService.cancel(queued.getJobId()).getStatus());
+        assertTrue(bulkJobService.cancel(running.getJobId()).isCancelRequested());
+        release.countDown();
+
+        awaitStatus(running.getJobId(), JobStatus.CANCELLED);
+        assertEquals(JobStatus.CANCELLED, bulkJobService.getJob(queued.getJobId()).getStatus());
+        assertThrows(IllegalStateException.class, () -> bulkJobService.cancel(queued.getJobId()));
+        assertThrows(IllegalStateException.class, () -> bulkJobService.getResult(running.getJobId()));
+    }
+
+    @Test
+    void testUploadIsReadableAfterTheRequest() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "rooms.csv", "text/csv",
+                "ROOM\nC101\n".getBytes(StandardCharsets.UTF_8));
+        String[] spooledContent = new String[1];
+
+        BulkJobDTO job = bulkJobService.submitUpload("TEST", "admin", file, (upload, progress) -> {
+            spooledContent[0] = new String(upload.getBytes(), StandardCharsets.UTF_8);
+            return upload.getOriginalFilename();
+        });
+
+        awaitStatus(job.getJobId(), JobStatus.COMPLETED);
+        assertEquals("ROOM\nC101\n", spooledContent[0]);
+        assertEquals("rooms.csv", bulkJobService.getResult(job.getJobId()));
+    }
+
+    @Test
+    void testPersistedJobIsReadableAfterRestart() {
+        table.put("old-job", BulkJobRecord.builder()
+                .id("old-job")
+                .type("TEST")
+                .owner("admin")
+                .status(JobStatus.COMPLETED)
+                .succeeded(2)
+                .failed(1)
+                .errors("row 3")
+                .result("{\"created\":2}")
+                .build());
+
+        BulkJobDTO job = bulkJobService.getJob("old-job");
+        assertEquals(3, job.getProcessed());
+        assertEquals(List.of("row 3"), job.getErrors());
+        assertEquals(2, ((com.fasterxml.jackson.databind.JsonNode) bulkJobService.getResult("old-job")).get("created").asInt());
+    }
+
+    @Test
+    void testFailedJobKeepsItsError() throws Exception {
+        BulkJobDTO job = bulkJobService.submit("TEST", "admin", progress -> {
+            throw new IllegalStateException("file unreadable");
+        });
+
+        BulkJobDTO failed = awaitStatus(job.getJobId(), JobStatus.FAILED);
+        assertEquals(List.of("file unreadable"), failed.getErrors());
+    }
+
+    @Test
+    void testOnlyJobsWithAStaleHeartbeatAreFailed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            BulkJobDTO job = bulkJobService.submit("TEST", "admin", progress -> release.await(5, TimeUnit.SECONDS));
+            BulkJobRecord record = table.get(job.getJobId());
+            assertNotNull(record.getNodeId());
+            assertNotNull(record.getHeartbeatAt());
+
+            bulkJobService.failInterruptedJobs();
+
+            // This node keeps its own jobs alive before failing the ones nobody refreshed
+            ArgumentCaptor<LocalDateTime> refreshedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+            ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+            var order = inOrder(bulkJobRepository);
+            order.verify(bulkJobRepository).touchHeartbeat(eq(record.getNodeId()), anyCollection(), refreshedAt.capture());
+            order.verify(bulkJobRepository).markInterrupted(anyCollection(), eq(JobStatus.FAILED), anyString(),
+                    any(), staleBefore.capture());
+            assertEquals(refreshedAt.getValue().minusMinutes(5), staleBefore.getValue());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testFullQueueRejectsNewJobs() {
+        CountDownLatch release = new CountDownLatch(1);
+        BulkJobService.BulkJob blocking = progress -> release.await(5, TimeUnit.SECONDS);
+        try {
+            bulkJobService.submit("TEST", "admin", blocking);
+            bulkJobService.submit("TEST", "admin", blocking);
+            assertThrows(IllegalStateException.class, () -> bulkJobService.submit("TEST", "admin", blocking));
+        } finally {
+            release.countDown();
+        }
+        assertThrows(ResourceNotFoundException.class, () -> bulkJobService.getJob("unknown"));
+    }
+
+    private BulkJobDTO awaitStatus(String jobId, JobStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        BulkJobDTO job = bulkJobService.getJob(jobId);
+        while (job.getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = bulkJobService.getJob(jobId);
+        }
+        assertEquals(status, job.getStatus());
+        return job;
+    }
+}
@@ -0,0 +1,60 @@
+package com.crt.server.service.impl;
+
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvServiceImplTest {
+
+    private final CsvServiceImpl csvService = new CsvServiceImpl();
+
+    @Test
+    void testChunksAreHandedOverInFileOrder() throws Exception {
+        MockMultipartFile file = csv("NAME,SN\nA,a\nB,b\nC,c\nD,d\nE,e\n");
+        List<List<String>> chunks = new ArrayList<>();
+
+        csvService.parseCsvInChunks(file, new String[]{"NAME", "SN"}, 2,
+                chunk -> chunks.add(chunk.stream().map(record -> record.get("NAME")).toList()));
+
+        assertEquals(List.of(List.of("A", "B"), List.of("C", "D"), List.of("E")), chunks);
+    }
+
+    @Test
+    void testStreamReadsLazilyAndClosesTheUpload() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        byte[] content = "TITLE\nDAY,SECTIONS\nMONDAY,S1\n".getBytes(StandardCharsets.UTF_8);
+        MockMultipartFile file = new MockMultipartFile("file", "timetable.csv", "text/csv", content) {
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(content) {
+                    @Override
+                    public void close() {
+                        closed.set(true);
+                    }
+                };
+            }
+        };
+
+        try (Stream<CSVRecord> records = csvService.streamCsvWithoutHeaders(file)) {
+            Iterator<CSVRecord> iterator = records.iterator();
+            assertEquals("TITLE", iterator.next().get(0));
+            assertFalse(closed.get());
+        }
+        assertTrue(closed.get());
+    }
+
+    private MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "data.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
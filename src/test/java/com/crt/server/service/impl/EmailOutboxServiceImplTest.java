@@ -0,0 +1,182 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.EmailOutboxConfig;
+import com.crt.server.model.EmailOutboxMessage;
+import com.crt.server.model.OutboxStatus;
+import com.crt.server.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class EmailOutboxServiceImplTest {
+
+    private EmailOutboxRepository emailOutboxRepository;
+    private JavaMailSender mailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository = mock(EmailOutboxRepository.class);
+        mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+        meterRegistry = new SimpleMeterRegistry();
+
+        EmailOutboxConfig config = new EmailOutboxConfig();
+        config.setMaxAttempts(3);
+        config.setInitialBackoff(Duration.ofSeconds(30));
+        config.setMaxBackoff(Duration.ofMinutes(1));
+        outboxService = new EmailOutboxServiceImpl(emailOutboxRepository, mock(EntityManager.class), mailSender, config, meterRegistry, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchIsStoredOncePerRecipient() {
+        String batchId = outboxService.enqueueBatch("Notice", "<p>Hi</p>", List.of("a@klu.in", " a@klu.in", "b@klu.in", ""));
+
+        ArgumentCaptor<List<EmailOutboxMessage>> saved = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        assertTrue(saved.getValue().stream().allMatch(message ->
+                message.getBatchId().equals(batchId) && message.getStatus() == OutboxStatus.PENDING));
+        assertEquals(2, meterRegistry.get("crt.email.outbox.pending").gauge().value());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void testBatchSharesOneSendAndRetriesOnlyFailedMessages() {
+        List<EmailOutboxMessage> batch = claim(message("a@klu.in", 0), message("b@klu.in", 0), message("c@klu.in", 2));
+        doAnswer(invocation -> {
+            MimeMessage[] sent = (MimeMessage[]) invocation.getRawArguments()[0];
+            Map<Object, Exception> failed = new HashMap<>();
+            for (MimeMessage mime : sent) {
+                String to = mime.getRecipients(Message.RecipientType.TO)[0].toString();
+                if (!to.equals("a@klu.in")) {
+                    failed.put(mime, new IllegalStateException("550 mailbox unavailable"));
+                }
+            }
+            throw new MailSendException(failed);
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(3, outboxService.deliverNextBatch());
+
+        // One SMTP session for the whole batch
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+
+        EmailOutboxMessage delivered = batch.get(0);
+        assertEquals(OutboxStatus.SENT, delivered.getStatus());
+        assertNull(delivered.getClaimToken());
+
+        EmailOutboxMessage retried = batch.get(1);
+        assertEquals(OutboxStatus.PENDING, retried.getStatus());
+        assertEquals(1, retried.getAttempts());
+        assertFalse(retried.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        assertEquals("550 mailbox unavailable", retried.getLastError());
+
+        // Third attempt was the last one allowed
+        assertEquals(OutboxStatus.FAILED, batch.get(2).getStatus());
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(emailOutboxRepository).claimDue(token.capture(), any(), anyInt());
+        verify(emailOutboxRepository).markSent(eq(token.getValue()), eq(List.of(delivered.getId())), any());
+        verify(emailOutboxRepository).markFailed(eq(token.getValue()), eq(retried.getId()), eq(OutboxStatus.PENDING),
+                eq(1), any(), eq("550 mailbox unavailable"));
+        verify(emailOutboxRepository).markFailed(eq(token.getValue()), eq(batch.get(2).getId()), eq(OutboxStatus.FAILED),
+                eq(3), any(), any());
+        assertEquals(1, meterRegistry.get("crt.email.outbox.sent").counter().count());
+        assertEquals(1, meterRegistry.get("crt.email.outbox.failures").tag("outcome", "retry").counter().count());
+        assertEquals(1, meterRegistry.get("crt.email.outbox.failures").tag("outcome", "dropped").counter().count());
+    }
+
+    @Test
+    void testResultsOfAReleasedClaimAreNotWritten() {
+        claim(message("a@klu.in", 0), message("b@klu.in", 0));
+        doThrow(new MailSendException(Map.of())).when(mailSender).send(any(MimeMessage[].class));
+        // The send outlived the claim timeout and another worker claimed the messages again
+        when(emailOutboxRepository.markFailed(anyString(), any(), any(), anyInt(), any(), any())).thenReturn(0);
+
+        assertEquals(2, outboxService.deliverNextBatch());
+
+        assertEquals(0, meterRegistry.get("crt.email.outbox.failures").tag("outcome", "retry").counter().count());
+        verify(emailOutboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testDeliveryAfterLosingTheClaimIsNotCountedAsSent() {
+        claim(message("a@klu.in", 0));
+        when(emailOutboxRepository.markSent(anyString(), anyList(), any())).thenReturn(0);
+
+        assertEquals(1, outboxService.deliverNextBatch());
+
+        verify(emailOutboxRepository).markSent(anyString(), anyList(), any());
+        assertEquals(0, meterRegistry.get("crt.email.outbox.sent").counter().count());
+    }
+
+    @Test
+    void testBackoffDoublesUpToTheCap() {
+        assertEquals(Duration.ofSeconds(30), outboxService.backoff(1));
+        assertEquals(Duration.ofSeconds(60), outboxService.backoff(2));
+        assertEquals(Duration.ofMinutes(1), outboxService.backoff(5));
+    }
+
+    @Test
+    void testNothingDueSendsNothing() {
+        when(emailOutboxRepository.claimDue(anyString(), any(), anyInt())).thenReturn(0);
+
+        assertEquals(0, outboxService.deliverNextBatch());
+        verify(emailOutboxRepository, never()).findByClaimToken(anyString());
+        verifyNoInteractions(mailSender);
+    }
+
+    private List<EmailOutboxMessage> claim(EmailOutboxMessage... messages) {
+        List<EmailOutboxMessage> batch = new ArrayList<>(List.of(messages));
+        when(emailOutboxRepository.claimDue(anyString(), any(), anyInt())).thenReturn(batch.size());
+        when(emailOutboxRepository.findByClaimToken(anyString())).thenReturn(batch);
+        when(emailOutboxRepository.markSent(anyString(), anyList(), any()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).size());
+        when(emailOutboxRepository.markFailed(anyString(), any(), any(), anyInt(), any(), any())).thenReturn(1);
+        return batch;
+    }
+
+    private EmailOutboxMessage message(String recipient, int attempts) {
+        return EmailOutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .batchId("batch-1")
+                .recipient(recipient)
+                .subject("Notice")
+                .body("<p>Hi</p>")
+                .status(OutboxStatus.SENDING)
+                .attempts(attempts)
+                .claimToken("token")
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -18,7 +18,6 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.lang.reflect.Method;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -78,41 +77,6 @@ public class FacultyAttendanceServiceImplTest {
         attendanceSession.setSubmissionStatus(SubmissionStatus.ON_TIME);
     }
 
-    @Test
-    void testParseTimeString() throws Exception {
-        // Get the private method using reflection
-        Method parseTimeStringMethod = FacultyAttendanceServiceImpl.class.getDeclaredMethod("parseTimeString", String.class);
-        parseTimeStringMethod.setAccessible(true);
-
-        // Standard format
-        assertEquals(LocalTime.of(14, 30), parseTimeStringMethod.invoke(facultyAttendanceService, "14:30"));
-        
-        // Single-digit hour
-        assertEquals(LocalTime.of(9, 45), parseTimeStringMethod.invoke(facultyAttendanceService, "9:45"));
-        
-        // Hours only
-        assertEquals(LocalTime.of(14, 0), parseTimeStringMethod.invoke(facultyAttendanceService, "14"));
-        
-        // With whitespace
-        assertEquals(LocalTime.of(14, 30), parseTimeStringMethod.invoke(facultyAttendanceService, " 14:30 "));
-    }
-
-    @Test
-    void testParseTimeStringInvalidFormat() throws Exception {
-        // Get the private method using reflection
-        Method parseTimeStringMethod = FacultyAttendanceServiceImpl.class.getDeclaredMethod("parseTimeString", String.class);
-        parseTimeStringMethod.setAccessible(true);
-
-        // Test invalid format
-        assertThrows(Exception.class, () -> parseTimeStringMethod.invoke(facultyAttendanceService, "14:30:45"));
-        
-        // Test empty string
-        assertThrows(Exception.class, () -> parseTimeStringMethod.invoke(facultyAttendanceService, ""));
-        
-        // Test null
-        assertThrows(Exception.class, () -> parseTimeStringMethod.invoke(facultyAttendanceService, (Object)null));
-    }
-
     @Test
     void testDetermineSubmissionStatus() throws Exception {
         // Get the private method using reflection
@@ -121,7 +85,7 @@ public class FacultyAttendanceServiceImplTest {
 
         // Create a time slot with end time in the past
         TimeSlot pastTimeSlot = new TimeSlot();
-        pastTimeSlot.setEndTime("00:00"); // Midnight, should be in the past most of the time
+        pastTimeSlot.setEndMinute(0); // Midnight, should be in the past most of the time
 
         // Create a time slot with end time in the future
         TimeSlot futureTimeSlot = new TimeSlot();
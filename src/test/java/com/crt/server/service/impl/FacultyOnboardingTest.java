@@ -0,0 +1,130 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.dto.UserDTO;
+import com.crt.server.model.User;
+import com.crt.server.repository.UserRepository;
+import com.crt.server.service.BulkJobService;
+import com.crt.server.service.BulkJobService.BulkJob;
+import com.crt.server.service.BulkJobService.BulkJobProgress;
+import com.crt.server.service.CredentialMailQueue;
+import com.crt.server.service.PasswordHashingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FacultyOnboardingTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private CredentialMailQueue credentialMailQueue;
+
+    @Mock
+    private BulkJobService bulkJobService;
+
+    @Spy
+    private CsvServiceImpl csvService = new CsvServiceImpl();
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        // Onboarding writes the generated credentials next to the working directory
+        Files.deleteIfExists(Path.of("y23-fac-creds.md"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFacultiesAreInsertedInChunksAndEachGetsACredentialEmail() throws Exception {
+        StringBuilder csv = new StringBuilder("Empl Id,Employee Name,Designation,DEPT,KLU Mails,Contact No\n");
+        for (int i = 0; i < 250; i++) {
+            csv.append("E").append(i).append(",Faculty ").append(i).append(",Professor,CSE,fac")
+                    .append(i).append("@kluniversity.in,90000").append(i).append('\n');
+        }
+        // Clashes with an existing account
+        csv.append("E999,Existing,Professor,CSE,existing@kluniversity.in,9000099999\n");
+        MockMultipartFile file = new MockMultipartFile("file", "faculty.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        when(userRepository.findExistingCredentials(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"existing", "existing@kluniversity.in"}));
+        when(passwordHashingService.encodeAll(anyList())).thenAnswer(invocation ->
+                ((List<String>) invocation.getArgument(0)).stream().map(password -> "hash").toList());
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(UUID.randomUUID()));
+            return users;
+        });
+        ArgumentCaptor<BulkJob> job = ArgumentCaptor.forClass(BulkJob.class);
+        when(bulkJobService.submit(eq("FACULTY_ONBOARDING"), anyString(), job.capture())).thenReturn(null);
+
+        userService.startFacultyOnboarding(file);
+        RecordingProgress progress = new RecordingProgress();
+        List<UserDTO> created = (List<UserDTO>) job.getValue().run(progress);
+
+        // 250 new accounts in chunks of 100, after one lookup for clashes
+        ArgumentCaptor<List<User>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(3)).saveAll(chunks.capture());
+        assertEquals(List.of(100, 100, 50), chunks.getAllValues().stream().map(List::size).toList());
+        verify(userRepository, times(1)).findExistingCredentials(anyCollection(), anyCollection());
+        verify(passwordHashingService, times(3)).encodeAll(anyList());
+
+        assertEquals(251, progress.total);
+        assertEquals(250, progress.succeeded);
+        assertEquals(1, progress.errors.size());
+        assertTrue(progress.errors.get(0).contains("existing"));
+
+        assertEquals(250, created.size());
+        verify(credentialMailQueue, times(250)).enqueue(anyString(), anyString(), anyString());
+        verify(credentialMailQueue, never()).enqueue(eq("existing@kluniversity.in"), anyString(), anyString());
+    }
+
+    private static class RecordingProgress implements BulkJobProgress {
+        private int total;
+        private int succeeded;
+        private final List<String> errors = new ArrayList<>();
+
+        @Override
+        public void setTotal(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public void succeeded(int count) {
+            succeeded += count;
+        }
+
+        @Override
+        public void failed(String error) {
+            errors.add(error);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    }
+}
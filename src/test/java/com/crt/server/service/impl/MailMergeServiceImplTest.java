@@ -0,0 +1,113 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.dto.MailMergeRequestDTO;
+import com.crt.server.dto.MailRecipientDTO;
+import com.crt.server.repository.StudentRepository;
+import com.crt.server.service.EmailOutboxService;
+import com.crt.server.util.MailTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class MailMergeServiceImplTest {
+
+    private StudentRepository studentRepository;
+    private EmailOutboxService emailOutboxService;
+    private MailMergeServiceImpl mailMergeService;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = mock(StudentRepository.class);
+        emailOutboxService = mock(EmailOutboxService.class);
+        mailMergeService = new MailMergeServiceImpl(studentRepository, emailOutboxService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecipientsArePulledPageByPageWhileRendering() {
+        UUID sectionId = UUID.randomUUID();
+        List<MailRecipientDTO> firstPage = recipients(0, MailMergeServiceImpl.RECIPIENT_PAGE_SIZE);
+        List<MailRecipientDTO> lastPage = recipients(MailMergeServiceImpl.RECIPIENT_PAGE_SIZE, 2);
+        when(studentRepository.findMailRecipients(eq(sectionId), eq(75.0), eq(""), any())).thenReturn(firstPage);
+        when(studentRepository.findMailRecipients(eq(sectionId), eq(75.0), eq(firstPage.get(firstPage.size() - 1).getRegNum()), any()))
+                .thenReturn(lastPage);
+
+        List<String> bodies = new ArrayList<>();
+        when(emailOutboxService.enqueueMerge(any(), any(), any())).thenAnswer(invocation -> {
+            MailTemplate body = invocation.getArgument(1);
+            Iterator<MailRecipientDTO> iterator = invocation.getArgument(2);
+            // Nothing is read before the outbox starts consuming
+            verifyNoInteractions(studentRepository);
+            iterator.forEachRemaining(recipient -> bodies.add(body.render(recipient)));
+            return "batch-1";
+        });
+
+        String batchId = mailMergeService.sendMerge(MailMergeRequestDTO.builder()
+                .subject("Attendance alert for {{regNum}}")
+                .body("Dear {{name}}, your attendance in {{section}} is {{attendance}}%")
+                .sectionId(sectionId)
+                .attendanceBelow(75.0)
+                .build());
+
+        assertEquals("batch-1", batchId);
+        assertEquals(MailMergeServiceImpl.RECIPIENT_PAGE_SIZE + 2, bodies.size());
+        assertEquals("Dear Student 0, your attendance in S1 is 60.0%", bodies.get(0));
+        verify(studentRepository, times(2)).findMailRecipients(any(), any(), anyString(), any());
+    }
+
+    @Test
+    void testSubjectIsPlainTextAndBodyIsEscaped() {
+        MailRecipientDTO recipient = MailRecipientDTO.builder().name("O'Brien").email("ob@klu.in").regNum("1").build();
+        when(studentRepository.findMailRecipients(any(), any(), eq(""), any())).thenReturn(List.of(recipient));
+        List<String> rendered = new ArrayList<>();
+        when(emailOutboxService.enqueueMerge(any(), any(), any())).thenAnswer(invocation -> {
+            MailTemplate subject = invocation.getArgument(0);
+            MailTemplate body = invocation.getArgument(1);
+            Iterator<MailRecipientDTO> iterator = invocation.getArgument(2);
+            iterator.forEachRemaining(r -> {
+                rendered.add(subject.render(r));
+                rendered.add(body.render(r));
+            });
+            return "batch-2";
+        });
+
+        mailMergeService.sendMerge(MailMergeRequestDTO.builder()
+                .subject("Hello {{name}}")
+                .body("<p>Dear {{name}}</p>")
+                .build());
+
+        assertEquals(List.of("Hello O'Brien", "<p>Dear O&#39;Brien</p>"), rendered);
+    }
+
+    @Test
+    void testUnknownVariableIsRejectedBeforeQuerying() {
+        MailMergeRequestDTO request = MailMergeRequestDTO.builder()
+                .subject("Hello")
+                .body("Your password is {{password}}")
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> mailMergeService.sendMerge(request));
+        verifyNoInteractions(studentRepository, emailOutboxService);
+    }
+
+    private List<MailRecipientDTO> recipients(int from, int count) {
+        return IntStream.range(from, from + count)
+                .mapToObj(i -> MailRecipientDTO.builder()
+                        .name("Student " + i)
+                        .email("s" + i + "@klu.in")
+                        .regNum(String.format("2300%05d", i))
+                        .attendancePercentage(60.0)
+                        .sectionName("S1")
+                        .build())
+                .toList();
+    }
+}
@@ -3,17 +3,20 @@ package com.crt.server.service.impl;
 import com.crt.server.dto.BulkAttendanceDTO;
 import com.crt.server.dto.BulkAttendanceResponseDTO;
 import com.crt.server.dto.StudentAttendanceDTO;
+import com.crt.server.event.AttendanceMarkedEvent;
 import com.crt.server.model.*;
 import com.crt.server.repository.*;
 import com.crt.server.util.DateTimeUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -41,6 +44,9 @@ public class ParallelProcessingTest {
     @Mock
     private AttendanceArchiveRepository attendanceArchiveRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AttendanceServiceImpl attendanceService;
 
@@ -128,4 +134,27 @@ public class ParallelProcessingTest {
             verify(attendanceRepository, atLeastOnce()).saveAll(anyList());
         }
     }
+
+    @Test
+    void testMarkingPublishesTheMarksForTheSectionStream() {
+        when(timeSlotRepository.findById(anyInt())).thenReturn(Optional.of(timeSlot));
+        when(sectionRepository.findById(any(UUID.class))).thenReturn(Optional.of(section));
+        when(attendanceRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (MockedStatic<DateTimeUtil> mockedStatic = Mockito.mockStatic(DateTimeUtil.class)) {
+            mockedStatic.when(() -> DateTimeUtil.parseDateTime(anyString())).thenReturn(testDateTime);
+            attendanceService.markBulkAttendance(bulkAttendanceDTO);
+        }
+
+        ArgumentCaptor<AttendanceMarkedEvent> published = ArgumentCaptor.forClass(AttendanceMarkedEvent.class);
+        verify(eventPublisher).publishEvent(published.capture());
+        AttendanceMarkedEvent event = published.getValue();
+        assertEquals(section.getId().toString(), event.getSectionId());
+        // Two absent and two late students
+        assertEquals(4, event.getMarked().getRecentUpdates().size());
+        assertEquals(2, event.getMarked().getRecentUpdates().stream().filter(update -> !update.isPresent()).count());
+        assertEquals(10, event.getStats().getTotalStudents());
+        assertEquals(2, event.getStats().getAbsentCount());
+        assertEquals(8, event.getStats().getPresentCount());
+    }
 }
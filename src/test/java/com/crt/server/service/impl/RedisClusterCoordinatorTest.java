@@ -0,0 +1,88 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.ClusterConfig;
+import com.crt.server.config.WebSocketFanoutConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RedisClusterCoordinatorTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final List<String> channel = new ArrayList<>();
+    // Stands in for the lease key
+    private String leaseOwner;
+
+    private RedisClusterCoordinator nodeA;
+    private RedisClusterCoordinator nodeB;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(redis.convertAndSend(anyString(), anyString())).thenAnswer(invocation -> {
+            channel.add(invocation.getArgument(1));
+            return 1L;
+        });
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            String node = invocation.getArgument(2);
+            if (leaseOwner == null) {
+                leaseOwner = node;
+            }
+            return leaseOwner.equals(node) ? 1L : 0L;
+        });
+        nodeA = new RedisClusterCoordinator(redis, new ClusterConfig(), nodeConfig("node-a"));
+        nodeB = new RedisClusterCoordinator(redis, new ClusterConfig(), nodeConfig("node-b"));
+    }
+
+    @Test
+    void testOnlyOneNodeLeads() {
+        assertTrue(nodeA.isLeader());
+        assertFalse(nodeB.isLeader());
+
+        // A lease that ran out in Redis goes to whichever node asks next
+        leaseOwner = null;
+        nodeB.renewLeadership();
+        nodeA.renewLeadership();
+
+        assertTrue(nodeB.isLeader());
+        assertFalse(nodeA.isLeader());
+    }
+
+    @Test
+    void testSignalRunsListenersOnEveryNodeOnce() {
+        AtomicInteger runsA = new AtomicInteger();
+        AtomicInteger runsB = new AtomicInteger();
+        nodeA.subscribe("changed", runsA::incrementAndGet);
+        nodeB.subscribe("changed", runsB::incrementAndGet);
+
+        nodeA.broadcast("changed");
+        assertEquals(1, channel.size());
+        deliverToAllNodes(channel.get(0));
+
+        assertEquals(1, runsA.get());
+        assertEquals(1, runsB.get());
+    }
+
+    private void deliverToAllNodes(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        nodeA.onMessage(new DefaultMessage("crt:cluster:signals".getBytes(StandardCharsets.UTF_8), bytes), null);
+        nodeB.onMessage(new DefaultMessage("crt:cluster:signals".getBytes(StandardCharsets.UTF_8), bytes), null);
+    }
+
+    private WebSocketFanoutConfig nodeConfig(String nodeId) {
+        WebSocketFanoutConfig config = new WebSocketFanoutConfig();
+        config.setNodeId(nodeId);
+        return config;
+    }
+}
@@ -0,0 +1,122 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.WebSocketFanoutConfig;
+import com.crt.server.config.WebSocketTransportConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RedisWebSocketFanoutTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    // Stands in for the Redis channel: every published message is captured here
+    private final List<String> channel = new ArrayList<>();
+
+    // Frames each node handed to its local broker
+    private final List<Message<?>> brokerA = new ArrayList<>();
+    private final List<Message<?>> brokerB = new ArrayList<>();
+
+    private RedisWebSocketFanout nodeA;
+    private RedisWebSocketFanout nodeB;
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        when(redis.convertAndSend(anyString(), anyString())).thenAnswer(invocation -> {
+            channel.add(invocation.getArgument(1));
+            return 1L;
+        });
+
+        nodeA = new RedisWebSocketFanout(frameSender(brokerA), redis, objectMapper, nodeConfig("node-a"));
+        nodeB = new RedisWebSocketFanout(frameSender(brokerB), redis, objectMapper, nodeConfig("node-b"));
+    }
+
+    @Test
+    void testTopicMessageReachesEveryNodeOnce() {
+        nodeA.send("/topic/section_1", Map.of("event", "attendance_stats_updated"));
+
+        assertEquals(1, channel.size());
+        deliverToAllNodes(channel.get(0));
+
+        assertEquals(1, brokerA.size());
+        assertEquals(1, brokerB.size());
+        assertEquals("/topic/section_1", destination(brokerB.get(0)));
+        assertEquals("{\"event\":\"attendance_stats_updated\"}", body(brokerB.get(0)));
+    }
+
+    @Test
+    void testUserMessageIsRoutedToUserDestinationOnRemoteNode() {
+        nodeA.sendToUser("faculty-1", "/queue/messages", Map.of("event", "faculty_session_started"));
+        deliverToAllNodes(channel.get(0));
+
+        assertEquals("/user/faculty-1/queue/messages", destination(brokerA.get(0)));
+        assertEquals(1, brokerB.size());
+        assertEquals("/user/faculty-1/queue/messages", destination(brokerB.get(0)));
+    }
+
+    @Test
+    void testMultiUserSendSharesOneFrameAndOnePublish() {
+        nodeA.sendToUsers(List.of("f1", "f2", "f3"), "/queue/messages", Map.of("event", "notice"));
+
+        assertEquals(1, channel.size());
+        assertEquals(3, brokerA.size());
+        assertSame(brokerA.get(0).getPayload(), brokerA.get(2).getPayload());
+
+        nodeB.handleEnvelope(channel.get(0));
+        assertEquals(3, brokerB.size());
+        assertEquals("/user/f3/queue/messages", destination(brokerB.get(2)));
+    }
+
+    @Test
+    void testRedeliveredMessageIsDroppedPerNode() {
+        nodeA.send("/topic/all_faculty", Map.of("event", "notice"));
+        String published = channel.get(0);
+
+        nodeB.handleEnvelope(published);
+        nodeB.handleEnvelope(published);
+
+        assertEquals(1, brokerB.size());
+        assertEquals(1, nodeB.getDuplicatesDropped());
+    }
+
+    private void deliverToAllNodes(String json) {
+        nodeA.handleEnvelope(json);
+        nodeB.handleEnvelope(json);
+    }
+
+    private WebSocketFrameSender frameSender(List<Message<?>> broker) {
+        MessageChannel brokerChannel = mock(MessageChannel.class);
+        when(brokerChannel.send(any())).thenAnswer(invocation -> broker.add(invocation.getArgument(0)));
+        return new WebSocketFrameSender(new SimpMessagingTemplate(brokerChannel), objectMapper, new WebSocketTransportConfig());
+    }
+
+    private String destination(Message<?> message) {
+        return SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private String body(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private WebSocketFanoutConfig nodeConfig(String nodeId) {
+        WebSocketFanoutConfig config = new WebSocketFanoutConfig();
+        config.setMode("redis");
+        config.setNodeId(nodeId);
+        return config;
+    }
+}
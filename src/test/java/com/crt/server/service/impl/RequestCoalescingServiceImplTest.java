@@ -0,0 +1,104 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.CoalescingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescingServiceImplTest {
+
+    private CoalescingConfig coalescingConfig;
+    private RequestCoalescingServiceImpl requestCoalescingService;
+
+    @BeforeEach
+    void setUp() {
+        coalescingConfig = new CoalescingConfig();
+        coalescingConfig.setTtl(Duration.ofSeconds(5));
+        requestCoalescingService = new RequestCoalescingServiceImpl(coalescingConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testConcurrentCallsShareOneComputation() throws Exception {
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> requestCoalescingService.coalesce("metrics", "all", () -> {
+                    invocations.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "result";
+                })));
+            }
+
+            // Give every caller a chance to attach to the in-flight computation
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> future : futures) {
+                assertEquals("result", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, invocations.get());
+        assertEquals(7L, requestCoalescingService.getCollapsedCounts().get("metrics"));
+        assertEquals(1L, requestCoalescingService.getExecutedCounts().get("metrics"));
+    }
+
+    @Test
+    void testDifferentKeysAreComputedSeparately() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        requestCoalescingService.coalesce("filter", "2026-01-05|*|*", invocations::incrementAndGet);
+        requestCoalescingService.coalesce("filter", "2026-01-06|*|*", invocations::incrementAndGet);
+
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    void testFailuresAreNotShared() {
+        AtomicInteger invocations = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> requestCoalescingService.coalesce("pending", "key", () -> {
+            invocations.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", requestCoalescingService.coalesce("pending", "key", () -> {
+            invocations.incrementAndGet();
+            return "ok";
+        }));
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    void testDisabledAlwaysComputes() {
+        coalescingConfig.setEnabled(false);
+        AtomicInteger invocations = new AtomicInteger();
+
+        requestCoalescingService.coalesce("metrics", "all", invocations::incrementAndGet);
+        requestCoalescingService.coalesce("metrics", "all", invocations::incrementAndGet);
+
+        assertEquals(2, invocations.get());
+    }
+}
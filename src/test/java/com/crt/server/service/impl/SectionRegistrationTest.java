@@ -0,0 +1,88 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.dto.TrainingDTO;
+import com.crt.server.model.Section;
+import com.crt.server.model.Training;
+import com.crt.server.repository.SectionRepository;
+import com.crt.server.repository.StudentRepository;
+import com.crt.server.service.TrainingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SectionRegistrationTest {
+
+    @Mock
+    private SectionRepository sectionRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private TrainingService trainingService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache rosterCache;
+
+    @InjectMocks
+    private SectionServiceImpl sectionService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMovingThreeThousandStudentsTakesAFewStatements() {
+        UUID targetId = UUID.randomUUID();
+        UUID previousId = UUID.randomUUID();
+        Section target = Section.builder().id(targetId).name("S1")
+                .training(Training.builder().id(UUID.randomUUID()).build()).strength(0).capacity(3000).build();
+        List<String> regNums = IntStream.range(0, 3000).mapToObj(i -> "22000" + i).toList();
+
+        when(sectionRepository.findById(targetId)).thenReturn(Optional.of(target));
+        when(studentRepository.findSectionAssignments(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> chunk = invocation.getArgument(0);
+            return chunk.stream().map(regNum -> new Object[]{regNum, previousId}).toList();
+        });
+        when(cacheManager.getCache("studentsBySection")).thenReturn(rosterCache);
+        when(trainingService.getTrainingById(any())).thenReturn(new TrainingDTO());
+
+        sectionService.registerStudents(targetId, regNums);
+
+        verify(studentRepository, times(3)).findSectionAssignments(anyCollection());
+        verify(studentRepository, times(3)).assignSection(eq(target), anyCollection());
+        verify(studentRepository, never()).save(any());
+        verify(sectionRepository, times(1)).refreshStrengths(argThat(ids -> ((Collection<UUID>) ids)
+                .containsAll(Set.of(targetId, previousId))));
+        verify(rosterCache).evict(targetId);
+        verify(rosterCache).evict(previousId);
+        verify(rosterCache, never()).clear();
+    }
+
+    @Test
+    void testUnknownStudentsAbortBeforeAnyUpdate() {
+        UUID targetId = UUID.randomUUID();
+        when(sectionRepository.findById(targetId)).thenReturn(Optional.of(Section.builder().id(targetId).build()));
+        when(studentRepository.findSectionAssignments(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{"A1", null}));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> sectionService.registerStudents(targetId, List.of("A1", "B2")));
+
+        assertEquals("Some students not found: B2", error.getMessage());
+        verify(studentRepository, never()).assignSection(any(), anyCollection());
+        verify(sectionRepository, never()).refreshStrengths(anyCollection());
+    }
+}
@@ -0,0 +1,78 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.dto.StudentImportReportDTO;
+import com.crt.server.dto.StudentImportReportDTO.RowStatus;
+import com.crt.server.model.Section;
+import com.crt.server.model.Student;
+import com.crt.server.repository.AttendanceRepository;
+import com.crt.server.repository.SectionRepository;
+import com.crt.server.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class StudentImportTest {
+
+    private StudentRepository studentRepository;
+    private StudentServiceImpl studentService;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = mock(StudentRepository.class);
+        SectionRepository sectionRepository = mock(SectionRepository.class);
+        Section section = new Section();
+        section.setId(UUID.randomUUID());
+        when(sectionRepository.findAll()).thenReturn(List.of(section));
+
+        studentService = new StudentServiceImpl(studentRepository, sectionRepository,
+                mock(AttendanceRepository.class), new CsvServiceImpl(),
+                mock(ApplicationEventPublisher.class), mock(EntityManager.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRowsAreReportedAndOnlyNewStudentsInserted() throws Exception {
+        when(studentRepository.findExistingRegNums(anyCollection())).thenReturn(List.of("2200030001"));
+        when(studentRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        String csv = """
+                ID,NAME,EMAIL,BRANCH
+                2200030001,Existing,existing@kluniversity.in,CSE
+                2200030002,New One,new1@kluniversity.in,CSE
+                2200030003,Bad Email,not-an-email,CSE
+                2200030002,Repeated,other@kluniversity.in,CSE
+                2200030004,Bad Branch,b@kluniversity.in,ZZZ
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "students.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        StudentImportReportDTO report = studentService.bulkCreateStudents(file);
+
+        assertEquals(5, report.getTotalRows());
+        assertEquals(1, report.getCreated());
+        assertEquals(2, report.getDuplicates());
+        assertEquals(2, report.getInvalid());
+        assertEquals(List.of(RowStatus.DUPLICATE, RowStatus.CREATED, RowStatus.INVALID, RowStatus.DUPLICATE,
+                        RowStatus.INVALID),
+                report.getRows().stream().map(StudentImportReportDTO.RowResultDTO::getStatus).toList());
+        assertEquals(2, report.getRows().get(1).getRowNumber());
+
+        // One existence query per chunk, one batch insert
+        verify(studentRepository, times(1)).findExistingRegNums(anyCollection());
+        verify(studentRepository, never()).existsByRegNum(anyString());
+        ArgumentCaptor<List<Student>> saved = ArgumentCaptor.forClass(List.class);
+        verify(studentRepository, times(1)).saveAll(saved.capture());
+        assertEquals("2200030002", saved.getValue().get(0).getRegNum());
+    }
+}
@@ -0,0 +1,102 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.dto.TimetableUploadResponseDTO;
+import com.crt.server.event.TimetableChangedEvent;
+import com.crt.server.model.*;
+import com.crt.server.repository.*;
+import com.crt.server.util.TimeOfDay;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.StringReader;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TimetableUploadPlannerTest {
+
+    private SectionRepository sectionRepository;
+    private TimeSlotRepository timeSlotRepository;
+    private UserRepository userRepository;
+    private SectionScheduleRepository sectionScheduleRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private TimetableUploadPlanner planner;
+
+    private final Room room = Room.builder().id(UUID.randomUUID()).block("C").floor("4").roomNumber("01")
+            .roomType(RoomType.LECTURE_ROOM).capacity(60).build();
+    private final Room otherRoom = Room.builder().id(UUID.randomUUID()).block("C").floor("4").roomNumber("02")
+            .roomType(RoomType.LECTURE_ROOM).capacity(60).build();
+    private final Section s1 = Section.builder().id(UUID.randomUUID()).name("S1").strength(40).build();
+    private final Section s2 = Section.builder().id(UUID.randomUUID()).name("S2").strength(40).build();
+    private final User f1 = User.builder().id(UUID.randomUUID()).employeeId("F1").name("One").build();
+    private final User f2 = User.builder().id(UUID.randomUUID()).employeeId("F2").name("Two").build();
+
+    @BeforeEach
+    void setUp() {
+        sectionRepository = mock(SectionRepository.class);
+        timeSlotRepository = mock(TimeSlotRepository.class);
+        userRepository = mock(UserRepository.class);
+        sectionScheduleRepository = mock(SectionScheduleRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+
+        when(sectionRepository.findByNameIn(anyCollection())).thenReturn(List.of(s1));
+        when(roomRepository.findAll()).thenReturn(new ArrayList<>(List.of(room, otherRoom)));
+        when(userRepository.findByEmployeeIdIn(anyCollection())).thenReturn(List.of(f1, f2));
+        when(sectionScheduleRepository.findBySectionIdIn(anyCollection())).thenReturn(List.of(
+                SectionSchedule.builder().id(UUID.randomUUID()).section(s1).room(room).build()));
+
+        planner = new TimetableUploadPlanner(sectionRepository, roomRepository, mock(TrainingRepository.class),
+                userRepository, sectionScheduleRepository, timeSlotRepository, eventPublisher);
+    }
+
+    @Test
+    void testPlanKeepsIdenticalSlotsReplacesChangedOnesAndReportsConflicts() throws Exception {
+        TimeSlot unchanged = slot(1, s1, f1, room, "09:20", "10:10");
+        TimeSlot changed = slot(2, s1, f1, room, "10:10", "11:00");
+        // Another section already has F2 at 11:10 in a different room
+        TimeSlot busy = slot(3, s2, f2, otherRoom, "11:10", "12:00");
+        when(timeSlotRepository.findByDayOfWeek(DayOfWeek.MONDAY)).thenReturn(List.of(unchanged, changed, busy));
+
+        TimetableUploadPlanner.TimetablePlan plan = planner.plan(records("""
+                TIMETABLE
+                DAY,SECTIONS,Class,ROOMNO,P1,P2,P3,P4
+                MONDAY,S1,CRT,C401,F1,F2,F2,
+                """));
+        TimetableUploadResponseDTO report = plan.toResponse(true);
+
+        assertEquals(1, report.getUnchangedTimeSlots());
+        assertEquals(1, report.getDeletedTimeSlots());
+        assertEquals(2, report.getCreatedTimeSlots());
+        assertEquals(1, report.getConflicts().size());
+        assertTrue(report.getConflicts().get(0).startsWith("Faculty F2"));
+        assertEquals(DayOfWeek.MONDAY, report.getDayOfWeek());
+
+        // Dictionaries are loaded once, never per row
+        verify(sectionRepository, never()).findByName(anyString());
+        verify(userRepository, never()).findByEmployeeId(anyString());
+        verifyNoInteractions(eventPublisher);
+
+        planner.apply(plan);
+        verify(timeSlotRepository).deleteAllByIdInBatch(List.of(2));
+        verify(timeSlotRepository).saveAll(argThat(slots -> ((List<?>) slots).size() == 2));
+        verify(eventPublisher).publishEvent(any(TimetableChangedEvent.class));
+    }
+
+    private TimeSlot slot(int id, Section section, User faculty, Room room, String start, String end) {
+        return TimeSlot.builder().id(id).section(section).inchargeFaculty(faculty).room(room)
+                .startMinute(TimeOfDay.parse(start)).endMinute(TimeOfDay.parse(end)).title("CRT").dayOfWeek(DayOfWeek.MONDAY).build();
+    }
+
+    private List<CSVRecord> records(String csv) throws Exception {
+        return CSVFormat.DEFAULT.parse(new StringReader(csv)).getRecords();
+    }
+}
@@ -0,0 +1,95 @@
+package com.crt.server.service.impl;
+
+import com.crt.server.config.AttendanceStreamConfig;
+import com.crt.server.dto.websocket.AttendanceDeltaEvent;
+import com.crt.server.dto.websocket.AttendanceSessionEvent;
+import com.crt.server.dto.websocket.AttendanceSessionEvent.StudentAttendanceUpdate;
+import com.crt.server.dto.websocket.FacultySessionEvent;
+import com.crt.server.dto.websocket.WebSocketMessage;
+import com.crt.server.event.AttendanceMarkedEvent;
+import com.crt.server.service.AttendanceStreamService;
+import com.crt.server.service.PresenceService;
+import com.crt.server.service.WebSocketFanout;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WebSocketServiceImplTest {
+
+    private final WebSocketFanout webSocketFanout = mock(WebSocketFanout.class);
+    private final PresenceService presenceService = mock(PresenceService.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AttendanceStreamService attendanceStreamService;
+    private WebSocketServiceImpl webSocketService;
+
+    @BeforeEach
+    void setUp() {
+        AttendanceStreamConfig config = new AttendanceStreamConfig();
+        config.setWindow(Duration.ofMillis(50));
+        attendanceStreamService = new AttendanceStreamService(webSocketFanout, config);
+        webSocketService = new WebSocketServiceImpl(webSocketFanout, attendanceStreamService,
+                meterRegistry, presenceService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        attendanceStreamService.shutdown();
+    }
+
+    @Test
+    void testOfflineUserGetsNothing() {
+        when(presenceService.isOnline("faculty1")).thenReturn(false);
+
+        webSocketService.notifyFacultySessionStarted("faculty1", FacultySessionEvent.builder().build());
+        webSocketService.sendToUser("faculty1", "pong", "alive");
+
+        verify(webSocketFanout, never()).sendToUser(any(), any(), any());
+        assertEquals(2, meterRegistry.counter("crt.websocket.skipped.offline",
+                "event", FacultySessionEvent.SESSION_STARTED).count()
+                + meterRegistry.counter("crt.websocket.skipped.offline", "event", "pong").count());
+    }
+
+    @Test
+    void testOnlineUserIsReachedByUsername() {
+        when(presenceService.isOnline("faculty1")).thenReturn(true);
+
+        webSocketService.notifyFacultySessionStarted("faculty1", FacultySessionEvent.builder().build());
+
+        verify(webSocketFanout).sendToUser(eq("faculty1"), eq("/queue/messages"), any());
+    }
+
+    @Test
+    void testCommittedMarksReachTheSectionStream() {
+        AttendanceSessionEvent marked = AttendanceSessionEvent.builder()
+                .sectionId("s1")
+                .recentUpdates(List.of(
+                        StudentAttendanceUpdate.builder().studentId("a").present(false).build(),
+                        StudentAttendanceUpdate.builder().studentId("b").present(true).build()))
+                .build();
+        AttendanceSessionEvent stats = AttendanceSessionEvent.builder()
+                .sectionId("s1")
+                .totalStudents(2)
+                .presentCount(1)
+                .absentCount(1)
+                .build();
+
+        webSocketService.onAttendanceMarked(new AttendanceMarkedEvent("s1", marked, stats));
+
+        ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+        verify(webSocketFanout, timeout(1000)).send(eq("/topic/section_s1"), frame.capture());
+        AttendanceDeltaEvent delta = (AttendanceDeltaEvent) ((WebSocketMessage) frame.getValue()).getData();
+        assertEquals(2, delta.getStudents().size());
+        assertEquals(1, delta.getPresentCount());
+        assertEquals(1, delta.getAbsentCount());
+    }
+}
@@ -0,0 +1,102 @@
+package com.crt.server.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTest {
+
+    @Test
+    void testReadsPagesAfterTheLastRowSeen() {
+        List<Integer> rows = IntStream.rangeClosed(1, 7).boxed().toList();
+        List<Integer> afters = new ArrayList<>();
+        KeysetCursor<Integer> cursor = new KeysetCursor<>(3, (last, page) -> {
+            afters.add(last);
+            return page(rows, last, page);
+        });
+
+        List<Integer> read = new ArrayList<>();
+        cursor.forEachRemaining(read::add);
+
+        assertEquals(rows, read);
+        // The short third page ends the cursor without another query
+        assertEquals(Arrays.asList(null, 3, 6), afters);
+        assertThrows(NoSuchElementException.class, cursor::next);
+    }
+
+    @Test
+    void testFullLastPageNeedsOneEmptyRead() {
+        List<Integer> rows = List.of(1, 2, 3, 4);
+        int[] queries = {0};
+        KeysetCursor<Integer> cursor = new KeysetCursor<>(2, (last, page) -> {
+            queries[0]++;
+            return page(rows, last, page);
+        });
+
+        cursor.forEachRemaining(row -> {
+        });
+
+        assertEquals(3, queries[0]);
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    void testJsonArrayStreamReadsOnlyTheFirstPageUpFront() throws Exception {
+        List<Integer> rows = IntStream.rangeClosed(1, 5).boxed().toList();
+        int[] queries = {0};
+        Iterator<Integer> cursor = new KeysetCursor<>(2, (last, page) -> {
+            queries[0]++;
+            return page(rows, last, page);
+        });
+
+        StreamingResponseBody body = JsonArrayStream.of(new ObjectMapper(), cursor);
+        assertEquals(1, queries[0]);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        assertEquals("[1,2,3,4,5]", out.toString());
+        assertEquals(3, queries[0]);
+    }
+
+    @Test
+    void testJsonArrayStreamWritesEmptyArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonArrayStream.of(new ObjectMapper(), List.of().iterator()).writeTo(out);
+
+        assertEquals("[]", out.toString());
+    }
+
+    @Test
+    void testJsonArrayStreamLeavesArrayOpenWhenALaterPageFails() {
+        List<Integer> rows = IntStream.rangeClosed(1, 5).boxed().toList();
+        Iterator<Integer> cursor = new KeysetCursor<>(2, (last, page) -> {
+            if (last != null) {
+                throw new IllegalStateException("connection lost");
+            }
+            return page(rows, last, page);
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResponseBody body = JsonArrayStream.of(new ObjectMapper(), cursor);
+        assertThrows(IllegalStateException.class, () -> body.writeTo(out));
+        assertEquals("[1,2", out.toString());
+    }
+
+    private static List<Integer> page(List<Integer> rows, Integer last, Pageable page) {
+        return rows.stream()
+                .filter(row -> last == null || row > last)
+                .limit(page.getPageSize())
+                .toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.crt.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MailTemplateTest {
+
+    @Test
+    void testRendersVariablesAndKeepsCss() {
+        MailTemplate template = MailTemplate.compile(
+                "<style>p { color: red; }</style><p>Hi {{ name }}, you are at {{attendance}}%</p>");
+
+        assertEquals(Set.of("name", "attendance"), template.getVariables());
+        assertEquals("<style>p { color: red; }</style><p>Hi Asha, you are at 71.5%</p>",
+                template.render(Map.of("name", "Asha", "attendance", "71.5")));
+    }
+
+    @Test
+    void testValuesAreEscapedAndMissingOnesRenderEmpty() {
+        MailTemplate template = MailTemplate.compile("<b>{{name}}</b>{{section}}");
+
+        assertEquals("<b>R&amp;D &lt;lab&gt;</b>", template.render(name -> name.equals("name") ? "R&D <lab>" : null));
+    }
+
+    @Test
+    void testTextTemplatesInsertValuesAsIs() {
+        MailTemplate subject = MailTemplate.compileText("Attendance alert for {{name}} <{{regNum}}>")
+                .bind(Map.of("regNum", "R&D"));
+
+        assertEquals("Attendance alert for O'Brien <R&D>", subject.render(Map.of("name", "O'Brien")));
+    }
+
+    @Test
+    void testBindFoldsFixedValuesIntoLiterals() {
+        MailTemplate bound = MailTemplate.compile("<a href='{{clientUrl}}'>{{otp}}</a>")
+                .bind(Map.of("clientUrl", "https://crt.example"));
+
+        assertEquals(Set.of("otp"), bound.getVariables());
+        assertEquals("<a href='https://crt.example'>123456</a>", bound.render(Map.of("otp", "123456")));
+    }
+
+    @Test
+    void testRejectsMalformedAndUnknownVariables() {
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("Hi {{name"));
+        assertThrows(IllegalArgumentException.class, () -> MailTemplate.compile("Hi {{ }}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> MailTemplate.compile("{{password}}").requireVariables(Set.of("name")));
+    }
+}
@@ -0,0 +1,52 @@
+package com.crt.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOfDayTest {
+
+    @Test
+    void testParsesMorningAndTwentyFourHourTimes() {
+        assertEquals(9 * 60, TimeOfDay.parse("09:00"));
+        assertEquals(8 * 60 + 5, TimeOfDay.parse("8:05"));
+        assertEquals(12 * 60 + 40, TimeOfDay.parse("12:40"));
+        assertEquals(14 * 60 + 30, TimeOfDay.parse(" 14:30 "));
+    }
+
+    @Test
+    void testApiTimesAreTwentyFourHour() {
+        assertEquals(60 + 50, TimeOfDay.parse("01:50"));
+        assertEquals(7 * 60 + 59, TimeOfDay.parse("07:59"));
+        assertTrue(TimeOfDay.parse("01:50") < TimeOfDay.parse("12:40"));
+    }
+
+    @Test
+    void testEarlyTimetableHoursAreAfternoonSlots() {
+        assertEquals(13 * 60 + 50, TimeOfDay.parseTimetable("01:50"));
+        assertEquals(15 * 60 + 30, TimeOfDay.parseTimetable("3:30"));
+        assertEquals(8 * 60, TimeOfDay.parseTimetable("08:00"));
+        assertEquals(14 * 60 + 30, TimeOfDay.parseTimetable("14:30"));
+        assertTrue(TimeOfDay.parseTimetable("01:50") > TimeOfDay.parseTimetable("12:40"));
+    }
+
+    @Test
+    void testRejectsMalformedTimes() {
+        for (String time : new String[]{null, "", "9", "9:5", "09:60", "24:00", "ab:cd", "123:00", "09:00:00"}) {
+            assertThrows(IllegalArgumentException.class, () -> TimeOfDay.parse(time), String.valueOf(time));
+            assertThrows(IllegalArgumentException.class, () -> TimeOfDay.parseTimetable(time), String.valueOf(time));
+        }
+    }
+
+    @Test
+    void testFormatsAndConverts() {
+        assertEquals("09:05", TimeOfDay.format(9 * 60 + 5));
+        assertEquals("13:50", TimeOfDay.format(TimeOfDay.parseTimetable("01:50")));
+        assertEquals("01:50", TimeOfDay.format(TimeOfDay.parse("01:50")));
+        assertNull(TimeOfDay.format(null));
+        assertEquals(LocalTime.of(13, 50), TimeOfDay.toLocalTime(830));
+        assertEquals(830, TimeOfDay.of(LocalTime.of(13, 50, 59)));
+    }
+}